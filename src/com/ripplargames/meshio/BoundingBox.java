@@ -0,0 +1,86 @@
+package com.ripplargames.meshio;
+
+public class BoundingBox {
+    private final float minX;
+    private final float minY;
+    private final float minZ;
+    private final float maxX;
+    private final float maxY;
+    private final float maxZ;
+
+    public BoundingBox(float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    public float minX() {
+        return minX;
+    }
+
+    public float minY() {
+        return minY;
+    }
+
+    public float minZ() {
+        return minZ;
+    }
+
+    public float maxX() {
+        return maxX;
+    }
+
+    public float maxY() {
+        return maxY;
+    }
+
+    public float maxZ() {
+        return maxZ;
+    }
+
+    public float centerX() {
+        return (minX + maxX) * 0.5f;
+    }
+
+    public float centerY() {
+        return (minY + maxY) * 0.5f;
+    }
+
+    public float centerZ() {
+        return (minZ + maxZ) * 0.5f;
+    }
+
+    public boolean isEmpty() {
+        return !(minX <= maxX && minY <= maxY && minZ <= maxZ);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        BoundingBox that = (BoundingBox) o;
+
+        return Float.compare(that.minX, minX) == 0 && Float.compare(that.minY, minY) == 0 && Float.compare(that.minZ, minZ) == 0
+                && Float.compare(that.maxX, maxX) == 0 && Float.compare(that.maxY, maxY) == 0 && Float.compare(that.maxZ, maxZ) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Float.floatToIntBits(minX);
+        result = 31 * result + Float.floatToIntBits(minY);
+        result = 31 * result + Float.floatToIntBits(minZ);
+        result = 31 * result + Float.floatToIntBits(maxX);
+        result = 31 * result + Float.floatToIntBits(maxY);
+        result = 31 * result + Float.floatToIntBits(maxZ);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingBox{min=(" + minX + ", " + minY + ", " + minZ + "), max=(" + maxX + ", " + maxY + ", " + maxZ + ")}";
+    }
+}
@@ -0,0 +1,36 @@
+package com.ripplargames.meshio;
+
+public class BoundingSphere {
+    private final float centerX;
+    private final float centerY;
+    private final float centerZ;
+    private final float radius;
+
+    public BoundingSphere(float centerX, float centerY, float centerZ, float radius) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.centerZ = centerZ;
+        this.radius = radius;
+    }
+
+    public float centerX() {
+        return centerX;
+    }
+
+    public float centerY() {
+        return centerY;
+    }
+
+    public float centerZ() {
+        return centerZ;
+    }
+
+    public float radius() {
+        return radius;
+    }
+
+    @Override
+    public String toString() {
+        return "BoundingSphere{center=(" + centerX + ", " + centerY + ", " + centerZ + "), radius=" + radius + '}';
+    }
+}
@@ -0,0 +1,226 @@
+package com.ripplargames.meshio;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ripplargames.meshio.indices.IMeshType;
+import com.ripplargames.meshio.indices.IndicesDataType;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.vertices.VertexFormat;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * An immutable snapshot of a {@link Mesh}, created with {@link Mesh#freeze()}, that is safe to share between threads.
+ * Vertex and index buffers are built once per format, on the first request, and every caller receives its own
+ * read-only view of the shared buffer. Concurrent requests for a buffer that is still being built wait for it.
+ * Built buffers are kept only while their total stays within the byte count of the mesh data, later ones are returned
+ * without being kept.
+ */
+public final class FrozenMesh {
+    private final Mesh mesh;
+    private final BoundingBox boundingBox;
+    private final BoundingSphere boundingSphere;
+    private final ConcurrentMap<Object, FutureTask<ByteBuffer>> buffers = new ConcurrentHashMap<Object, FutureTask<ByteBuffer>>();
+    private final AtomicLong bufferByteCount = new AtomicLong();
+    private final long dataByteCount;
+
+    FrozenMesh(Mesh mesh) {
+        this.mesh = mesh;
+        for (VertexType vertexType : mesh.vertexTypes()) {
+            // Validates the lazily maintained bounds now so reads never write to the columns.
+            ResizableFloatArray data = mesh.vertexTypeData(vertexType);
+            data.min();
+            data.max();
+        }
+        boolean hasPositions = mesh.hasVertexTypeData(VertexType.Position_X)
+                && mesh.hasVertexTypeData(VertexType.Position_Y)
+                && mesh.hasVertexTypeData(VertexType.Position_Z);
+        BoundingBox box = null;
+        BoundingSphere sphere = null;
+        if (hasPositions) {
+            try {
+                box = mesh.boundingBox();
+                sphere = mesh.boundingSphere();
+            } catch (MeshIOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        this.boundingBox = box;
+        this.boundingSphere = sphere;
+        this.dataByteCount = 4L * mesh.vertexTypes().size() * mesh.vertexCount() + 12L * mesh.faceCount();
+    }
+
+    public int vertexCount() {
+        return mesh.vertexCount();
+    }
+
+    public int faceCount() {
+        return mesh.faceCount();
+    }
+
+    public Set<VertexType> vertexTypes() {
+        return mesh.vertexTypes();
+    }
+
+    public boolean hasVertexTypeData(VertexType vertexType) {
+        return mesh.hasVertexTypeData(vertexType);
+    }
+
+    public float vertexTypeDatum(VertexType vertexType, int vertexIndex) {
+        return mesh.vertexTypeDatum(vertexType, vertexIndex);
+    }
+
+    public float[] vertexTypeData(VertexType vertexType) {
+        ResizableFloatArray data = mesh.vertexTypeData(vertexType);
+        return (data == null) ? null : data.copyArray();
+    }
+
+    public Face face(int faceIndex) {
+        return mesh.face(faceIndex);
+    }
+
+    public List<Face> faces() {
+        return Collections.unmodifiableList(mesh.faces());
+    }
+
+    public float min(VertexType vertexType) throws MeshIOException {
+        return mesh.min(vertexType);
+    }
+
+    public float max(VertexType vertexType) throws MeshIOException {
+        return mesh.max(vertexType);
+    }
+
+    public BoundingBox boundingBox() throws MeshIOException {
+        if (boundingBox == null) {
+            throw new MeshIOException("There must be (x,y,z) position data present");
+        }
+        return boundingBox;
+    }
+
+    public BoundingSphere boundingSphere() throws MeshIOException {
+        if (boundingSphere == null) {
+            throw new MeshIOException("There must be (x,y,z) position data present");
+        }
+        return boundingSphere;
+    }
+
+    public ByteBuffer vertices(final VertexFormat vertexFormat) throws MeshIOException {
+        return buffer(vertexFormat, new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() throws MeshIOException {
+                return mesh.vertices(vertexFormat);
+            }
+        });
+    }
+
+    public ByteBuffer indices(final IMeshType meshType, final IndicesDataType indicesDataType) throws MeshIOException {
+        return buffer(new IndicesKey(meshType, indicesDataType), new Callable<ByteBuffer>() {
+            @Override
+            public ByteBuffer call() throws MeshIOException {
+                return mesh.indices(meshType, indicesDataType);
+            }
+        });
+    }
+
+    /**
+     * Returns the number of bytes held by the vertex and face data plus the most that kept buffers may add to it.
+     */
+    public long estimatedByteCount() {
+        return 2 * dataByteCount;
+    }
+
+    long bufferByteCount() {
+        return bufferByteCount.get();
+    }
+
+    /**
+     * Returns a mutable copy of the snapshot.
+     */
+    public Mesh toMesh() {
+        return mesh.copy();
+    }
+
+    private ByteBuffer buffer(Object key, Callable<ByteBuffer> builder) throws MeshIOException {
+        FutureTask<ByteBuffer> task = buffers.get(key);
+        boolean built = false;
+        if (task == null) {
+            FutureTask<ByteBuffer> newTask = new FutureTask<ByteBuffer>(builder);
+            task = buffers.putIfAbsent(key, newTask);
+            if (task == null) {
+                task = newTask;
+                task.run();
+                built = true;
+            }
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = task.get();
+            if (built && !reserve(buffer.capacity())) {
+                buffers.remove(key, task);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MeshIOException("Interrupted while waiting for a buffer", e);
+        } catch (ExecutionException e) {
+            // Failed builds are not cached so that a later request can try again.
+            buffers.remove(key, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof MeshIOException) {
+                throw (MeshIOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MeshIOException("Failed to create buffer", cause);
+        }
+        return buffer.asReadOnlyBuffer().order(buffer.order());
+    }
+
+    private boolean reserve(long byteCount) {
+        while (true) {
+            long current = bufferByteCount.get();
+            if (current + byteCount > dataByteCount) {
+                return false;
+            }
+            if (bufferByteCount.compareAndSet(current, current + byteCount)) {
+                return true;
+            }
+        }
+    }
+
+    private static final class IndicesKey {
+        private final IMeshType meshType;
+        private final IndicesDataType indicesDataType;
+
+        private IndicesKey(IMeshType meshType, IndicesDataType indicesDataType) {
+            this.meshType = meshType;
+            this.indicesDataType = indicesDataType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            IndicesKey that = (IndicesKey) o;
+            return meshType.equals(that.meshType)
+                    && indicesDataType.equals(that.indicesDataType);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * meshType.hashCode() + indicesDataType.hashCode();
+        }
+    }
+}
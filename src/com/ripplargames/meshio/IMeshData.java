@@ -0,0 +1,30 @@
+package com.ripplargames.meshio;
+
+import java.util.Set;
+
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Read access to mesh data in batches, which is all the format writers need. Vertex data past the end of a shorter
+ * column reads as zero.
+ */
+public interface IMeshData {
+    int vertexCount();
+
+    int faceCount();
+
+    Set<VertexType> vertexTypes();
+
+    boolean hasVertexTypeData(VertexType vertexType);
+
+    float min(VertexType vertexType) throws MeshIOException;
+
+    float max(VertexType vertexType) throws MeshIOException;
+
+    void readVertexData(VertexType vertexType, int firstVertex, float[] dst, int vertexCount) throws MeshIOException;
+
+    /**
+     * Copies faceCount faces as three consecutive vertex indices each into the start of dst.
+     */
+    void readFaces(int firstFace, int[] dst, int faceCount) throws MeshIOException;
+}
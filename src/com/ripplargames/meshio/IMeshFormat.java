@@ -8,5 +8,17 @@ public interface IMeshFormat {
 
     Mesh read(InputStream is) throws MeshIOException;
 
+    Mesh read(InputStream is, int expectedVertexCount, int expectedFaceCount) throws MeshIOException;
+
+    void read(InputStream is, IMeshSink sink) throws MeshIOException;
+
     void write(Mesh mesh, OutputStream os) throws MeshIOException;
+
+    void write(IMeshData data, OutputStream os) throws MeshIOException;
+
+    /**
+     * Returns a sink that writes the mesh described by the header to os as its data arrives, or null when this format
+     * needs more than the header tells before it can start. The sink flushes os on {@link IMeshSink#end()}.
+     */
+    IMeshSink streamingWriter(MeshHeader header, OutputStream os) throws MeshIOException;
 }
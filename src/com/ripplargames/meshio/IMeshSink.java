@@ -0,0 +1,27 @@
+package com.ripplargames.meshio;
+
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Receives a mesh as it is read, without it having to be materialized. {@link #begin(MeshHeader)} is called first and
+ * {@link #end()} last. In between, vertex data and faces arrive in batches. The batches of one vertex type, and the
+ * batches of faces, arrive in increasing index order, but the different vertex types and the faces may be interleaved
+ * in any order. The arrays are reused by the caller once a call returns, so a sink must copy what it keeps.
+ */
+public interface IMeshSink {
+    void begin(MeshHeader header) throws MeshIOException;
+
+    /**
+     * Called by formats that only learn the face count after {@link #begin(MeshHeader)}, before the first faces.
+     */
+    void expectFaces(int faceCount) throws MeshIOException;
+
+    void vertexData(VertexType vertexType, int firstVertex, float[] data, int vertexCount) throws MeshIOException;
+
+    /**
+     * Receives faceCount faces as three consecutive vertex indices each, starting at index 0 of the array.
+     */
+    void faces(int firstFace, int[] indices, int faceCount) throws MeshIOException;
+
+    void end() throws MeshIOException;
+}
@@ -0,0 +1,358 @@
+package com.ripplargames.meshio;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import com.ripplargames.meshio.util.AMappedArray;
+import com.ripplargames.meshio.util.BufferUtil;
+import com.ripplargames.meshio.util.ChunkedBuffer;
+import com.ripplargames.meshio.util.IChunkTask;
+import com.ripplargames.meshio.util.IRangeTask;
+import com.ripplargames.meshio.util.MappedFloatArray;
+import com.ripplargames.meshio.util.MappedIntArray;
+import com.ripplargames.meshio.util.ParallelUtil;
+import com.ripplargames.meshio.vertices.AVertexInterleaver;
+import com.ripplargames.meshio.vertices.VertexFormat;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * A mesh whose vertex type columns and faces live in memory-mapped temporary files rather than on the heap, so meshes
+ * larger than the heap can be built, read from any format as a sink, written to any format and interleaved. The files
+ * grow by mapping further segments and are deleted on {@link #close()}, after which the mesh must not be used.
+ */
+public class MappedMesh implements IMeshData, IMeshSink, Closeable {
+    private static final int MIN_PARALLEL_RANGE_LENGTH = 1 << 14;
+
+    private final File directory;
+    private final int segmentShift;
+    private final MappedIntArray faceIndices;
+    private final MappedFloatArray[] vertexTypeData = new MappedFloatArray[VertexType.values().length];
+    private int maxVertexCount;
+    private int vertexCapacity;
+
+    /**
+     * Creates the mesh with its files in a new directory inside the parent, or inside the default temporary directory
+     * when the parent is null.
+     */
+    public MappedMesh(File parent) throws MeshIOException {
+        this(parent, AMappedArray.DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Creates the mesh mapping its files in segments of 2^segmentShift values.
+     */
+    public MappedMesh(File parent, int segmentShift) throws MeshIOException {
+        this.segmentShift = segmentShift;
+        try {
+            directory = File.createTempFile("meshmap", "", parent);
+            if (!directory.delete() || !directory.mkdir()) {
+                throw new MeshIOException("Cannot create mapped mesh directory: " + directory);
+            }
+            faceIndices = new MappedIntArray(new File(directory, "faces"), segmentShift);
+        } catch (IOException e) {
+            throw new MeshIOException("Cannot create mapped mesh directory", e);
+        }
+    }
+
+    @Override
+    public int vertexCount() {
+        return maxVertexCount;
+    }
+
+    @Override
+    public int faceCount() {
+        return faceIndices.length() / 3;
+    }
+
+    public ByteBuffer vertices(VertexFormat vertexFormat) throws MeshIOException {
+        return vertices(vertexFormat, 0, maxVertexCount);
+    }
+
+    /**
+     * Interleaves only vertices [firstVertex, firstVertex + vertexCount), so a mesh whose whole vertex buffer would not
+     * fit in memory can be uploaded range by range.
+     */
+    public ByteBuffer vertices(VertexFormat vertexFormat, int firstVertex, int vertexCount) throws MeshIOException {
+        checkVertexFormat(vertexFormat);
+        ByteBuffer buffer = BufferUtil.createByteBuffer(BufferUtil.byteCount(vertexCount, vertexFormat.byteCount()));
+        vertexFormat.interleaver().interleave(this, firstVertex, vertexCount, buffer, 0);
+        return buffer;
+    }
+
+    public ByteBuffer vertices(VertexFormat vertexFormat, ExecutorService executor) throws MeshIOException {
+        checkVertexFormat(vertexFormat);
+        final AVertexInterleaver interleaver = vertexFormat.interleaver();
+        final int byteCount = vertexFormat.byteCount();
+        final ByteBuffer buffer = BufferUtil.createByteBuffer(BufferUtil.byteCount(maxVertexCount, byteCount));
+        ParallelUtil.forRange(executor, maxVertexCount, MIN_PARALLEL_RANGE_LENGTH, new IRangeTask() {
+            @Override
+            public void run(int start, int end) throws MeshIOException {
+                interleaver.interleave(MappedMesh.this, start, end - start, buffer, start * byteCount);
+            }
+        });
+        return buffer;
+    }
+
+    public List<ByteBuffer> vertexChunks(VertexFormat vertexFormat, int maxChunkByteCount) throws MeshIOException {
+        return vertexChunks(vertexFormat, maxChunkByteCount, null);
+    }
+
+    /**
+     * Returns the interleaved vertices split over buffers of at most maxChunkByteCount bytes, each holding whole
+     * vertices.
+     */
+    public List<ByteBuffer> vertexChunks(VertexFormat vertexFormat, int maxChunkByteCount, ExecutorService executor) throws MeshIOException {
+        checkVertexFormat(vertexFormat);
+        final AVertexInterleaver interleaver = vertexFormat.interleaver();
+        ChunkedBuffer chunked = new ChunkedBuffer(maxVertexCount, vertexFormat.byteCount(), 1, maxChunkByteCount);
+        chunked.fill(executor, MIN_PARALLEL_RANGE_LENGTH, new IChunkTask() {
+            @Override
+            public void run(int firstElement, int elementCount, ByteBuffer chunk, int chunkOffset) throws MeshIOException {
+                interleaver.interleave(MappedMesh.this, firstElement, elementCount, chunk, chunkOffset);
+            }
+        });
+        return chunked.chunks();
+    }
+
+    private void checkVertexFormat(VertexFormat vertexFormat) throws MeshIOException {
+        AVertexInterleaver interleaver = vertexFormat.interleaver();
+        for (int partIndex = 0; partIndex < interleaver.partCount(); partIndex++) {
+            VertexType vertexType = interleaver.vertexType(partIndex);
+            if (!hasVertexTypeData(vertexType)) {
+                throw new MeshIOException("No data found for vertex type: " + vertexType.name());
+            }
+        }
+    }
+
+    public void appendFace(Face face) {
+        appendFace(face.getV0(), face.getV1(), face.getV2());
+    }
+
+    public void appendFace(int v0, int v1, int v2) {
+        appendFaces(new int[]{v0, v1, v2}, 0, 1);
+    }
+
+    public void appendFaces(int[] indices, int offset, int faceCount) {
+        setFaces(faceCount(), indices, offset, faceCount);
+    }
+
+    private void setFaces(int firstFace, int[] indices, int offset, int faceCount) {
+        int indexCount = 3 * faceCount;
+        faceIndices.set(3 * firstFace, indices, offset, indexCount);
+        for (int index = offset; index < offset + indexCount; index++) {
+            maxVertexCount = Math.max(maxVertexCount, indices[index]);
+        }
+    }
+
+    public void ensureFaceCapacity(int capacity) {
+        faceIndices.ensureCapacity(3 * capacity);
+    }
+
+    public Face face(int faceIndex) {
+        int baseIndex = 3 * faceIndex;
+        return new Face(faceIndices.getAt(baseIndex), faceIndices.getAt(baseIndex + 1), faceIndices.getAt(baseIndex + 2));
+    }
+
+    public MappedIntArray faceIndices() {
+        return faceIndices;
+    }
+
+    public List<Face> faces() {
+        return new AbstractList<Face>() {
+            @Override
+            public Face get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Face index: " + index + ", face count: " + size());
+                }
+                return face(index);
+            }
+
+            @Override
+            public int size() {
+                return faceCount();
+            }
+        };
+    }
+
+    @Override
+    public boolean hasVertexTypeData(VertexType vertexType) {
+        return vertexTypeData[vertexType.ordinal()] != null;
+    }
+
+    @Override
+    public Set<VertexType> vertexTypes() {
+        Set<VertexType> vertexTypes = EnumSet.noneOf(VertexType.class);
+        for (VertexType vertexType : VertexType.values()) {
+            if (hasVertexTypeData(vertexType)) {
+                vertexTypes.add(vertexType);
+            }
+        }
+        return Collections.unmodifiableSet(vertexTypes);
+    }
+
+    @Override
+    public void readVertexData(VertexType vertexType, int firstVertex, float[] dst, int vertexCount) {
+        MappedFloatArray data = vertexTypeData(vertexType);
+        int available = (data == null) ? 0 : Math.max(0, Math.min(vertexCount, data.length() - firstVertex));
+        if (available > 0) {
+            data.get(firstVertex, dst, 0, available);
+        }
+        Arrays.fill(dst, available, vertexCount, 0);
+    }
+
+    @Override
+    public void readFaces(int firstFace, int[] dst, int faceCount) {
+        faceIndices.get(3 * firstFace, dst, 0, 3 * faceCount);
+    }
+
+    public MappedFloatArray vertexTypeData(VertexType vertexType) {
+        return vertexTypeData[vertexType.ordinal()];
+    }
+
+    public float vertexTypeDatum(VertexType vertexType, int vertexIndex) {
+        return vertexTypeData[vertexType.ordinal()].getAt(vertexIndex);
+    }
+
+    @Override
+    public float min(VertexType vertexType) throws MeshIOException {
+        return getExistingVertexTypeData(vertexType).min();
+    }
+
+    @Override
+    public float max(VertexType vertexType) throws MeshIOException {
+        return getExistingVertexTypeData(vertexType).max();
+    }
+
+    public BoundingBox boundingBox() throws MeshIOException {
+        MappedFloatArray xs = getExistingVertexTypeData(VertexType.Position_X);
+        MappedFloatArray ys = getExistingVertexTypeData(VertexType.Position_Y);
+        MappedFloatArray zs = getExistingVertexTypeData(VertexType.Position_Z);
+        return new BoundingBox(xs.min(), ys.min(), zs.min(), xs.max(), ys.max(), zs.max());
+    }
+
+    private MappedFloatArray getExistingVertexTypeData(VertexType vertexType) throws MeshIOException {
+        MappedFloatArray data = vertexTypeData(vertexType);
+        if (data == null) {
+            throw new MeshIOException("No data found for vertex type: " + vertexType.name());
+        }
+        return data;
+    }
+
+    public void setVertexTypeDatum(VertexType vertexType, int index, float datum) throws MeshIOException {
+        getValidVertexTypeData(vertexType).setAt(index, datum);
+        if (index >= maxVertexCount) {
+            maxVertexCount = index + 1;
+        }
+    }
+
+    public void setVertexTypeData(VertexType vertexType, float[] src, int srcOffset, int dstIndex, int length) throws MeshIOException {
+        if (length <= 0) {
+            return;
+        }
+        getValidVertexTypeData(vertexType).set(dstIndex, src, srcOffset, length);
+        int end = dstIndex + length;
+        if (end > maxVertexCount) {
+            maxVertexCount = end;
+        }
+    }
+
+    public void ensureVertexCapacity(int capacity) {
+        vertexCapacity = Math.max(vertexCapacity, capacity);
+        for (MappedFloatArray data : vertexTypeData) {
+            if (data != null) {
+                data.ensureCapacity(capacity);
+            }
+        }
+    }
+
+    private MappedFloatArray getValidVertexTypeData(VertexType vertexType) throws MeshIOException {
+        int ordinal = vertexType.ordinal();
+        MappedFloatArray data = vertexTypeData[ordinal];
+        if (data == null) {
+            try {
+                data = new MappedFloatArray(new File(directory, vertexType.name()), segmentShift);
+            } catch (IOException e) {
+                throw new MeshIOException("Cannot create mapped data for vertex type: " + vertexType.name(), e);
+            }
+            data.ensureCapacity(vertexCapacity);
+            vertexTypeData[ordinal] = data;
+        }
+        return data;
+    }
+
+    @Override
+    public void begin(MeshHeader header) {
+        ensureVertexCapacity(MeshHeader.presizeCount(header.vertexCount()));
+        ensureFaceCapacity(MeshHeader.presizeCount(header.faceCount()));
+    }
+
+    @Override
+    public void expectFaces(int faceCount) {
+        ensureFaceCapacity(MeshHeader.presizeCount(faceCount));
+    }
+
+    @Override
+    public void vertexData(VertexType vertexType, int firstVertex, float[] data, int vertexCount) throws MeshIOException {
+        setVertexTypeData(vertexType, data, 0, firstVertex, vertexCount);
+    }
+
+    @Override
+    public void faces(int firstFace, int[] indices, int faceCount) {
+        setFaces(firstFace, indices, 0, faceCount);
+    }
+
+    @Override
+    public void end() {
+    }
+
+    /**
+     * Copies the data onto the heap, for the operations that need a {@link Mesh}.
+     */
+    public Mesh toMesh() {
+        Mesh mesh = new Mesh(maxVertexCount, faceCount());
+        float[] column = new float[maxVertexCount];
+        for (VertexType vertexType : vertexTypes()) {
+            MappedFloatArray data = vertexTypeData(vertexType);
+            data.get(0, column, 0, data.length());
+            mesh.setVertexTypeData(vertexType, column, 0, 0, data.length());
+        }
+        int[] indices = new int[faceIndices.length()];
+        faceIndices.get(0, indices, 0, indices.length);
+        mesh.appendFaces(indices, 0, faceCount());
+        return mesh;
+    }
+
+    @Override
+    public void close() {
+        List<File> undeletedFiles = new ArrayList<File>();
+        for (int ordinal = 0; ordinal < vertexTypeData.length; ordinal++) {
+            if (vertexTypeData[ordinal] != null) {
+                if (!vertexTypeData[ordinal].closeAndDelete()) {
+                    undeletedFiles.add(vertexTypeData[ordinal].file());
+                }
+                vertexTypeData[ordinal] = null;
+            }
+        }
+        if (!faceIndices.closeAndDelete()) {
+            undeletedFiles.add(faceIndices.file());
+        }
+        maxVertexCount = 0;
+        if (!directory.delete()) {
+            // Files are deleted on exit in the reverse order of registration, so the directory goes after its files.
+            directory.deleteOnExit();
+            for (File file : undeletedFiles) {
+                file.deleteOnExit();
+            }
+        }
+    }
+}
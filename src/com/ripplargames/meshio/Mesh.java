@@ -1,100 +1,342 @@
 package com.ripplargames.meshio;
 
 import java.nio.ByteBuffer;
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
+import com.ripplargames.meshio.indices.AIndicesDataType;
 import com.ripplargames.meshio.indices.IMeshType;
 import com.ripplargames.meshio.indices.IndicesDataType;
+import com.ripplargames.meshio.indices.TriangleStripMeshType;
 import com.ripplargames.meshio.util.BufferUtil;
-import com.ripplargames.meshio.util.ImmutableIntArray;
+import com.ripplargames.meshio.util.ChunkedBuffer;
+import com.ripplargames.meshio.util.IChunkTask;
+import com.ripplargames.meshio.util.IRangeTask;
+import com.ripplargames.meshio.util.ParallelUtil;
 import com.ripplargames.meshio.util.ResizableFloatArray;
-import com.ripplargames.meshio.vertices.AlignedVertexFormatPart;
+import com.ripplargames.meshio.util.ResizableIntArray;
+import com.ripplargames.meshio.vertices.AVertexInterleaver;
 import com.ripplargames.meshio.vertices.VertexFormat;
-import com.ripplargames.meshio.vertices.VertexDataType;
 import com.ripplargames.meshio.vertices.VertexType;
 
-public class Mesh {
-    private final List<Face> faces = new ArrayList<Face>();
-    private final Map<VertexType, ResizableFloatArray> vertexTypeData = new HashMap<VertexType, ResizableFloatArray>();
+public class Mesh implements IMeshData {
+    private static final int MIN_PARALLEL_RANGE_LENGTH = 1 << 14;
+    private static final int MAX_INITIAL_INDEX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final ResizableIntArray faceIndices;
+    private final ResizableIntArray readOnlyFaceIndices;
+    private final ResizableFloatArray[] vertexTypeData = new ResizableFloatArray[VertexType.values().length];
     private int maxVertexCount;
+    private int vertexCapacity;
+    private final ResizableFloatArray[] boundingSphereColumns = new ResizableFloatArray[3];
+    private final int[] boundingSphereModificationCounts = new int[3];
+    private BoundingSphere boundingSphere;
+    private IMeshType elementsMeshType;
+    private ResizableIntArray elements;
+    private int elementsModificationCount;
+
+    public Mesh() {
+        this(0, 0);
+    }
 
+    public Mesh(int expectedVertexCount, int expectedFaceCount) {
+        this.faceIndices = new ResizableIntArray(2, (int) Math.min(MAX_INITIAL_INDEX_CAPACITY, 3L * Math.max(1, expectedFaceCount)));
+        this.readOnlyFaceIndices = faceIndices.readOnlyView();
+        this.vertexCapacity = Math.max(0, expectedVertexCount);
+    }
+
+    @Override
     public int vertexCount() {
         return maxVertexCount;
     }
 
+    @Override
     public int faceCount() {
-        return faces.size();
+        return faceIndices.length() / 3;
+    }
+
+    public ByteBuffer indices(IMeshType meshType) throws MeshIOException {
+        return indices(meshType, smallestIndicesDataType());
+    }
+
+    public IndicesDataType smallestIndicesDataType() {
+        int indexedVertexCount = (faceIndices.length() == 0) ? 0 : faceIndices.max() + 1;
+        return AIndicesDataType.smallestFor(Math.max(maxVertexCount, indexedVertexCount));
     }
 
     public ByteBuffer indices(IMeshType meshType, IndicesDataType indicesDataType) throws MeshIOException {
-        Set<ImmutableIntArray> filter = new HashSet<ImmutableIntArray>();
-        List<ImmutableIntArray> elements = new ArrayList<ImmutableIntArray>();
-        for (Face face : faces) {
-            ImmutableIntArray[] faceElements = meshType.createElements(face);
-            for (ImmutableIntArray faceElement : faceElements) {
-                if (filter.add(faceElement)) {
-                    elements.add(faceElement);
-                }
+        return indicesDataType.flatten(createElements(meshType));
+    }
+
+    public ByteBuffer indices(IMeshType meshType, final IndicesDataType indicesDataType, ExecutorService executor) throws MeshIOException {
+        final ResizableIntArray elements = createElements(meshType);
+        final int bytesPerDatum = indicesDataType.bytesPerDatum();
+        final ByteBuffer buffer = BufferUtil.createByteBuffer(BufferUtil.byteCount(elements.length(), bytesPerDatum));
+        ParallelUtil.forRange(executor, elements.length(), MIN_PARALLEL_RANGE_LENGTH, new IRangeTask() {
+            @Override
+            public void run(int start, int end) throws MeshIOException {
+                indicesDataType.flatten(elements, start, end - start, buffer, start * bytesPerDatum);
+            }
+        });
+        return buffer;
+    }
+
+    public List<ByteBuffer> indexChunks(IMeshType meshType, IndicesDataType indicesDataType, int maxChunkByteCount) throws MeshIOException {
+        return indexChunks(meshType, indicesDataType, maxChunkByteCount, null);
+    }
+
+    public List<ByteBuffer> indexChunks(IMeshType meshType, final IndicesDataType indicesDataType, int maxChunkByteCount, ExecutorService executor) throws MeshIOException {
+        final ResizableIntArray elements = createElements(meshType);
+        if (meshType instanceof TriangleStripMeshType) {
+            return TriangleStripMeshType.chunks(elements, indicesDataType, maxChunkByteCount);
+        }
+        ChunkedBuffer chunked = new ChunkedBuffer(elements.length(), indicesDataType.bytesPerDatum(), meshType.elementLength(), maxChunkByteCount);
+        chunked.fill(executor, MIN_PARALLEL_RANGE_LENGTH, new IChunkTask() {
+            @Override
+            public void run(int firstElement, int elementCount, ByteBuffer chunk, int chunkOffset) throws MeshIOException {
+                indicesDataType.flatten(elements, firstElement, elementCount, chunk, chunkOffset);
             }
+        });
+        return chunked.chunks();
+    }
+
+    public int indexCount(IMeshType meshType) throws MeshIOException {
+        return createElements(meshType).length();
+    }
+
+    /**
+     * Returns the elements of the last requested mesh type while the faces are unchanged, so asking for the index count
+     * before the indices does not build them twice.
+     */
+    private ResizableIntArray createElements(IMeshType meshType) throws MeshIOException {
+        if (meshType == elementsMeshType && elementsModificationCount == faceIndices.modificationCount()) {
+            return elements;
         }
-        return indicesDataType.flatten(elements, meshType.elementLength());
+        ResizableIntArray created = new ResizableIntArray(2, meshType.elementLength() * faceCount());
+        meshType.createElements(this, created);
+        elementsMeshType = meshType;
+        elements = created;
+        elementsModificationCount = faceIndices.modificationCount();
+        return created;
     }
 
     public ByteBuffer vertices(VertexFormat vertexFormat) throws MeshIOException {
-        for (VertexType vertexType : vertexFormat.vertexTypes()) {
+        AVertexInterleaver interleaver = vertexFormat.interleaver();
+        ResizableFloatArray[] columns = interleaverColumns(interleaver);
+        ByteBuffer buffer = BufferUtil.createByteBuffer(BufferUtil.byteCount(maxVertexCount, vertexFormat.byteCount()));
+        interleaver.interleave(columns, 0, maxVertexCount, buffer, 0);
+        return buffer;
+    }
+
+    public ByteBuffer vertices(VertexFormat vertexFormat, ExecutorService executor) throws MeshIOException {
+        final AVertexInterleaver interleaver = vertexFormat.interleaver();
+        final ResizableFloatArray[] columns = interleaverColumns(interleaver);
+        final int byteCount = vertexFormat.byteCount();
+        final ByteBuffer buffer = BufferUtil.createByteBuffer(BufferUtil.byteCount(maxVertexCount, byteCount));
+        ParallelUtil.forRange(executor, maxVertexCount, MIN_PARALLEL_RANGE_LENGTH, new IRangeTask() {
+            @Override
+            public void run(int start, int end) {
+                interleaver.interleave(columns, start, end - start, buffer, start * byteCount);
+            }
+        });
+        return buffer;
+    }
+
+    public List<ByteBuffer> vertexChunks(VertexFormat vertexFormat, int maxChunkByteCount) throws MeshIOException {
+        return vertexChunks(vertexFormat, maxChunkByteCount, null);
+    }
+
+    public List<ByteBuffer> vertexChunks(VertexFormat vertexFormat, int maxChunkByteCount, ExecutorService executor) throws MeshIOException {
+        final AVertexInterleaver interleaver = vertexFormat.interleaver();
+        final ResizableFloatArray[] columns = interleaverColumns(interleaver);
+        ChunkedBuffer chunked = new ChunkedBuffer(maxVertexCount, vertexFormat.byteCount(), 1, maxChunkByteCount);
+        chunked.fill(executor, MIN_PARALLEL_RANGE_LENGTH, new IChunkTask() {
+            @Override
+            public void run(int firstElement, int elementCount, ByteBuffer chunk, int chunkOffset) {
+                interleaver.interleave(columns, firstElement, elementCount, chunk, chunkOffset);
+            }
+        });
+        return chunked.chunks();
+    }
+
+    private ResizableFloatArray[] interleaverColumns(AVertexInterleaver interleaver) throws MeshIOException {
+        ResizableFloatArray[] columns = new ResizableFloatArray[interleaver.partCount()];
+        for (int partIndex = 0; partIndex < columns.length; partIndex++) {
+            VertexType vertexType = interleaver.vertexType(partIndex);
             if (!hasVertexTypeData(vertexType)) {
                 throw new MeshIOException("No data found for vertex type: " + vertexType.name());
             }
+            columns[partIndex] = vertexTypeData(vertexType);
         }
-        int byteCount = vertexFormat.byteCount();
-        int totalByteCount = byteCount * maxVertexCount;
-        ByteBuffer buffer = BufferUtil.createByteBuffer(totalByteCount);
-        for (Map.Entry<VertexType, AlignedVertexFormatPart> entry : vertexFormat.alignedParts()) {
-            VertexType vertexType = entry.getKey();
-            AlignedVertexFormatPart alignedVertexFormatPart = entry.getValue();
-            ResizableFloatArray vertexTypeData = vertexTypeData(vertexType);
-            int offset = alignedVertexFormatPart.offset();
-            VertexDataType dataType = alignedVertexFormatPart.dataType();
-            for (int vertexIndex = 0; vertexIndex < maxVertexCount; vertexIndex++) {
-                float datum = vertexTypeData.getAt(vertexIndex);
-                int index = vertexIndex * byteCount + offset;
-                dataType.setDatum(buffer, index, datum);
-            }
-        }
-        return buffer;
+        return columns;
     }
 
     public void appendFace(Face face) {
-        faces.add(face);
-        maxVertexCount = Math.max(maxVertexCount, face.getV0());
-        maxVertexCount = Math.max(maxVertexCount, face.getV1());
-        maxVertexCount = Math.max(maxVertexCount, face.getV2());
+        appendFace(face.getV0(), face.getV1(), face.getV2());
+    }
+
+    public void appendFace(int v0, int v1, int v2) {
+        faceIndices.append(v0);
+        faceIndices.append(v1);
+        faceIndices.append(v2);
+        maxVertexCount = Math.max(maxVertexCount, v0);
+        maxVertexCount = Math.max(maxVertexCount, v1);
+        maxVertexCount = Math.max(maxVertexCount, v2);
+    }
+
+    public void appendFaces(int[] indices, int offset, int faceCount) {
+        int indexCount = 3 * faceCount;
+        faceIndices.set(faceIndices.length(), indices, offset, indexCount);
+        for (int index = offset; index < offset + indexCount; index++) {
+            maxVertexCount = Math.max(maxVertexCount, indices[index]);
+        }
+    }
+
+    public void ensureFaceCapacity(int capacity) {
+        faceIndices.ensureCapacity(3 * capacity);
+    }
+
+    public Face face(int faceIndex) {
+        int baseIndex = 3 * faceIndex;
+        return new Face(faceIndices.getAt(baseIndex), faceIndices.getAt(baseIndex + 1), faceIndices.getAt(baseIndex + 2));
+    }
+
+    /**
+     * Returns a read-only view of the face indices, change them with {@link #setFaceIndices} so the vertex count
+     * follows.
+     */
+    public ResizableIntArray faceIndices() {
+        return readOnlyFaceIndices;
+    }
+
+    public void setFaceIndices(int firstIndex, int[] indices, int offset, int indexCount) {
+        faceIndices.set(firstIndex, indices, offset, indexCount);
+        for (int index = offset; index < offset + indexCount; index++) {
+            maxVertexCount = Math.max(maxVertexCount, indices[index]);
+        }
     }
 
     public List<Face> faces() {
-        return Collections.unmodifiableList(faces);
+        return new AbstractList<Face>() {
+            @Override
+            public Face get(int index) {
+                if (index < 0 || index >= size()) {
+                    throw new IndexOutOfBoundsException("Face index: " + index + ", face count: " + size());
+                }
+                return face(index);
+            }
+
+            @Override
+            public int size() {
+                return faceCount();
+            }
+        };
     }
 
+    @Override
     public boolean hasVertexTypeData(VertexType vertexType) {
-        return vertexTypeData.containsKey(vertexType);
+        return vertexTypeData[vertexType.ordinal()] != null;
     }
 
+    @Override
     public Set<VertexType> vertexTypes() {
-        return Collections.unmodifiableSet(vertexTypeData.keySet());
+        Set<VertexType> vertexTypes = EnumSet.noneOf(VertexType.class);
+        for (VertexType vertexType : VertexType.values()) {
+            if (hasVertexTypeData(vertexType)) {
+                vertexTypes.add(vertexType);
+            }
+        }
+        return Collections.unmodifiableSet(vertexTypes);
+    }
+
+    @Override
+    public void readVertexData(VertexType vertexType, int firstVertex, float[] dst, int vertexCount) {
+        ResizableFloatArray data = vertexTypeData(vertexType);
+        int available = (data == null) ? 0 : Math.max(0, Math.min(vertexCount, data.length() - firstVertex));
+        if (available > 0) {
+            data.get(firstVertex, dst, 0, available);
+        }
+        Arrays.fill(dst, available, vertexCount, 0);
+    }
+
+    @Override
+    public void readFaces(int firstFace, int[] dst, int faceCount) {
+        faceIndices.get(3 * firstFace, dst, 0, 3 * faceCount);
     }
 
     public ResizableFloatArray vertexTypeData(VertexType vertexType) {
-        return vertexTypeData.get(vertexType);
+        return vertexTypeData[vertexType.ordinal()];
     }
 
     public float vertexTypeDatum(VertexType vertexType, int vertexIndex) {
-        return vertexTypeData.get(vertexType).getAt(vertexIndex);
+        return vertexTypeData[vertexType.ordinal()].getAt(vertexIndex);
+    }
+
+    @Override
+    public float min(VertexType vertexType) throws MeshIOException {
+        return getExistingVertexTypeData(vertexType).min();
+    }
+
+    @Override
+    public float max(VertexType vertexType) throws MeshIOException {
+        return getExistingVertexTypeData(vertexType).max();
+    }
+
+    public BoundingBox boundingBox() throws MeshIOException {
+        ResizableFloatArray xs = getExistingVertexTypeData(VertexType.Position_X);
+        ResizableFloatArray ys = getExistingVertexTypeData(VertexType.Position_Y);
+        ResizableFloatArray zs = getExistingVertexTypeData(VertexType.Position_Z);
+        return new BoundingBox(xs.min(), ys.min(), zs.min(), xs.max(), ys.max(), zs.max());
+    }
+
+    public BoundingSphere boundingSphere() throws MeshIOException {
+        ResizableFloatArray[] positions = {
+                getExistingVertexTypeData(VertexType.Position_X),
+                getExistingVertexTypeData(VertexType.Position_Y),
+                getExistingVertexTypeData(VertexType.Position_Z)};
+        boolean current = boundingSphere != null;
+        for (int axis = 0; axis < positions.length && current; axis++) {
+            current = boundingSphereColumns[axis] == positions[axis] && boundingSphereModificationCounts[axis] == positions[axis].modificationCount();
+        }
+        if (current) {
+            return boundingSphere;
+        }
+        float[] center = new float[3];
+        for (int axis = 0; axis < positions.length; axis++) {
+            center[axis] = (positions[axis].length() == 0) ? 0 : (positions[axis].min() + positions[axis].max()) * 0.5f;
+        }
+        double radiusSquared = 0;
+        for (int vertex = 0; vertex < maxVertexCount; vertex++) {
+            double distanceSquared = 0;
+            for (int axis = 0; axis < positions.length; axis++) {
+                float value = (vertex < positions[axis].length()) ? positions[axis].getAt(vertex) : 0;
+                double delta = value - center[axis];
+                distanceSquared += delta * delta;
+            }
+            radiusSquared = Math.max(radiusSquared, distanceSquared);
+        }
+        boundingSphere = new BoundingSphere(center[0], center[1], center[2], (float) Math.sqrt(radiusSquared));
+        for (int axis = 0; axis < positions.length; axis++) {
+            boundingSphereColumns[axis] = positions[axis];
+            boundingSphereModificationCounts[axis] = positions[axis].modificationCount();
+        }
+        return boundingSphere;
+    }
+
+    private ResizableFloatArray getExistingVertexTypeData(VertexType vertexType) throws MeshIOException {
+        ResizableFloatArray data = vertexTypeData(vertexType);
+        if (data == null) {
+            throw new MeshIOException("No data found for vertex type: " + vertexType.name());
+        }
+        return data;
     }
 
     public void setVertexTypeDatum(VertexType vertexType, int index, float datum) {
@@ -104,29 +346,122 @@ public class Mesh {
         }
     }
 
+    public void setVertexTypeData(VertexType vertexType, float[] src, int srcOffset, int dstIndex, int length) {
+        if (length <= 0) {
+            return;
+        }
+        getValidVertexTypeData(vertexType).set(dstIndex, src, srcOffset, length);
+        int end = dstIndex + length;
+        if (end > maxVertexCount) {
+            maxVertexCount = end;
+        }
+    }
+
+    public void adoptVertexTypeData(VertexType vertexType, float[] data, int length) {
+        vertexTypeData[vertexType.ordinal()] = new ResizableFloatArray(data, length);
+        if (length > maxVertexCount) {
+            maxVertexCount = length;
+        }
+    }
+
+    public void ensureVertexCapacity(int capacity) {
+        vertexCapacity = Math.max(vertexCapacity, capacity);
+        for (ResizableFloatArray data : vertexTypeData) {
+            if (data != null) {
+                data.ensureCapacity(capacity);
+            }
+        }
+    }
+
     private ResizableFloatArray getValidVertexTypeData(VertexType vertexType) {
-        ResizableFloatArray data = vertexTypeData.get(vertexType);
+        int ordinal = vertexType.ordinal();
+        ResizableFloatArray data = vertexTypeData[ordinal];
         if (data == null) {
-            data = new ResizableFloatArray();
-            vertexTypeData.put(vertexType, data);
+            data = (vertexCapacity == 0)
+                    ? new ResizableFloatArray()
+                    : new ResizableFloatArray(2, vertexCapacity);
+            vertexTypeData[ordinal] = data;
         }
         return data;
     }
 
+    /**
+     * Moves every vertex i to oldToNew[i] and rewrites the faces to match, vertices mapped to -1 are dropped.
+     * When several vertices map to the same index the data of the lowest old index is kept.
+     */
+    public void remapVertices(int[] oldToNew, int newVertexCount) {
+        if (oldToNew.length < maxVertexCount) {
+            throw new IllegalArgumentException("Remap length: " + oldToNew.length + " is less than the vertex count: " + maxVertexCount);
+        }
+        for (int ordinal = 0; ordinal < vertexTypeData.length; ordinal++) {
+            ResizableFloatArray data = vertexTypeData[ordinal];
+            if (data != null) {
+                float[] remapped = new float[newVertexCount];
+                for (int oldIndex = Math.min(data.length(), oldToNew.length) - 1; oldIndex >= 0; oldIndex--) {
+                    int newIndex = oldToNew[oldIndex];
+                    if (newIndex >= 0) {
+                        remapped[newIndex] = data.getAt(oldIndex);
+                    }
+                }
+                vertexTypeData[ordinal] = new ResizableFloatArray(remapped, newVertexCount);
+            }
+        }
+        for (int index = 0; index < faceIndices.length(); index++) {
+            faceIndices.setAt(index, oldToNew[faceIndices.getAt(index)]);
+        }
+        maxVertexCount = newVertexCount;
+    }
+
+    /**
+     * Replaces the vertices so that every new vertex i holds the data of old vertex newToOld[i]. Faces are not changed.
+     */
+    public void gatherVertices(int[] newToOld) {
+        int newVertexCount = newToOld.length;
+        for (int ordinal = 0; ordinal < vertexTypeData.length; ordinal++) {
+            ResizableFloatArray data = vertexTypeData[ordinal];
+            if (data != null) {
+                float[] gathered = new float[newVertexCount];
+                for (int newIndex = 0; newIndex < newVertexCount; newIndex++) {
+                    int oldIndex = newToOld[newIndex];
+                    gathered[newIndex] = (oldIndex < data.length()) ? data.getAt(oldIndex) : 0;
+                }
+                vertexTypeData[ordinal] = new ResizableFloatArray(gathered, newVertexCount);
+            }
+        }
+        maxVertexCount = newVertexCount;
+    }
+
+    public Mesh copy() {
+        Mesh copy = new Mesh(vertexCapacity, 0);
+        copy.faceIndices.set(0, faceIndices.copyArray(), 0, faceIndices.length());
+        for (int ordinal = 0; ordinal < vertexTypeData.length; ordinal++) {
+            ResizableFloatArray data = vertexTypeData[ordinal];
+            if (data != null) {
+                copy.vertexTypeData[ordinal] = new ResizableFloatArray(data.copyArray(), data.length());
+            }
+        }
+        copy.maxVertexCount = maxVertexCount;
+        return copy;
+    }
+
+    public FrozenMesh freeze() {
+        return new FrozenMesh(copy());
+    }
+
     public boolean isValid() throws MeshIOException {
-        if (faces.isEmpty()) {
+        if (faceCount() == 0) {
             throw new MeshIOException("There must be at least 1 face present");
         }
 
-        if (!vertexTypeData.containsKey(VertexType.Position_X)
-                || !vertexTypeData.containsKey(VertexType.Position_Y)
-                || !vertexTypeData.containsKey(VertexType.Position_Z)) {
+        if (!hasVertexTypeData(VertexType.Position_X)
+                || !hasVertexTypeData(VertexType.Position_Y)
+                || !hasVertexTypeData(VertexType.Position_Z)) {
             throw new MeshIOException("There must be (x,y,z) position data present");
         }
 
-        Map<VertexType, Integer> vertexLengths = new HashMap<VertexType, Integer>();
-        for (Map.Entry<VertexType, ResizableFloatArray> entry : vertexTypeData.entrySet()) {
-            vertexLengths.put(entry.getKey(), entry.getValue().length());
+        Map<VertexType, Integer> vertexLengths = new EnumMap<VertexType, Integer>(VertexType.class);
+        for (VertexType vertexType : vertexTypes()) {
+            vertexLengths.put(vertexType, vertexTypeData(vertexType).length());
         }
         Set<Integer> lengths = new HashSet<Integer>(vertexLengths.values());
         if (lengths.size() != 1) {
@@ -0,0 +1,53 @@
+package com.ripplargames.meshio;
+
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Builds a {@link Mesh} from the data passed to it, presized from the header counts or the expected counts.
+ */
+public class MeshBuilder implements IMeshSink {
+    private final int expectedVertexCount;
+    private final int expectedFaceCount;
+    private Mesh mesh;
+
+    public MeshBuilder() {
+        this(0, 0);
+    }
+
+    public MeshBuilder(int expectedVertexCount, int expectedFaceCount) {
+        this.expectedVertexCount = expectedVertexCount;
+        this.expectedFaceCount = expectedFaceCount;
+    }
+
+    @Override
+    public void begin(MeshHeader header) {
+        mesh = new Mesh(Math.max(expectedVertexCount, MeshHeader.presizeCount(header.vertexCount())),
+                Math.max(expectedFaceCount, MeshHeader.presizeCount(header.faceCount())));
+    }
+
+    @Override
+    public void expectFaces(int faceCount) {
+        mesh.ensureFaceCapacity(Math.max(expectedFaceCount, MeshHeader.presizeCount(faceCount)));
+    }
+
+    @Override
+    public void vertexData(VertexType vertexType, int firstVertex, float[] data, int vertexCount) {
+        mesh.setVertexTypeData(vertexType, data, 0, firstVertex, vertexCount);
+    }
+
+    @Override
+    public void faces(int firstFace, int[] indices, int faceCount) {
+        mesh.setFaceIndices(3 * firstFace, indices, 0, 3 * faceCount);
+    }
+
+    @Override
+    public void end() {
+    }
+
+    /**
+     * Returns the mesh built so far, or null before {@link #begin(MeshHeader)}.
+     */
+    public Mesh mesh() {
+        return mesh;
+    }
+}
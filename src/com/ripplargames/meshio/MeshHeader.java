@@ -0,0 +1,62 @@
+package com.ripplargames.meshio;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Describes a mesh before its data is read, as far as the format knows it up front. Counts that are only known after
+ * reading are {@link #UNKNOWN_COUNT}, and vertex types that are only discovered while reading are left out.
+ */
+public class MeshHeader {
+    public static final int UNKNOWN_COUNT = -1;
+    private static final int MAX_PRESIZE_COUNT = 1 << 20;
+
+    private final int vertexCount;
+    private final int faceCount;
+    private final Set<VertexType> vertexTypes;
+    private final boolean isSequential;
+
+    public MeshHeader(int vertexCount, int faceCount, Set<VertexType> vertexTypes) {
+        this(vertexCount, faceCount, vertexTypes, false);
+    }
+
+    public MeshHeader(int vertexCount, int faceCount, Set<VertexType> vertexTypes, boolean isSequential) {
+        this.vertexCount = vertexCount;
+        this.faceCount = faceCount;
+        this.vertexTypes = vertexTypes.isEmpty()
+                ? Collections.<VertexType>emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(vertexTypes));
+        this.isSequential = isSequential;
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int faceCount() {
+        return faceCount;
+    }
+
+    public Set<VertexType> vertexTypes() {
+        return vertexTypes;
+    }
+
+    /**
+     * Returns true when every vertex arrives before any face, and each batch of vertices arrives for all vertex types
+     * before the next one starts, so a row based writer can follow the reader without buffering.
+     */
+    public boolean isSequential() {
+        return isSequential;
+    }
+
+    /**
+     * Returns how many elements to presize for from a count read from a file. The count is capped because a corrupt
+     * file could otherwise claim more than fits in memory, storage grows past the cap as the data arrives.
+     */
+    static int presizeCount(int count) {
+        return Math.max(0, Math.min(MAX_PRESIZE_COUNT, count));
+    }
+}
@@ -3,6 +3,7 @@ package com.ripplargames.meshio;
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.Closeable;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
@@ -11,7 +12,11 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
+import com.ripplargames.meshio.cache.DiskMeshCache;
+import com.ripplargames.meshio.cache.MeshCache;
+import com.ripplargames.meshio.cache.MeshCacheKey;
 import com.ripplargames.meshio.meshformats.mbmsh.MbMshFormat;
 import com.ripplargames.meshio.meshformats.obj.ObjFormat;
 import com.ripplargames.meshio.meshformats.ply.PlyFormatAscii_1_0;
@@ -19,9 +24,12 @@ import com.ripplargames.meshio.meshformats.ply.PlyFormatBinaryBigEndian_1_0;
 import com.ripplargames.meshio.meshformats.ply.PlyFormatBinaryLittleEndian_1_0;
 import com.ripplargames.meshio.util.PrimitiveInputStream;
 import com.ripplargames.meshio.util.PrimitiveOutputStream;
+import com.ripplargames.meshio.vertices.VertexType;
 
 public class MeshIO {
     private final Map<String, IMeshFormat> extensionFormats = new HashMap<String, IMeshFormat>();
+    private volatile MeshCache meshCache;
+    private volatile DiskMeshCache diskMeshCache;
 
     public MeshIO() {
         registerMeshFormat(new PlyFormatBinaryLittleEndian_1_0());
@@ -35,7 +43,59 @@ public class MeshIO {
         extensionFormats.put(meshFormat.getFileExtension(), meshFormat);
     }
 
+    public void setMeshCache(MeshCache meshCache) {
+        this.meshCache = meshCache;
+    }
+
+    public MeshCache getMeshCache() {
+        return meshCache;
+    }
+
+    public void setDiskMeshCache(DiskMeshCache diskMeshCache) {
+        this.diskMeshCache = diskMeshCache;
+    }
+
+    public DiskMeshCache getDiskMeshCache() {
+        return diskMeshCache;
+    }
+
     public Mesh read(String filePath) throws MeshIOException {
+        if (meshCache != null) {
+            return readFrozen(filePath).toMesh();
+        }
+        return readFile(filePath);
+    }
+
+    /**
+     * Reads the mesh at the file path as a snapshot, which is shared with other callers when a mesh cache is set.
+     */
+    public FrozenMesh readFrozen(final String filePath) throws MeshIOException {
+        MeshCache cache = meshCache;
+        if (cache == null) {
+            return new FrozenMesh(readFile(filePath));
+        }
+        return cache.get(MeshCacheKey.forFile(filePath), new Callable<FrozenMesh>() {
+            @Override
+            public FrozenMesh call() throws MeshIOException {
+                return new FrozenMesh(readFile(filePath));
+            }
+        });
+    }
+
+    private Mesh readFile(final String filePath) throws MeshIOException {
+        DiskMeshCache diskCache = diskMeshCache;
+        if (diskCache == null) {
+            return parseFile(filePath);
+        }
+        return diskCache.get(new File(filePath), new Callable<Mesh>() {
+            @Override
+            public Mesh call() throws MeshIOException {
+                return parseFile(filePath);
+            }
+        });
+    }
+
+    private Mesh parseFile(String filePath) throws MeshIOException {
         IMeshFormat format = getFormatFromFilePath(filePath);
         FileInputStream fis = null;
         try {
@@ -50,9 +110,30 @@ public class MeshIO {
     }
 
     public Mesh read(InputStream inputStream, IMeshFormat format) throws MeshIOException {
+        return read(inputStream, format, 0, 0);
+    }
+
+    public Mesh read(InputStream inputStream, IMeshFormat format, int expectedVertexCount, int expectedFaceCount) throws MeshIOException {
         BufferedInputStream bis = new BufferedInputStream(inputStream);
         PrimitiveInputStream pis = new PrimitiveInputStream(bis);
-        return format.read(pis);
+        return format.read(pis, expectedVertexCount, expectedFaceCount);
+    }
+
+    public void read(String filePath, IMeshSink sink) throws MeshIOException {
+        IMeshFormat format = getFormatFromFilePath(filePath);
+        FileInputStream fis = null;
+        try {
+            fis = new FileInputStream(filePath);
+            read(fis, format, sink);
+        } catch (FileNotFoundException e) {
+            throwBecause("Cannot read from file at path: " + filePath, e);
+        } finally {
+            closeQuietly(fis);
+        }
+    }
+
+    public void read(InputStream inputStream, IMeshFormat format, IMeshSink sink) throws MeshIOException {
+        format.read(inputStream, sink);
     }
 
     public void write(Mesh mesh, String filePath) throws MeshIOException {
@@ -74,6 +155,39 @@ public class MeshIO {
         format.write(mesh, pos);
     }
 
+    public void convert(String sourceFilePath, String targetFilePath) throws MeshIOException {
+        IMeshFormat sourceFormat = getFormatFromFilePath(sourceFilePath);
+        IMeshFormat targetFormat = getFormatFromFilePath(targetFilePath);
+        FileInputStream fis = null;
+        FileOutputStream fos = null;
+        try {
+            fis = new FileInputStream(sourceFilePath);
+            fos = new FileOutputStream(targetFilePath);
+            convert(fis, sourceFormat, fos, targetFormat);
+        } catch (FileNotFoundException e) {
+            throwBecause("Cannot convert from: " + sourceFilePath + " to: " + targetFilePath, e);
+        } finally {
+            closeQuietly(fis);
+            closeQuietly(fos);
+        }
+    }
+
+    /**
+     * Converts between formats without building a mesh, so the heap used does not grow with the mesh size. When the
+     * target can write from the source header alone, such as PLY from a PLY with its vertices first, the data is
+     * streamed straight through. Otherwise it is spilled to temporary column files, because the target needs counts,
+     * bounds or whole columns before it can start, and written from them in batches. Sources that must be resolved in
+     * memory, such as OBJ with its shared vertex indices, still hold their own parse state.
+     */
+    public void convert(InputStream source, IMeshFormat sourceFormat, OutputStream target, IMeshFormat targetFormat) throws MeshIOException {
+        ConvertingSink sink = new ConvertingSink(target, targetFormat);
+        try {
+            sourceFormat.read(source, sink);
+        } finally {
+            sink.close();
+        }
+    }
+
     public IMeshFormat getFormatFromFilePath(String filePath) throws MeshIOException {
         int lastDotIndex = filePath.lastIndexOf('.');
         if (lastDotIndex == -1)
@@ -105,4 +219,58 @@ public class MeshIO {
             }
         }
     }
+
+    /**
+     * Picks the target's streaming writer once the source header is known, or spills and writes the target at the end.
+     */
+    private static final class ConvertingSink implements IMeshSink {
+        private final OutputStream target;
+        private final IMeshFormat targetFormat;
+        private IMeshSink delegate;
+        private SpillingMeshSink spill;
+
+        ConvertingSink(OutputStream target, IMeshFormat targetFormat) {
+            this.target = target;
+            this.targetFormat = targetFormat;
+        }
+
+        @Override
+        public void begin(MeshHeader header) throws MeshIOException {
+            delegate = targetFormat.streamingWriter(header, target);
+            if (delegate == null) {
+                spill = new SpillingMeshSink(null);
+                delegate = spill;
+            }
+            delegate.begin(header);
+        }
+
+        @Override
+        public void expectFaces(int faceCount) throws MeshIOException {
+            delegate.expectFaces(faceCount);
+        }
+
+        @Override
+        public void vertexData(VertexType vertexType, int firstVertex, float[] data, int vertexCount) throws MeshIOException {
+            delegate.vertexData(vertexType, firstVertex, data, vertexCount);
+        }
+
+        @Override
+        public void faces(int firstFace, int[] indices, int faceCount) throws MeshIOException {
+            delegate.faces(firstFace, indices, faceCount);
+        }
+
+        @Override
+        public void end() throws MeshIOException {
+            delegate.end();
+            if (spill != null) {
+                targetFormat.write(spill, target);
+            }
+        }
+
+        void close() {
+            if (spill != null) {
+                spill.close();
+            }
+        }
+    }
 }
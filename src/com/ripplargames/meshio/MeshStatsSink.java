@@ -0,0 +1,106 @@
+package com.ripplargames.meshio;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Collects counts and per vertex type bounds while a mesh is read, without keeping its data.
+ */
+public class MeshStatsSink implements IMeshSink {
+    private final float[] mins = new float[VertexType.values().length];
+    private final float[] maxes = new float[VertexType.values().length];
+    private final Set<VertexType> vertexTypes = EnumSet.noneOf(VertexType.class);
+    private int vertexCount;
+    private int faceCount;
+    private int maxVertexIndex = -1;
+
+    @Override
+    public void begin(MeshHeader header) {
+        vertexTypes.clear();
+        vertexCount = 0;
+        faceCount = 0;
+        maxVertexIndex = -1;
+    }
+
+    @Override
+    public void expectFaces(int faceCount) {
+    }
+
+    @Override
+    public void vertexData(VertexType vertexType, int firstVertex, float[] data, int vertexCount) {
+        if (vertexCount <= 0) {
+            return;
+        }
+        int ordinal = vertexType.ordinal();
+        int start = 0;
+        if (vertexTypes.add(vertexType)) {
+            mins[ordinal] = data[0];
+            maxes[ordinal] = data[0];
+            start = 1;
+        }
+        float min = mins[ordinal];
+        float max = maxes[ordinal];
+        for (int index = start; index < vertexCount; index++) {
+            min = Math.min(min, data[index]);
+            max = Math.max(max, data[index]);
+        }
+        mins[ordinal] = min;
+        maxes[ordinal] = max;
+        this.vertexCount = Math.max(this.vertexCount, firstVertex + vertexCount);
+    }
+
+    @Override
+    public void faces(int firstFace, int[] indices, int faceCount) {
+        for (int index = 0; index < 3 * faceCount; index++) {
+            maxVertexIndex = Math.max(maxVertexIndex, indices[index]);
+        }
+        this.faceCount += faceCount;
+    }
+
+    @Override
+    public void end() {
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public int faceCount() {
+        return faceCount;
+    }
+
+    /**
+     * Returns the largest vertex index used by a face, or -1 without faces.
+     */
+    public int maxVertexIndex() {
+        return maxVertexIndex;
+    }
+
+    public Set<VertexType> vertexTypes() {
+        return Collections.unmodifiableSet(vertexTypes);
+    }
+
+    public float min(VertexType vertexType) throws MeshIOException {
+        checkVertexType(vertexType);
+        return mins[vertexType.ordinal()];
+    }
+
+    public float max(VertexType vertexType) throws MeshIOException {
+        checkVertexType(vertexType);
+        return maxes[vertexType.ordinal()];
+    }
+
+    public BoundingBox boundingBox() throws MeshIOException {
+        return new BoundingBox(min(VertexType.Position_X), min(VertexType.Position_Y), min(VertexType.Position_Z),
+                max(VertexType.Position_X), max(VertexType.Position_Y), max(VertexType.Position_Z));
+    }
+
+    private void checkVertexType(VertexType vertexType) throws MeshIOException {
+        if (!vertexTypes.contains(vertexType)) {
+            throw new MeshIOException("No data found for vertex type: " + vertexType.name());
+        }
+    }
+}
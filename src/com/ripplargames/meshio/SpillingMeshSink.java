@@ -0,0 +1,251 @@
+package com.ripplargames.meshio;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * A sink that writes every vertex type and the faces to their own temporary file, tracking counts and bounds as the
+ * data arrives, and then serves the data back in batches. Only one batch is held in memory at a time, so a mesh can be
+ * converted between formats that need whole columns, counts or bounds before writing, without fitting in the heap.
+ * The files are deleted on {@link #close()}. Bounds follow {@link com.ripplargames.meshio.util.ResizableFloatArray}:
+ * NaN is ignored and vertices that were never written count as zero, but they only ever widen, so overwriting a
+ * value leaves it inside the bounds.
+ */
+public class SpillingMeshSink implements IMeshSink, IMeshData, Closeable {
+    private static final int BYTES_PER_VALUE = 4;
+
+    private final File directory;
+    private final FileChannel[] columns = new FileChannel[VertexType.values().length];
+    private final int[] columnLengths = new int[VertexType.values().length];
+    private final float[] mins = new float[VertexType.values().length];
+    private final float[] maxes = new float[VertexType.values().length];
+    private final Set<VertexType> vertexTypes = EnumSet.noneOf(VertexType.class);
+    private FileChannel faces;
+    private int vertexCount;
+    private int faceCount;
+    private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+    /**
+     * Creates the sink with its files in a new directory inside the parent, or inside the default temporary directory
+     * when the parent is null.
+     */
+    public SpillingMeshSink(File parent) throws MeshIOException {
+        try {
+            directory = File.createTempFile("meshspill", "", parent);
+            if (!directory.delete() || !directory.mkdir()) {
+                throw new MeshIOException("Cannot create spill directory: " + directory);
+            }
+            faces = open("faces");
+        } catch (IOException e) {
+            throw new MeshIOException("Cannot create spill directory", e);
+        }
+    }
+
+    private FileChannel open(String name) throws IOException {
+        return new RandomAccessFile(new File(directory, name), "rw").getChannel();
+    }
+
+    @Override
+    public void begin(MeshHeader header) {
+    }
+
+    @Override
+    public void expectFaces(int faceCount) {
+    }
+
+    @Override
+    public void vertexData(VertexType vertexType, int firstVertex, float[] data, int vertexCount) throws MeshIOException {
+        if (vertexCount <= 0) {
+            return;
+        }
+        int ordinal = vertexType.ordinal();
+        try {
+            if (columns[ordinal] == null) {
+                columns[ordinal] = open(vertexType.name());
+                mins[ordinal] = Float.POSITIVE_INFINITY;
+                maxes[ordinal] = Float.NEGATIVE_INFINITY;
+                vertexTypes.add(vertexType);
+            }
+            ByteBuffer bytes = buffer(vertexCount * BYTES_PER_VALUE);
+            bytes.asFloatBuffer().put(data, 0, vertexCount);
+            write(columns[ordinal], bytes, (long) firstVertex * BYTES_PER_VALUE);
+        } catch (IOException e) {
+            throw new MeshIOException("Failed to spill vertex data: " + vertexType.name(), e);
+        }
+        if (firstVertex > columnLengths[ordinal]) {
+            include(ordinal, 0);
+        }
+        for (int index = 0; index < vertexCount; index++) {
+            include(ordinal, data[index]);
+        }
+        columnLengths[ordinal] = Math.max(columnLengths[ordinal], firstVertex + vertexCount);
+        this.vertexCount = Math.max(this.vertexCount, firstVertex + vertexCount);
+    }
+
+    private void include(int ordinal, float datum) {
+        if (datum < mins[ordinal]) {
+            mins[ordinal] = datum;
+        }
+        if (datum > maxes[ordinal]) {
+            maxes[ordinal] = datum;
+        }
+    }
+
+    @Override
+    public void faces(int firstFace, int[] indices, int faceCount) throws MeshIOException {
+        try {
+            ByteBuffer bytes = buffer(3 * faceCount * BYTES_PER_VALUE);
+            bytes.asIntBuffer().put(indices, 0, 3 * faceCount);
+            write(faces, bytes, 3L * firstFace * BYTES_PER_VALUE);
+        } catch (IOException e) {
+            throw new MeshIOException("Failed to spill faces", e);
+        }
+        this.faceCount = Math.max(this.faceCount, firstFace + faceCount);
+    }
+
+    @Override
+    public void end() {
+    }
+
+    private ByteBuffer buffer(int byteCount) {
+        if (buffer.capacity() < byteCount) {
+            buffer = ByteBuffer.allocateDirect(byteCount).order(ByteOrder.nativeOrder());
+        }
+        buffer.clear();
+        buffer.limit(byteCount);
+        return buffer;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            position += channel.write(bytes, position);
+        }
+    }
+
+    private static void read(FileChannel channel, ByteBuffer bytes, long position) throws IOException {
+        while (bytes.hasRemaining()) {
+            int read = channel.read(bytes, position);
+            if (read == -1) {
+                break;
+            }
+            position += read;
+        }
+        bytes.flip();
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int faceCount() {
+        return faceCount;
+    }
+
+    @Override
+    public Set<VertexType> vertexTypes() {
+        return Collections.unmodifiableSet(vertexTypes);
+    }
+
+    @Override
+    public boolean hasVertexTypeData(VertexType vertexType) {
+        return vertexTypes.contains(vertexType);
+    }
+
+    @Override
+    public float min(VertexType vertexType) throws MeshIOException {
+        checkVertexType(vertexType);
+        includePadding(vertexType.ordinal());
+        return mins[vertexType.ordinal()];
+    }
+
+    @Override
+    public float max(VertexType vertexType) throws MeshIOException {
+        checkVertexType(vertexType);
+        includePadding(vertexType.ordinal());
+        return maxes[vertexType.ordinal()];
+    }
+
+    private void includePadding(int ordinal) {
+        if (columnLengths[ordinal] < vertexCount) {
+            // Vertices past the end of a shorter column read back as zeros.
+            include(ordinal, 0);
+        }
+    }
+
+    private void checkVertexType(VertexType vertexType) throws MeshIOException {
+        if (!hasVertexTypeData(vertexType)) {
+            throw new MeshIOException("No data found for vertex type: " + vertexType.name());
+        }
+    }
+
+    @Override
+    public void readVertexData(VertexType vertexType, int firstVertex, float[] dst, int vertexCount) throws MeshIOException {
+        int ordinal = vertexType.ordinal();
+        int available = (columns[ordinal] == null) ? 0 : Math.max(0, Math.min(vertexCount, columnLengths[ordinal] - firstVertex));
+        try {
+            if (available > 0) {
+                ByteBuffer bytes = buffer(available * BYTES_PER_VALUE);
+                read(columns[ordinal], bytes, (long) firstVertex * BYTES_PER_VALUE);
+                bytes.asFloatBuffer().get(dst, 0, bytes.remaining() / BYTES_PER_VALUE);
+                available = bytes.remaining() / BYTES_PER_VALUE;
+            }
+        } catch (IOException e) {
+            throw new MeshIOException("Failed to read spilled vertex data: " + vertexType.name(), e);
+        }
+        for (int index = available; index < vertexCount; index++) {
+            dst[index] = 0;
+        }
+    }
+
+    @Override
+    public void readFaces(int firstFace, int[] dst, int faceCount) throws MeshIOException {
+        try {
+            int byteCount = 3 * faceCount * BYTES_PER_VALUE;
+            ByteBuffer bytes = buffer(byteCount);
+            read(faces, bytes, 3L * firstFace * BYTES_PER_VALUE);
+            if (bytes.remaining() < byteCount) {
+                throw new MeshIOException("Faces: " + firstFace + " to " + (firstFace + faceCount) + " were not spilled");
+            }
+            bytes.asIntBuffer().get(dst, 0, 3 * faceCount);
+        } catch (IOException e) {
+            throw new MeshIOException("Failed to read spilled faces", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (int ordinal = 0; ordinal < columns.length; ordinal++) {
+            closeQuietly(columns[ordinal]);
+            columns[ordinal] = null;
+        }
+        closeQuietly(faces);
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.ripplargames.meshio.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Keeps parsed meshes in a directory as raw little endian columns that load with bulk reads instead of parsing. Each
+ * source file has one entry, named after a digest of its canonical path, whose header records the source size,
+ * modification time and CRC32 of its content. An entry is only used when all three still match the source, the
+ * content is only hashed once the size and modification time match, so a hit still reads the source once.
+ * Entries are written to a temporary file and renamed into place, so readers never see a partial entry, and the
+ * least recently used entries are deleted once the directory grows past its byte limit.
+ */
+public class DiskMeshCache {
+    public static final String ENTRY_EXTENSION = ".mshc";
+
+    private static final int MAGIC = 0x4353484D; // "MSHC"
+    private static final int VERSION = 1;
+    private static final int CHUNK_BYTE_COUNT = 1 << 16;
+
+    private final File directory;
+    private final long maxByteCount;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public DiskMeshCache(File directory, long maxByteCount) throws MeshIOException {
+        if (maxByteCount < 0) {
+            throw new IllegalArgumentException("Max byte count must be zero or greater");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new MeshIOException("Cannot create cache directory: " + directory);
+        }
+        this.directory = directory;
+        this.maxByteCount = maxByteCount;
+    }
+
+    /**
+     * Returns the cached mesh for the source file, or runs the loader and stores its result when there is no entry
+     * matching the current source. Failing to store an entry does not fail the read.
+     */
+    public Mesh get(File source, Callable<Mesh> loader) throws MeshIOException {
+        MeshCacheKey key = MeshCacheKey.forFile(source.getPath());
+        File entry = entryFile(key);
+        Mesh mesh = readEntry(entry, key, source);
+        if (mesh != null) {
+            hitCount.incrementAndGet();
+            entry.setLastModified(System.currentTimeMillis());
+            return mesh;
+        }
+        missCount.incrementAndGet();
+        long contentHash = contentHash(source);
+        try {
+            mesh = loader.call();
+        } catch (MeshIOException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MeshIOException("Failed to load mesh: " + key, e);
+        }
+        try {
+            writeEntry(entry, key, contentHash, mesh);
+            evict();
+        } catch (IOException e) {
+            // The cache is an optimization, the mesh is still valid without an entry.
+        }
+        return mesh;
+    }
+
+    private File entryFile(MeshCacheKey key) throws MeshIOException {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.canonicalPath().getBytes("UTF-8"));
+            StringBuilder name = new StringBuilder();
+            for (byte b : digest) {
+                name.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return new File(directory, name.append(ENTRY_EXTENSION).toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new MeshIOException("Cannot create cache entry name", e);
+        } catch (IOException e) {
+            throw new MeshIOException("Cannot create cache entry name", e);
+        }
+    }
+
+    private static long contentHash(File source) throws MeshIOException {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[CHUNK_BYTE_COUNT];
+        InputStream is = null;
+        try {
+            is = new FileInputStream(source);
+            int read;
+            while ((read = is.read(chunk)) != -1) {
+                crc.update(chunk, 0, read);
+            }
+        } catch (IOException e) {
+            throw new MeshIOException("Cannot read from file at path: " + source, e);
+        } finally {
+            closeQuietly(is);
+        }
+        return crc.getValue();
+    }
+
+    private Mesh readEntry(File entry, MeshCacheKey key, File source) throws MeshIOException {
+        if (!entry.isFile()) {
+            return null;
+        }
+        RandomAccessFile file = null;
+        try {
+            file = new RandomAccessFile(entry, "r");
+            FileChannel channel = file.getChannel();
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTE_COUNT).order(ByteOrder.LITTLE_ENDIAN);
+            chunk.limit(0);
+            if (readInt(channel, chunk) != MAGIC || readInt(channel, chunk) != VERSION
+                    || readLong(channel, chunk) != key.size()
+                    || readLong(channel, chunk) != key.lastModified()
+                    || readLong(channel, chunk) != contentHash(source)) {
+                return null;
+            }
+            long byteCount = channel.size();
+            byte[] path = new byte[checkLength(readInt(channel, chunk), 1, byteCount)];
+            fill(channel, chunk, path.length);
+            chunk.get(path);
+            if (!key.canonicalPath().equals(new String(path, "UTF-8"))) {
+                return null;
+            }
+            int columnCount = checkLength(readInt(channel, chunk), 8, byteCount);
+            int faceCount = checkLength(readInt(channel, chunk), 12, byteCount);
+            Mesh mesh = new Mesh(0, faceCount);
+            VertexType[] vertexTypes = VertexType.values();
+            for (int column = 0; column < columnCount; column++) {
+                VertexType vertexType = vertexTypes[checkLength(readInt(channel, chunk), 1, vertexTypes.length - 1)];
+                float[] data = new float[checkLength(readInt(channel, chunk), 4, byteCount)];
+                for (int offset = 0; offset < data.length; ) {
+                    int count = Math.min(data.length - offset, CHUNK_BYTE_COUNT / 4);
+                    fill(channel, chunk, 4 * count);
+                    chunk.asFloatBuffer().get(data, offset, count);
+                    chunk.position(chunk.position() + 4 * count);
+                    offset += count;
+                }
+                mesh.adoptVertexTypeData(vertexType, data, data.length);
+            }
+            int[] indices = new int[3 * faceCount];
+            for (int offset = 0; offset < indices.length; ) {
+                int count = Math.min(indices.length - offset, CHUNK_BYTE_COUNT / 4);
+                fill(channel, chunk, 4 * count);
+                chunk.asIntBuffer().get(indices, offset, count);
+                chunk.position(chunk.position() + 4 * count);
+                offset += count;
+            }
+            mesh.appendFaces(indices, 0, faceCount);
+            return mesh;
+        } catch (IOException e) {
+            return null;
+        } catch (RuntimeException e) {
+            // A corrupt or truncated entry is treated as a miss and replaced.
+            return null;
+        } finally {
+            closeQuietly(file);
+        }
+    }
+
+    /**
+     * Rejects a count read from an entry header that the entry could not hold, before anything is allocated for it.
+     */
+    private static int checkLength(int count, int bytesPerElement, long byteCount) throws IOException {
+        if (count < 0 || (long) count * bytesPerElement > byteCount) {
+            throw new IOException("Corrupt cache entry");
+        }
+        return count;
+    }
+
+    private static int readInt(FileChannel channel, ByteBuffer chunk) throws IOException {
+        fill(channel, chunk, 4);
+        return chunk.getInt();
+    }
+
+    private static long readLong(FileChannel channel, ByteBuffer chunk) throws IOException {
+        fill(channel, chunk, 8);
+        return chunk.getLong();
+    }
+
+    private static void fill(FileChannel channel, ByteBuffer chunk, int byteCount) throws IOException {
+        if (chunk.remaining() >= byteCount) {
+            return;
+        }
+        if (byteCount > chunk.capacity()) {
+            throw new IOException("Cannot buffer " + byteCount + " bytes");
+        }
+        chunk.compact();
+        while (chunk.position() < byteCount) {
+            if (channel.read(chunk) == -1) {
+                throw new IOException("Unexpected end of cache entry");
+            }
+        }
+        chunk.flip();
+    }
+
+    private void writeEntry(File entry, MeshCacheKey key, long contentHash, Mesh mesh) throws IOException {
+        File temp = File.createTempFile("entry", ".tmp", directory);
+        FileOutputStream fos = null;
+        try {
+            fos = new FileOutputStream(temp);
+            FileChannel channel = fos.getChannel();
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_BYTE_COUNT).order(ByteOrder.LITTLE_ENDIAN);
+            float[] floats = new float[CHUNK_BYTE_COUNT / 4];
+            int[] ints = new int[CHUNK_BYTE_COUNT / 4];
+            byte[] path = key.canonicalPath().getBytes("UTF-8");
+            reserve(channel, chunk, 32);
+            chunk.putInt(MAGIC).putInt(VERSION).putLong(key.size()).putLong(key.lastModified()).putLong(contentHash);
+            reserve(channel, chunk, 4);
+            chunk.putInt(path.length);
+            for (int offset = 0; offset < path.length; ) {
+                reserve(channel, chunk, 1);
+                int count = Math.min(path.length - offset, chunk.remaining());
+                chunk.put(path, offset, count);
+                offset += count;
+            }
+            reserve(channel, chunk, 8);
+            chunk.putInt(mesh.vertexTypes().size()).putInt(mesh.faceCount());
+            for (VertexType vertexType : mesh.vertexTypes()) {
+                ResizableFloatArray data = mesh.vertexTypeData(vertexType);
+                reserve(channel, chunk, 8);
+                chunk.putInt(vertexType.ordinal()).putInt(data.length());
+                for (int offset = 0; offset < data.length(); ) {
+                    reserve(channel, chunk, 4);
+                    int count = Math.min(data.length() - offset, chunk.remaining() / 4);
+                    data.get(offset, floats, 0, count);
+                    chunk.asFloatBuffer().put(floats, 0, count);
+                    chunk.position(chunk.position() + 4 * count);
+                    offset += count;
+                }
+            }
+            int indexCount = 3 * mesh.faceCount();
+            for (int offset = 0; offset < indexCount; ) {
+                reserve(channel, chunk, 4);
+                int count = Math.min(indexCount - offset, chunk.remaining() / 4);
+                mesh.faceIndices().get(offset, ints, 0, count);
+                chunk.asIntBuffer().put(ints, 0, count);
+                chunk.position(chunk.position() + 4 * count);
+                offset += count;
+            }
+            flush(channel, chunk);
+            fos.close();
+            fos = null;
+            if (!temp.renameTo(entry)) {
+                entry.delete();
+                if (!temp.renameTo(entry)) {
+                    throw new IOException("Cannot publish cache entry: " + entry);
+                }
+            }
+        } finally {
+            closeQuietly(fos);
+            temp.delete();
+        }
+    }
+
+    private static void reserve(FileChannel channel, ByteBuffer chunk, int byteCount) throws IOException {
+        if (chunk.remaining() < byteCount) {
+            flush(channel, chunk);
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            channel.write(chunk);
+        }
+        chunk.clear();
+    }
+
+    private void evict() {
+        File[] entries = entries();
+        long byteCount = 0;
+        for (File entry : entries) {
+            byteCount += entry.length();
+        }
+        Arrays.sort(entries, new Comparator<File>() {
+            @Override
+            public int compare(File a, File b) {
+                long aModified = a.lastModified();
+                long bModified = b.lastModified();
+                return (aModified < bModified) ? -1 : ((aModified == bModified) ? 0 : 1);
+            }
+        });
+        for (int index = 0; index < entries.length && byteCount > maxByteCount; index++) {
+            long length = entries[index].length();
+            if (entries[index].delete()) {
+                byteCount -= length;
+                evictionCount.incrementAndGet();
+            }
+        }
+    }
+
+    private File[] entries() {
+        File[] entries = directory.listFiles();
+        if (entries == null) {
+            return new File[0];
+        }
+        int count = 0;
+        for (File entry : entries) {
+            if (entry.getName().endsWith(ENTRY_EXTENSION)) {
+                entries[count++] = entry;
+            }
+        }
+        return Arrays.copyOf(entries, count);
+    }
+
+    /**
+     * Deletes every entry in the cache directory.
+     */
+    public void clear() {
+        for (File entry : entries()) {
+            entry.delete();
+        }
+    }
+
+    public File directory() {
+        return directory;
+    }
+
+    public long maxByteCount() {
+        return maxByteCount;
+    }
+
+    public long byteCount() {
+        long byteCount = 0;
+        for (File entry : entries()) {
+            byteCount += entry.length();
+        }
+        return byteCount;
+    }
+
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+    public long missCount() {
+        return missCount.get();
+    }
+
+    public long evictionCount() {
+        return evictionCount.get();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.ripplargames.meshio.cache;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import com.ripplargames.meshio.FrozenMesh;
+import com.ripplargames.meshio.MeshIOException;
+
+/**
+ * A thread-safe least recently used cache of loaded meshes, bounded by their estimated byte count. Concurrent requests
+ * for a key that is still loading share that load, so each file version is parsed once. A mesh larger than the whole
+ * cache is returned but not kept.
+ */
+public class MeshCache {
+    private final long maxByteCount;
+    private final LinkedHashMap<MeshCacheKey, FrozenMesh> entries = new LinkedHashMap<MeshCacheKey, FrozenMesh>(16, 0.75f, true);
+    private final Map<MeshCacheKey, FutureTask<FrozenMesh>> loads = new HashMap<MeshCacheKey, FutureTask<FrozenMesh>>();
+    private long byteCount;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    public MeshCache(long maxByteCount) {
+        if (maxByteCount < 0) {
+            throw new IllegalArgumentException("Max byte count must be zero or greater");
+        }
+        this.maxByteCount = maxByteCount;
+    }
+
+    /**
+     * Returns the cached mesh for the key, or runs the loader and caches its result. A request that joins a load
+     * already in flight counts as a hit, only the request that runs the loader counts as a miss.
+     */
+    public FrozenMesh get(MeshCacheKey key, Callable<FrozenMesh> loader) throws MeshIOException {
+        FutureTask<FrozenMesh> load;
+        boolean loading = false;
+        synchronized (this) {
+            FrozenMesh mesh = entries.get(key);
+            if (mesh != null) {
+                hitCount++;
+                return mesh;
+            }
+            load = loads.get(key);
+            if (load == null) {
+                load = new FutureTask<FrozenMesh>(loader);
+                loads.put(key, load);
+                loading = true;
+                missCount++;
+            } else {
+                hitCount++;
+            }
+        }
+        if (loading) {
+            load.run();
+        }
+        try {
+            FrozenMesh mesh = load.get();
+            if (loading) {
+                synchronized (this) {
+                    loads.remove(key);
+                    put(key, mesh);
+                }
+            }
+            return mesh;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MeshIOException("Interrupted while waiting for mesh: " + key, e);
+        } catch (ExecutionException e) {
+            if (loading) {
+                synchronized (this) {
+                    loads.remove(key);
+                }
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof MeshIOException) {
+                throw (MeshIOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MeshIOException("Failed to load mesh: " + key, cause);
+        }
+    }
+
+    public synchronized FrozenMesh getIfPresent(MeshCacheKey key) {
+        FrozenMesh mesh = entries.get(key);
+        if (mesh != null) {
+            hitCount++;
+        }
+        return mesh;
+    }
+
+    private void put(MeshCacheKey key, FrozenMesh mesh) {
+        if (mesh.estimatedByteCount() > maxByteCount) {
+            // Caching it would evict every other entry and then the mesh itself.
+            return;
+        }
+        FrozenMesh previous = entries.put(key, mesh);
+        if (previous != null) {
+            byteCount -= previous.estimatedByteCount();
+        }
+        byteCount += mesh.estimatedByteCount();
+        Iterator<FrozenMesh> eldest = entries.values().iterator();
+        while (byteCount > maxByteCount && eldest.hasNext()) {
+            byteCount -= eldest.next().estimatedByteCount();
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+
+    public synchronized void invalidate(MeshCacheKey key) {
+        FrozenMesh mesh = entries.remove(key);
+        if (mesh != null) {
+            byteCount -= mesh.estimatedByteCount();
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        byteCount = 0;
+    }
+
+    public long maxByteCount() {
+        return maxByteCount;
+    }
+
+    public synchronized long byteCount() {
+        return byteCount;
+    }
+
+    public synchronized int entryCount() {
+        return entries.size();
+    }
+
+    public synchronized long hitCount() {
+        return hitCount;
+    }
+
+    public synchronized long missCount() {
+        return missCount;
+    }
+
+    public synchronized long evictionCount() {
+        return evictionCount;
+    }
+}
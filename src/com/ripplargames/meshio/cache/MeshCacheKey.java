@@ -0,0 +1,72 @@
+package com.ripplargames.meshio.cache;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.ripplargames.meshio.MeshIOException;
+
+/**
+ * Identifies one version of a mesh file by its canonical path, size and modification time, so that a changed file
+ * maps to a new key.
+ */
+public final class MeshCacheKey {
+    private final String canonicalPath;
+    private final long size;
+    private final long lastModified;
+
+    public MeshCacheKey(String canonicalPath, long size, long lastModified) {
+        if (canonicalPath == null) {
+            throw new NullPointerException("Canonical path must not be null");
+        }
+        this.canonicalPath = canonicalPath;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+    public static MeshCacheKey forFile(String filePath) throws MeshIOException {
+        File file = new File(filePath);
+        if (!file.isFile()) {
+            throw new MeshIOException("Cannot read from file at path: " + filePath);
+        }
+        try {
+            return new MeshCacheKey(file.getCanonicalPath(), file.length(), file.lastModified());
+        } catch (IOException e) {
+            throw new MeshIOException("Cannot resolve the canonical path of: " + filePath, e);
+        }
+    }
+
+    public String canonicalPath() {
+        return canonicalPath;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long lastModified() {
+        return lastModified;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MeshCacheKey that = (MeshCacheKey) o;
+        return (size == that.size)
+                && (lastModified == that.lastModified)
+                && canonicalPath.equals(that.canonicalPath);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = canonicalPath.hashCode();
+        result = 31 * result + (int) (size ^ (size >>> 32));
+        result = 31 * result + (int) (lastModified ^ (lastModified >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return canonicalPath + " (" + size + " bytes, modified " + lastModified + ")";
+    }
+}
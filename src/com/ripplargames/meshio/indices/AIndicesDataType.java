@@ -2,28 +2,68 @@ package com.ripplargames.meshio.indices;
 
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
-import java.util.List;
 
 import com.ripplargames.meshio.MeshIOException;
 import com.ripplargames.meshio.util.BufferUtil;
-import com.ripplargames.meshio.util.ImmutableIntArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
 
 public abstract class AIndicesDataType implements IndicesDataType {
+    private static final int BLOCK_LENGTH = 1 << 12;
+
+    public static IndicesDataType smallestFor(int vertexCount) {
+        if (vertexCount <= UnsignedByteIndicesDataType.MAX_VERTEX_COUNT) {
+            return new UnsignedByteIndicesDataType();
+        }
+        if (vertexCount <= UnsignedShortIndicesDataType.MAX_VERTEX_COUNT) {
+            return new UnsignedShortIndicesDataType();
+        }
+        return new UnsignedIntIndicesDataType();
+    }
+
     @Override
-    public ByteBuffer flatten(List<ImmutableIntArray> elements, int elementLength) throws MeshIOException {
+    public ByteBuffer flatten(ResizableIntArray indices) throws MeshIOException {
+        int indexCount = indices.length();
+        ByteBuffer buffer = BufferUtil.createByteBuffer(BufferUtil.byteCount(indexCount, bytesPerDatum()));
+        flatten(indices, 0, indexCount, buffer, 0);
+        return buffer;
+    }
+
+    @Override
+    public void flatten(ResizableIntArray indices, int firstIndex, int indexCount, ByteBuffer buffer, int bufferOffset) throws MeshIOException {
+        int[] block = new int[Math.min(indexCount, BLOCK_LENGTH)];
         int bytesPerDatum = bytesPerDatum();
-        int byteCount = elements.size() * elementLength * bytesPerDatum;
-        ByteBuffer buffer = BufferUtil.createByteBuffer(byteCount);
-        for (int arrayIndex = 0; arrayIndex < elements.size(); arrayIndex++) {
-            ImmutableIntArray array = elements.get(arrayIndex);
-            int baseIndex = arrayIndex * elementLength;
-            for (int datumIndex = 0; datumIndex < elementLength; datumIndex++) {
-                setValue(buffer, (baseIndex + datumIndex) * bytesPerDatum, array.valueAt(datumIndex));
-            }
+        for (int blockStart = 0; blockStart < indexCount; blockStart += BLOCK_LENGTH) {
+            int blockLength = Math.min(BLOCK_LENGTH, indexCount - blockStart);
+            indices.get(firstIndex + blockStart, block, 0, blockLength);
+            put(block, 0, blockLength, buffer, bufferOffset + blockStart * bytesPerDatum);
         }
+    }
+
+    @Override
+    public ByteBuffer toByteBuffer(int[] indices) throws MeshIOException {
+        ByteBuffer buffer = BufferUtil.createByteBuffer(BufferUtil.byteCount(indices.length, bytesPerDatum()));
+        put(indices, 0, indices.length, buffer, 0);
         return buffer;
     }
 
+    protected abstract void put(int[] indices, int offset, int count, ByteBuffer buffer, int bufferOffset) throws MeshIOException;
+
+    protected static ByteBuffer view(ByteBuffer buffer, int bufferOffset) {
+        ByteBuffer view = buffer.duplicate().order(buffer.order());
+        view.position(bufferOffset);
+        return view;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return (this == o) || (o != null && getClass() == o.getClass());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
     public void throwInvalidDataType(Type dataType, int value) throws MeshIOException {
         throw new MeshIOException("Value: " + value + " cannot be used as a " + dataType);
     }
@@ -0,0 +1,17 @@
+package com.ripplargames.meshio.indices;
+
+/**
+ * Base for mesh types whose elements depend only on their class and settings, so that equal mesh types can share
+ * cached index buffers.
+ */
+public abstract class AMeshType implements IMeshType {
+    @Override
+    public boolean equals(Object o) {
+        return (this == o) || (o != null && getClass() == o.getClass());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
@@ -3,7 +3,6 @@ package com.ripplargames.meshio.indices;
 import java.nio.ByteBuffer;
 
 import com.ripplargames.meshio.MeshIOException;
-import com.ripplargames.meshio.util.BufferUtil;
 
 public class ByteIndicesDataType extends AIndicesDataType {
     @Override
@@ -11,6 +10,11 @@ public class ByteIndicesDataType extends AIndicesDataType {
         return 1;
     }
 
+    @Override
+    public long primitiveRestartIndex() {
+        return 0xFFL;
+    }
+
     @Override
     public void setValue(ByteBuffer buffer, int index, int value) throws MeshIOException {
         byte byteValue = (byte) value;
@@ -26,15 +30,15 @@ public class ByteIndicesDataType extends AIndicesDataType {
     }
 
     @Override
-    public ByteBuffer toByteBuffer(int[] array) throws MeshIOException {
-        ByteBuffer buffer = BufferUtil.createByteBuffer(array.length);
-        for (int index : array) {
-            byte indexByte = (byte) index;
-            if (index != indexByte) {
-                throw new MeshIOException("Index: " + index + " does not fit into a byte");
+    protected void put(int[] indices, int offset, int count, ByteBuffer buffer, int bufferOffset) throws MeshIOException {
+        byte[] values = new byte[count];
+        for (int index = 0; index < count; index++) {
+            int value = indices[offset + index];
+            values[index] = (byte) value;
+            if (values[index] != value) {
+                throwInvalidDataType(java.lang.Byte.TYPE, value);
             }
-            buffer.put(indexByte);
         }
-        return buffer;
+        view(buffer, bufferOffset).put(values);
     }
 }
@@ -1,10 +1,11 @@
 package com.ripplargames.meshio.indices;
 
-import com.ripplargames.meshio.Face;
-import com.ripplargames.meshio.util.ImmutableIntArray;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.ResizableIntArray;
 
 public interface IMeshType {
     int elementLength();
 
-    ImmutableIntArray[] createElements(Face face);
+    void createElements(Mesh mesh, ResizableIntArray elements) throws MeshIOException;
 }
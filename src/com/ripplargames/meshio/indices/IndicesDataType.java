@@ -1,17 +1,20 @@
 package com.ripplargames.meshio.indices;
 
 import java.nio.ByteBuffer;
-import java.util.List;
 
 import com.ripplargames.meshio.MeshIOException;
-import com.ripplargames.meshio.util.ImmutableIntArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
 
 public interface IndicesDataType {
     int bytesPerDatum();
 
+    long primitiveRestartIndex();
+
     void setValue(ByteBuffer buffer, int index, int value) throws MeshIOException;
 
-    ByteBuffer flatten(List<ImmutableIntArray> elements, int elementLength) throws MeshIOException;
+    ByteBuffer flatten(ResizableIntArray indices) throws MeshIOException;
+
+    void flatten(ResizableIntArray indices, int firstIndex, int indexCount, ByteBuffer buffer, int bufferOffset) throws MeshIOException;
 
     boolean isValidVertexCount(int vertexCount);
 
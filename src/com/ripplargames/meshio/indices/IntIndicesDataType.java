@@ -3,7 +3,6 @@ package com.ripplargames.meshio.indices;
 import java.nio.ByteBuffer;
 
 import com.ripplargames.meshio.MeshIOException;
-import com.ripplargames.meshio.util.BufferUtil;
 
 public class IntIndicesDataType extends AIndicesDataType {
     @Override
@@ -11,6 +10,11 @@ public class IntIndicesDataType extends AIndicesDataType {
         return 4;
     }
 
+    @Override
+    public long primitiveRestartIndex() {
+        return 0xFFFFFFFFL;
+    }
+
     @Override
     public void setValue(ByteBuffer buffer, int index, int value) throws MeshIOException {
         buffer.putInt(index, value);
@@ -22,11 +26,7 @@ public class IntIndicesDataType extends AIndicesDataType {
     }
 
     @Override
-    public ByteBuffer toByteBuffer(int[] array) throws MeshIOException {
-        ByteBuffer buffer = BufferUtil.createByteBuffer(array.length);
-        for (int index : array) {
-            buffer.putInt(index);
-        }
-        return buffer;
+    protected void put(int[] indices, int offset, int count, ByteBuffer buffer, int bufferOffset) {
+        view(buffer, bufferOffset).asIntBuffer().put(indices, offset, count);
     }
 }
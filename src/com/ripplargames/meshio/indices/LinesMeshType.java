@@ -1,22 +1,25 @@
 package com.ripplargames.meshio.indices;
 
-import com.ripplargames.meshio.Face;
-import com.ripplargames.meshio.util.ImmutableIntArray;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.HalfEdgeTable;
+import com.ripplargames.meshio.util.ResizableIntArray;
 
-public class LinesMeshType implements IMeshType {
+public class LinesMeshType extends AMeshType {
     @Override
     public int elementLength() {
         return 2;
     }
 
     @Override
-    public ImmutableIntArray[] createElements(Face face) {
-        int v0 = face.getV0();
-        int v1 = face.getV1();
-        int v2 = face.getV2();
-        ImmutableIntArray line01 = new ImmutableIntArray(v0, v1);
-        ImmutableIntArray line12 = new ImmutableIntArray(v1, v2);
-        ImmutableIntArray line20 = new ImmutableIntArray(v2, v0);
-        return new ImmutableIntArray[]{line01, line12, line20};
+    public void createElements(Mesh mesh, ResizableIntArray elements) throws MeshIOException {
+        HalfEdgeTable halfEdges = new HalfEdgeTable(mesh.faceIndices());
+        for (int halfEdge = 0; halfEdge < halfEdges.halfEdgeCount(); halfEdge++) {
+            int twin = halfEdges.twin(halfEdge);
+            if (halfEdges.first(halfEdge) == halfEdge && (twin == -1 || halfEdge <= twin)) {
+                elements.append(halfEdges.from(halfEdge));
+                elements.append(halfEdges.to(halfEdge));
+            }
+        }
     }
 }
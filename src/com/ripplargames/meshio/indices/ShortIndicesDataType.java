@@ -3,7 +3,6 @@ package com.ripplargames.meshio.indices;
 import java.nio.ByteBuffer;
 
 import com.ripplargames.meshio.MeshIOException;
-import com.ripplargames.meshio.util.BufferUtil;
 
 public class ShortIndicesDataType extends AIndicesDataType {
     @Override
@@ -11,11 +10,16 @@ public class ShortIndicesDataType extends AIndicesDataType {
         return 2;
     }
 
+    @Override
+    public long primitiveRestartIndex() {
+        return 0xFFFFL;
+    }
+
     @Override
     public void setValue(ByteBuffer buffer, int index, int value) throws MeshIOException {
         short shortValue = (short) value;
         if (shortValue != value) {
-            throwInvalidDataType(java.lang.Byte.TYPE, value);
+            throwInvalidDataType(java.lang.Short.TYPE, value);
         }
         buffer.putShort(index, (short) value);
     }
@@ -26,15 +30,15 @@ public class ShortIndicesDataType extends AIndicesDataType {
     }
 
     @Override
-    public ByteBuffer toByteBuffer(int[] array) throws MeshIOException {
-        ByteBuffer buffer = BufferUtil.createByteBuffer(array.length);
-        for (int index : array) {
-            short indexShort = (short) index;
-            if (index != indexShort) {
-                throw new MeshIOException("Index: " + index + " does not fit into a short");
+    protected void put(int[] indices, int offset, int count, ByteBuffer buffer, int bufferOffset) throws MeshIOException {
+        short[] values = new short[count];
+        for (int index = 0; index < count; index++) {
+            int value = indices[offset + index];
+            values[index] = (short) value;
+            if (values[index] != value) {
+                throwInvalidDataType(java.lang.Short.TYPE, value);
             }
-            buffer.putShort(indexShort);
         }
-        return buffer;
+        view(buffer, bufferOffset).asShortBuffer().put(values);
     }
 }
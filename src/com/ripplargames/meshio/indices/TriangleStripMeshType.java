@@ -0,0 +1,212 @@
+package com.ripplargames.meshio.indices;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.BufferUtil;
+import com.ripplargames.meshio.util.IntTupleHashSet;
+import com.ripplargames.meshio.util.ResizableIntArray;
+
+/**
+ * Stitches the faces into triangle strips that keep their winding. Each strip is grown greedily from the first unused
+ * face across shared edges, trying all three rotations of the starting face. Strips are separated by the primitive
+ * restart index, which every {@link IndicesDataType} writes as its {@link IndicesDataType#primitiveRestartIndex()},
+ * or joined with degenerate triangles when primitive restart is disabled.
+ */
+public class TriangleStripMeshType extends AMeshType {
+    public static final int PRIMITIVE_RESTART = -1;
+    private static final int MIN_CHUNK_INDEX_COUNT = 4;
+
+    private final boolean primitiveRestart;
+
+    public TriangleStripMeshType() {
+        this(true);
+    }
+
+    public TriangleStripMeshType(boolean primitiveRestart) {
+        this.primitiveRestart = primitiveRestart;
+    }
+
+    public boolean primitiveRestart() {
+        return primitiveRestart;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return super.equals(o) && (primitiveRestart == ((TriangleStripMeshType) o).primitiveRestart);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + (primitiveRestart ? 1 : 0);
+    }
+
+    @Override
+    public int elementLength() {
+        return 1;
+    }
+
+    @Override
+    public void createElements(Mesh mesh, ResizableIntArray elements) throws MeshIOException {
+        ResizableIntArray faces = new ResizableIntArray(2, mesh.faceIndices().length());
+        new TrianglesMeshType().createElements(mesh, faces);
+        int faceCount = faces.length() / 3;
+
+        ResizableIntArray edges = new ResizableIntArray(2, 6 * faceCount);
+        IntTupleHashSet edgeSet = new IntTupleHashSet(edges, 2, 3 * faceCount);
+        ResizableIntArray edgeFaces = new ResizableIntArray(2, 3 * faceCount);
+        for (int face = 0; face < faceCount; face++) {
+            for (int corner = 0; corner < 3; corner++) {
+                if (edgeSet.add(faces.getAt(3 * face + corner), faces.getAt(3 * face + (corner + 1) % 3))) {
+                    edgeFaces.append(face);
+                }
+            }
+        }
+
+        boolean[] used = new boolean[faceCount];
+        int[] trialStamps = new int[faceCount];
+        int trial = 0;
+        ResizableIntArray strip = new ResizableIntArray(2, 64);
+        for (int start = 0; start < faceCount; start++) {
+            if (used[start]) {
+                continue;
+            }
+            int bestRotation = 0;
+            int bestLength = -1;
+            for (int rotation = 0; rotation < 3; rotation++) {
+                trial++;
+                int length = growStrip(faces, start, rotation, edgeSet, edgeFaces, used, trialStamps, trial, null);
+                if (length > bestLength) {
+                    bestLength = length;
+                    bestRotation = rotation;
+                }
+            }
+            trial++;
+            strip = new ResizableIntArray(2, bestLength + 2);
+            growStrip(faces, start, bestRotation, edgeSet, edgeFaces, used, trialStamps, trial, strip);
+            appendStrip(elements, strip);
+        }
+    }
+
+    /**
+     * Follows the strip starting with the given rotation of the start face and returns its face count. When strip is
+     * not null its vertices are appended to it and its faces are marked as used.
+     */
+    private static int growStrip(ResizableIntArray faces, int start, int rotation, IntTupleHashSet edgeSet, ResizableIntArray edgeFaces,
+                                 boolean[] used, int[] trialStamps, int trial, ResizableIntArray strip) {
+        int secondLast = faces.getAt(3 * start + (rotation + 1) % 3);
+        int last = faces.getAt(3 * start + (rotation + 2) % 3);
+        if (strip != null) {
+            strip.append(faces.getAt(3 * start + rotation));
+            strip.append(secondLast);
+            strip.append(last);
+            used[start] = true;
+        }
+        trialStamps[start] = trial;
+        int faceCount = 1;
+        while (true) {
+            boolean even = (faceCount % 2) == 0;
+            int edge = even ? edgeSet.indexOf(secondLast, last) : edgeSet.indexOf(last, secondLast);
+            if (edge == -1) {
+                return faceCount;
+            }
+            int face = edgeFaces.getAt(edge);
+            if (used[face] || trialStamps[face] == trial) {
+                return faceCount;
+            }
+            int next = thirdVertex(faces, face, secondLast, last);
+            trialStamps[face] = trial;
+            if (strip != null) {
+                strip.append(next);
+                used[face] = true;
+            }
+            secondLast = last;
+            last = next;
+            faceCount++;
+        }
+    }
+
+    private static int thirdVertex(ResizableIntArray faces, int face, int v0, int v1) {
+        for (int corner = 0; corner < 3; corner++) {
+            int vertex = faces.getAt(3 * face + corner);
+            if (vertex != v0 && vertex != v1) {
+                return vertex;
+            }
+        }
+        return faces.getAt(3 * face);
+    }
+
+    private void appendStrip(ResizableIntArray elements, ResizableIntArray strip) {
+        if (elements.length() > 0) {
+            if (primitiveRestart) {
+                elements.append(PRIMITIVE_RESTART);
+            } else {
+                int first = strip.getAt(0);
+                elements.append(elements.getAt(elements.length() - 1));
+                elements.append(first);
+                if (elements.length() % 2 != 0) {
+                    elements.append(first);
+                }
+            }
+        }
+        for (int index = 0; index < strip.length(); index++) {
+            elements.append(strip.getAt(index));
+        }
+    }
+
+    /**
+     * Splits strip elements into buffers of at most maxChunkByteCount bytes that can each be drawn on their own. A chunk
+     * ends at the last primitive restart that fits, which is dropped. A strip that does not fit is cut instead, and the
+     * next chunk repeats its last two vertices, after a degenerate vertex when that is needed to keep the winding.
+     */
+    public static List<ByteBuffer> chunks(ResizableIntArray elements, IndicesDataType indicesDataType, int maxChunkByteCount) throws MeshIOException {
+        int bytesPerDatum = indicesDataType.bytesPerDatum();
+        int maxIndexCount = maxChunkByteCount / bytesPerDatum;
+        if (maxIndexCount < MIN_CHUNK_INDEX_COUNT) {
+            throw new IllegalArgumentException("Max chunk byte count: " + maxChunkByteCount + " cannot hold " + MIN_CHUNK_INDEX_COUNT + " indices of " + bytesPerDatum + " bytes");
+        }
+        List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+        ResizableIntArray carried = new ResizableIntArray(2, 3);
+        int length = elements.length();
+        int stripStart = 0;
+        int start = 0;
+        while (start < length) {
+            int room = maxIndexCount - carried.length();
+            int end;
+            int next;
+            ResizableIntArray nextCarried = new ResizableIntArray(2, 3);
+            if (length - start <= room) {
+                end = length;
+                next = length;
+            } else {
+                end = start + room;
+                while (end > start && elements.getAt(end) != PRIMITIVE_RESTART) {
+                    end--;
+                }
+                if (end > start) {
+                    next = end + 1;
+                    stripStart = next;
+                } else {
+                    end = start + room;
+                    next = end;
+                    if ((end - 2 - stripStart) % 2 != 0) {
+                        nextCarried.append(elements.getAt(end - 2));
+                    }
+                    nextCarried.append(elements.getAt(end - 2));
+                    nextCarried.append(elements.getAt(end - 1));
+                }
+            }
+            ByteBuffer chunk = BufferUtil.createByteBuffer((carried.length() + end - start) * bytesPerDatum);
+            indicesDataType.flatten(carried, 0, carried.length(), chunk, 0);
+            indicesDataType.flatten(elements, start, end - start, chunk, carried.length() * bytesPerDatum);
+            chunks.add(chunk);
+            carried = nextCarried;
+            start = next;
+        }
+        return Collections.unmodifiableList(chunks);
+    }
+}
@@ -0,0 +1,30 @@
+package com.ripplargames.meshio.indices;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.HalfEdgeTable;
+import com.ripplargames.meshio.util.ResizableIntArray;
+
+/**
+ * Emits six indices per unique face in the triangles with adjacency layout: each face corner followed by the vertex
+ * opposite the edge from that corner to the next one. On a border edge the face's own opposite vertex is used, so
+ * the mirrored neighbour faces away and the edge is always part of the silhouette.
+ */
+public class TrianglesAdjacencyMeshType extends AMeshType {
+    @Override
+    public int elementLength() {
+        return 6;
+    }
+
+    @Override
+    public void createElements(Mesh mesh, ResizableIntArray elements) throws MeshIOException {
+        ResizableIntArray faces = new ResizableIntArray(2, mesh.faceIndices().length());
+        new TrianglesMeshType().createElements(mesh, faces);
+        HalfEdgeTable halfEdges = new HalfEdgeTable(faces);
+        for (int halfEdge = 0; halfEdge < halfEdges.halfEdgeCount(); halfEdge++) {
+            int twin = halfEdges.twin(halfEdge);
+            elements.append(halfEdges.from(halfEdge));
+            elements.append((twin == -1) ? halfEdges.opposite(halfEdge) : halfEdges.opposite(twin));
+        }
+    }
+}
@@ -1,16 +1,24 @@
 package com.ripplargames.meshio.indices;
 
-import com.ripplargames.meshio.Face;
-import com.ripplargames.meshio.util.ImmutableIntArray;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.IntTupleHashSet;
+import com.ripplargames.meshio.util.ResizableIntArray;
 
-public class TrianglesMeshType implements IMeshType {
+public class TrianglesMeshType extends AMeshType {
     @Override
     public int elementLength() {
         return 3;
     }
 
     @Override
-    public ImmutableIntArray[] createElements(Face face) {
-        return new ImmutableIntArray[]{new ImmutableIntArray(face.getV0(), face.getV1(), face.getV2())};
+    public void createElements(Mesh mesh, ResizableIntArray elements) throws MeshIOException {
+        int faceCount = mesh.faceCount();
+        ResizableIntArray faceIndices = mesh.faceIndices();
+        IntTupleHashSet filter = new IntTupleHashSet(elements, 3, faceCount);
+        for (int faceIndex = 0; faceIndex < faceCount; faceIndex++) {
+            int baseIndex = 3 * faceIndex;
+            filter.add(faceIndices.getAt(baseIndex), faceIndices.getAt(baseIndex + 1), faceIndices.getAt(baseIndex + 2));
+        }
     }
 }
@@ -0,0 +1,48 @@
+package com.ripplargames.meshio.indices;
+
+import java.nio.ByteBuffer;
+
+import com.ripplargames.meshio.MeshIOException;
+
+/**
+ * Indices stored as unsigned bytes, 0xFF is reserved for {@link TriangleStripMeshType#PRIMITIVE_RESTART}.
+ */
+public class UnsignedByteIndicesDataType extends AIndicesDataType {
+    public static final int MAX_VERTEX_COUNT = 0xFF;
+
+    @Override
+    public int bytesPerDatum() {
+        return 1;
+    }
+
+    @Override
+    public long primitiveRestartIndex() {
+        return 0xFFL;
+    }
+
+    @Override
+    public void setValue(ByteBuffer buffer, int index, int value) throws MeshIOException {
+        buffer.put(index, (byte) checkValue(value));
+    }
+
+    private int checkValue(int value) throws MeshIOException {
+        if ((value < 0 || value >= 0xFF) && value != TriangleStripMeshType.PRIMITIVE_RESTART) {
+            throw new MeshIOException("Value: " + value + " cannot be used as an unsigned byte");
+        }
+        return value;
+    }
+
+    @Override
+    public boolean isValidVertexCount(int vertexCount) {
+        return (vertexCount >= 3) && (vertexCount <= MAX_VERTEX_COUNT);
+    }
+
+    @Override
+    protected void put(int[] indices, int offset, int count, ByteBuffer buffer, int bufferOffset) throws MeshIOException {
+        byte[] values = new byte[count];
+        for (int index = 0; index < count; index++) {
+            values[index] = (byte) checkValue(indices[offset + index]);
+        }
+        view(buffer, bufferOffset).put(values);
+    }
+}
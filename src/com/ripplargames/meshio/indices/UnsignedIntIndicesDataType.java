@@ -0,0 +1,46 @@
+package com.ripplargames.meshio.indices;
+
+import java.nio.ByteBuffer;
+
+import com.ripplargames.meshio.MeshIOException;
+
+/**
+ * Indices stored as unsigned ints, 0xFFFFFFFF is reserved for {@link TriangleStripMeshType#PRIMITIVE_RESTART}. Unlike
+ * {@link IntIndicesDataType} every other negative value is rejected.
+ */
+public class UnsignedIntIndicesDataType extends AIndicesDataType {
+    @Override
+    public int bytesPerDatum() {
+        return 4;
+    }
+
+    @Override
+    public long primitiveRestartIndex() {
+        return 0xFFFFFFFFL;
+    }
+
+    @Override
+    public void setValue(ByteBuffer buffer, int index, int value) throws MeshIOException {
+        buffer.putInt(index, checkValue(value));
+    }
+
+    private int checkValue(int value) throws MeshIOException {
+        if (value < 0 && value != TriangleStripMeshType.PRIMITIVE_RESTART) {
+            throw new MeshIOException("Value: " + value + " cannot be used as an unsigned int");
+        }
+        return value;
+    }
+
+    @Override
+    public boolean isValidVertexCount(int vertexCount) {
+        return (vertexCount >= 3);
+    }
+
+    @Override
+    protected void put(int[] indices, int offset, int count, ByteBuffer buffer, int bufferOffset) throws MeshIOException {
+        for (int index = offset; index < offset + count; index++) {
+            checkValue(indices[index]);
+        }
+        view(buffer, bufferOffset).asIntBuffer().put(indices, offset, count);
+    }
+}
@@ -0,0 +1,48 @@
+package com.ripplargames.meshio.indices;
+
+import java.nio.ByteBuffer;
+
+import com.ripplargames.meshio.MeshIOException;
+
+/**
+ * Indices stored as unsigned shorts, 0xFFFF is reserved for {@link TriangleStripMeshType#PRIMITIVE_RESTART}.
+ */
+public class UnsignedShortIndicesDataType extends AIndicesDataType {
+    public static final int MAX_VERTEX_COUNT = 0xFFFF;
+
+    @Override
+    public int bytesPerDatum() {
+        return 2;
+    }
+
+    @Override
+    public long primitiveRestartIndex() {
+        return 0xFFFFL;
+    }
+
+    @Override
+    public void setValue(ByteBuffer buffer, int index, int value) throws MeshIOException {
+        buffer.putShort(index, (short) checkValue(value));
+    }
+
+    private int checkValue(int value) throws MeshIOException {
+        if ((value < 0 || value >= 0xFFFF) && value != TriangleStripMeshType.PRIMITIVE_RESTART) {
+            throw new MeshIOException("Value: " + value + " cannot be used as an unsigned short");
+        }
+        return value;
+    }
+
+    @Override
+    public boolean isValidVertexCount(int vertexCount) {
+        return (vertexCount >= 3) && (vertexCount <= MAX_VERTEX_COUNT);
+    }
+
+    @Override
+    protected void put(int[] indices, int offset, int count, ByteBuffer buffer, int bufferOffset) throws MeshIOException {
+        short[] values = new short[count];
+        for (int index = 0; index < count; index++) {
+            values[index] = (short) checkValue(indices[offset + index]);
+        }
+        view(buffer, bufferOffset).asShortBuffer().put(values);
+    }
+}
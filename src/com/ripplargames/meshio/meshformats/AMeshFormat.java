@@ -6,19 +6,37 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 
+import com.ripplargames.meshio.IMeshData;
 import com.ripplargames.meshio.IMeshFormat;
+import com.ripplargames.meshio.IMeshSink;
 import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshBuilder;
+import com.ripplargames.meshio.MeshHeader;
 import com.ripplargames.meshio.MeshIOException;
 import com.ripplargames.meshio.util.PrimitiveInputStream;
 import com.ripplargames.meshio.util.PrimitiveOutputStream;
 
 public abstract class AMeshFormat implements IMeshFormat {
+    protected static final int BATCH_LENGTH = 1 << 12;
+
     @Override
     public final Mesh read(InputStream is) throws MeshIOException {
+        return read(is, 0, 0);
+    }
+
+    @Override
+    public final Mesh read(InputStream is, int expectedVertexCount, int expectedFaceCount) throws MeshIOException {
+        MeshBuilder builder = new MeshBuilder(expectedVertexCount, expectedFaceCount);
+        read(is, builder);
+        return builder.mesh();
+    }
+
+    @Override
+    public final void read(InputStream is, IMeshSink sink) throws MeshIOException {
         BufferedInputStream bis = new BufferedInputStream(is);
         PrimitiveInputStream pis = new PrimitiveInputStream(bis);
         try {
-            return read(pis);
+            read(pis, sink);
         } catch (IOException e) {
             throw new MeshIOException("Failed to read mesh", e);
         }
@@ -26,10 +44,15 @@ public abstract class AMeshFormat implements IMeshFormat {
 
     @Override
     public final void write(Mesh mesh, OutputStream os) throws MeshIOException {
+        write((IMeshData) mesh, os);
+    }
+
+    @Override
+    public final void write(IMeshData data, OutputStream os) throws MeshIOException {
         BufferedOutputStream bos = new BufferedOutputStream(os);
         PrimitiveOutputStream pos = new PrimitiveOutputStream(bos);
         try {
-            write(mesh, pos);
+            write(data, pos);
         } catch (IOException e) {
             throw new MeshIOException("Failed to write mesh", e);
         }
@@ -40,7 +63,16 @@ public abstract class AMeshFormat implements IMeshFormat {
         }
     }
 
-    protected abstract Mesh read(PrimitiveInputStream pis) throws IOException, MeshIOException;
+    @Override
+    public final IMeshSink streamingWriter(MeshHeader header, OutputStream os) throws MeshIOException {
+        return streamingWriter(header, new PrimitiveOutputStream(new BufferedOutputStream(os)));
+    }
+
+    protected IMeshSink streamingWriter(MeshHeader header, PrimitiveOutputStream pos) throws MeshIOException {
+        return null;
+    }
+
+    protected abstract void read(PrimitiveInputStream pis, IMeshSink sink) throws IOException, MeshIOException;
 
-    protected abstract void write(Mesh mesh, PrimitiveOutputStream pos) throws IOException, MeshIOException;
+    protected abstract void write(IMeshData data, PrimitiveOutputStream pos) throws IOException, MeshIOException;
 }
@@ -1,16 +1,19 @@
 package com.ripplargames.meshio.meshformats.mbmsh;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
 
-import com.ripplargames.meshio.Face;
-import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.IMeshData;
+import com.ripplargames.meshio.IMeshSink;
+import com.ripplargames.meshio.MeshHeader;
 import com.ripplargames.meshio.MeshIOException;
 import com.ripplargames.meshio.meshformats.AMeshFormat;
 import com.ripplargames.meshio.util.EnDecoder;
 import com.ripplargames.meshio.util.PrimitiveInputStream;
 import com.ripplargames.meshio.util.PrimitiveOutputStream;
-import com.ripplargames.meshio.util.ResizableFloatArray;
 import com.ripplargames.meshio.vertices.VertexType;
 
 public class MbMshFormat extends AMeshFormat {
@@ -29,22 +32,26 @@ public class MbMshFormat extends AMeshFormat {
     }
 
     @Override
-    protected Mesh read(PrimitiveInputStream pis) throws IOException, MeshIOException {
+    protected void read(PrimitiveInputStream pis, IMeshSink sink) throws IOException, MeshIOException {
         readMagic(pis);
         short version = pis.readShort(IS_BIG_ENDIAN);
         short metadata = pis.readShort(IS_BIG_ENDIAN);
-        Mesh mesh = new Mesh();
-        readVertices(mesh, pis, version, metadata);
-        readFaces(mesh, pis, version, metadata);
-        return mesh;
+        int vertexCount = pis.readInt(IS_BIG_ENDIAN);
+        if (vertexCount < 0)
+            throw new MeshIOException("Invalid vertex count: " + vertexCount);
+        List<VertexType> vertexTypes = vertexTypes(metadata);
+        sink.begin(new MeshHeader(vertexCount, MeshHeader.UNKNOWN_COUNT, EnumSet.copyOf(vertexTypes)));
+        readVertices(sink, pis, vertexCount, vertexTypes);
+        readFaces(sink, pis, version, metadata);
+        sink.end();
     }
 
     @Override
-    protected void write(Mesh mesh, PrimitiveOutputStream pos) throws IOException, MeshIOException {
-        short metadata = createMetadata(mesh);
+    protected void write(IMeshData data, PrimitiveOutputStream pos) throws IOException, MeshIOException {
+        short metadata = createMetadata(data);
         writeHeader(pos, metadata);
-        writeVertices(mesh, pos, metadata);
-        writeFaces(mesh, pos);
+        writeVertices(data, pos, metadata);
+        writeFaces(data, pos);
     }
 
     private static void readMagic(PrimitiveInputStream pis) throws IOException, MeshIOException {
@@ -63,51 +70,65 @@ public class MbMshFormat extends AMeshFormat {
         }
     }
 
-    private static void readVertices(Mesh mesh, PrimitiveInputStream pis, short version, short metadata) throws IOException {
-        int vertexCount = pis.readInt(IS_BIG_ENDIAN);
+    private static List<VertexType> vertexTypes(short metadata) {
         boolean is3D = (metadata & IS_3D_MASK) != 0;
         boolean isNormals = (metadata & IS_NORMALS_MASK) != 0;
         boolean isImageCoords = (metadata & IS_IMAGE_COORDS_MASK) != 0;
         boolean isColors = (metadata & IS_COLORS_MASK) != 0;
         boolean isAlpha = (metadata & IS_ALPHA_MASK) != 0;
-        readShorts(mesh, vertexCount, pis, VertexType.Position_X);
-        readShorts(mesh, vertexCount, pis, VertexType.Position_Y);
+        List<VertexType> vertexTypes = new ArrayList<VertexType>();
+        vertexTypes.add(VertexType.Position_X);
+        vertexTypes.add(VertexType.Position_Y);
         if (is3D)
-            readShorts(mesh, vertexCount, pis, VertexType.Position_Z);
+            vertexTypes.add(VertexType.Position_Z);
         if (isNormals) {
-            readShorts(mesh, vertexCount, pis, VertexType.Normal_X);
-            readShorts(mesh, vertexCount, pis, VertexType.Normal_Y);
+            vertexTypes.add(VertexType.Normal_X);
+            vertexTypes.add(VertexType.Normal_Y);
             if (is3D)
-                readShorts(mesh, vertexCount, pis, VertexType.Normal_Z);
+                vertexTypes.add(VertexType.Normal_Z);
         }
         if (isImageCoords) {
-            readBytes(mesh, vertexCount, pis, VertexType.ImageCoord_X);
-            readBytes(mesh, vertexCount, pis, VertexType.ImageCoord_Y);
+            vertexTypes.add(VertexType.ImageCoord_X);
+            vertexTypes.add(VertexType.ImageCoord_Y);
         }
         if (isColors) {
-            readBytes(mesh, vertexCount, pis, VertexType.Color_R);
-            readBytes(mesh, vertexCount, pis, VertexType.Color_G);
-            readBytes(mesh, vertexCount, pis, VertexType.Color_B);
+            vertexTypes.add(VertexType.Color_R);
+            vertexTypes.add(VertexType.Color_G);
+            vertexTypes.add(VertexType.Color_B);
             if (isAlpha)
-                readBytes(mesh, vertexCount, pis, VertexType.Color_A);
+                vertexTypes.add(VertexType.Color_A);
         }
-    }
-
-    private static void readShorts(Mesh mesh, int vertexCount, PrimitiveInputStream pis, VertexType vertexType) throws IOException {
-        EnDecoder endecoder = readEnDecoder(pis, vertexType);
-        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
-            short encoded = pis.readShort(IS_BIG_ENDIAN);
-            float datum = (float) endecoder.decodeShort(encoded);
-            mesh.setVertexTypeDatum(vertexType, vertexIndex, datum);
+        return vertexTypes;
+    }
+
+    private static void readVertices(IMeshSink sink, PrimitiveInputStream pis, int vertexCount, List<VertexType> vertexTypes) throws IOException, MeshIOException {
+        float[] batch = new float[Math.min(vertexCount, BATCH_LENGTH)];
+        for (VertexType vertexType : vertexTypes) {
+            boolean isShort = isShortEncoded(vertexType);
+            EnDecoder endecoder = readEnDecoder(pis, vertexType);
+            for (int firstVertex = 0; firstVertex < vertexCount; firstVertex += BATCH_LENGTH) {
+                int batchLength = Math.min(BATCH_LENGTH, vertexCount - firstVertex);
+                for (int batchIndex = 0; batchIndex < batchLength; batchIndex++) {
+                    batch[batchIndex] = isShort
+                            ? (float) endecoder.decodeShort(pis.readShort(IS_BIG_ENDIAN))
+                            : (float) endecoder.decodeByte(pis.readByte());
+                }
+                sink.vertexData(vertexType, firstVertex, batch, batchLength);
+            }
         }
     }
 
-    private static void readBytes(Mesh mesh, int vertexCount, PrimitiveInputStream pis, VertexType vertexType) throws IOException {
-        EnDecoder endecoder = readEnDecoder(pis, vertexType);
-        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
-            byte encoded = pis.readByte();
-            float datum = (float) endecoder.decodeByte(encoded);
-            mesh.setVertexTypeDatum(vertexType, vertexIndex, datum);
+    private static boolean isShortEncoded(VertexType vertexType) {
+        switch (vertexType) {
+            case Color_R:
+            case Color_G:
+            case Color_B:
+            case Color_A:
+            case ImageCoord_X:
+            case ImageCoord_Y:
+                return false;
+            default:
+                return true;
         }
     }
 
@@ -117,32 +138,37 @@ public class MbMshFormat extends AMeshFormat {
         return new EnDecoder(min, max);
     }
 
-    private static void readFaces(Mesh mesh, PrimitiveInputStream pis, short version, int metadata) throws IOException {
+    private static void readFaces(IMeshSink sink, PrimitiveInputStream pis, short version, int metadata) throws IOException, MeshIOException {
         int faceCount = pis.readInt(IS_BIG_ENDIAN);
+        if (faceCount < 0)
+            throw new MeshIOException("Invalid face count: " + faceCount);
+        sink.expectFaces(faceCount);
         int numBytes = calculateNumBytes(faceCount);
-        for (int faceIndex = 0; faceIndex < faceCount; faceIndex++) {
-            int v0 = (int) pis.readLong(IS_BIG_ENDIAN, numBytes);
-            int v1 = (int) pis.readLong(IS_BIG_ENDIAN, numBytes);
-            int v2 = (int) pis.readLong(IS_BIG_ENDIAN, numBytes);
-            mesh.appendFace(new Face(v0, v1, v2));
+        int[] batch = new int[3 * Math.min(faceCount, BATCH_LENGTH)];
+        for (int firstFace = 0; firstFace < faceCount; firstFace += BATCH_LENGTH) {
+            int batchLength = Math.min(BATCH_LENGTH, faceCount - firstFace);
+            for (int index = 0; index < 3 * batchLength; index++) {
+                batch[index] = (int) pis.readLong(IS_BIG_ENDIAN, numBytes);
+            }
+            sink.faces(firstFace, batch, batchLength);
         }
     }
 
-    private static short createMetadata(Mesh mesh) throws MeshIOException {
-        if (!mesh.hasVertexTypeData(VertexType.Position_X) || !mesh.hasVertexTypeData(VertexType.Position_Y))
+    private static short createMetadata(IMeshData data) throws MeshIOException {
+        if (!data.hasVertexTypeData(VertexType.Position_X) || !data.hasVertexTypeData(VertexType.Position_Y))
             throw new MeshIOException("No position data found");
         short metaData = 0;
-        boolean is3D = mesh.hasVertexTypeData(VertexType.Position_Z);
+        boolean is3D = data.hasVertexTypeData(VertexType.Position_Z);
         if (is3D)
             metaData |= IS_3D_MASK;
-        if (mesh.hasVertexTypeData(VertexType.Normal_X) && mesh.hasVertexTypeData(VertexType.Normal_Y)
-                && (!is3D || mesh.hasVertexTypeData(VertexType.Normal_Z)))
+        if (data.hasVertexTypeData(VertexType.Normal_X) && data.hasVertexTypeData(VertexType.Normal_Y)
+                && (!is3D || data.hasVertexTypeData(VertexType.Normal_Z)))
             metaData |= IS_NORMALS_MASK;
-        if (mesh.hasVertexTypeData(VertexType.ImageCoord_X) && mesh.hasVertexTypeData(VertexType.ImageCoord_Y))
+        if (data.hasVertexTypeData(VertexType.ImageCoord_X) && data.hasVertexTypeData(VertexType.ImageCoord_Y))
             metaData |= IS_IMAGE_COORDS_MASK;
-        if (mesh.hasVertexTypeData(VertexType.Color_R) && mesh.hasVertexTypeData(VertexType.Color_G) && mesh.hasVertexTypeData(VertexType.Color_B)) {
+        if (data.hasVertexTypeData(VertexType.Color_R) && data.hasVertexTypeData(VertexType.Color_G) && data.hasVertexTypeData(VertexType.Color_B)) {
             metaData |= IS_COLORS_MASK;
-            boolean isAlpha = mesh.hasVertexTypeData(VertexType.Color_A);
+            boolean isAlpha = data.hasVertexTypeData(VertexType.Color_A);
             if (isAlpha)
                 metaData |= IS_ALPHA_MASK;
         }
@@ -155,96 +181,47 @@ public class MbMshFormat extends AMeshFormat {
         pos.writeShort(metadata, IS_BIG_ENDIAN);
     }
 
-    private static void writeVertices(Mesh mesh, PrimitiveOutputStream pos, short metadata) throws IOException, MeshIOException {
-        int vertexCount = mesh.vertexCount();
+    private static void writeVertices(IMeshData data, PrimitiveOutputStream pos, short metadata) throws IOException, MeshIOException {
+        int vertexCount = data.vertexCount();
         pos.writeInt(vertexCount, IS_BIG_ENDIAN);
-        boolean is3D = (metadata & IS_3D_MASK) != 0;
-        boolean isNormals = (metadata & IS_NORMALS_MASK) != 0;
-        boolean isImages = (metadata & IS_IMAGE_COORDS_MASK) != 0;
-        boolean isColors = (metadata & IS_COLORS_MASK) != 0;
-        boolean isAlpha = (metadata & IS_ALPHA_MASK) != 0;
-        writeVertexData(mesh, pos, VertexType.Position_X);
-        writeVertexData(mesh, pos, VertexType.Position_Y);
-        if (is3D) {
-            writeVertexData(mesh, pos, VertexType.Position_Z);
-        }
-        if (isNormals) {
-            writeVertexData(mesh, pos, VertexType.Normal_X);
-            writeVertexData(mesh, pos, VertexType.Normal_Y);
-            if (is3D)
-                writeVertexData(mesh, pos, VertexType.Normal_Z);
-        }
-        if (isImages)
-            writeVertexData(mesh, pos, VertexType.ImageCoord_X);
-        writeVertexData(mesh, pos, VertexType.ImageCoord_Y);
-        if (isColors) {
-            writeVertexData(mesh, pos, VertexType.Color_R);
-            writeVertexData(mesh, pos, VertexType.Color_G);
-            writeVertexData(mesh, pos, VertexType.Color_B);
-            if (isAlpha)
-                writeVertexData(mesh, pos, VertexType.Color_A);
+        float[] batch = new float[Math.min(vertexCount, BATCH_LENGTH)];
+        for (VertexType vertexType : vertexTypes(metadata)) {
+            writeVertexData(data, pos, vertexType, batch);
         }
     }
 
-    private static void writeVertexData(Mesh mesh, PrimitiveOutputStream pos, VertexType vertexType) throws IOException, MeshIOException {
-        EnDecoder endecoder = createEnDecoder(mesh, vertexType);
+    private static void writeVertexData(IMeshData data, PrimitiveOutputStream pos, VertexType vertexType, float[] batch) throws IOException, MeshIOException {
+        int vertexCount = data.vertexCount();
+        EnDecoder endecoder = (vertexCount == 0)
+                ? new EnDecoder(0, 0)
+                : new EnDecoder(data.min(vertexType), data.max(vertexType));
         pos.writeFloat((float) endecoder.min());
         pos.writeFloat((float) endecoder.max());
-        ResizableFloatArray data = mesh.vertexTypeData(vertexType);
-        switch (vertexType) {
-            case Position_X:
-            case Position_Y:
-            case Position_Z:
-            case Normal_X:
-            case Normal_Y:
-            case Normal_Z:
-                for (int i = 0; i < data.length(); i++) {
-                    float datum = data.getAt(i);
-                    short encoded = endecoder.encodeAsShort(datum);
-                    pos.writeShort(encoded, IS_BIG_ENDIAN);
-                }
-                break;
-            case Color_R:
-            case Color_G:
-            case Color_B:
-            case Color_A:
-            case ImageCoord_X:
-            case ImageCoord_Y:
-                for (int i = 0; i < data.length(); i++) {
-                    float datum = data.getAt(i);
-                    byte encoded = endecoder.encodeAsByte(datum);
-                    pos.writeByte(encoded);
+        boolean isShort = isShortEncoded(vertexType);
+        for (int firstVertex = 0; firstVertex < vertexCount; firstVertex += BATCH_LENGTH) {
+            int batchLength = Math.min(BATCH_LENGTH, vertexCount - firstVertex);
+            data.readVertexData(vertexType, firstVertex, batch, batchLength);
+            for (int batchIndex = 0; batchIndex < batchLength; batchIndex++) {
+                if (isShort) {
+                    pos.writeShort(endecoder.encodeAsShort(batch[batchIndex]), IS_BIG_ENDIAN);
+                } else {
+                    pos.writeByte(endecoder.encodeAsByte(batch[batchIndex]));
                 }
-                break;
-            default:
-                throw new MeshIOException("Unknown vertex type: " + vertexType.name());
-        }
-    }
-
-    private static EnDecoder createEnDecoder(Mesh mesh, VertexType vertexType) {
-        ResizableFloatArray data = mesh.vertexTypeData(vertexType);
-        float min = Float.MAX_VALUE;
-        float max = Float.MIN_VALUE;
-        for (int i = 0; i < data.length(); i++) {
-            float datum = data.getAt(i);
-            if (datum < min) {
-                min = datum;
-            }
-            if (datum > max) {
-                max = datum;
             }
         }
-        return new EnDecoder(min, max);
     }
 
-    private static void writeFaces(Mesh mesh, PrimitiveOutputStream pos) throws IOException {
-        int faceCount = mesh.faceCount();
+    private static void writeFaces(IMeshData data, PrimitiveOutputStream pos) throws IOException, MeshIOException {
+        int faceCount = data.faceCount();
         pos.writeInt(faceCount, IS_BIG_ENDIAN);
         int numBytes = calculateNumBytes(faceCount);
-        for (Face face : mesh.faces()) {
-            pos.writeLong(face.getV0(), IS_BIG_ENDIAN, numBytes);
-            pos.writeLong(face.getV1(), IS_BIG_ENDIAN, numBytes);
-            pos.writeLong(face.getV2(), IS_BIG_ENDIAN, numBytes);
+        int[] batch = new int[3 * Math.min(faceCount, BATCH_LENGTH)];
+        for (int firstFace = 0; firstFace < faceCount; firstFace += BATCH_LENGTH) {
+            int batchLength = Math.min(BATCH_LENGTH, faceCount - firstFace);
+            data.readFaces(firstFace, batch, batchLength);
+            for (int index = 0; index < 3 * batchLength; index++) {
+                pos.writeLong(batch[index], IS_BIG_ENDIAN, numBytes);
+            }
         }
     }
 
@@ -3,13 +3,15 @@ package com.ripplargames.meshio.meshformats.obj;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import com.ripplargames.meshio.Face;
-import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.IMeshData;
+import com.ripplargames.meshio.IMeshSink;
+import com.ripplargames.meshio.MeshHeader;
 import com.ripplargames.meshio.MeshIOException;
 import com.ripplargames.meshio.meshformats.AMeshFormat;
 import com.ripplargames.meshio.util.PrimitiveInputStream;
@@ -24,28 +26,31 @@ public class ObjFormat extends AMeshFormat {
     }
 
     @Override
-    protected Mesh read(PrimitiveInputStream pis) throws IOException, MeshIOException {
+    protected void read(PrimitiveInputStream pis, IMeshSink sink) throws IOException, MeshIOException {
         List<float[]> positionColors = new ArrayList<float[]>();
         List<float[]> imageCoords = new ArrayList<float[]>();
         List<float[]> normals = new ArrayList<float[]>();
         Map<VertexDataIndices, Integer> vertexDataVertexIndices = new HashMap<VertexDataIndices, Integer>();
-        Mesh mesh = new Mesh();
-        readAllDataAndAddFaces(pis, positionColors, imageCoords, normals, vertexDataVertexIndices, mesh);
-        addVertices(mesh, positionColors, imageCoords, normals, vertexDataVertexIndices);
-        return mesh;
+        sink.begin(new MeshHeader(MeshHeader.UNKNOWN_COUNT, MeshHeader.UNKNOWN_COUNT, EnumSet.noneOf(VertexType.class)));
+        readAllDataAndAddFaces(pis, positionColors, imageCoords, normals, vertexDataVertexIndices, sink);
+        addVertices(sink, positionColors, imageCoords, normals, vertexDataVertexIndices);
+        sink.end();
     }
 
     @Override
-    protected void write(Mesh mesh, PrimitiveOutputStream pos) throws IOException, MeshIOException {
-        Set<VertexType> vertexTypes = mesh.vertexTypes();
+    protected void write(IMeshData data, PrimitiveOutputStream pos) throws IOException, MeshIOException {
+        Set<VertexType> vertexTypes = data.vertexTypes();
         boolean isColors = vertexTypes.contains(VertexType.Color_R) && vertexTypes.contains(VertexType.Color_G) && vertexTypes.contains(VertexType.Color_B);
         boolean isImageCoords = vertexTypes.contains(VertexType.ImageCoord_X) && vertexTypes.contains(VertexType.ImageCoord_Y);
         boolean isNormals = vertexTypes.contains(VertexType.Normal_X) && vertexTypes.contains(VertexType.Normal_Y) && vertexTypes.contains(VertexType.Normal_Z);
-        writeVertices(mesh, pos, isColors, isImageCoords, isNormals);
-        writeFaces(mesh, pos, isImageCoords, isNormals);
+        writeVertices(data, pos, isColors, isImageCoords, isNormals);
+        writeFaces(data, pos, isImageCoords, isNormals);
     }
 
-    private static void readAllDataAndAddFaces(PrimitiveInputStream pis, List<float[]> positionColors, List<float[]> imageCoords, List<float[]> normals, Map<VertexDataIndices, Integer> vertexDataVertexIndices, Mesh mesh) throws MeshIOException {
+    private static void readAllDataAndAddFaces(PrimitiveInputStream pis, List<float[]> positionColors, List<float[]> imageCoords, List<float[]> normals, Map<VertexDataIndices, Integer> vertexDataVertexIndices, IMeshSink sink) throws MeshIOException {
+        int[] faceBatch = new int[3 * BATCH_LENGTH];
+        int batchLength = 0;
+        int firstFace = 0;
         try {
             for (int next = pis.peek(); next != -1; next = pis.peek()) {
                 String line = pis.readLine();
@@ -54,7 +59,13 @@ public class ObjFormat extends AMeshFormat {
                 if ("#".equals(lineType)) {
                     // empty line or comment - ignore
                 } else if ("f".equals(lineType)) {
-                    appendFace(parts, mesh, vertexDataVertexIndices, imageCoords.size(), normals.size());
+                    appendFace(parts, faceBatch, 3 * batchLength, vertexDataVertexIndices, imageCoords.size(), normals.size());
+                    batchLength++;
+                    if (batchLength == BATCH_LENGTH) {
+                        sink.faces(firstFace, faceBatch, batchLength);
+                        firstFace += batchLength;
+                        batchLength = 0;
+                    }
                 } else {
                     if ("v".equals(lineType)) {
                         positionColors.add(toFloatArrayFromIndex1(parts));
@@ -68,6 +79,9 @@ public class ObjFormat extends AMeshFormat {
         } catch (IOException e) {
             // end of file
         }
+        if (batchLength > 0) {
+            sink.faces(firstFace, faceBatch, batchLength);
+        }
     }
 
     private static float[] toFloatArrayFromIndex1(List<String> parts) throws MeshIOException {
@@ -84,14 +98,15 @@ public class ObjFormat extends AMeshFormat {
         return floatArray;
     }
 
-    private static void appendFace(List<String> parts, Mesh mesh, Map<VertexDataIndices, Integer> vertexDataVertexIndices, int currentImageCoordsCount, int currentNormalCount) throws MeshIOException {
-        int[] face = new int[3];
+    private static void appendFace(List<String> parts, int[] faces, int faceOffset, Map<VertexDataIndices, Integer> vertexDataVertexIndices, int currentImageCoordsCount, int currentNormalCount) throws MeshIOException {
         for (int i = 1; i <= 3; i++) {
             String part = parts.get(i);
-            List<String> indexParts = StringSplitter.splitChar(part, '/');
-            int positionIndex = parseInt(indexParts.get(0));
-            int imageCoordIndex = (indexParts.size() < 2) ? 0 : parseInt(indexParts.get(1));
-            int normalIndex = (indexParts.size() < 3) ? 0 : parseInt(indexParts.get(2));
+            // Empty parts are kept so that "v//vn" reads the normal index rather than an image coordinate index.
+            int firstSlash = part.indexOf('/');
+            int secondSlash = (firstSlash == -1) ? -1 : part.indexOf('/', firstSlash + 1);
+            int positionIndex = parseInt((firstSlash == -1) ? part : part.substring(0, firstSlash));
+            int imageCoordIndex = (firstSlash == -1) ? 0 : parseInt(part.substring(firstSlash + 1, (secondSlash == -1) ? part.length() : secondSlash));
+            int normalIndex = (secondSlash == -1) ? 0 : parseInt(part.substring(secondSlash + 1));
             if (imageCoordIndex < 0)
                 imageCoordIndex += currentImageCoordsCount;
             if (normalIndex < 0)
@@ -102,9 +117,8 @@ public class ObjFormat extends AMeshFormat {
                 index = vertexDataVertexIndices.size();
                 vertexDataVertexIndices.put(vertexDataIndices, index);
             }
-            face[i - 1] = index;
+            faces[faceOffset + i - 1] = index;
         }
-        mesh.appendFace(new Face(face[0], face[1], face[2]));
     }
 
     private static int parseInt(String s) throws MeshIOException {
@@ -117,39 +131,63 @@ public class ObjFormat extends AMeshFormat {
         }
     }
 
-    private static void addVertices(Mesh mesh, List<float[]> positionColors, List<float[]> imageCoords, List<float[]> normals, Map<VertexDataIndices, Integer> vertexDataVertexIndices) {
+    private static void addVertices(IMeshSink sink, List<float[]> positionColors, List<float[]> imageCoords, List<float[]> normals, Map<VertexDataIndices, Integer> vertexDataVertexIndices) throws MeshIOException {
+        int vertexCount = vertexDataVertexIndices.size();
+        VertexDataIndices[] vertexDataIndicesByVertex = new VertexDataIndices[vertexCount];
         for (Map.Entry<VertexDataIndices, Integer> entry : vertexDataVertexIndices.entrySet()) {
-            VertexDataIndices vertexDataIndices = entry.getKey();
-            int vertexIndex = entry.getValue();
-            int positionIndex = vertexDataIndices.positionIndex();
-            int imageCoordIndex = vertexDataIndices.imageCoordIndex();
-            int normalIndex = vertexDataIndices.normalIndex();
-            float[] positionColorData = arrayOrNull(positionIndex, positionColors);
-            float[] imageCoordData = arrayOrNull(imageCoordIndex, imageCoords);
-            float[] normalData = arrayOrNull(normalIndex, normals);
-            if ((positionColorData != null) && (positionColorData.length >= 3)) {
-                mesh.setVertexTypeDatum(VertexType.Position_X, vertexIndex, positionColorData[0]);
-                mesh.setVertexTypeDatum(VertexType.Position_Y, vertexIndex, positionColorData[1]);
-                mesh.setVertexTypeDatum(VertexType.Position_Z, vertexIndex, positionColorData[2]);
-                if (positionColorData.length >= 6) {
-                    mesh.setVertexTypeDatum(VertexType.Color_R, vertexIndex, positionColorData[3]);
-                    mesh.setVertexTypeDatum(VertexType.Color_G, vertexIndex, positionColorData[4]);
-                    mesh.setVertexTypeDatum(VertexType.Color_B, vertexIndex, positionColorData[5]);
-                    if (positionColorData.length == 7) {
-                        mesh.setVertexTypeDatum(VertexType.Color_A, vertexIndex, positionColorData[6]);
-                    }
-                }
+            vertexDataIndicesByVertex[entry.getValue()] = entry.getKey();
+        }
+        VertexType[] vertexTypes = VertexType.values();
+        boolean[] present = new boolean[vertexTypes.length];
+        float[][] scratch = new float[vertexTypes.length][1];
+        for (VertexDataIndices vertexDataIndices : vertexDataIndicesByVertex) {
+            setVertex(scratch, present, 0, vertexDataIndices, positionColors, imageCoords, normals);
+        }
+        float[][] columns = new float[vertexTypes.length][Math.min(vertexCount, BATCH_LENGTH)];
+        for (int firstVertex = 0; firstVertex < vertexCount; firstVertex += BATCH_LENGTH) {
+            int batchLength = Math.min(BATCH_LENGTH, vertexCount - firstVertex);
+            for (float[] column : columns) {
+                Arrays.fill(column, 0);
             }
-            if ((imageCoordData != null) && (imageCoordData.length == 2)) {
-                mesh.setVertexTypeDatum(VertexType.ImageCoord_X, vertexIndex, imageCoordData[0]);
-                mesh.setVertexTypeDatum(VertexType.ImageCoord_Y, vertexIndex, imageCoordData[1]);
+            for (int batchIndex = 0; batchIndex < batchLength; batchIndex++) {
+                setVertex(columns, present, batchIndex, vertexDataIndicesByVertex[firstVertex + batchIndex], positionColors, imageCoords, normals);
             }
-            if ((normalData != null) && (normalData.length == 3)) {
-                mesh.setVertexTypeDatum(VertexType.Normal_X, vertexIndex, normalData[0]);
-                mesh.setVertexTypeDatum(VertexType.Normal_Y, vertexIndex, normalData[1]);
-                mesh.setVertexTypeDatum(VertexType.Normal_Z, vertexIndex, normalData[2]);
+            for (VertexType vertexType : vertexTypes) {
+                if (present[vertexType.ordinal()]) {
+                    sink.vertexData(vertexType, firstVertex, columns[vertexType.ordinal()], batchLength);
+                }
+            }
+        }
+    }
+
+    private static void setVertex(float[][] columns, boolean[] present, int batchIndex, VertexDataIndices vertexDataIndices, List<float[]> positionColors, List<float[]> imageCoords, List<float[]> normals) {
+        int positionIndex = vertexDataIndices.positionIndex();
+        float[] positionColorData = arrayOrNull(positionIndex, positionColors);
+        float[] imageCoordData = arrayOrNull(vertexDataIndices.imageCoordIndex(), imageCoords);
+        float[] normalData = arrayOrNull(vertexDataIndices.normalIndex(), normals);
+        if ((positionColorData != null) && (positionColorData.length >= 3)) {
+            set(columns, present, batchIndex, positionColorData, 0, VertexType.Position_X, VertexType.Position_Y, VertexType.Position_Z);
+            if (positionColorData.length >= 6) {
+                set(columns, present, batchIndex, positionColorData, 3, VertexType.Color_R, VertexType.Color_G, VertexType.Color_B);
+                if (positionColorData.length == 7) {
+                    set(columns, present, batchIndex, positionColorData, 6, VertexType.Color_A);
+                }
             }
         }
+        if ((imageCoordData != null) && (imageCoordData.length == 2)) {
+            set(columns, present, batchIndex, imageCoordData, 0, VertexType.ImageCoord_X, VertexType.ImageCoord_Y);
+        }
+        if ((normalData != null) && (normalData.length == 3)) {
+            set(columns, present, batchIndex, normalData, 0, VertexType.Normal_X, VertexType.Normal_Y, VertexType.Normal_Z);
+        }
+    }
+
+    private static void set(float[][] columns, boolean[] present, int batchIndex, float[] data, int dataOffset, VertexType... vertexTypes) {
+        for (int i = 0; i < vertexTypes.length; i++) {
+            int ordinal = vertexTypes[i].ordinal();
+            columns[ordinal][batchIndex] = data[dataOffset + i];
+            present[ordinal] = true;
+        }
     }
 
     private static float[] arrayOrNull(int index, List<float[]> list) {
@@ -158,8 +196,8 @@ public class ObjFormat extends AMeshFormat {
                 : list.get(index);
     }
 
-    private static void writeVertices(Mesh mesh, PrimitiveOutputStream pos, boolean isColors, boolean isImageCoords, boolean isNormals) throws IOException {
-        int vertexCount = mesh.vertexCount();
+    private static void writeVertices(IMeshData data, PrimitiveOutputStream pos, boolean isColors, boolean isImageCoords, boolean isNormals) throws IOException, MeshIOException {
+        int vertexCount = data.vertexCount();
         List<VertexType> positionColorsList = new ArrayList<VertexType>();
         positionColorsList.add(VertexType.Position_X);
         positionColorsList.add(VertexType.Position_Y);
@@ -168,40 +206,52 @@ public class ObjFormat extends AMeshFormat {
             positionColorsList.add(VertexType.Color_R);
             positionColorsList.add(VertexType.Color_G);
             positionColorsList.add(VertexType.Color_B);
-            if (mesh.hasVertexTypeData(VertexType.Color_A)) {
+            if (data.hasVertexTypeData(VertexType.Color_A)) {
                 positionColorsList.add(VertexType.Color_A);
             }
         }
-        writeVertexDataLine(mesh, pos, "v", vertexCount, positionColorsList);
+        writeVertexDataLine(data, pos, "v", vertexCount, positionColorsList);
         if (isImageCoords)
-            writeVertexDataLine(mesh, pos, "vt", vertexCount, Arrays.asList(VertexType.ImageCoord_X, VertexType.ImageCoord_Y));
+            writeVertexDataLine(data, pos, "vt", vertexCount, Arrays.asList(VertexType.ImageCoord_X, VertexType.ImageCoord_Y));
         if (isNormals)
-            writeVertexDataLine(mesh, pos, "vn", vertexCount, Arrays.asList(VertexType.Normal_X, VertexType.Normal_Y, VertexType.Normal_Z));
+            writeVertexDataLine(data, pos, "vn", vertexCount, Arrays.asList(VertexType.Normal_X, VertexType.Normal_Y, VertexType.Normal_Z));
     }
 
-    private static void writeVertexDataLine(Mesh mesh, PrimitiveOutputStream pos, String id, int vertexCount, List<VertexType> vertexTypes) throws IOException {
-        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
-            StringBuilder sb = new StringBuilder();
-            sb.append(id);
-            for (VertexType vertexType : vertexTypes) {
-                sb.append(' ');
-                float datum = mesh.vertexTypeDatum(vertexType, vertexIndex);
-                sb.append(datum);
+    private static void writeVertexDataLine(IMeshData data, PrimitiveOutputStream pos, String id, int vertexCount, List<VertexType> vertexTypes) throws IOException, MeshIOException {
+        float[][] columns = new float[vertexTypes.size()][Math.min(vertexCount, BATCH_LENGTH)];
+        for (int firstVertex = 0; firstVertex < vertexCount; firstVertex += BATCH_LENGTH) {
+            int batchLength = Math.min(BATCH_LENGTH, vertexCount - firstVertex);
+            for (int vertexTypeIndex = 0; vertexTypeIndex < columns.length; vertexTypeIndex++) {
+                data.readVertexData(vertexTypes.get(vertexTypeIndex), firstVertex, columns[vertexTypeIndex], batchLength);
+            }
+            for (int batchIndex = 0; batchIndex < batchLength; batchIndex++) {
+                StringBuilder sb = new StringBuilder();
+                sb.append(id);
+                for (float[] column : columns) {
+                    sb.append(' ');
+                    sb.append(column[batchIndex]);
+                }
+                String line = sb.toString();
+                pos.writeLine(line);
             }
-            String line = sb.toString();
-            pos.writeLine(line);
         }
     }
 
-    private static void writeFaces(Mesh mesh, PrimitiveOutputStream pos, boolean isImageCoords, boolean isNormals) throws IOException {
-        for (Face face : mesh.faces()) {
-            StringBuilder sb = new StringBuilder();
-            sb.append("f");
-            writeFaceIndice(sb, face.getV0(), isImageCoords, isNormals);
-            writeFaceIndice(sb, face.getV1(), isImageCoords, isNormals);
-            writeFaceIndice(sb, face.getV2(), isImageCoords, isNormals);
-            String line = sb.toString();
-            pos.writeLine(line);
+    private static void writeFaces(IMeshData data, PrimitiveOutputStream pos, boolean isImageCoords, boolean isNormals) throws IOException, MeshIOException {
+        int faceCount = data.faceCount();
+        int[] faces = new int[3 * Math.min(faceCount, BATCH_LENGTH)];
+        for (int firstFace = 0; firstFace < faceCount; firstFace += BATCH_LENGTH) {
+            int batchLength = Math.min(BATCH_LENGTH, faceCount - firstFace);
+            data.readFaces(firstFace, faces, batchLength);
+            for (int batchIndex = 0; batchIndex < batchLength; batchIndex++) {
+                StringBuilder sb = new StringBuilder();
+                sb.append("f");
+                writeFaceIndice(sb, faces[3 * batchIndex], isImageCoords, isNormals);
+                writeFaceIndice(sb, faces[3 * batchIndex + 1], isImageCoords, isNormals);
+                writeFaceIndice(sb, faces[3 * batchIndex + 2], isImageCoords, isNormals);
+                String line = sb.toString();
+                pos.writeLine(line);
+            }
         }
     }
 
@@ -2,12 +2,17 @@ package com.ripplargames.meshio.meshformats.ply;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.ripplargames.meshio.Face;
-import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.IMeshData;
+import com.ripplargames.meshio.IMeshSink;
+import com.ripplargames.meshio.MeshHeader;
 import com.ripplargames.meshio.MeshIOException;
 import com.ripplargames.meshio.meshformats.AMeshFormat;
 import com.ripplargames.meshio.util.PrimitiveInputStream;
@@ -42,6 +47,10 @@ public abstract class PlyFormat extends AMeshFormat {
     private static final String PROPERTY_COLOR_A_NAME = "alpha";
     private static final String PROPERTY_TEXTURE_COORDINATE_U_NAME = "u";
     private static final String PROPERTY_TEXTURE_COORDINATE_V_NAME = "v";
+    private static final String PROPERTY_TANGENT_X_NAME = "tx";
+    private static final String PROPERTY_TANGENT_Y_NAME = "ty";
+    private static final String PROPERTY_TANGENT_Z_NAME = "tz";
+    private static final String PROPERTY_TANGENT_W_NAME = "tw";
 
     static {
         addPropertyNameMapping(VertexType.Position_X, PROPERTY_POSITION_X_NAME);
@@ -56,6 +65,10 @@ public abstract class PlyFormat extends AMeshFormat {
         addPropertyNameMapping(VertexType.Color_A, PROPERTY_COLOR_A_NAME);
         addPropertyNameMapping(VertexType.ImageCoord_X, PROPERTY_TEXTURE_COORDINATE_U_NAME);
         addPropertyNameMapping(VertexType.ImageCoord_Y, PROPERTY_TEXTURE_COORDINATE_V_NAME);
+        addPropertyNameMapping(VertexType.Tangent_X, PROPERTY_TANGENT_X_NAME);
+        addPropertyNameMapping(VertexType.Tangent_Y, PROPERTY_TANGENT_Y_NAME);
+        addPropertyNameMapping(VertexType.Tangent_Z, PROPERTY_TANGENT_Z_NAME);
+        addPropertyNameMapping(VertexType.Tangent_W, PROPERTY_TANGENT_W_NAME);
     }
 
     private final String encoding;
@@ -72,22 +85,36 @@ public abstract class PlyFormat extends AMeshFormat {
         PROPERTY_NAMES.put(type, name);
     }
 
-    private void readVertices(PrimitiveInputStream pis, Mesh mesh, List<PlyVertexDataType> plyVertexDataTypes, int numVertices) throws IOException {
-        for (int vertexIndex = 0; vertexIndex < numVertices; vertexIndex++) {
-            float[] vertexData = readVertexData(pis, plyVertexDataTypes);
-            for (int plyVertexDataTypeIndex = 0; plyVertexDataTypeIndex < plyVertexDataTypes.size(); plyVertexDataTypeIndex++) {
+    private void readVertices(PrimitiveInputStream pis, IMeshSink sink, List<PlyVertexDataType> plyVertexDataTypes, int numVertices) throws IOException, MeshIOException {
+        int plyVertexDataTypeCount = plyVertexDataTypes.size();
+        float[][] columns = new float[plyVertexDataTypeCount][Math.min(numVertices, BATCH_LENGTH)];
+        for (int firstVertex = 0; firstVertex < numVertices; firstVertex += BATCH_LENGTH) {
+            int batchLength = Math.min(BATCH_LENGTH, numVertices - firstVertex);
+            for (int batchIndex = 0; batchIndex < batchLength; batchIndex++) {
+                float[] vertexData = readVertexData(pis, plyVertexDataTypes);
+                for (int plyVertexDataTypeIndex = 0; plyVertexDataTypeIndex < plyVertexDataTypeCount; plyVertexDataTypeIndex++) {
+                    columns[plyVertexDataTypeIndex][batchIndex] = vertexData[plyVertexDataTypeIndex];
+                }
+            }
+            for (int plyVertexDataTypeIndex = 0; plyVertexDataTypeIndex < plyVertexDataTypeCount; plyVertexDataTypeIndex++) {
                 VertexType vertexType = plyVertexDataTypes.get(plyVertexDataTypeIndex).vertexType();
-                float vertexDatum = vertexData[plyVertexDataTypeIndex];
-                mesh.setVertexTypeDatum(vertexType, vertexIndex, vertexDatum);
+                sink.vertexData(vertexType, firstVertex, columns[plyVertexDataTypeIndex], batchLength);
             }
         }
     }
 
-    private void readFaces(PrimitiveInputStream pis, Mesh mesh, PlyDataType countType, PlyDataType indexType,
-                           int numFaces) throws IOException {
-        for (int faceIndex = 0; faceIndex < numFaces; faceIndex++) {
-            int[] faceIndices = readFaceIndices(pis, countType, indexType);
-            mesh.appendFace(new Face(faceIndices[0], faceIndices[1], faceIndices[2]));
+    private void readFaces(PrimitiveInputStream pis, IMeshSink sink, PlyDataType countType, PlyDataType indexType,
+                           int numFaces) throws IOException, MeshIOException {
+        int[] batch = new int[3 * Math.min(numFaces, BATCH_LENGTH)];
+        for (int firstFace = 0; firstFace < numFaces; firstFace += BATCH_LENGTH) {
+            int batchLength = Math.min(BATCH_LENGTH, numFaces - firstFace);
+            for (int batchIndex = 0; batchIndex < batchLength; batchIndex++) {
+                int[] faceIndices = readFaceIndices(pis, countType, indexType);
+                batch[3 * batchIndex] = faceIndices[0];
+                batch[3 * batchIndex + 1] = faceIndices[1];
+                batch[3 * batchIndex + 2] = faceIndices[2];
+            }
+            sink.faces(firstFace, batch, batchLength);
         }
     }
 
@@ -121,7 +148,7 @@ public abstract class PlyFormat extends AMeshFormat {
     }
 
     @Override
-    protected Mesh read(PrimitiveInputStream pis) throws IOException, MeshIOException {
+    protected void read(PrimitiveInputStream pis, IMeshSink sink) throws IOException, MeshIOException {
         String line;
         line = readNonCommentLine(pis);
         if (!PLY.equals(line))
@@ -148,6 +175,8 @@ public abstract class PlyFormat extends AMeshFormat {
             List<String> lineParts = StringSplitter.splitChar(line, ' ');
             if (lineParts.size() == 3 && ELEMENT.equals(lineParts.get(0))) {
                 int parsedCount = Integer.parseInt(lineParts.get(2));
+                if (parsedCount < 0)
+                    throw new MeshIOException("Invalid element count: " + line);
                 if (VERTEX.equals(lineParts.get(1))) {
                     isVertexHeader = true;
                     isFaceHeader = false;
@@ -181,50 +210,79 @@ public abstract class PlyFormat extends AMeshFormat {
             throw new MeshIOException("Failed to read vertex data");
         if (numFaces == -1 || faceIndexCountType == null || faceIndexType == null)
             throw new MeshIOException("Failed to read face indices");
-        Mesh mesh = new Mesh();
+        Set<VertexType> vertexTypes = EnumSet.noneOf(VertexType.class);
+        for (PlyVertexDataType plyVertexDataType : plyVertexDataTypes) {
+            vertexTypes.add(plyVertexDataType.vertexType());
+        }
+        sink.begin(new MeshHeader(numVertices, numFaces, vertexTypes, isVerticesFirst));
         if (isVerticesFirst) {
-            actualPlyFormat.readVertices(pis, mesh, plyVertexDataTypes, numVertices);
-            actualPlyFormat.readFaces(pis, mesh, faceIndexCountType, faceIndexType, numFaces);
+            actualPlyFormat.readVertices(pis, sink, plyVertexDataTypes, numVertices);
+            actualPlyFormat.readFaces(pis, sink, faceIndexCountType, faceIndexType, numFaces);
         } else {
-            actualPlyFormat.readFaces(pis, mesh, faceIndexCountType, faceIndexType, numFaces);
-            actualPlyFormat.readVertices(pis, mesh, plyVertexDataTypes, numVertices);
+            actualPlyFormat.readFaces(pis, sink, faceIndexCountType, faceIndexType, numFaces);
+            actualPlyFormat.readVertices(pis, sink, plyVertexDataTypes, numVertices);
         }
-        return mesh;
+        sink.end();
     }
 
     @Override
-    protected void write(Mesh mesh, PrimitiveOutputStream pos) throws IOException, MeshIOException {
-        pos.writeLine(PLY);
-        pos.writeLine(FORMAT + ' ' + encoding + ' ' + version);
-        int vertexCount = mesh.vertexCount();
-        int faceCount = mesh.faceCount();
-        pos.writeLine("element vertex " + vertexCount);
+    protected void write(IMeshData data, PrimitiveOutputStream pos) throws IOException, MeshIOException {
+        int vertexCount = data.vertexCount();
+        int faceCount = data.faceCount();
         List<VertexType> vertexTypes = new ArrayList<VertexType>();
         for (VertexType vertexType : VertexType.values()) {
-            if (mesh.hasVertexTypeData(vertexType)) {
+            if (data.hasVertexTypeData(vertexType)) {
                 vertexTypes.add(vertexType);
             }
         }
-        for (VertexType vertexType : vertexTypes)
-            pos.writeLine("property float " + PROPERTY_NAMES.get(vertexType));
-        pos.writeLine("element face " + faceCount);
-        pos.writeLine("property list uchar int vertex_index");
-        pos.writeLine(END_HEADER);
+        writeHeader(pos, vertexCount, faceCount, vertexTypes);
         int vertexTypeCount = vertexTypes.size();
+        float[][] columns = new float[vertexTypeCount][Math.min(vertexCount, BATCH_LENGTH)];
         float[] vertexData = new float[vertexTypeCount];
-        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
-            for (int vertexTypeIndex = 0; vertexTypeIndex < vertexTypes.size(); vertexTypeIndex++) {
-                VertexType vertexType = vertexTypes.get(vertexTypeIndex);
-                float datum = mesh.vertexTypeDatum(vertexType, vertexIndex);
-                vertexData[vertexTypeIndex] = datum;
+        for (int firstVertex = 0; firstVertex < vertexCount; firstVertex += BATCH_LENGTH) {
+            int batchLength = Math.min(BATCH_LENGTH, vertexCount - firstVertex);
+            for (int vertexTypeIndex = 0; vertexTypeIndex < vertexTypeCount; vertexTypeIndex++) {
+                data.readVertexData(vertexTypes.get(vertexTypeIndex), firstVertex, columns[vertexTypeIndex], batchLength);
+            }
+            for (int batchIndex = 0; batchIndex < batchLength; batchIndex++) {
+                for (int vertexTypeIndex = 0; vertexTypeIndex < vertexTypeCount; vertexTypeIndex++) {
+                    vertexData[vertexTypeIndex] = columns[vertexTypeIndex][batchIndex];
+                }
+                writeVertexData(pos, PlyDataType.Float, vertexData);
             }
-            writeVertexData(pos, PlyDataType.Float, vertexData);
         }
-        for (Face face : mesh.faces()) {
-            writeFaceIndices(pos, face, PlyDataType.Uchar, PlyDataType.Int);
+        int[] faces = new int[3 * Math.min(faceCount, BATCH_LENGTH)];
+        for (int firstFace = 0; firstFace < faceCount; firstFace += BATCH_LENGTH) {
+            int batchLength = Math.min(BATCH_LENGTH, faceCount - firstFace);
+            data.readFaces(firstFace, faces, batchLength);
+            for (int batchIndex = 0; batchIndex < batchLength; batchIndex++) {
+                Face face = new Face(faces[3 * batchIndex], faces[3 * batchIndex + 1], faces[3 * batchIndex + 2]);
+                writeFaceIndices(pos, face, PlyDataType.Uchar, PlyDataType.Int);
+            }
         }
     }
 
+    private void writeHeader(PrimitiveOutputStream pos, int vertexCount, int faceCount, List<VertexType> vertexTypes) throws IOException {
+        pos.writeLine(PLY);
+        pos.writeLine(FORMAT + ' ' + encoding + ' ' + version);
+        pos.writeLine("element vertex " + vertexCount);
+        for (VertexType vertexType : vertexTypes)
+            pos.writeLine("property float " + PROPERTY_NAMES.get(vertexType));
+        pos.writeLine("element face " + faceCount);
+        pos.writeLine("property list uchar int vertex_index");
+        pos.writeLine(END_HEADER);
+    }
+
+    /**
+     * Streams when the counts are known up front and the vertices arrive in rows before the faces.
+     */
+    @Override
+    protected IMeshSink streamingWriter(MeshHeader header, PrimitiveOutputStream pos) {
+        boolean isCounted = header.vertexCount() != MeshHeader.UNKNOWN_COUNT && header.faceCount() != MeshHeader.UNKNOWN_COUNT;
+        boolean hasRows = !header.vertexTypes().isEmpty() || header.vertexCount() == 0;
+        return (isCounted && hasRows && header.isSequential()) ? new StreamingWriter(pos) : null;
+    }
+
     public abstract float[] readVertexData(PrimitiveInputStream pis, List<PlyVertexDataType> plyVertexDataTypes) throws IOException;
 
     public abstract void writeVertexData(PrimitiveOutputStream pos, PlyDataType vertexType, float[] vertexData) throws IOException;
@@ -233,4 +291,109 @@ public abstract class PlyFormat extends AMeshFormat {
 
     public abstract void writeFaceIndices(PrimitiveOutputStream pos, Face face, PlyDataType countType, PlyDataType indicesType)
             throws IOException;
+
+    /**
+     * Writes each batch of vertices as rows once all of its vertex types have arrived, and the faces as they arrive.
+     */
+    private final class StreamingWriter implements IMeshSink {
+        private final PrimitiveOutputStream pos;
+        private final int[] columnIndices = new int[VertexType.values().length];
+        private int vertexCount;
+        private int faceCount;
+        private float[][] columns;
+        private float[] vertexData;
+        private int batchFirstVertex;
+        private int batchLength;
+        private int batchColumnCount;
+        private int writtenVertexCount;
+        private int writtenFaceCount;
+
+        StreamingWriter(PrimitiveOutputStream pos) {
+            this.pos = pos;
+        }
+
+        @Override
+        public void begin(MeshHeader header) throws MeshIOException {
+            vertexCount = header.vertexCount();
+            faceCount = header.faceCount();
+            List<VertexType> vertexTypes = new ArrayList<VertexType>(header.vertexTypes());
+            Arrays.fill(columnIndices, -1);
+            for (int columnIndex = 0; columnIndex < vertexTypes.size(); columnIndex++) {
+                columnIndices[vertexTypes.get(columnIndex).ordinal()] = columnIndex;
+            }
+            columns = new float[vertexTypes.size()][0];
+            vertexData = new float[vertexTypes.size()];
+            try {
+                writeHeader(pos, vertexCount, faceCount, vertexTypes);
+            } catch (IOException e) {
+                throw new MeshIOException("Failed to write mesh", e);
+            }
+        }
+
+        @Override
+        public void expectFaces(int faceCount) {
+        }
+
+        @Override
+        public void vertexData(VertexType vertexType, int firstVertex, float[] data, int vertexCount) throws MeshIOException {
+            int columnIndex = columnIndices[vertexType.ordinal()];
+            if (columnIndex == -1) {
+                throw new MeshIOException("Vertex type: " + vertexType.name() + " is not in the header");
+            }
+            if (batchColumnCount == 0) {
+                batchFirstVertex = firstVertex;
+                batchLength = vertexCount;
+            }
+            if (firstVertex != writtenVertexCount || firstVertex != batchFirstVertex || vertexCount != batchLength) {
+                throw new MeshIOException("Vertices: " + firstVertex + " to " + (firstVertex + vertexCount) + " arrived out of order");
+            }
+            if (columns[columnIndex].length < vertexCount) {
+                columns[columnIndex] = new float[vertexCount];
+            }
+            System.arraycopy(data, 0, columns[columnIndex], 0, vertexCount);
+            batchColumnCount++;
+            if (batchColumnCount == columns.length) {
+                try {
+                    for (int batchIndex = 0; batchIndex < batchLength; batchIndex++) {
+                        for (int index = 0; index < columns.length; index++) {
+                            vertexData[index] = columns[index][batchIndex];
+                        }
+                        writeVertexData(pos, PlyDataType.Float, vertexData);
+                    }
+                } catch (IOException e) {
+                    throw new MeshIOException("Failed to write mesh", e);
+                }
+                writtenVertexCount += batchLength;
+                batchColumnCount = 0;
+            }
+        }
+
+        @Override
+        public void faces(int firstFace, int[] indices, int faceCount) throws MeshIOException {
+            if (writtenVertexCount != vertexCount || firstFace != writtenFaceCount) {
+                throw new MeshIOException("Faces: " + firstFace + " to " + (firstFace + faceCount) + " arrived out of order");
+            }
+            try {
+                for (int face = 0; face < faceCount; face++) {
+                    writeFaceIndices(pos, new Face(indices[3 * face], indices[3 * face + 1], indices[3 * face + 2]), PlyDataType.Uchar, PlyDataType.Int);
+                }
+            } catch (IOException e) {
+                throw new MeshIOException("Failed to write mesh", e);
+            }
+            writtenFaceCount += faceCount;
+        }
+
+        @Override
+        public void end() throws MeshIOException {
+            if (writtenVertexCount != vertexCount || writtenFaceCount != faceCount) {
+                throw new MeshIOException("Mesh ended after " + writtenVertexCount + " of " + vertexCount + " vertices and "
+                        + writtenFaceCount + " of " + faceCount + " faces");
+            }
+            try {
+                pos.flush();
+            } catch (IOException e) {
+                throw new MeshIOException("Failed to flush data, some data may be missing", e);
+            }
+        }
+    }
 }
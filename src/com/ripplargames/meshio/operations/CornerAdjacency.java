@@ -0,0 +1,30 @@
+package com.ripplargames.meshio.operations;
+
+import com.ripplargames.meshio.util.ResizableIntArray;
+
+/**
+ * Lists the face corners of every vertex: corners(offsets[v] .. offsets[v + 1]) are the indices into the face indices
+ * that refer to vertex v, in ascending order.
+ */
+class CornerAdjacency {
+    final int[] offsets;
+    final int[] corners;
+
+    CornerAdjacency(ResizableIntArray faceIndices, int vertexCount) {
+        int indexCount = faceIndices.length();
+        offsets = new int[vertexCount + 1];
+        for (int index = 0; index < indexCount; index++) {
+            offsets[faceIndices.getAt(index) + 1]++;
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            offsets[vertex + 1] += offsets[vertex];
+        }
+        corners = new int[indexCount];
+        int[] fill = new int[vertexCount];
+        for (int index = 0; index < indexCount; index++) {
+            int vertex = faceIndices.getAt(index);
+            corners[offsets[vertex] + fill[vertex]] = index;
+            fill[vertex]++;
+        }
+    }
+}
@@ -0,0 +1,529 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.IntTupleHashSet;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Simplifies a mesh with edge collapses ordered by quadric error. Each collapse moves a vertex onto one of its neighbours,
+ * so every remaining vertex keeps its original attributes. Vertices that share a position and all attributes are
+ * treated as one. Vertices that share a position but differ in attributes form a seam: they only move together, along
+ * the seam, so it stays closed. Vertices on open borders never move, and collapses that would pinch the surface into
+ * non-manifold fans are skipped.
+ * The simplifier keeps its state between calls, so successive calls produce a chain of levels of detail that reuse
+ * the accumulated quadrics. The source mesh must not be modified while it is being simplified.
+ */
+public class MeshSimplifier {
+    private static final int QUADRIC_LENGTH = 11;
+    private static final int WEIGHT = 10;
+    private static final int EMPTY = -1;
+
+    private final Mesh source;
+    private final int vertexCount;
+    private final float[] xs;
+    private final float[] ys;
+    private final float[] zs;
+    private final int[] positionIds;
+    private final int[] nextWedges;
+    private final int positionCount;
+    private final boolean[] locked;
+    private final double[] quadrics;
+    private int[] indices;
+    private int indexCount;
+
+    public MeshSimplifier(Mesh mesh) throws MeshIOException {
+        if (!mesh.hasVertexTypeData(VertexType.Position_X) || !mesh.hasVertexTypeData(VertexType.Position_Y) || !mesh.hasVertexTypeData(VertexType.Position_Z)) {
+            throw new MeshIOException("There must be (x,y,z) position data present");
+        }
+        this.source = mesh;
+        this.vertexCount = Math.max(mesh.vertexCount(), VertexCacheOptimizer.vertexCount(mesh.faceIndices()));
+        this.xs = column(mesh.vertexTypeData(VertexType.Position_X), vertexCount);
+        this.ys = column(mesh.vertexTypeData(VertexType.Position_Y), vertexCount);
+        this.zs = column(mesh.vertexTypeData(VertexType.Position_Z), vertexCount);
+        this.indices = mesh.faceIndices().copyArray();
+        this.indexCount = indices.length;
+        this.positionIds = new int[vertexCount];
+        this.nextWedges = new int[vertexCount];
+        this.positionCount = findWedges();
+        this.locked = findLockedPositions();
+        this.quadrics = createQuadrics();
+    }
+
+    private static float[] column(ResizableFloatArray data, int vertexCount) {
+        float[] column = new float[vertexCount];
+        data.get(0, column, 0, Math.min(vertexCount, data.length()));
+        return column;
+    }
+
+    public int faceCount() {
+        return indexCount / 3;
+    }
+
+    /**
+     * Collapses edges until the face count is at most targetFaceCount or no collapse with an error up to maxError is left.
+     * The error is the area weighted root mean square distance of a vertex to the planes of the faces it has absorbed.
+     */
+    public Mesh simplify(int targetFaceCount, float maxError) {
+        double maxCost = (double) maxError * maxError;
+        while (faceCount() > targetFaceCount) {
+            if (!collapsePass(targetFaceCount, maxCost)) {
+                break;
+            }
+        }
+        return createMesh();
+    }
+
+    /**
+     * Creates lodCount meshes, each aiming for reduction times the face count of the previous one.
+     */
+    public List<Mesh> createLods(int lodCount, float reduction, float maxError) {
+        if (reduction <= 0 || reduction >= 1) {
+            throw new IllegalArgumentException("Reduction must be between 0 and 1 exclusive");
+        }
+        List<Mesh> lods = new ArrayList<Mesh>();
+        for (int lod = 0; lod < lodCount; lod++) {
+            int targetFaceCount = (int) (faceCount() * reduction);
+            lods.add(simplify(targetFaceCount, maxError));
+        }
+        return lods;
+    }
+
+    /**
+     * Numbers the positions, links the vertices of each position into a ring through nextWedges and points the faces
+     * of vertices that repeat another vertex's data at that vertex instead. Returns the position count.
+     */
+    private int findWedges() throws MeshIOException {
+        List<ResizableFloatArray> columns = new ArrayList<ResizableFloatArray>();
+        for (VertexType vertexType : source.vertexTypes()) {
+            columns.add(source.vertexTypeData(vertexType));
+        }
+        IntTupleHashSet positions = new IntTupleHashSet(new ResizableIntArray(), 3, vertexCount);
+        ResizableIntArray firstWedges = new ResizableIntArray(2, vertexCount);
+        int[] canonical = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            int x = Float.floatToIntBits(xs[vertex] + 0.0f);
+            int y = Float.floatToIntBits(ys[vertex] + 0.0f);
+            int z = Float.floatToIntBits(zs[vertex] + 0.0f);
+            if (positions.add(x, y, z)) {
+                firstWedges.append(vertex);
+                nextWedges[vertex] = vertex;
+            }
+            int positionId = positions.indexOf(x, y, z);
+            positionIds[vertex] = positionId;
+            canonical[vertex] = vertex;
+            int firstWedge = firstWedges.getAt(positionId);
+            if (firstWedge != vertex) {
+                int wedge = firstWedge;
+                do {
+                    if (isSameData(columns, wedge, vertex)) {
+                        canonical[vertex] = wedge;
+                        break;
+                    }
+                    wedge = nextWedges[wedge];
+                } while (wedge != firstWedge);
+                if (canonical[vertex] == vertex) {
+                    nextWedges[vertex] = nextWedges[firstWedge];
+                    nextWedges[firstWedge] = vertex;
+                }
+            }
+        }
+        for (int index = 0; index < indexCount; index++) {
+            indices[index] = canonical[indices[index]];
+        }
+        return positions.size();
+    }
+
+    private static boolean isSameData(List<ResizableFloatArray> columns, int a, int b) {
+        for (ResizableFloatArray column : columns) {
+            float datumA = (a < column.length()) ? column.getAt(a) : 0;
+            float datumB = (b < column.length()) ? column.getAt(b) : 0;
+            if (Float.floatToIntBits(datumA + 0.0f) != Float.floatToIntBits(datumB + 0.0f)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean[] findLockedPositions() throws MeshIOException {
+        boolean[] locked = new boolean[positionCount];
+        IntTupleHashSet edges = new IntTupleHashSet(new ResizableIntArray(), 2, indexCount);
+        for (int index = 0; index < indexCount; index++) {
+            edges.add(positionIds[indices[index]], positionIds[indices[nextCorner(index)]]);
+        }
+        for (int index = 0; index < indexCount; index++) {
+            int a = positionIds[indices[index]];
+            int b = positionIds[indices[nextCorner(index)]];
+            if (edges.indexOf(b, a) == -1) {
+                locked[a] = true;
+                locked[b] = true;
+            }
+        }
+        return locked;
+    }
+
+    private static int nextCorner(int index) {
+        return (index % 3 == 2) ? index - 2 : index + 1;
+    }
+
+    private double[] createQuadrics() {
+        double[] quadrics = new double[vertexCount * QUADRIC_LENGTH];
+        double[] normal = new double[3];
+        for (int index = 0; index < indexCount; index += 3) {
+            int a = indices[index];
+            int b = indices[index + 1];
+            int c = indices[index + 2];
+            double area = normal(a, b, c, normal) * 0.5;
+            double length = area * 2;
+            if (length <= 0) {
+                continue;
+            }
+            double nx = normal[0] / length;
+            double ny = normal[1] / length;
+            double nz = normal[2] / length;
+            double d = -(nx * xs[a] + ny * ys[a] + nz * zs[a]);
+            for (int corner = 0; corner < 3; corner++) {
+                int base = indices[index + corner] * QUADRIC_LENGTH;
+                quadrics[base] += area * nx * nx;
+                quadrics[base + 1] += area * nx * ny;
+                quadrics[base + 2] += area * nx * nz;
+                quadrics[base + 3] += area * nx * d;
+                quadrics[base + 4] += area * ny * ny;
+                quadrics[base + 5] += area * ny * nz;
+                quadrics[base + 6] += area * ny * d;
+                quadrics[base + 7] += area * nz * nz;
+                quadrics[base + 8] += area * nz * d;
+                quadrics[base + 9] += area * d * d;
+                quadrics[base + WEIGHT] += area;
+            }
+        }
+        return quadrics;
+    }
+
+    private double normal(int a, int b, int c, double[] normal) {
+        double abx = xs[b] - xs[a];
+        double aby = ys[b] - ys[a];
+        double abz = zs[b] - zs[a];
+        double acx = xs[c] - xs[a];
+        double acy = ys[c] - ys[a];
+        double acz = zs[c] - zs[a];
+        normal[0] = aby * acz - abz * acy;
+        normal[1] = abz * acx - abx * acz;
+        normal[2] = abx * acy - aby * acx;
+        return Math.sqrt(normal[0] * normal[0] + normal[1] * normal[1] + normal[2] * normal[2]);
+    }
+
+    private double collapseCost(int from, int to) {
+        int f = from * QUADRIC_LENGTH;
+        int t = to * QUADRIC_LENGTH;
+        double x = xs[to];
+        double y = ys[to];
+        double z = zs[to];
+        double error = (quadrics[f] + quadrics[t]) * x * x
+                + 2 * (quadrics[f + 1] + quadrics[t + 1]) * x * y
+                + 2 * (quadrics[f + 2] + quadrics[t + 2]) * x * z
+                + 2 * (quadrics[f + 3] + quadrics[t + 3]) * x
+                + (quadrics[f + 4] + quadrics[t + 4]) * y * y
+                + 2 * (quadrics[f + 5] + quadrics[t + 5]) * y * z
+                + 2 * (quadrics[f + 6] + quadrics[t + 6]) * y
+                + (quadrics[f + 7] + quadrics[t + 7]) * z * z
+                + 2 * (quadrics[f + 8] + quadrics[t + 8]) * z
+                + (quadrics[f + 9] + quadrics[t + 9]);
+        double weight = quadrics[f + WEIGHT] + quadrics[t + WEIGHT];
+        return (weight > 0) ? Math.max(0, error / weight) : 0;
+    }
+
+    private boolean collapsePass(int targetFaceCount, double maxCost) {
+        int[] adjacencyOffsets = new int[vertexCount + 1];
+        for (int index = 0; index < indexCount; index++) {
+            adjacencyOffsets[indices[index] + 1]++;
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            adjacencyOffsets[vertex + 1] += adjacencyOffsets[vertex];
+        }
+        int[] adjacency = new int[indexCount];
+        int[] fill = new int[vertexCount];
+        for (int index = 0; index < indexCount; index++) {
+            int vertex = indices[index];
+            adjacency[adjacencyOffsets[vertex] + fill[vertex]] = index / 3;
+            fill[vertex]++;
+        }
+
+        int[] candidateFrom = new int[2 * indexCount];
+        int[] candidateTo = new int[2 * indexCount];
+        long[] keys = new long[2 * indexCount];
+        int candidateCount = 0;
+        for (int index = 0; index < indexCount; index++) {
+            int a = indices[index];
+            int b = indices[nextCorner(index)];
+            if (a == b) {
+                continue;
+            }
+            for (int direction = 0; direction < 2; direction++) {
+                int from = (direction == 0) ? a : b;
+                int to = (direction == 0) ? b : a;
+                if (locked[positionIds[from]] || positionIds[from] == positionIds[to]) {
+                    continue;
+                }
+                double cost = collapseCost(from, to);
+                if (cost > maxCost) {
+                    continue;
+                }
+                candidateFrom[candidateCount] = from;
+                candidateTo[candidateCount] = to;
+                keys[candidateCount] = ((long) Float.floatToIntBits((float) cost) << 32) | candidateCount;
+                candidateCount++;
+            }
+        }
+        Arrays.sort(keys, 0, candidateCount);
+
+        int[] collapseTo = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            collapseTo[vertex] = vertex;
+        }
+        boolean[] touched = new boolean[positionCount];
+        int[] linkMarks = new int[positionCount];
+        int[] wedgeTargets = new int[vertexCount];
+        int removableFaceCount = faceCount() - targetFaceCount;
+        int removedFaceCount = 0;
+        for (int keyIndex = 0; keyIndex < candidateCount && removedFaceCount < removableFaceCount; keyIndex++) {
+            int candidate = (int) keys[keyIndex];
+            int from = candidateFrom[candidate];
+            int to = candidateTo[candidate];
+            int fromPosition = positionIds[from];
+            int toPosition = positionIds[to];
+            if (touched[fromPosition] || touched[toPosition]
+                    || !findWedgeTargets(from, toPosition, wedgeTargets, adjacency, adjacencyOffsets)
+                    || isCostly(from, wedgeTargets, maxCost)
+                    || isFlipped(from, wedgeTargets, adjacency, adjacencyOffsets)
+                    || !isLinkKept(from, to, linkMarks, keyIndex, adjacency, adjacencyOffsets)) {
+                continue;
+            }
+            int wedge = from;
+            do {
+                int target = wedgeTargets[wedge];
+                if (target != EMPTY) {
+                    collapseTo[wedge] = target;
+                    int f = wedge * QUADRIC_LENGTH;
+                    int t = target * QUADRIC_LENGTH;
+                    for (int i = 0; i < QUADRIC_LENGTH; i++) {
+                        quadrics[t + i] += quadrics[f + i];
+                    }
+                    for (int adjacencyIndex = adjacencyOffsets[wedge]; adjacencyIndex < adjacencyOffsets[wedge + 1]; adjacencyIndex++) {
+                        int face = adjacency[adjacencyIndex];
+                        for (int corner = 0; corner < 3; corner++) {
+                            int vertex = indices[3 * face + corner];
+                            touched[positionIds[vertex]] = true;
+                            if (vertex == target) {
+                                removedFaceCount++;
+                            }
+                        }
+                    }
+                }
+                wedge = nextWedges[wedge];
+            } while (wedge != from);
+        }
+        if (removedFaceCount == 0) {
+            return false;
+        }
+        int newIndexCount = 0;
+        for (int index = 0; index < indexCount; index += 3) {
+            int a = collapseTo[indices[index]];
+            int b = collapseTo[indices[index + 1]];
+            int c = collapseTo[indices[index + 2]];
+            if (a != b && b != c && c != a) {
+                indices[newIndexCount] = a;
+                indices[newIndexCount + 1] = b;
+                indices[newIndexCount + 2] = c;
+                newIndexCount += 3;
+            }
+        }
+        indexCount = newIndexCount;
+        return true;
+    }
+
+    /**
+     * Pairs every vertex at the position of from that has faces with the one vertex at toPosition it shares an edge with.
+     * Fails when a vertex has no such neighbour or several, or when two vertices would land on the same one, as moving
+     * them then would open or shift a seam.
+     */
+    private boolean findWedgeTargets(int from, int toPosition, int[] wedgeTargets, int[] adjacency, int[] adjacencyOffsets) {
+        int wedge = from;
+        do {
+            int target = EMPTY;
+            if (adjacencyOffsets[wedge] != adjacencyOffsets[wedge + 1]) {
+                for (int adjacencyIndex = adjacencyOffsets[wedge]; adjacencyIndex < adjacencyOffsets[wedge + 1]; adjacencyIndex++) {
+                    int face = adjacency[adjacencyIndex];
+                    for (int corner = 0; corner < 3; corner++) {
+                        int vertex = indices[3 * face + corner];
+                        if (positionIds[vertex] == toPosition) {
+                            if (target != EMPTY && target != vertex) {
+                                return false;
+                            }
+                            target = vertex;
+                        }
+                    }
+                }
+                if (target == EMPTY) {
+                    return false;
+                }
+                for (int other = from; other != wedge; other = nextWedges[other]) {
+                    if (wedgeTargets[other] == target) {
+                        return false;
+                    }
+                }
+            }
+            wedgeTargets[wedge] = target;
+            wedge = nextWedges[wedge];
+        } while (wedge != from);
+        return true;
+    }
+
+    private boolean isCostly(int from, int[] wedgeTargets, double maxCost) {
+        int wedge = from;
+        do {
+            if (wedgeTargets[wedge] != EMPTY && collapseCost(wedge, wedgeTargets[wedge]) > maxCost) {
+                return true;
+            }
+            wedge = nextWedges[wedge];
+        } while (wedge != from);
+        return false;
+    }
+
+    private boolean isFlipped(int from, int[] wedgeTargets, int[] adjacency, int[] adjacencyOffsets) {
+        double[] before = new double[3];
+        double[] after = new double[3];
+        int wedge = from;
+        do {
+            int to = wedgeTargets[wedge];
+            for (int adjacencyIndex = adjacencyOffsets[wedge]; adjacencyIndex < adjacencyOffsets[wedge + 1]; adjacencyIndex++) {
+                int face = adjacency[adjacencyIndex];
+                int a = indices[3 * face];
+                int b = indices[3 * face + 1];
+                int c = indices[3 * face + 2];
+                if (a == to || b == to || c == to) {
+                    continue;
+                }
+                normal(a, b, c, before);
+                normal((a == wedge) ? to : a, (b == wedge) ? to : b, (c == wedge) ? to : c, after);
+                if (before[0] * after[0] + before[1] * after[1] + before[2] * after[2] <= 0) {
+                    return true;
+                }
+            }
+            wedge = nextWedges[wedge];
+        } while (wedge != from);
+        return false;
+    }
+
+    /**
+     * Checks the link condition on positions: the positions next to both ends of the edge must be exactly the ones
+     * opposite the edge in its faces, otherwise the collapse would fold faces onto each other. An inner position must
+     * also keep at least three neighbours.
+     */
+    private boolean isLinkKept(int from, int to, int[] linkMarks, int keyIndex, int[] adjacency, int[] adjacencyOffsets) {
+        int fromPosition = positionIds[from];
+        int toPosition = positionIds[to];
+        int fromMark = 4 * keyIndex + 1;
+        int commonMark = fromMark + 1;
+        int toMark = fromMark + 2;
+        int oppositeMark = fromMark + 3;
+        int fromNeighbourCount = 0;
+        int wedge = from;
+        do {
+            for (int adjacencyIndex = adjacencyOffsets[wedge]; adjacencyIndex < adjacencyOffsets[wedge + 1]; adjacencyIndex++) {
+                int face = adjacency[adjacencyIndex];
+                for (int corner = 0; corner < 3; corner++) {
+                    int position = positionIds[indices[3 * face + corner]];
+                    if (position != fromPosition && position != toPosition && linkMarks[position] != fromMark) {
+                        linkMarks[position] = fromMark;
+                        fromNeighbourCount++;
+                    }
+                }
+            }
+            wedge = nextWedges[wedge];
+        } while (wedge != from);
+        int commonCount = 0;
+        int toOnlyCount = 0;
+        wedge = to;
+        do {
+            for (int adjacencyIndex = adjacencyOffsets[wedge]; adjacencyIndex < adjacencyOffsets[wedge + 1]; adjacencyIndex++) {
+                int face = adjacency[adjacencyIndex];
+                for (int corner = 0; corner < 3; corner++) {
+                    int position = positionIds[indices[3 * face + corner]];
+                    if (position == fromPosition || position == toPosition) {
+                        continue;
+                    }
+                    if (linkMarks[position] == fromMark) {
+                        linkMarks[position] = commonMark;
+                        commonCount++;
+                    } else if (linkMarks[position] != commonMark && linkMarks[position] != toMark) {
+                        linkMarks[position] = toMark;
+                        toOnlyCount++;
+                    }
+                }
+            }
+            wedge = nextWedges[wedge];
+        } while (wedge != to);
+        int oppositeCount = 0;
+        wedge = from;
+        do {
+            for (int adjacencyIndex = adjacencyOffsets[wedge]; adjacencyIndex < adjacencyOffsets[wedge + 1]; adjacencyIndex++) {
+                int face = adjacency[adjacencyIndex];
+                int opposite = EMPTY;
+                boolean hasTo = false;
+                for (int corner = 0; corner < 3; corner++) {
+                    int position = positionIds[indices[3 * face + corner]];
+                    if (position == toPosition) {
+                        hasTo = true;
+                    } else if (position != fromPosition) {
+                        opposite = position;
+                    }
+                }
+                if (hasTo && opposite != EMPTY && linkMarks[opposite] == commonMark) {
+                    linkMarks[opposite] = oppositeMark;
+                    oppositeCount++;
+                }
+            }
+            wedge = nextWedges[wedge];
+        } while (wedge != from);
+        if (commonCount != oppositeCount) {
+            return false;
+        }
+        return locked[toPosition] || fromNeighbourCount + toOnlyCount >= 3;
+    }
+
+    private Mesh createMesh() {
+        int[] remap = new int[vertexCount];
+        Arrays.fill(remap, -1);
+        int[] vertices = new int[vertexCount];
+        int newVertexCount = 0;
+        for (int index = 0; index < indexCount; index++) {
+            int vertex = indices[index];
+            if (remap[vertex] == -1) {
+                remap[vertex] = newVertexCount;
+                vertices[newVertexCount] = vertex;
+                newVertexCount++;
+            }
+        }
+        Mesh mesh = new Mesh(newVertexCount, faceCount());
+        for (VertexType vertexType : source.vertexTypes()) {
+            ResizableFloatArray sourceData = source.vertexTypeData(vertexType);
+            float[] data = new float[newVertexCount];
+            for (int newIndex = 0; newIndex < newVertexCount; newIndex++) {
+                int vertex = vertices[newIndex];
+                data[newIndex] = (vertex < sourceData.length()) ? sourceData.getAt(vertex) : 0;
+            }
+            mesh.adoptVertexTypeData(vertexType, data, newVertexCount);
+        }
+        for (int index = 0; index < indexCount; index += 3) {
+            mesh.appendFace(remap[indices[index]], remap[indices[index + 1]], remap[indices[index + 2]]);
+        }
+        return mesh;
+    }
+}
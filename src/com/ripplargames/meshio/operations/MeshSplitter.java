@@ -0,0 +1,118 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.indices.UnsignedShortIndicesDataType;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Splits a mesh into submeshes that each reference at most a maximum number of vertices, so every submesh can be drawn
+ * with an {@link UnsignedShortIndicesDataType}. A submesh is grown breadth first over shared vertices from the first
+ * face not yet taken, which keeps its faces together and the boundary small. Only vertices on the boundary between
+ * submeshes are duplicated, vertices not referenced by any face are dropped.
+ */
+public class MeshSplitter {
+    public static final int DEFAULT_MAX_VERTICES = UnsignedShortIndicesDataType.MAX_VERTEX_COUNT;
+
+    private final int maxVertices;
+
+    public MeshSplitter() {
+        this(DEFAULT_MAX_VERTICES);
+    }
+
+    public MeshSplitter(int maxVertices) {
+        if (maxVertices < 3) {
+            throw new IllegalArgumentException("Max vertices: " + maxVertices + " must be at least 3");
+        }
+        this.maxVertices = maxVertices;
+    }
+
+    public List<Submesh> split(Mesh mesh) {
+        ResizableIntArray faceIndices = mesh.faceIndices();
+        int faceCount = mesh.faceCount();
+        int vertexCount = Math.max(mesh.vertexCount(), VertexCacheOptimizer.vertexCount(faceIndices));
+        CornerAdjacency adjacency = new CornerAdjacency(faceIndices, vertexCount);
+
+        List<Submesh> submeshes = new ArrayList<Submesh>();
+        boolean[] emitted = new boolean[faceCount];
+        int[] queuedIn = new int[faceCount];
+        Arrays.fill(queuedIn, -1);
+        int[] localIndices = new int[vertexCount];
+        Arrays.fill(localIndices, -1);
+        int[] queue = new int[faceCount];
+        int seedCursor = 0;
+        int emittedCount = 0;
+        while (emittedCount < faceCount) {
+            while (emitted[seedCursor]) {
+                seedCursor++;
+            }
+            int submeshIndex = submeshes.size();
+            ResizableIntArray vertices = new ResizableIntArray(2, Math.min(maxVertices, vertexCount));
+            ResizableIntArray triangles = new ResizableIntArray();
+            int queueStart = 0;
+            int queueEnd = 0;
+            queue[queueEnd++] = seedCursor;
+            queuedIn[seedCursor] = submeshIndex;
+            while (queueStart < queueEnd) {
+                int face = queue[queueStart++];
+                if (vertices.length() + newVertexCount(faceIndices, face, localIndices) > maxVertices) {
+                    continue;
+                }
+                for (int corner = 0; corner < 3; corner++) {
+                    int vertex = faceIndices.getAt(3 * face + corner);
+                    if (localIndices[vertex] == -1) {
+                        localIndices[vertex] = vertices.length();
+                        vertices.append(vertex);
+                    }
+                    triangles.append(localIndices[vertex]);
+                    for (int cornerIndex = adjacency.offsets[vertex]; cornerIndex < adjacency.offsets[vertex + 1]; cornerIndex++) {
+                        int neighbour = adjacency.corners[cornerIndex] / 3;
+                        if (!emitted[neighbour] && queuedIn[neighbour] != submeshIndex) {
+                            queuedIn[neighbour] = submeshIndex;
+                            queue[queueEnd++] = neighbour;
+                        }
+                    }
+                }
+                emitted[face] = true;
+                emittedCount++;
+            }
+            submeshes.add(createSubmesh(mesh, vertices, triangles));
+            for (int localIndex = 0; localIndex < vertices.length(); localIndex++) {
+                localIndices[vertices.getAt(localIndex)] = -1;
+            }
+        }
+        return submeshes;
+    }
+
+    private static int newVertexCount(ResizableIntArray faceIndices, int face, int[] localIndices) {
+        int count = 0;
+        for (int corner = 0; corner < 3; corner++) {
+            if (localIndices[faceIndices.getAt(3 * face + corner)] == -1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Submesh createSubmesh(Mesh mesh, ResizableIntArray vertices, ResizableIntArray triangles) {
+        int vertexCount = vertices.length();
+        int[] originalVertices = vertices.copyArray();
+        Mesh submesh = new Mesh(vertexCount, triangles.length() / 3);
+        for (VertexType vertexType : mesh.vertexTypes()) {
+            ResizableFloatArray data = mesh.vertexTypeData(vertexType);
+            float[] gathered = new float[vertexCount];
+            for (int localIndex = 0; localIndex < vertexCount; localIndex++) {
+                int vertex = originalVertices[localIndex];
+                gathered[localIndex] = (vertex < data.length()) ? data.getAt(vertex) : 0;
+            }
+            submesh.adoptVertexTypeData(vertexType, gathered, vertexCount);
+        }
+        submesh.appendFaces(triangles.copyArray(), 0, triangles.length() / 3);
+        return new Submesh(submesh, originalVertices);
+    }
+}
@@ -0,0 +1,243 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.Arrays;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Splits the faces of a mesh into meshlets of a bounded vertex and triangle count. Meshlets are grown from a seed triangle
+ * by adding the neighbouring triangle that introduces the fewest new vertices, and a new meshlet is started when no
+ * neighbour fits. Runs best on meshes whose faces were optimized with {@link VertexCacheOptimizer} first.
+ */
+public class MeshletBuilder {
+    public static final int DEFAULT_MAX_VERTICES = 64;
+    public static final int DEFAULT_MAX_TRIANGLES = 124;
+    private static final int MAX_LOCAL_VERTICES = 256;
+
+    private final int maxVertices;
+    private final int maxTriangles;
+
+    public MeshletBuilder() {
+        this(DEFAULT_MAX_VERTICES, DEFAULT_MAX_TRIANGLES);
+    }
+
+    public MeshletBuilder(int maxVertices, int maxTriangles) {
+        if (maxVertices < 3 || maxVertices > MAX_LOCAL_VERTICES) {
+            throw new IllegalArgumentException("Max vertices: " + maxVertices + " must be between 3 and " + MAX_LOCAL_VERTICES);
+        }
+        if (maxTriangles < 1) {
+            throw new IllegalArgumentException("Max triangles: " + maxTriangles + " must be at least 1");
+        }
+        this.maxVertices = maxVertices;
+        this.maxTriangles = maxTriangles;
+    }
+
+    public Meshlets build(Mesh mesh) throws MeshIOException {
+        if (!mesh.hasVertexTypeData(VertexType.Position_X) || !mesh.hasVertexTypeData(VertexType.Position_Y) || !mesh.hasVertexTypeData(VertexType.Position_Z)) {
+            throw new MeshIOException("There must be (x,y,z) position data present");
+        }
+        ResizableIntArray faceIndices = mesh.faceIndices();
+        int faceCount = mesh.faceCount();
+        int vertexCount = Math.max(mesh.vertexCount(), VertexCacheOptimizer.vertexCount(faceIndices));
+
+        int[] adjacencyOffsets = new int[vertexCount + 1];
+        for (int index = 0; index < faceIndices.length(); index++) {
+            adjacencyOffsets[faceIndices.getAt(index) + 1]++;
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            adjacencyOffsets[vertex + 1] += adjacencyOffsets[vertex];
+        }
+        int[] adjacency = new int[faceIndices.length()];
+        int[] fill = new int[vertexCount];
+        for (int index = 0; index < faceIndices.length(); index++) {
+            int vertex = faceIndices.getAt(index);
+            adjacency[adjacencyOffsets[vertex] + fill[vertex]] = index / 3;
+            fill[vertex]++;
+        }
+
+        ResizableIntArray descriptors = new ResizableIntArray(2, Meshlets.DESCRIPTOR_LENGTH * (faceCount / maxTriangles + 1));
+        ResizableIntArray vertices = new ResizableIntArray(2, faceCount);
+        ResizableIntArray triangles = new ResizableIntArray(2, faceIndices.length());
+        ResizableFloatArray bounds = new ResizableFloatArray(2, Meshlets.BOUNDS_LENGTH * (faceCount / maxTriangles + 1));
+        BoundsCalculator boundsCalculator = new BoundsCalculator(mesh);
+
+        boolean[] emitted = new boolean[faceCount];
+        int[] localIndices = new int[vertexCount];
+        Arrays.fill(localIndices, -1);
+        int vertexOffset = 0;
+        int triangleOffset = 0;
+        int meshletVertexCount = 0;
+        int meshletTriangleCount = 0;
+        int seedCursor = 0;
+        int emittedCount = 0;
+        while (emittedCount < faceCount) {
+            int face = -1;
+            int bestNewVertexCount = Integer.MAX_VALUE;
+            for (int localIndex = 0; localIndex < meshletVertexCount && bestNewVertexCount > 0; localIndex++) {
+                int vertex = vertices.getAt(vertexOffset + localIndex);
+                for (int adjacencyIndex = adjacencyOffsets[vertex]; adjacencyIndex < adjacencyOffsets[vertex + 1]; adjacencyIndex++) {
+                    int candidate = adjacency[adjacencyIndex];
+                    if (emitted[candidate]) {
+                        continue;
+                    }
+                    int newVertexCount = newVertexCount(faceIndices, candidate, localIndices);
+                    if (newVertexCount < bestNewVertexCount) {
+                        face = candidate;
+                        bestNewVertexCount = newVertexCount;
+                    }
+                }
+            }
+            if (face == -1) {
+                while (emitted[seedCursor]) {
+                    seedCursor++;
+                }
+                face = seedCursor;
+                bestNewVertexCount = newVertexCount(faceIndices, face, localIndices);
+            }
+            if (meshletVertexCount + bestNewVertexCount > maxVertices || meshletTriangleCount == maxTriangles) {
+                finishMeshlet(descriptors, vertices, triangles, bounds, boundsCalculator, localIndices, vertexOffset, meshletVertexCount, triangleOffset, meshletTriangleCount);
+                vertexOffset += meshletVertexCount;
+                triangleOffset += meshletTriangleCount;
+                meshletVertexCount = 0;
+                meshletTriangleCount = 0;
+            }
+            for (int corner = 0; corner < 3; corner++) {
+                int vertex = faceIndices.getAt(3 * face + corner);
+                if (localIndices[vertex] == -1) {
+                    localIndices[vertex] = meshletVertexCount;
+                    vertices.append(vertex);
+                    meshletVertexCount++;
+                }
+                triangles.append(localIndices[vertex]);
+            }
+            meshletTriangleCount++;
+            emitted[face] = true;
+            emittedCount++;
+        }
+        if (meshletTriangleCount > 0) {
+            finishMeshlet(descriptors, vertices, triangles, bounds, boundsCalculator, localIndices, vertexOffset, meshletVertexCount, triangleOffset, meshletTriangleCount);
+        }
+        return new Meshlets(descriptors, vertices, triangles, bounds);
+    }
+
+    private static int newVertexCount(ResizableIntArray faceIndices, int face, int[] localIndices) {
+        int count = 0;
+        for (int corner = 0; corner < 3; corner++) {
+            if (localIndices[faceIndices.getAt(3 * face + corner)] == -1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void finishMeshlet(ResizableIntArray descriptors, ResizableIntArray vertices, ResizableIntArray triangles, ResizableFloatArray bounds,
+                                      BoundsCalculator boundsCalculator, int[] localIndices, int vertexOffset, int vertexCount, int triangleOffset, int triangleCount) {
+        descriptors.append(vertexOffset);
+        descriptors.append(vertexCount);
+        descriptors.append(triangleOffset);
+        descriptors.append(triangleCount);
+        boundsCalculator.append(vertices, triangles, vertexOffset, vertexCount, triangleOffset, triangleCount, bounds);
+        for (int localIndex = 0; localIndex < vertexCount; localIndex++) {
+            localIndices[vertices.getAt(vertexOffset + localIndex)] = -1;
+        }
+    }
+
+    private static class BoundsCalculator {
+        private final ResizableFloatArray xs;
+        private final ResizableFloatArray ys;
+        private final ResizableFloatArray zs;
+
+        BoundsCalculator(Mesh mesh) {
+            this.xs = mesh.vertexTypeData(VertexType.Position_X);
+            this.ys = mesh.vertexTypeData(VertexType.Position_Y);
+            this.zs = mesh.vertexTypeData(VertexType.Position_Z);
+        }
+
+        private float coordinate(ResizableFloatArray column, int vertex) {
+            return (vertex < column.length()) ? column.getAt(vertex) : 0;
+        }
+
+        void append(ResizableIntArray vertices, ResizableIntArray triangles, int vertexOffset, int vertexCount, int triangleOffset, int triangleCount, ResizableFloatArray bounds) {
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, minZ = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY, maxZ = Double.NEGATIVE_INFINITY;
+            for (int localIndex = 0; localIndex < vertexCount; localIndex++) {
+                int vertex = vertices.getAt(vertexOffset + localIndex);
+                double x = coordinate(xs, vertex);
+                double y = coordinate(ys, vertex);
+                double z = coordinate(zs, vertex);
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                minZ = Math.min(minZ, z);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+                maxZ = Math.max(maxZ, z);
+            }
+            double centerX = (minX + maxX) / 2;
+            double centerY = (minY + maxY) / 2;
+            double centerZ = (minZ + maxZ) / 2;
+            double radiusSquared = 0;
+            for (int localIndex = 0; localIndex < vertexCount; localIndex++) {
+                int vertex = vertices.getAt(vertexOffset + localIndex);
+                double dx = coordinate(xs, vertex) - centerX;
+                double dy = coordinate(ys, vertex) - centerY;
+                double dz = coordinate(zs, vertex) - centerZ;
+                radiusSquared = Math.max(radiusSquared, dx * dx + dy * dy + dz * dz);
+            }
+
+            double[] normals = new double[3 * triangleCount];
+            double axisX = 0, axisY = 0, axisZ = 0;
+            for (int triangle = 0; triangle < triangleCount; triangle++) {
+                int base = 3 * (triangleOffset + triangle);
+                int a = vertices.getAt(vertexOffset + triangles.getAt(base));
+                int b = vertices.getAt(vertexOffset + triangles.getAt(base + 1));
+                int c = vertices.getAt(vertexOffset + triangles.getAt(base + 2));
+                double abx = coordinate(xs, b) - coordinate(xs, a);
+                double aby = coordinate(ys, b) - coordinate(ys, a);
+                double abz = coordinate(zs, b) - coordinate(zs, a);
+                double acx = coordinate(xs, c) - coordinate(xs, a);
+                double acy = coordinate(ys, c) - coordinate(ys, a);
+                double acz = coordinate(zs, c) - coordinate(zs, a);
+                double nx = aby * acz - abz * acy;
+                double ny = abz * acx - abx * acz;
+                double nz = abx * acy - aby * acx;
+                double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+                if (length > 0) {
+                    normals[3 * triangle] = nx / length;
+                    normals[3 * triangle + 1] = ny / length;
+                    normals[3 * triangle + 2] = nz / length;
+                    axisX += normals[3 * triangle];
+                    axisY += normals[3 * triangle + 1];
+                    axisZ += normals[3 * triangle + 2];
+                }
+            }
+            double axisLength = Math.sqrt(axisX * axisX + axisY * axisY + axisZ * axisZ);
+            double cutoff = 1;
+            if (axisLength > 0) {
+                axisX /= axisLength;
+                axisY /= axisLength;
+                axisZ /= axisLength;
+                double minDot = 1;
+                for (int triangle = 0; triangle < triangleCount; triangle++) {
+                    if (normals[3 * triangle] == 0 && normals[3 * triangle + 1] == 0 && normals[3 * triangle + 2] == 0) {
+                        continue;
+                    }
+                    double dot = normals[3 * triangle] * axisX + normals[3 * triangle + 1] * axisY + normals[3 * triangle + 2] * axisZ;
+                    minDot = Math.min(minDot, dot);
+                }
+                cutoff = (minDot <= 0) ? 1 : Math.sqrt(1 - minDot * minDot);
+            }
+            bounds.append((float) centerX);
+            bounds.append((float) centerY);
+            bounds.append((float) centerZ);
+            bounds.append((float) Math.sqrt(radiusSquared));
+            bounds.append((float) axisX);
+            bounds.append((float) axisY);
+            bounds.append((float) axisZ);
+            bounds.append((float) cutoff);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.ripplargames.meshio.operations;
+
+import java.nio.ByteBuffer;
+
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.indices.IndicesDataType;
+import com.ripplargames.meshio.util.BufferUtil;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
+
+/**
+ * Clusters of a mesh as created by {@link MeshletBuilder}. Every meshlet is described by four ints: the offset and count
+ * of its entries in the vertex list, followed by the offset and count of its triangles in the triangle list. The vertex
+ * list holds mesh vertex indices, the triangle list holds three byte sized indices into the meshlet's vertex list per
+ * triangle. The bounds hold eight floats per meshlet: the bounding sphere center and radius, followed by the normal cone
+ * axis and cutoff. A meshlet is back facing for a camera at position p when
+ * {@code dot(center - p, axis) >= cutoff * length(center - p) + radius}.
+ */
+public class Meshlets {
+    public static final int DESCRIPTOR_LENGTH = 4;
+    public static final int BOUNDS_LENGTH = 8;
+
+    private final ResizableIntArray descriptors;
+    private final ResizableIntArray vertices;
+    private final ResizableIntArray triangles;
+    private final ResizableFloatArray bounds;
+
+    Meshlets(ResizableIntArray descriptors, ResizableIntArray vertices, ResizableIntArray triangles, ResizableFloatArray bounds) {
+        this.descriptors = descriptors;
+        this.vertices = vertices;
+        this.triangles = triangles;
+        this.bounds = bounds;
+    }
+
+    public int meshletCount() {
+        return descriptors.length() / DESCRIPTOR_LENGTH;
+    }
+
+    public int vertexOffset(int meshlet) {
+        return descriptors.getAt(DESCRIPTOR_LENGTH * meshlet);
+    }
+
+    public int vertexCount(int meshlet) {
+        return descriptors.getAt(DESCRIPTOR_LENGTH * meshlet + 1);
+    }
+
+    public int triangleOffset(int meshlet) {
+        return descriptors.getAt(DESCRIPTOR_LENGTH * meshlet + 2);
+    }
+
+    public int triangleCount(int meshlet) {
+        return descriptors.getAt(DESCRIPTOR_LENGTH * meshlet + 3);
+    }
+
+    /**
+     * Returns the mesh vertex index of a corner of a meshlet triangle.
+     */
+    public int vertex(int meshlet, int triangle, int corner) {
+        int localIndex = triangles.getAt(3 * (triangleOffset(meshlet) + triangle) + corner);
+        return vertices.getAt(vertexOffset(meshlet) + localIndex);
+    }
+
+    public float bound(int meshlet, int component) {
+        return bounds.getAt(BOUNDS_LENGTH * meshlet + component);
+    }
+
+    public ByteBuffer descriptors() {
+        return BufferUtil.with(descriptors.copyArray());
+    }
+
+    public ByteBuffer vertices(IndicesDataType indicesDataType) throws MeshIOException {
+        return indicesDataType.flatten(vertices);
+    }
+
+    public ByteBuffer triangles() {
+        ByteBuffer buffer = BufferUtil.createByteBuffer(triangles.length());
+        for (int index = 0; index < triangles.length(); index++) {
+            buffer.put(index, (byte) triangles.getAt(index));
+        }
+        return buffer;
+    }
+
+    public ByteBuffer bounds() {
+        return BufferUtil.with(bounds.copyArray());
+    }
+}
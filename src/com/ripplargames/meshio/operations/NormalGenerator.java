@@ -0,0 +1,186 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.concurrent.ExecutorService;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.IRangeTask;
+import com.ripplargames.meshio.util.ParallelUtil;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Generates the Normal_X, Normal_Y and Normal_Z data of a mesh from its positions and faces. Smooth normals are computed
+ * in two passes so nothing is shared between threads: the first writes a weighted normal per face corner, the second
+ * sums the corners of each vertex.
+ */
+public class NormalGenerator {
+    private static final int MIN_PARALLEL_RANGE_LENGTH = 1 << 14;
+
+    private final NormalWeighting weighting;
+
+    public NormalGenerator() {
+        this(NormalWeighting.Angle);
+    }
+
+    public NormalGenerator(NormalWeighting weighting) {
+        this.weighting = weighting;
+    }
+
+    public void generateSmooth(Mesh mesh) throws MeshIOException {
+        generateSmooth(mesh, null);
+    }
+
+    public void generateSmooth(Mesh mesh, ExecutorService executor) throws MeshIOException {
+        final ResizableFloatArray[] positions = positions(mesh);
+        final ResizableIntArray faceIndices = mesh.faceIndices();
+        int vertexCount = Math.max(mesh.vertexCount(), VertexCacheOptimizer.vertexCount(faceIndices));
+        final float[] cornerNormals = new float[3 * faceIndices.length()];
+        ParallelUtil.forRange(executor, mesh.faceCount(), MIN_PARALLEL_RANGE_LENGTH, new IRangeTask() {
+            @Override
+            public void run(int start, int end) {
+                double[] normal = new double[3];
+                for (int face = start; face < end; face++) {
+                    writeCornerNormals(positions, faceIndices, face, normal, cornerNormals);
+                }
+            }
+        });
+
+        final CornerAdjacency adjacency = new CornerAdjacency(faceIndices, vertexCount);
+        final float[][] normals = new float[3][vertexCount];
+        ParallelUtil.forRange(executor, vertexCount, MIN_PARALLEL_RANGE_LENGTH, new IRangeTask() {
+            @Override
+            public void run(int start, int end) {
+                for (int vertex = start; vertex < end; vertex++) {
+                    double x = 0;
+                    double y = 0;
+                    double z = 0;
+                    for (int adjacencyIndex = adjacency.offsets[vertex]; adjacencyIndex < adjacency.offsets[vertex + 1]; adjacencyIndex++) {
+                        int corner = adjacency.corners[adjacencyIndex];
+                        x += cornerNormals[3 * corner];
+                        y += cornerNormals[3 * corner + 1];
+                        z += cornerNormals[3 * corner + 2];
+                    }
+                    double length = Math.sqrt(x * x + y * y + z * z);
+                    if (length > 0) {
+                        normals[0][vertex] = (float) (x / length);
+                        normals[1][vertex] = (float) (y / length);
+                        normals[2][vertex] = (float) (z / length);
+                    }
+                }
+            }
+        });
+        adoptNormals(mesh, normals, vertexCount);
+    }
+
+    public void generateFlat(Mesh mesh) throws MeshIOException {
+        generateFlat(mesh, null);
+    }
+
+    /**
+     * Gives every face corner its own vertex, carrying over all other vertex data, and sets its normal to the face normal.
+     */
+    public void generateFlat(Mesh mesh, ExecutorService executor) throws MeshIOException {
+        positions(mesh);
+        final ResizableIntArray faceIndices = mesh.faceIndices();
+        int indexCount = faceIndices.length();
+        mesh.gatherVertices(faceIndices.copyArray());
+        int[] cornerVertices = new int[indexCount];
+        for (int index = 0; index < indexCount; index++) {
+            cornerVertices[index] = index;
+        }
+        mesh.setFaceIndices(0, cornerVertices, 0, indexCount);
+        final ResizableFloatArray[] positions = positions(mesh);
+        final float[][] normals = new float[3][indexCount];
+        ParallelUtil.forRange(executor, mesh.faceCount(), MIN_PARALLEL_RANGE_LENGTH, new IRangeTask() {
+            @Override
+            public void run(int start, int end) {
+                double[] normal = new double[3];
+                for (int face = start; face < end; face++) {
+                    double length = faceNormal(positions, faceIndices, face, normal);
+                    if (length > 0) {
+                        for (int corner = 0; corner < 3; corner++) {
+                            for (int axis = 0; axis < 3; axis++) {
+                                normals[axis][3 * face + corner] = (float) (normal[axis] / length);
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        adoptNormals(mesh, normals, indexCount);
+    }
+
+    private static void adoptNormals(Mesh mesh, float[][] normals, int vertexCount) {
+        mesh.adoptVertexTypeData(VertexType.Normal_X, normals[0], vertexCount);
+        mesh.adoptVertexTypeData(VertexType.Normal_Y, normals[1], vertexCount);
+        mesh.adoptVertexTypeData(VertexType.Normal_Z, normals[2], vertexCount);
+    }
+
+    static ResizableFloatArray[] positions(Mesh mesh) throws MeshIOException {
+        if (!mesh.hasVertexTypeData(VertexType.Position_X) || !mesh.hasVertexTypeData(VertexType.Position_Y) || !mesh.hasVertexTypeData(VertexType.Position_Z)) {
+            throw new MeshIOException("There must be (x,y,z) position data present");
+        }
+        return new ResizableFloatArray[]{
+                mesh.vertexTypeData(VertexType.Position_X),
+                mesh.vertexTypeData(VertexType.Position_Y),
+                mesh.vertexTypeData(VertexType.Position_Z)};
+    }
+
+    static float coordinate(ResizableFloatArray column, int vertex) {
+        return (vertex < column.length()) ? column.getAt(vertex) : 0;
+    }
+
+    /**
+     * Writes the unnormalised normal of the face, whose length is twice its area, and returns that length.
+     */
+    static double faceNormal(ResizableFloatArray[] positions, ResizableIntArray faceIndices, int face, double[] normal) {
+        int v0 = faceIndices.getAt(3 * face);
+        int v1 = faceIndices.getAt(3 * face + 1);
+        int v2 = faceIndices.getAt(3 * face + 2);
+        double abx = coordinate(positions[0], v1) - coordinate(positions[0], v0);
+        double aby = coordinate(positions[1], v1) - coordinate(positions[1], v0);
+        double abz = coordinate(positions[2], v1) - coordinate(positions[2], v0);
+        double acx = coordinate(positions[0], v2) - coordinate(positions[0], v0);
+        double acy = coordinate(positions[1], v2) - coordinate(positions[1], v0);
+        double acz = coordinate(positions[2], v2) - coordinate(positions[2], v0);
+        normal[0] = aby * acz - abz * acy;
+        normal[1] = abz * acx - abx * acz;
+        normal[2] = abx * acy - aby * acx;
+        return Math.sqrt(normal[0] * normal[0] + normal[1] * normal[1] + normal[2] * normal[2]);
+    }
+
+    /**
+     * Returns the angle of the face at the given corner.
+     */
+    static double cornerAngle(ResizableFloatArray[] positions, ResizableIntArray faceIndices, int face, int corner) {
+        int vertex = faceIndices.getAt(3 * face + corner);
+        int next = faceIndices.getAt(3 * face + (corner + 1) % 3);
+        int previous = faceIndices.getAt(3 * face + (corner + 2) % 3);
+        double ax = coordinate(positions[0], next) - coordinate(positions[0], vertex);
+        double ay = coordinate(positions[1], next) - coordinate(positions[1], vertex);
+        double az = coordinate(positions[2], next) - coordinate(positions[2], vertex);
+        double bx = coordinate(positions[0], previous) - coordinate(positions[0], vertex);
+        double by = coordinate(positions[1], previous) - coordinate(positions[1], vertex);
+        double bz = coordinate(positions[2], previous) - coordinate(positions[2], vertex);
+        double cx = ay * bz - az * by;
+        double cy = az * bx - ax * bz;
+        double cz = ax * by - ay * bx;
+        return Math.atan2(Math.sqrt(cx * cx + cy * cy + cz * cz), ax * bx + ay * by + az * bz);
+    }
+
+    private void writeCornerNormals(ResizableFloatArray[] positions, ResizableIntArray faceIndices, int face, double[] normal, float[] cornerNormals) {
+        double length = faceNormal(positions, faceIndices, face, normal);
+        if (length == 0) {
+            return;
+        }
+        for (int corner = 0; corner < 3; corner++) {
+            double weight = (weighting == NormalWeighting.Area) ? 1 : cornerAngle(positions, faceIndices, face, corner) / length;
+            int base = 3 * (3 * face + corner);
+            cornerNormals[base] = (float) (normal[0] * weight);
+            cornerNormals[base + 1] = (float) (normal[1] * weight);
+            cornerNormals[base + 2] = (float) (normal[2] * weight);
+        }
+    }
+}
@@ -0,0 +1,6 @@
+package com.ripplargames.meshio.operations;
+
+public enum NormalWeighting {
+    Area,
+    Angle
+}
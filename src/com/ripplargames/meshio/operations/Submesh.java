@@ -0,0 +1,47 @@
+package com.ripplargames.meshio.operations;
+
+import java.nio.ByteBuffer;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.indices.IndicesDataType;
+import com.ripplargames.meshio.indices.TrianglesMeshType;
+import com.ripplargames.meshio.vertices.VertexFormat;
+
+/**
+ * A part of a mesh as created by {@link MeshSplitter}, holding its own copy of the vertices it references. Local vertex
+ * i is the original mesh vertex {@link #originalVertex(int)}.
+ */
+public class Submesh {
+    private final Mesh mesh;
+    private final int[] originalVertices;
+
+    Submesh(Mesh mesh, int[] originalVertices) {
+        this.mesh = mesh;
+        this.originalVertices = originalVertices;
+    }
+
+    public Mesh mesh() {
+        return mesh;
+    }
+
+    public int vertexCount() {
+        return originalVertices.length;
+    }
+
+    public int faceCount() {
+        return mesh.faceCount();
+    }
+
+    public int originalVertex(int localVertex) {
+        return originalVertices[localVertex];
+    }
+
+    public ByteBuffer vertices(VertexFormat vertexFormat) throws MeshIOException {
+        return mesh.vertices(vertexFormat);
+    }
+
+    public ByteBuffer indices(IndicesDataType indicesDataType) throws MeshIOException {
+        return mesh.indices(new TrianglesMeshType(), indicesDataType);
+    }
+}
@@ -0,0 +1,197 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.concurrent.ExecutorService;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.IRangeTask;
+import com.ripplargames.meshio.util.ParallelUtil;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Generates Tangent_X, Tangent_Y, Tangent_Z and the bitangent sign Tangent_W from positions, normals and image
+ * coordinates, following the MikkTSpace construction: the tangent and bitangent of each face corner are projected
+ * onto the plane of the vertex normal, normalised and weighted by the corner angle before being summed per vertex.
+ * The bitangent is reconstructed in a shader as cross(normal, tangent) * Tangent_W. Unlike MikkTSpace, vertices
+ * shared between faces with mirrored image coordinates are not split.
+ */
+public class TangentGenerator {
+    private static final int MIN_PARALLEL_RANGE_LENGTH = 1 << 14;
+    private static final int CORNER_LENGTH = 6;
+
+    public void generate(Mesh mesh) throws MeshIOException {
+        generate(mesh, null);
+    }
+
+    public void generate(Mesh mesh, ExecutorService executor) throws MeshIOException {
+        final ResizableFloatArray[] positions = NormalGenerator.positions(mesh);
+        final ResizableFloatArray[] normals = columns(mesh, VertexType.Normal_X, VertexType.Normal_Y, VertexType.Normal_Z);
+        final ResizableFloatArray[] imageCoords = columns(mesh, VertexType.ImageCoord_X, VertexType.ImageCoord_Y);
+        final ResizableIntArray faceIndices = mesh.faceIndices();
+        int vertexCount = Math.max(mesh.vertexCount(), VertexCacheOptimizer.vertexCount(faceIndices));
+        final float[] cornerFrames = new float[CORNER_LENGTH * faceIndices.length()];
+        ParallelUtil.forRange(executor, mesh.faceCount(), MIN_PARALLEL_RANGE_LENGTH, new IRangeTask() {
+            @Override
+            public void run(int start, int end) {
+                double[] frame = new double[CORNER_LENGTH];
+                double[] normal = new double[3];
+                double[] projected = new double[3];
+                for (int face = start; face < end; face++) {
+                    writeCornerFrames(positions, normals, imageCoords, faceIndices, face, frame, normal, projected, cornerFrames);
+                }
+            }
+        });
+
+        final CornerAdjacency adjacency = new CornerAdjacency(faceIndices, vertexCount);
+        final float[][] tangents = new float[4][vertexCount];
+        ParallelUtil.forRange(executor, vertexCount, MIN_PARALLEL_RANGE_LENGTH, new IRangeTask() {
+            @Override
+            public void run(int start, int end) {
+                double[] sum = new double[CORNER_LENGTH];
+                double[] normal = new double[3];
+                double[] tangent = new double[3];
+                for (int vertex = start; vertex < end; vertex++) {
+                    for (int i = 0; i < CORNER_LENGTH; i++) {
+                        sum[i] = 0;
+                    }
+                    for (int adjacencyIndex = adjacency.offsets[vertex]; adjacencyIndex < adjacency.offsets[vertex + 1]; adjacencyIndex++) {
+                        int base = CORNER_LENGTH * adjacency.corners[adjacencyIndex];
+                        for (int i = 0; i < CORNER_LENGTH; i++) {
+                            sum[i] += cornerFrames[base + i];
+                        }
+                    }
+                    readNormal(normals, vertex, normal);
+                    tangent[0] = sum[0];
+                    tangent[1] = sum[1];
+                    tangent[2] = sum[2];
+                    if (!projectAndNormalise(tangent, normal)) {
+                        perpendicular(normal, tangent);
+                    }
+                    double crossX = normal[1] * tangent[2] - normal[2] * tangent[1];
+                    double crossY = normal[2] * tangent[0] - normal[0] * tangent[2];
+                    double crossZ = normal[0] * tangent[1] - normal[1] * tangent[0];
+                    double handedness = crossX * sum[3] + crossY * sum[4] + crossZ * sum[5];
+                    tangents[0][vertex] = (float) tangent[0];
+                    tangents[1][vertex] = (float) tangent[1];
+                    tangents[2][vertex] = (float) tangent[2];
+                    tangents[3][vertex] = (handedness < 0) ? -1 : 1;
+                }
+            }
+        });
+        mesh.adoptVertexTypeData(VertexType.Tangent_X, tangents[0], vertexCount);
+        mesh.adoptVertexTypeData(VertexType.Tangent_Y, tangents[1], vertexCount);
+        mesh.adoptVertexTypeData(VertexType.Tangent_Z, tangents[2], vertexCount);
+        mesh.adoptVertexTypeData(VertexType.Tangent_W, tangents[3], vertexCount);
+    }
+
+    private static ResizableFloatArray[] columns(Mesh mesh, VertexType... vertexTypes) throws MeshIOException {
+        ResizableFloatArray[] columns = new ResizableFloatArray[vertexTypes.length];
+        for (int i = 0; i < vertexTypes.length; i++) {
+            columns[i] = mesh.vertexTypeData(vertexTypes[i]);
+            if (columns[i] == null) {
+                throw new MeshIOException("No data found for vertex type: " + vertexTypes[i].name());
+            }
+        }
+        return columns;
+    }
+
+    private static void writeCornerFrames(ResizableFloatArray[] positions, ResizableFloatArray[] normals, ResizableFloatArray[] imageCoords,
+                                          ResizableIntArray faceIndices, int face, double[] frame, double[] normal, double[] projected, float[] cornerFrames) {
+        int v0 = faceIndices.getAt(3 * face);
+        int v1 = faceIndices.getAt(3 * face + 1);
+        int v2 = faceIndices.getAt(3 * face + 2);
+        double e1x = NormalGenerator.coordinate(positions[0], v1) - NormalGenerator.coordinate(positions[0], v0);
+        double e1y = NormalGenerator.coordinate(positions[1], v1) - NormalGenerator.coordinate(positions[1], v0);
+        double e1z = NormalGenerator.coordinate(positions[2], v1) - NormalGenerator.coordinate(positions[2], v0);
+        double e2x = NormalGenerator.coordinate(positions[0], v2) - NormalGenerator.coordinate(positions[0], v0);
+        double e2y = NormalGenerator.coordinate(positions[1], v2) - NormalGenerator.coordinate(positions[1], v0);
+        double e2z = NormalGenerator.coordinate(positions[2], v2) - NormalGenerator.coordinate(positions[2], v0);
+        double du1 = NormalGenerator.coordinate(imageCoords[0], v1) - NormalGenerator.coordinate(imageCoords[0], v0);
+        double dv1 = NormalGenerator.coordinate(imageCoords[1], v1) - NormalGenerator.coordinate(imageCoords[1], v0);
+        double du2 = NormalGenerator.coordinate(imageCoords[0], v2) - NormalGenerator.coordinate(imageCoords[0], v0);
+        double dv2 = NormalGenerator.coordinate(imageCoords[1], v2) - NormalGenerator.coordinate(imageCoords[1], v0);
+        double determinant = du1 * dv2 - du2 * dv1;
+        if (determinant == 0) {
+            return;
+        }
+        double sign = (determinant > 0) ? 1 : -1;
+        double tangentX = (e1x * dv2 - e2x * dv1) * sign;
+        double tangentY = (e1y * dv2 - e2y * dv1) * sign;
+        double tangentZ = (e1z * dv2 - e2z * dv1) * sign;
+        double bitangentX = (e2x * du1 - e1x * du2) * sign;
+        double bitangentY = (e2y * du1 - e1y * du2) * sign;
+        double bitangentZ = (e2z * du1 - e1z * du2) * sign;
+        for (int corner = 0; corner < 3; corner++) {
+            int vertex = faceIndices.getAt(3 * face + corner);
+            double angle = NormalGenerator.cornerAngle(positions, faceIndices, face, corner);
+            readNormal(normals, vertex, normal);
+            projected[0] = tangentX;
+            projected[1] = tangentY;
+            projected[2] = tangentZ;
+            boolean validTangent = projectAndNormalise(projected, normal);
+            frame[0] = validTangent ? projected[0] * angle : 0;
+            frame[1] = validTangent ? projected[1] * angle : 0;
+            frame[2] = validTangent ? projected[2] * angle : 0;
+            projected[0] = bitangentX;
+            projected[1] = bitangentY;
+            projected[2] = bitangentZ;
+            boolean validBitangent = projectAndNormalise(projected, normal);
+            frame[3] = validBitangent ? projected[0] * angle : 0;
+            frame[4] = validBitangent ? projected[1] * angle : 0;
+            frame[5] = validBitangent ? projected[2] * angle : 0;
+            int base = CORNER_LENGTH * (3 * face + corner);
+            for (int i = 0; i < CORNER_LENGTH; i++) {
+                cornerFrames[base + i] = (float) frame[i];
+            }
+        }
+    }
+
+    private static void readNormal(ResizableFloatArray[] normals, int vertex, double[] normal) {
+        normal[0] = NormalGenerator.coordinate(normals[0], vertex);
+        normal[1] = NormalGenerator.coordinate(normals[1], vertex);
+        normal[2] = NormalGenerator.coordinate(normals[2], vertex);
+        double length = Math.sqrt(normal[0] * normal[0] + normal[1] * normal[1] + normal[2] * normal[2]);
+        if (length > 0) {
+            normal[0] /= length;
+            normal[1] /= length;
+            normal[2] /= length;
+        }
+    }
+
+    /**
+     * Removes the component along the unit normal from the vector and normalises it, returning false if nothing is left.
+     */
+    private static boolean projectAndNormalise(double[] vector, double[] normal) {
+        double dot = vector[0] * normal[0] + vector[1] * normal[1] + vector[2] * normal[2];
+        vector[0] -= normal[0] * dot;
+        vector[1] -= normal[1] * dot;
+        vector[2] -= normal[2] * dot;
+        double length = Math.sqrt(vector[0] * vector[0] + vector[1] * vector[1] + vector[2] * vector[2]);
+        if (!(length > 1e-20)) {
+            return false;
+        }
+        vector[0] /= length;
+        vector[1] /= length;
+        vector[2] /= length;
+        return true;
+    }
+
+    private static void perpendicular(double[] normal, double[] result) {
+        if (Math.abs(normal[0]) < 0.9) {
+            result[0] = 0;
+            result[1] = normal[2];
+            result[2] = -normal[1];
+        } else {
+            result[0] = -normal[2];
+            result[1] = 0;
+            result[2] = normal[0];
+        }
+        if (!projectAndNormalise(result, normal)) {
+            result[0] = 1;
+            result[1] = 0;
+            result[2] = 0;
+        }
+    }
+}
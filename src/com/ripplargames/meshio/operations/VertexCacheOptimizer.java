@@ -0,0 +1,359 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Reorders faces for post-transform vertex cache efficiency using Tom Forsyth's linear-speed algorithm,
+ * with an optional pass that sorts cache clusters front to back to reduce overdraw.
+ */
+public class VertexCacheOptimizer {
+    public static final int DEFAULT_FIFO_CACHE_SIZE = 16;
+    private static final int LRU_CACHE_SIZE = 32;
+    private static final float CACHE_DECAY_POWER = 1.5f;
+    private static final float LAST_TRIANGLE_SCORE = 0.75f;
+    private static final float VALENCE_BOOST_SCALE = 2.0f;
+    private static final float VALENCE_BOOST_POWER = 0.5f;
+    private static final float[] CACHE_POSITION_SCORES = new float[LRU_CACHE_SIZE];
+
+    static {
+        for (int position = 0; position < LRU_CACHE_SIZE; position++) {
+            if (position < 3) {
+                CACHE_POSITION_SCORES[position] = LAST_TRIANGLE_SCORE;
+            } else {
+                float scaler = 1.0f / (LRU_CACHE_SIZE - 3);
+                CACHE_POSITION_SCORES[position] = (float) Math.pow(1.0f - (position - 3) * scaler, CACHE_DECAY_POWER);
+            }
+        }
+    }
+
+    private final int fifoCacheSize;
+
+    public VertexCacheOptimizer() {
+        this(DEFAULT_FIFO_CACHE_SIZE);
+    }
+
+    public VertexCacheOptimizer(int fifoCacheSize) {
+        if (fifoCacheSize < 3) {
+            throw new IllegalArgumentException("Cache size must be at least 3");
+        }
+        this.fifoCacheSize = fifoCacheSize;
+    }
+
+    /**
+     * The average number of vertex cache misses per triangle, simulating a FIFO cache of the given size.
+     */
+    public static double acmr(Mesh mesh, int cacheSize) {
+        int faceCount = mesh.faceCount();
+        if (faceCount == 0) {
+            return 0;
+        }
+        ResizableIntArray faceIndices = mesh.faceIndices();
+        int[] timestamps = new int[vertexCount(faceIndices)];
+        int time = cacheSize + 1;
+        int misses = 0;
+        for (int index = 0; index < faceIndices.length(); index++) {
+            int vertex = faceIndices.getAt(index);
+            if (time - timestamps[vertex] > cacheSize) {
+                timestamps[vertex] = time;
+                time++;
+                misses++;
+            }
+        }
+        return misses / (double) faceCount;
+    }
+
+    static int vertexCount(ResizableIntArray faceIndices) {
+        return (faceIndices.length() == 0)
+                ? 0
+                : faceIndices.max() + 1;
+    }
+
+    public VertexCacheReport optimize(Mesh mesh) {
+        double acmrBefore = acmr(mesh, fifoCacheSize);
+        int[] order = optimizeOrder(mesh.faceIndices(), mesh.faceCount());
+        applyOrder(mesh, order);
+        return new VertexCacheReport(fifoCacheSize, acmrBefore, acmr(mesh, fifoCacheSize));
+    }
+
+    /**
+     * Splits the current face order into clusters at cache resets and sorts the clusters so outward facing ones are drawn
+     * first. The new order is kept only if its ACMR is within threshold times the current ACMR, e.g. 1.05.
+     */
+    public VertexCacheReport optimizeOverdraw(Mesh mesh, float threshold) throws MeshIOException {
+        if (!mesh.hasVertexTypeData(VertexType.Position_X) || !mesh.hasVertexTypeData(VertexType.Position_Y) || !mesh.hasVertexTypeData(VertexType.Position_Z)) {
+            throw new MeshIOException("There must be (x,y,z) position data present");
+        }
+        double acmrBefore = acmr(mesh, fifoCacheSize);
+        ResizableIntArray faceIndices = mesh.faceIndices();
+        int faceCount = mesh.faceCount();
+        int[] original = faceIndices.copyArray();
+        int[] clusterStarts = findClusterStarts(faceIndices, faceCount);
+        int clusterCount = clusterStarts.length - 1;
+        float[] sortKeys = clusterSortKeys(mesh, faceIndices, clusterStarts);
+        Integer[] clusterOrder = new Integer[clusterCount];
+        for (int cluster = 0; cluster < clusterCount; cluster++) {
+            clusterOrder[cluster] = cluster;
+        }
+        sortDescending(clusterOrder, sortKeys);
+        int[] order = new int[faceCount];
+        int orderIndex = 0;
+        for (Integer cluster : clusterOrder) {
+            for (int face = clusterStarts[cluster]; face < clusterStarts[cluster + 1]; face++) {
+                order[orderIndex] = face;
+                orderIndex++;
+            }
+        }
+        applyOrder(mesh, order);
+        double acmrAfter = acmr(mesh, fifoCacheSize);
+        if (acmrAfter > acmrBefore * threshold) {
+            mesh.setFaceIndices(0, original, 0, original.length);
+            acmrAfter = acmrBefore;
+        }
+        return new VertexCacheReport(fifoCacheSize, acmrBefore, acmrAfter);
+    }
+
+    private int[] findClusterStarts(ResizableIntArray faceIndices, int faceCount) {
+        ResizableIntArray starts = new ResizableIntArray();
+        int[] timestamps = new int[vertexCount(faceIndices)];
+        int time = fifoCacheSize + 1;
+        for (int face = 0; face < faceCount; face++) {
+            int faceMisses = 0;
+            for (int corner = 0; corner < 3; corner++) {
+                int vertex = faceIndices.getAt(3 * face + corner);
+                if (time - timestamps[vertex] > fifoCacheSize) {
+                    timestamps[vertex] = time;
+                    time++;
+                    faceMisses++;
+                }
+            }
+            if (face == 0 || faceMisses == 3) {
+                starts.append(face);
+            }
+        }
+        starts.append(faceCount);
+        return starts.copyArray();
+    }
+
+    private static float[] clusterSortKeys(Mesh mesh, ResizableIntArray faceIndices, int[] clusterStarts) {
+        ResizableFloatArray xs = mesh.vertexTypeData(VertexType.Position_X);
+        ResizableFloatArray ys = mesh.vertexTypeData(VertexType.Position_Y);
+        ResizableFloatArray zs = mesh.vertexTypeData(VertexType.Position_Z);
+        double meshX = 0;
+        double meshY = 0;
+        double meshZ = 0;
+        double meshArea = 0;
+        int clusterCount = clusterStarts.length - 1;
+        double[] clusterData = new double[clusterCount * 7];
+        for (int cluster = 0; cluster < clusterCount; cluster++) {
+            for (int face = clusterStarts[cluster]; face < clusterStarts[cluster + 1]; face++) {
+                int a = faceIndices.getAt(3 * face);
+                int b = faceIndices.getAt(3 * face + 1);
+                int c = faceIndices.getAt(3 * face + 2);
+                double abx = xs.getAt(b) - xs.getAt(a);
+                double aby = ys.getAt(b) - ys.getAt(a);
+                double abz = zs.getAt(b) - zs.getAt(a);
+                double acx = xs.getAt(c) - xs.getAt(a);
+                double acy = ys.getAt(c) - ys.getAt(a);
+                double acz = zs.getAt(c) - zs.getAt(a);
+                double nx = aby * acz - abz * acy;
+                double ny = abz * acx - abx * acz;
+                double nz = abx * acy - aby * acx;
+                double area = Math.sqrt(nx * nx + ny * ny + nz * nz);
+                double cx = (xs.getAt(a) + xs.getAt(b) + xs.getAt(c)) / 3;
+                double cy = (ys.getAt(a) + ys.getAt(b) + ys.getAt(c)) / 3;
+                double cz = (zs.getAt(a) + zs.getAt(b) + zs.getAt(c)) / 3;
+                int base = cluster * 7;
+                clusterData[base] += cx * area;
+                clusterData[base + 1] += cy * area;
+                clusterData[base + 2] += cz * area;
+                clusterData[base + 3] += nx;
+                clusterData[base + 4] += ny;
+                clusterData[base + 5] += nz;
+                clusterData[base + 6] += area;
+                meshX += cx * area;
+                meshY += cy * area;
+                meshZ += cz * area;
+                meshArea += area;
+            }
+        }
+        if (meshArea > 0) {
+            meshX /= meshArea;
+            meshY /= meshArea;
+            meshZ /= meshArea;
+        }
+        float[] sortKeys = new float[clusterCount];
+        for (int cluster = 0; cluster < clusterCount; cluster++) {
+            int base = cluster * 7;
+            double area = clusterData[base + 6];
+            if (area <= 0) {
+                continue;
+            }
+            double dx = clusterData[base] / area - meshX;
+            double dy = clusterData[base + 1] / area - meshY;
+            double dz = clusterData[base + 2] / area - meshZ;
+            double nx = clusterData[base + 3];
+            double ny = clusterData[base + 4];
+            double nz = clusterData[base + 5];
+            double normalLength = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (normalLength > 0) {
+                sortKeys[cluster] = (float) ((dx * nx + dy * ny + dz * nz) / normalLength);
+            }
+        }
+        return sortKeys;
+    }
+
+    private static void sortDescending(Integer[] clusterOrder, final float[] sortKeys) {
+        Arrays.sort(clusterOrder, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer a, Integer b) {
+                return Float.compare(sortKeys[b], sortKeys[a]);
+            }
+        });
+    }
+
+    private static void applyOrder(Mesh mesh, int[] order) {
+        int[] original = mesh.faceIndices().copyArray();
+        int[] reordered = new int[3 * order.length];
+        for (int newFace = 0; newFace < order.length; newFace++) {
+            int oldFace = order[newFace];
+            reordered[3 * newFace] = original[3 * oldFace];
+            reordered[3 * newFace + 1] = original[3 * oldFace + 1];
+            reordered[3 * newFace + 2] = original[3 * oldFace + 2];
+        }
+        mesh.setFaceIndices(0, reordered, 0, reordered.length);
+    }
+
+    private static int[] optimizeOrder(ResizableIntArray faceIndices, int faceCount) {
+        int vertexCount = vertexCount(faceIndices);
+        int[] adjacencyOffsets = new int[vertexCount + 1];
+        for (int index = 0; index < 3 * faceCount; index++) {
+            adjacencyOffsets[faceIndices.getAt(index) + 1]++;
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            adjacencyOffsets[vertex + 1] += adjacencyOffsets[vertex];
+        }
+        int[] adjacency = new int[3 * faceCount];
+        int[] remaining = new int[vertexCount];
+        for (int face = 0; face < faceCount; face++) {
+            for (int corner = 0; corner < 3; corner++) {
+                int vertex = faceIndices.getAt(3 * face + corner);
+                adjacency[adjacencyOffsets[vertex] + remaining[vertex]] = face;
+                remaining[vertex]++;
+            }
+        }
+        int[] cachePositions = new int[vertexCount];
+        Arrays.fill(cachePositions, -1);
+        float[] vertexScores = new float[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            vertexScores[vertex] = vertexScore(-1, remaining[vertex]);
+        }
+        float[] faceScores = new float[faceCount];
+        boolean[] added = new boolean[faceCount];
+        for (int face = 0; face < faceCount; face++) {
+            faceScores[face] = faceScore(faceIndices, face, vertexScores);
+        }
+        int[] cache = new int[LRU_CACHE_SIZE + 3];
+        int[] newCache = new int[LRU_CACHE_SIZE + 3];
+        int cacheLength = 0;
+        int[] order = new int[faceCount];
+        int bestFace = bestFace(faceScores, added, 0, faceCount);
+        int cursor = 0;
+        for (int orderIndex = 0; orderIndex < faceCount; orderIndex++) {
+            if (bestFace == -1) {
+                while (added[cursor]) {
+                    cursor++;
+                }
+                bestFace = cursor;
+            }
+            order[orderIndex] = bestFace;
+            added[bestFace] = true;
+            int newCacheLength = 0;
+            for (int corner = 0; corner < 3; corner++) {
+                int vertex = faceIndices.getAt(3 * bestFace + corner);
+                newCache[newCacheLength] = vertex;
+                newCacheLength++;
+                removeAdjacentFace(adjacency, adjacencyOffsets, remaining, vertex, bestFace);
+            }
+            for (int cacheIndex = 0; cacheIndex < cacheLength; cacheIndex++) {
+                int vertex = cache[cacheIndex];
+                if (vertex != newCache[0] && vertex != newCache[1] && vertex != newCache[2]) {
+                    newCache[newCacheLength] = vertex;
+                    newCacheLength++;
+                }
+            }
+            int[] swap = cache;
+            cache = newCache;
+            newCache = swap;
+            cacheLength = newCacheLength;
+            for (int cacheIndex = 0; cacheIndex < cacheLength; cacheIndex++) {
+                int vertex = cache[cacheIndex];
+                cachePositions[vertex] = (cacheIndex < LRU_CACHE_SIZE) ? cacheIndex : -1;
+                vertexScores[vertex] = vertexScore(cachePositions[vertex], remaining[vertex]);
+            }
+            bestFace = -1;
+            float bestScore = -1;
+            for (int cacheIndex = 0; cacheIndex < cacheLength; cacheIndex++) {
+                int vertex = cache[cacheIndex];
+                for (int adjacencyIndex = adjacencyOffsets[vertex]; adjacencyIndex < adjacencyOffsets[vertex] + remaining[vertex]; adjacencyIndex++) {
+                    int face = adjacency[adjacencyIndex];
+                    float score = faceScore(faceIndices, face, vertexScores);
+                    faceScores[face] = score;
+                    if (score > bestScore) {
+                        bestScore = score;
+                        bestFace = face;
+                    }
+                }
+            }
+            if (cacheLength > LRU_CACHE_SIZE) {
+                cacheLength = LRU_CACHE_SIZE;
+            }
+        }
+        return order;
+    }
+
+    private static void removeAdjacentFace(int[] adjacency, int[] adjacencyOffsets, int[] remaining, int vertex, int face) {
+        int start = adjacencyOffsets[vertex];
+        int end = start + remaining[vertex];
+        for (int adjacencyIndex = start; adjacencyIndex < end; adjacencyIndex++) {
+            if (adjacency[adjacencyIndex] == face) {
+                adjacency[adjacencyIndex] = adjacency[end - 1];
+                remaining[vertex]--;
+                return;
+            }
+        }
+    }
+
+    private static int bestFace(float[] faceScores, boolean[] added, int start, int end) {
+        int bestFace = -1;
+        float bestScore = -1;
+        for (int face = start; face < end; face++) {
+            if (!added[face] && faceScores[face] > bestScore) {
+                bestScore = faceScores[face];
+                bestFace = face;
+            }
+        }
+        return bestFace;
+    }
+
+    private static float faceScore(ResizableIntArray faceIndices, int face, float[] vertexScores) {
+        return vertexScores[faceIndices.getAt(3 * face)]
+                + vertexScores[faceIndices.getAt(3 * face + 1)]
+                + vertexScores[faceIndices.getAt(3 * face + 2)];
+    }
+
+    private static float vertexScore(int cachePosition, int remainingFaces) {
+        if (remainingFaces == 0) {
+            return -1;
+        }
+        float score = (cachePosition < 0) ? 0 : CACHE_POSITION_SCORES[cachePosition];
+        float valenceBoost = (float) Math.pow(remainingFaces, -VALENCE_BOOST_POWER);
+        return score + VALENCE_BOOST_SCALE * valenceBoost;
+    }
+}
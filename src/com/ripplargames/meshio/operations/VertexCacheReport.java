@@ -0,0 +1,30 @@
+package com.ripplargames.meshio.operations;
+
+public class VertexCacheReport {
+    private final int cacheSize;
+    private final double acmrBefore;
+    private final double acmrAfter;
+
+    public VertexCacheReport(int cacheSize, double acmrBefore, double acmrAfter) {
+        this.cacheSize = cacheSize;
+        this.acmrBefore = acmrBefore;
+        this.acmrAfter = acmrAfter;
+    }
+
+    public int cacheSize() {
+        return cacheSize;
+    }
+
+    public double acmrBefore() {
+        return acmrBefore;
+    }
+
+    public double acmrAfter() {
+        return acmrAfter;
+    }
+
+    @Override
+    public String toString() {
+        return "ACMR (FIFO " + cacheSize + "): " + acmrBefore + " -> " + acmrAfter;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.Arrays;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Renumbers vertices so they are stored in the order they are first used, which makes vertex fetches mostly sequential.
+ * Meshes without faces are sorted along a Morton curve through their positions instead.
+ */
+public class VertexFetchOptimizer {
+    private static final int MORTON_BITS_PER_AXIS = 10;
+    private static final VertexType[] POSITION_TYPES = {VertexType.Position_X, VertexType.Position_Y, VertexType.Position_Z};
+
+    /**
+     * Reorders the vertices of the mesh in place, vertices not referenced by any face are kept after the referenced ones.
+     */
+    public void optimize(Mesh mesh) throws MeshIOException {
+        int vertexCount = Math.max(mesh.vertexCount(), VertexCacheOptimizer.vertexCount(mesh.faceIndices()));
+        int[] remap = (mesh.faceCount() == 0)
+                ? createSpatialRemap(mesh, vertexCount)
+                : createFirstUseRemap(mesh.faceIndices(), vertexCount);
+        mesh.remapVertices(remap, vertexCount);
+    }
+
+    public int[] createFirstUseRemap(ResizableIntArray faceIndices, int vertexCount) {
+        int[] remap = new int[vertexCount];
+        Arrays.fill(remap, -1);
+        int nextIndex = 0;
+        for (int index = 0; index < faceIndices.length(); index++) {
+            int vertex = faceIndices.getAt(index);
+            if (remap[vertex] == -1) {
+                remap[vertex] = nextIndex;
+                nextIndex++;
+            }
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (remap[vertex] == -1) {
+                remap[vertex] = nextIndex;
+                nextIndex++;
+            }
+        }
+        return remap;
+    }
+
+    public int[] createSpatialRemap(Mesh mesh, int vertexCount) throws MeshIOException {
+        ResizableFloatArray[] positions = new ResizableFloatArray[POSITION_TYPES.length];
+        for (int axis = 0; axis < POSITION_TYPES.length; axis++) {
+            positions[axis] = mesh.vertexTypeData(POSITION_TYPES[axis]);
+            if (positions[axis] == null) {
+                throw new MeshIOException("There must be (x,y,z) position data present");
+            }
+        }
+        float[] mins = new float[POSITION_TYPES.length];
+        float[] scales = new float[POSITION_TYPES.length];
+        int cellCount = 1 << MORTON_BITS_PER_AXIS;
+        for (int axis = 0; axis < POSITION_TYPES.length; axis++) {
+            float min = Float.POSITIVE_INFINITY;
+            float max = Float.NEGATIVE_INFINITY;
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                float value = datum(positions[axis], vertex);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            float range = max - min;
+            mins[axis] = min;
+            scales[axis] = (range > 0) ? (cellCount - 1) / range : 0;
+        }
+        long[] keys = new long[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            long code = 0;
+            for (int axis = 0; axis < POSITION_TYPES.length; axis++) {
+                int cell = (int) ((datum(positions[axis], vertex) - mins[axis]) * scales[axis]);
+                code |= spreadBits(cell) << axis;
+            }
+            keys[vertex] = (code << 32) | vertex;
+        }
+        Arrays.sort(keys);
+        int[] remap = new int[vertexCount];
+        for (int newIndex = 0; newIndex < vertexCount; newIndex++) {
+            remap[(int) keys[newIndex]] = newIndex;
+        }
+        return remap;
+    }
+
+    private static float datum(ResizableFloatArray column, int vertex) {
+        return (vertex < column.length()) ? column.getAt(vertex) : 0;
+    }
+
+    private static long spreadBits(int value) {
+        long x = value & 0x3FF;
+        x = (x | (x << 16)) & 0x030000FFL;
+        x = (x | (x << 8)) & 0x0300F00FL;
+        x = (x | (x << 4)) & 0x030C30C3L;
+        x = (x | (x << 2)) & 0x09249249L;
+        return x;
+    }
+}
@@ -0,0 +1,239 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Merges vertices whose data is equal, or within a per vertex type tolerance, and compacts the mesh.
+ * Candidates are found through a hash grid over the positions so welding runs in near linear time.
+ */
+public class VertexWelder {
+    private static final int EMPTY = -1;
+    private static final VertexType[] POSITION_TYPES = {VertexType.Position_X, VertexType.Position_Y, VertexType.Position_Z};
+
+    private final float[] tolerances = new float[VertexType.values().length];
+
+    public VertexWelder() {
+        this(Collections.<VertexType, Float>emptyMap());
+    }
+
+    public VertexWelder(Map<VertexType, Float> tolerances) {
+        for (Map.Entry<VertexType, Float> entry : tolerances.entrySet()) {
+            float tolerance = entry.getValue();
+            if (!(tolerance >= 0)) {
+                throw new IllegalArgumentException("Tolerance for " + entry.getKey().name() + " must be zero or greater");
+            }
+            this.tolerances[entry.getKey().ordinal()] = tolerance;
+        }
+    }
+
+    /**
+     * Welds the mesh in place and returns the new vertex count.
+     */
+    public int weld(Mesh mesh) throws MeshIOException {
+        int vertexCount = vertexCount(mesh);
+        int[] remap = new int[vertexCount];
+        int weldedVertexCount = createRemap(mesh, remap);
+        if (weldedVertexCount != vertexCount) {
+            mesh.remapVertices(remap, weldedVertexCount);
+        }
+        return weldedVertexCount;
+    }
+
+    /**
+     * Fills remap with the welded index of each vertex, the first vertex of each group keeps its order,
+     * and returns the welded vertex count. Vertices referenced by faces but without data weld as zeros.
+     */
+    public int createRemap(Mesh mesh, int[] remap) throws MeshIOException {
+        int vertexCount = vertexCount(mesh);
+        Set<VertexType> vertexTypes = mesh.vertexTypes();
+        ResizableFloatArray[] columns = new ResizableFloatArray[vertexTypes.size()];
+        ResizableFloatArray[] columnsByOrdinal = new ResizableFloatArray[tolerances.length];
+        float[] columnTolerances = new float[columns.length];
+        int columnIndex = 0;
+        for (VertexType vertexType : vertexTypes) {
+            columns[columnIndex] = mesh.vertexTypeData(vertexType);
+            columnsByOrdinal[vertexType.ordinal()] = columns[columnIndex];
+            columnTolerances[columnIndex] = tolerances[vertexType.ordinal()];
+            columnIndex++;
+        }
+        ResizableFloatArray[] keys = new ResizableFloatArray[POSITION_TYPES.length];
+        float[] cellSizes = new float[POSITION_TYPES.length];
+        int substituteIndex = 0;
+        for (int axis = 0; axis < POSITION_TYPES.length; axis++) {
+            VertexType positionType = POSITION_TYPES[axis];
+            if (columnsByOrdinal[positionType.ordinal()] != null) {
+                keys[axis] = columnsByOrdinal[positionType.ordinal()];
+                cellSizes[axis] = tolerances[positionType.ordinal()];
+            } else if (isAnyTolerance(columnTolerances)) {
+                throw new MeshIOException("Position data for " + positionType.name() + " is required to weld with tolerances");
+            } else if (substituteIndex < columns.length) {
+                // exact welding only, so any other vertex type can spread the vertices across the grid
+                keys[axis] = columns[substituteIndex];
+                substituteIndex++;
+            }
+        }
+        Grid grid = new Grid(keys, cellSizes, vertexCount);
+        int weldedVertexCount = 0;
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            int match = grid.findMatch(vertexIndex, columns, columnTolerances);
+            if (match == EMPTY) {
+                grid.insert(vertexIndex);
+                remap[vertexIndex] = weldedVertexCount;
+                weldedVertexCount++;
+            } else {
+                remap[vertexIndex] = remap[match];
+            }
+        }
+        return weldedVertexCount;
+    }
+
+    private static int vertexCount(Mesh mesh) {
+        return Math.max(mesh.vertexCount(), VertexCacheOptimizer.vertexCount(mesh.faceIndices()));
+    }
+
+    private static boolean isAnyTolerance(float[] tolerances) {
+        for (float tolerance : tolerances) {
+            if (tolerance > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static float datum(ResizableFloatArray column, int vertexIndex) {
+        return (vertexIndex < column.length()) ? column.getAt(vertexIndex) : 0;
+    }
+
+    private static boolean isMatch(int a, int b, ResizableFloatArray[] columns, float[] columnTolerances) {
+        for (int columnIndex = 0; columnIndex < columns.length; columnIndex++) {
+            ResizableFloatArray column = columns[columnIndex];
+            float tolerance = columnTolerances[columnIndex];
+            float datumA = datum(column, a);
+            float datumB = datum(column, b);
+            if (tolerance == 0) {
+                if (Float.floatToIntBits(datumA + 0.0f) != Float.floatToIntBits(datumB + 0.0f)) {
+                    return false;
+                }
+            } else if (!(Math.abs(datumA - datumB) <= tolerance)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Grid {
+        private final ResizableFloatArray[] keys;
+        private final float[] cellSizes;
+        private final int[] searchRanges;
+        private final int[] next;
+        private int[] cellHeads;
+        private int[][] cellKeys;
+        private int cellMask;
+        private int cellCount;
+
+        Grid(ResizableFloatArray[] keys, float[] cellSizes, int vertexCount) {
+            this.keys = keys;
+            this.cellSizes = cellSizes;
+            this.searchRanges = new int[keys.length];
+            for (int axis = 0; axis < keys.length; axis++) {
+                searchRanges[axis] = (cellSizes[axis] > 0) ? 1 : 0;
+            }
+            this.next = new int[vertexCount];
+            allocate(Math.max(16, Integer.highestOneBit(Math.max(1, vertexCount)) << 1));
+        }
+
+        private void allocate(int tableLength) {
+            cellHeads = new int[tableLength];
+            cellKeys = new int[keys.length][tableLength];
+            cellMask = tableLength - 1;
+            Arrays.fill(cellHeads, EMPTY);
+        }
+
+        private int cellCoordinate(int axis, int vertexIndex) {
+            ResizableFloatArray column = keys[axis];
+            if (column == null) {
+                return 0;
+            }
+            float value = datum(column, vertexIndex) + 0.0f;
+            float cellSize = cellSizes[axis];
+            return (cellSize > 0)
+                    ? (int) Math.floor(value / cellSize)
+                    : Float.floatToIntBits(value);
+        }
+
+        private static int hash(int x, int y, int z) {
+            int hash = x * 0x8DA6B343 ^ y * 0xD8163841 ^ z * 0xCB1AB31F;
+            return hash ^ (hash >>> 16);
+        }
+
+        private int findSlot(int x, int y, int z) {
+            int slot = hash(x, y, z) & cellMask;
+            while (cellHeads[slot] != EMPTY
+                    && (cellKeys[0][slot] != x || cellKeys[1][slot] != y || cellKeys[2][slot] != z)) {
+                slot = (slot + 1) & cellMask;
+            }
+            return slot;
+        }
+
+        int findMatch(int vertexIndex, ResizableFloatArray[] columns, float[] columnTolerances) {
+            int x = cellCoordinate(0, vertexIndex);
+            int y = cellCoordinate(1, vertexIndex);
+            int z = cellCoordinate(2, vertexIndex);
+            int best = EMPTY;
+            for (int dx = -searchRanges[0]; dx <= searchRanges[0]; dx++) {
+                for (int dy = -searchRanges[1]; dy <= searchRanges[1]; dy++) {
+                    for (int dz = -searchRanges[2]; dz <= searchRanges[2]; dz++) {
+                        int slot = findSlot(x + dx, y + dy, z + dz);
+                        for (int candidate = cellHeads[slot]; candidate != EMPTY; candidate = next[candidate]) {
+                            if ((best == EMPTY || candidate < best) && isMatch(vertexIndex, candidate, columns, columnTolerances)) {
+                                best = candidate;
+                            }
+                        }
+                    }
+                }
+            }
+            return best;
+        }
+
+        void insert(int vertexIndex) {
+            int x = cellCoordinate(0, vertexIndex);
+            int y = cellCoordinate(1, vertexIndex);
+            int z = cellCoordinate(2, vertexIndex);
+            int slot = findSlot(x, y, z);
+            if (cellHeads[slot] == EMPTY) {
+                cellKeys[0][slot] = x;
+                cellKeys[1][slot] = y;
+                cellKeys[2][slot] = z;
+                cellCount++;
+            }
+            next[vertexIndex] = cellHeads[slot];
+            cellHeads[slot] = vertexIndex;
+            if (cellCount > (cellMask + 1) / 2) {
+                rehash();
+            }
+        }
+
+        private void rehash() {
+            int[] oldHeads = cellHeads;
+            int[][] oldKeys = cellKeys;
+            allocate(oldHeads.length << 1);
+            for (int oldSlot = 0; oldSlot < oldHeads.length; oldSlot++) {
+                if (oldHeads[oldSlot] != EMPTY) {
+                    int slot = findSlot(oldKeys[0][oldSlot], oldKeys[1][oldSlot], oldKeys[2][oldSlot]);
+                    cellKeys[0][slot] = oldKeys[0][oldSlot];
+                    cellKeys[1][slot] = oldKeys[1][oldSlot];
+                    cellKeys[2][slot] = oldKeys[2][oldSlot];
+                    cellHeads[slot] = oldHeads[oldSlot];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package com.ripplargames.meshio.spatial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.IRangeTask;
+import com.ripplargames.meshio.util.ParallelUtil;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+import com.ripplargames.meshio.util.ResizableIntArray;
+import com.ripplargames.meshio.vertices.VertexType;
+
+/**
+ * Builds a {@link MeshBvh} over the faces of a mesh. Nodes are split at the bin boundary with the lowest surface area
+ * heuristic cost over all three axes. With an executor the upper levels are split first and the resulting subtrees
+ * are built in parallel.
+ */
+public class BvhBuilder {
+    public static final int DEFAULT_MAX_LEAF_SIZE = 4;
+    public static final int DEFAULT_BIN_COUNT = 16;
+    private static final float TRAVERSAL_COST = 1.0f;
+    private static final int MIN_PARALLEL_SUBTREE_SIZE = 1 << 12;
+    private static final int MIN_PARALLEL_RANGE_LENGTH = 1 << 14;
+
+    private final int maxLeafSize;
+    private final int binCount;
+
+    public BvhBuilder() {
+        this(DEFAULT_MAX_LEAF_SIZE, DEFAULT_BIN_COUNT);
+    }
+
+    public BvhBuilder(int maxLeafSize, int binCount) {
+        if (maxLeafSize < 1) {
+            throw new IllegalArgumentException("Max leaf size: " + maxLeafSize + " must be at least 1");
+        }
+        if (binCount < 2) {
+            throw new IllegalArgumentException("Bin count: " + binCount + " must be at least 2");
+        }
+        this.maxLeafSize = maxLeafSize;
+        this.binCount = binCount;
+    }
+
+    public MeshBvh build(Mesh mesh) throws MeshIOException {
+        Construction construction = new Construction(mesh);
+        construction.prepare(0, construction.faceCount);
+        construction.buildSubtree(0, 0, construction.faceCount, 0);
+        return construction.finish();
+    }
+
+    public MeshBvh build(Mesh mesh, ExecutorService executor) throws MeshIOException {
+        final Construction construction = new Construction(mesh);
+        ParallelUtil.forRange(executor, construction.faceCount, MIN_PARALLEL_RANGE_LENGTH, new IRangeTask() {
+            @Override
+            public void run(int start, int end) throws MeshIOException {
+                construction.prepare(start, end);
+            }
+        });
+
+        int targetSubtreeCount = ParallelUtil.processorCount() * 4;
+        List<int[]> subtrees = new ArrayList<int[]>();
+        subtrees.add(new int[]{0, 0, construction.faceCount, 0});
+        boolean splitAny = true;
+        while (splitAny && subtrees.size() < targetSubtreeCount) {
+            splitAny = false;
+            List<int[]> nextSubtrees = new ArrayList<int[]>();
+            for (int[] subtree : subtrees) {
+                int node = subtree[0];
+                int start = subtree[1];
+                int end = subtree[2];
+                int depth = subtree[3];
+                int mid = (end - start >= MIN_PARALLEL_SUBTREE_SIZE) ? construction.split(node, start, end, depth) : -1;
+                if (mid == -1) {
+                    nextSubtrees.add(subtree);
+                } else {
+                    int left = construction.nodeData[2 * node];
+                    nextSubtrees.add(new int[]{left, start, mid, depth + 1});
+                    nextSubtrees.add(new int[]{left + 1, mid, end, depth + 1});
+                    splitAny = true;
+                }
+            }
+            subtrees = nextSubtrees;
+        }
+
+        final List<int[]> pendingSubtrees = subtrees;
+        ParallelUtil.forRange(executor, pendingSubtrees.size(), 1, new IRangeTask() {
+            @Override
+            public void run(int start, int end) {
+                for (int index = start; index < end; index++) {
+                    int[] subtree = pendingSubtrees.get(index);
+                    construction.buildSubtree(subtree[0], subtree[1], subtree[2], subtree[3]);
+                }
+            }
+        });
+        return construction.finish();
+    }
+
+    private class Construction {
+        private final int faceCount;
+        private final ResizableIntArray faceIndices;
+        private final ResizableFloatArray[] positions;
+        private final float[] primitiveBounds;
+        private final float[] centroids;
+        private final int[] primitives;
+        private final float[] nodeBounds;
+        private final int[] nodeData;
+        private final AtomicInteger nodeCount = new AtomicInteger(1);
+        private final AtomicInteger maxDepth = new AtomicInteger();
+
+        Construction(Mesh mesh) throws MeshIOException {
+            if (!mesh.hasVertexTypeData(VertexType.Position_X) || !mesh.hasVertexTypeData(VertexType.Position_Y) || !mesh.hasVertexTypeData(VertexType.Position_Z)) {
+                throw new MeshIOException("There must be (x,y,z) position data present");
+            }
+            this.faceCount = mesh.faceCount();
+            this.faceIndices = mesh.faceIndices();
+            this.positions = new ResizableFloatArray[]{
+                    mesh.vertexTypeData(VertexType.Position_X),
+                    mesh.vertexTypeData(VertexType.Position_Y),
+                    mesh.vertexTypeData(VertexType.Position_Z)};
+            this.primitiveBounds = new float[6 * faceCount];
+            this.centroids = new float[3 * faceCount];
+            this.primitives = new int[faceCount];
+            int maxNodeCount = Math.max(1, 2 * faceCount - 1);
+            this.nodeBounds = new float[6 * maxNodeCount];
+            this.nodeData = new int[2 * maxNodeCount];
+        }
+
+        void prepare(int start, int end) {
+            for (int face = start; face < end; face++) {
+                primitives[face] = face;
+                for (int axis = 0; axis < 3; axis++) {
+                    float min = Float.POSITIVE_INFINITY;
+                    float max = Float.NEGATIVE_INFINITY;
+                    for (int corner = 0; corner < 3; corner++) {
+                        float value = coordinate(axis, faceIndices.getAt(3 * face + corner));
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                    }
+                    primitiveBounds[6 * face + axis] = min;
+                    primitiveBounds[6 * face + 3 + axis] = max;
+                    centroids[3 * face + axis] = (min + max) * 0.5f;
+                }
+            }
+        }
+
+        private float coordinate(int axis, int vertex) {
+            ResizableFloatArray column = positions[axis];
+            return (vertex < column.length()) ? column.getAt(vertex) : 0;
+        }
+
+        void buildSubtree(int root, int rootStart, int rootEnd, int rootDepth) {
+            int[] stack = new int[64];
+            int stackLength = 0;
+            stack[stackLength++] = root;
+            stack[stackLength++] = rootStart;
+            stack[stackLength++] = rootEnd;
+            stack[stackLength++] = rootDepth;
+            while (stackLength > 0) {
+                int depth = stack[--stackLength];
+                int end = stack[--stackLength];
+                int start = stack[--stackLength];
+                int node = stack[--stackLength];
+                int mid = split(node, start, end, depth);
+                if (mid != -1) {
+                    if (stackLength + 8 > stack.length) {
+                        stack = Arrays.copyOf(stack, 2 * stack.length);
+                    }
+                    int left = nodeData[2 * node];
+                    stack[stackLength++] = left + 1;
+                    stack[stackLength++] = mid;
+                    stack[stackLength++] = end;
+                    stack[stackLength++] = depth + 1;
+                    stack[stackLength++] = left;
+                    stack[stackLength++] = start;
+                    stack[stackLength++] = mid;
+                    stack[stackLength++] = depth + 1;
+                }
+            }
+        }
+
+        /**
+         * Computes the bounds of the node and either turns it into a leaf, returning -1, or partitions its primitives,
+         * allocates its two children and returns the index of the first primitive of the right child.
+         */
+        int split(int node, int start, int end, int depth) {
+            updateMax(maxDepth, depth);
+            float[] bounds = new float[6];
+            float[] centroidBounds = new float[6];
+            empty(bounds);
+            empty(centroidBounds);
+            for (int index = start; index < end; index++) {
+                int primitive = primitives[index];
+                for (int axis = 0; axis < 3; axis++) {
+                    bounds[axis] = Math.min(bounds[axis], primitiveBounds[6 * primitive + axis]);
+                    bounds[axis + 3] = Math.max(bounds[axis + 3], primitiveBounds[6 * primitive + 3 + axis]);
+                    centroidBounds[axis] = Math.min(centroidBounds[axis], centroids[3 * primitive + axis]);
+                    centroidBounds[axis + 3] = Math.max(centroidBounds[axis + 3], centroids[3 * primitive + axis]);
+                }
+            }
+            System.arraycopy(bounds, 0, nodeBounds, 6 * node, 6);
+
+            int count = end - start;
+            int bestAxis = -1;
+            int bestBin = -1;
+            float bestCost = Float.POSITIVE_INFINITY;
+            if (count > 1) {
+                int[] binCounts = new int[binCount];
+                float[] binBounds = new float[6 * binCount];
+                float[] rightAreas = new float[binCount];
+                float[] sweepBounds = new float[6];
+                for (int axis = 0; axis < 3; axis++) {
+                    float extent = centroidBounds[axis + 3] - centroidBounds[axis];
+                    if (!(extent > 0)) {
+                        continue;
+                    }
+                    Arrays.fill(binCounts, 0);
+                    for (int bin = 0; bin < binCount; bin++) {
+                        empty(binBounds, 6 * bin);
+                    }
+                    for (int index = start; index < end; index++) {
+                        int primitive = primitives[index];
+                        int bin = bin(centroids[3 * primitive + axis], centroidBounds[axis], extent);
+                        binCounts[bin]++;
+                        for (int boundsAxis = 0; boundsAxis < 3; boundsAxis++) {
+                            binBounds[6 * bin + boundsAxis] = Math.min(binBounds[6 * bin + boundsAxis], primitiveBounds[6 * primitive + boundsAxis]);
+                            binBounds[6 * bin + 3 + boundsAxis] = Math.max(binBounds[6 * bin + 3 + boundsAxis], primitiveBounds[6 * primitive + 3 + boundsAxis]);
+                        }
+                    }
+                    empty(sweepBounds);
+                    for (int bin = binCount - 1; bin > 0; bin--) {
+                        grow(sweepBounds, binBounds, 6 * bin);
+                        rightAreas[bin] = halfArea(sweepBounds);
+                    }
+                    empty(sweepBounds);
+                    int leftCount = 0;
+                    for (int bin = 0; bin < binCount - 1; bin++) {
+                        grow(sweepBounds, binBounds, 6 * bin);
+                        leftCount += binCounts[bin];
+                        int rightCount = count - leftCount;
+                        if (leftCount == 0 || rightCount == 0) {
+                            continue;
+                        }
+                        float cost = halfArea(sweepBounds) * leftCount + rightAreas[bin + 1] * rightCount;
+                        if (cost < bestCost) {
+                            bestCost = cost;
+                            bestAxis = axis;
+                            bestBin = bin;
+                        }
+                    }
+                }
+            }
+
+            float nodeArea = halfArea(bounds);
+            float splitCost = (nodeArea > 0) ? TRAVERSAL_COST + bestCost / nodeArea : TRAVERSAL_COST + count / 2.0f;
+            boolean forceSplit = count > maxLeafSize;
+            if (count <= 1 || (!forceSplit && splitCost >= count) || (bestAxis == -1 && !forceSplit)) {
+                nodeData[2 * node] = start;
+                nodeData[2 * node + 1] = count;
+                return -1;
+            }
+
+            int mid;
+            if (bestAxis == -1) {
+                mid = start + count / 2;
+            } else {
+                float min = centroidBounds[bestAxis];
+                float extent = centroidBounds[bestAxis + 3] - min;
+                int i = start;
+                int j = end - 1;
+                while (i <= j) {
+                    if (bin(centroids[3 * primitives[i] + bestAxis], min, extent) <= bestBin) {
+                        i++;
+                    } else {
+                        int swap = primitives[i];
+                        primitives[i] = primitives[j];
+                        primitives[j] = swap;
+                        j--;
+                    }
+                }
+                mid = i;
+            }
+            int left = nodeCount.getAndAdd(2);
+            nodeData[2 * node] = left;
+            nodeData[2 * node + 1] = MeshBvh.INNER_NODE;
+            return mid;
+        }
+
+        private int bin(float centroid, float min, float extent) {
+            int bin = (int) ((centroid - min) * binCount / extent);
+            return Math.min(binCount - 1, Math.max(0, bin));
+        }
+
+        MeshBvh finish() {
+            int nodes = nodeCount.get();
+            float[] triangles = new float[9 * faceCount];
+            for (int index = 0; index < faceCount; index++) {
+                int face = primitives[index];
+                for (int corner = 0; corner < 3; corner++) {
+                    int vertex = faceIndices.getAt(3 * face + corner);
+                    for (int axis = 0; axis < 3; axis++) {
+                        triangles[9 * index + 3 * corner + axis] = coordinate(axis, vertex);
+                    }
+                }
+            }
+            return new MeshBvh(Arrays.copyOf(nodeBounds, 6 * nodes), Arrays.copyOf(nodeData, 2 * nodes), primitives, triangles, maxDepth.get());
+        }
+    }
+
+    private static void updateMax(AtomicInteger max, int value) {
+        int current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    private static void empty(float[] bounds) {
+        empty(bounds, 0);
+    }
+
+    private static void empty(float[] bounds, int offset) {
+        for (int axis = 0; axis < 3; axis++) {
+            bounds[offset + axis] = Float.POSITIVE_INFINITY;
+            bounds[offset + 3 + axis] = Float.NEGATIVE_INFINITY;
+        }
+    }
+
+    private static void grow(float[] bounds, float[] other, int offset) {
+        for (int axis = 0; axis < 3; axis++) {
+            bounds[axis] = Math.min(bounds[axis], other[offset + axis]);
+            bounds[axis + 3] = Math.max(bounds[axis + 3], other[offset + 3 + axis]);
+        }
+    }
+
+    private static float halfArea(float[] bounds) {
+        float dx = bounds[3] - bounds[0];
+        float dy = bounds[4] - bounds[1];
+        float dz = bounds[5] - bounds[2];
+        if (!(dx >= 0 && dy >= 0 && dz >= 0)) {
+            return 0;
+        }
+        return dx * dy + dy * dz + dz * dx;
+    }
+}
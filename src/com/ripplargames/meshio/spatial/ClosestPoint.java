@@ -0,0 +1,42 @@
+package com.ripplargames.meshio.spatial;
+
+public class ClosestPoint {
+    private final int faceIndex;
+    private final float x;
+    private final float y;
+    private final float z;
+    private final float distance;
+
+    public ClosestPoint(int faceIndex, float x, float y, float z, float distance) {
+        this.faceIndex = faceIndex;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.distance = distance;
+    }
+
+    public int faceIndex() {
+        return faceIndex;
+    }
+
+    public float x() {
+        return x;
+    }
+
+    public float y() {
+        return y;
+    }
+
+    public float z() {
+        return z;
+    }
+
+    public float distance() {
+        return distance;
+    }
+
+    @Override
+    public String toString() {
+        return "ClosestPoint{faceIndex=" + faceIndex + ", point=(" + x + ", " + y + ", " + z + "), distance=" + distance + '}';
+    }
+}
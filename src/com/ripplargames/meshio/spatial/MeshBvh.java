@@ -0,0 +1,327 @@
+package com.ripplargames.meshio.spatial;
+
+import com.ripplargames.meshio.util.ResizableIntArray;
+
+/**
+ * Bounding volume hierarchy over the faces of a mesh, created by {@link BvhBuilder}. Nodes are stored flattened: six
+ * floats of bounds (min x, y, z, max x, y, z) and two ints per node. An inner node stores the index of its left child,
+ * the right child directly follows it, and {@link #INNER_NODE}. A leaf stores the offset and count of its faces in the
+ * face order of the hierarchy. Face positions are copied in that order, so the hierarchy does not observe later changes
+ * to the mesh. Queries allocate no shared state and may run concurrently.
+ */
+public class MeshBvh {
+    static final int INNER_NODE = -1;
+
+    private final float[] nodeBounds;
+    private final int[] nodeData;
+    private final int[] faces;
+    private final float[] triangles;
+    private final int depth;
+
+    MeshBvh(float[] nodeBounds, int[] nodeData, int[] faces, float[] triangles, int depth) {
+        this.nodeBounds = nodeBounds;
+        this.nodeData = nodeData;
+        this.faces = faces;
+        this.triangles = triangles;
+        this.depth = depth;
+    }
+
+    public int nodeCount() {
+        return nodeData.length / 2;
+    }
+
+    public int faceCount() {
+        return faces.length;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    private boolean isLeaf(int node) {
+        return nodeData[2 * node + 1] != INNER_NODE;
+    }
+
+    private int[] createStack() {
+        return new int[depth + 2];
+    }
+
+    /**
+     * Returns the closest hit of the ray origin + t * direction with 0 <= t <= maxDistance, or null if there is none.
+     * Both sides of a face are hit.
+     */
+    public RayHit raycast(float originX, float originY, float originZ, float directionX, float directionY, float directionZ, float maxDistance) {
+        float[] origin = {originX, originY, originZ};
+        float[] inverse = {1 / directionX, 1 / directionY, 1 / directionZ};
+        float closest = maxDistance;
+        int hitIndex = -1;
+        float hitU = 0;
+        float hitV = 0;
+        float[] uv = new float[2];
+        int[] stack = createStack();
+        int stackLength = 0;
+        if (faces.length > 0 && slab(0, origin, inverse, closest) <= closest) {
+            stack[stackLength++] = 0;
+        }
+        while (stackLength > 0) {
+            int node = stack[--stackLength];
+            if (isLeaf(node)) {
+                int end = nodeData[2 * node] + nodeData[2 * node + 1];
+                for (int index = nodeData[2 * node]; index < end; index++) {
+                    float t = intersect(index, originX, originY, originZ, directionX, directionY, directionZ, uv);
+                    if (t >= 0 && t <= closest) {
+                        closest = t;
+                        hitIndex = index;
+                        hitU = uv[0];
+                        hitV = uv[1];
+                    }
+                }
+                continue;
+            }
+            int left = nodeData[2 * node];
+            int right = left + 1;
+            float leftDistance = slab(left, origin, inverse, closest);
+            float rightDistance = slab(right, origin, inverse, closest);
+            if (leftDistance > rightDistance) {
+                int swapNode = left;
+                left = right;
+                right = swapNode;
+                float swapDistance = leftDistance;
+                leftDistance = rightDistance;
+                rightDistance = swapDistance;
+            }
+            if (rightDistance <= closest) {
+                stack[stackLength++] = right;
+            }
+            if (leftDistance <= closest) {
+                stack[stackLength++] = left;
+            }
+        }
+        return (hitIndex == -1) ? null : new RayHit(faces[hitIndex], closest, hitU, hitV);
+    }
+
+    private float slab(int node, float[] origin, float[] inverse, float maxDistance) {
+        int base = 6 * node;
+        float near = 0;
+        float far = maxDistance;
+        for (int axis = 0; axis < 3; axis++) {
+            float min = nodeBounds[base + axis];
+            float max = nodeBounds[base + 3 + axis];
+            if (Float.isInfinite(inverse[axis])) {
+                if (origin[axis] < min || origin[axis] > max) {
+                    return Float.POSITIVE_INFINITY;
+                }
+                continue;
+            }
+            float t1 = (min - origin[axis]) * inverse[axis];
+            float t2 = (max - origin[axis]) * inverse[axis];
+            near = Math.max(near, Math.min(t1, t2));
+            far = Math.min(far, Math.max(t1, t2));
+        }
+        return (near <= far) ? near : Float.POSITIVE_INFINITY;
+    }
+
+    private float intersect(int index, float originX, float originY, float originZ, float directionX, float directionY, float directionZ, float[] uv) {
+        int base = 9 * index;
+        float e1x = triangles[base + 3] - triangles[base];
+        float e1y = triangles[base + 4] - triangles[base + 1];
+        float e1z = triangles[base + 5] - triangles[base + 2];
+        float e2x = triangles[base + 6] - triangles[base];
+        float e2y = triangles[base + 7] - triangles[base + 1];
+        float e2z = triangles[base + 8] - triangles[base + 2];
+        float px = directionY * e2z - directionZ * e2y;
+        float py = directionZ * e2x - directionX * e2z;
+        float pz = directionX * e2y - directionY * e2x;
+        float determinant = e1x * px + e1y * py + e1z * pz;
+        if (determinant == 0) {
+            // The ray is parallel to the plane of the triangle, or the triangle is degenerate.
+            return -1;
+        }
+        float inverseDeterminant = 1 / determinant;
+        float tx = originX - triangles[base];
+        float ty = originY - triangles[base + 1];
+        float tz = originZ - triangles[base + 2];
+        float u = (tx * px + ty * py + tz * pz) * inverseDeterminant;
+        if (!(u >= 0 && u <= 1)) {
+            return -1;
+        }
+        float qx = ty * e1z - tz * e1y;
+        float qy = tz * e1x - tx * e1z;
+        float qz = tx * e1y - ty * e1x;
+        float v = (directionX * qx + directionY * qy + directionZ * qz) * inverseDeterminant;
+        if (!(v >= 0 && u + v <= 1)) {
+            return -1;
+        }
+        uv[0] = u;
+        uv[1] = v;
+        return (e2x * qx + e2y * qy + e2z * qz) * inverseDeterminant;
+    }
+
+    /**
+     * Returns the closest point on any face within maxDistance of the given point, or null if there is none.
+     */
+    public ClosestPoint closestPoint(float x, float y, float z, float maxDistance) {
+        float closestSquared = maxDistance * maxDistance;
+        int closestIndex = -1;
+        float[] point = new float[3];
+        float[] closestPoint = new float[3];
+        int[] stack = createStack();
+        int stackLength = 0;
+        if (faces.length > 0 && boxDistanceSquared(0, x, y, z) <= closestSquared) {
+            stack[stackLength++] = 0;
+        }
+        while (stackLength > 0) {
+            int node = stack[--stackLength];
+            if (boxDistanceSquared(node, x, y, z) > closestSquared) {
+                continue;
+            }
+            if (isLeaf(node)) {
+                int end = nodeData[2 * node] + nodeData[2 * node + 1];
+                for (int index = nodeData[2 * node]; index < end; index++) {
+                    closestPointOnTriangle(index, x, y, z, point);
+                    float dx = point[0] - x;
+                    float dy = point[1] - y;
+                    float dz = point[2] - z;
+                    float distanceSquared = dx * dx + dy * dy + dz * dz;
+                    if (distanceSquared <= closestSquared) {
+                        closestSquared = distanceSquared;
+                        closestIndex = index;
+                        System.arraycopy(point, 0, closestPoint, 0, 3);
+                    }
+                }
+                continue;
+            }
+            int left = nodeData[2 * node];
+            int right = left + 1;
+            float leftDistance = boxDistanceSquared(left, x, y, z);
+            float rightDistance = boxDistanceSquared(right, x, y, z);
+            if (leftDistance > rightDistance) {
+                int swapNode = left;
+                left = right;
+                right = swapNode;
+                float swapDistance = leftDistance;
+                leftDistance = rightDistance;
+                rightDistance = swapDistance;
+            }
+            if (rightDistance <= closestSquared) {
+                stack[stackLength++] = right;
+            }
+            if (leftDistance <= closestSquared) {
+                stack[stackLength++] = left;
+            }
+        }
+        if (closestIndex == -1) {
+            return null;
+        }
+        return new ClosestPoint(faces[closestIndex], closestPoint[0], closestPoint[1], closestPoint[2], (float) Math.sqrt(closestSquared));
+    }
+
+    private float boxDistanceSquared(int node, float x, float y, float z) {
+        int base = 6 * node;
+        float dx = Math.max(0, Math.max(nodeBounds[base] - x, x - nodeBounds[base + 3]));
+        float dy = Math.max(0, Math.max(nodeBounds[base + 1] - y, y - nodeBounds[base + 4]));
+        float dz = Math.max(0, Math.max(nodeBounds[base + 2] - z, z - nodeBounds[base + 5]));
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private void closestPointOnTriangle(int index, float px, float py, float pz, float[] result) {
+        int base = 9 * index;
+        float ax = triangles[base], ay = triangles[base + 1], az = triangles[base + 2];
+        float bx = triangles[base + 3], by = triangles[base + 4], bz = triangles[base + 5];
+        float cx = triangles[base + 6], cy = triangles[base + 7], cz = triangles[base + 8];
+        float abx = bx - ax, aby = by - ay, abz = bz - az;
+        float acx = cx - ax, acy = cy - ay, acz = cz - az;
+        float apx = px - ax, apy = py - ay, apz = pz - az;
+        float d1 = abx * apx + aby * apy + abz * apz;
+        float d2 = acx * apx + acy * apy + acz * apz;
+        if (d1 <= 0 && d2 <= 0) {
+            setPoint(result, ax, ay, az);
+            return;
+        }
+        float bpx = px - bx, bpy = py - by, bpz = pz - bz;
+        float d3 = abx * bpx + aby * bpy + abz * bpz;
+        float d4 = acx * bpx + acy * bpy + acz * bpz;
+        if (d3 >= 0 && d4 <= d3) {
+            setPoint(result, bx, by, bz);
+            return;
+        }
+        float vc = d1 * d4 - d3 * d2;
+        if (vc <= 0 && d1 >= 0 && d3 <= 0) {
+            float v = d1 / (d1 - d3);
+            setPoint(result, ax + v * abx, ay + v * aby, az + v * abz);
+            return;
+        }
+        float cpx = px - cx, cpy = py - cy, cpz = pz - cz;
+        float d5 = abx * cpx + aby * cpy + abz * cpz;
+        float d6 = acx * cpx + acy * cpy + acz * cpz;
+        if (d6 >= 0 && d5 <= d6) {
+            setPoint(result, cx, cy, cz);
+            return;
+        }
+        float vb = d5 * d2 - d1 * d6;
+        if (vb <= 0 && d2 >= 0 && d6 <= 0) {
+            float w = d2 / (d2 - d6);
+            setPoint(result, ax + w * acx, ay + w * acy, az + w * acz);
+            return;
+        }
+        float va = d3 * d6 - d5 * d4;
+        if (va <= 0 && (d4 - d3) >= 0 && (d5 - d6) >= 0) {
+            float w = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+            setPoint(result, bx + w * (cx - bx), by + w * (cy - by), bz + w * (cz - bz));
+            return;
+        }
+        float denominator = va + vb + vc;
+        if (denominator == 0) {
+            setPoint(result, ax, ay, az);
+            return;
+        }
+        float v = vb / denominator;
+        float w = vc / denominator;
+        setPoint(result, ax + abx * v + acx * w, ay + aby * v + acy * w, az + abz * v + acz * w);
+    }
+
+    private static void setPoint(float[] result, float x, float y, float z) {
+        result[0] = x;
+        result[1] = y;
+        result[2] = z;
+    }
+
+    /**
+     * Appends the indices of all faces whose bounds overlap the given box to result and returns how many were appended.
+     */
+    public int overlapping(float minX, float minY, float minZ, float maxX, float maxY, float maxZ, ResizableIntArray result) {
+        int found = 0;
+        int[] stack = createStack();
+        int stackLength = 0;
+        if (faces.length > 0) {
+            stack[stackLength++] = 0;
+        }
+        while (stackLength > 0) {
+            int node = stack[--stackLength];
+            int base = 6 * node;
+            if (nodeBounds[base] > maxX || nodeBounds[base + 1] > maxY || nodeBounds[base + 2] > maxZ
+                    || nodeBounds[base + 3] < minX || nodeBounds[base + 4] < minY || nodeBounds[base + 5] < minZ) {
+                continue;
+            }
+            if (!isLeaf(node)) {
+                stack[stackLength++] = nodeData[2 * node] + 1;
+                stack[stackLength++] = nodeData[2 * node];
+                continue;
+            }
+            int end = nodeData[2 * node] + nodeData[2 * node + 1];
+            for (int index = nodeData[2 * node]; index < end; index++) {
+                int triangle = 9 * index;
+                if (Math.min(triangles[triangle], Math.min(triangles[triangle + 3], triangles[triangle + 6])) <= maxX
+                        && Math.max(triangles[triangle], Math.max(triangles[triangle + 3], triangles[triangle + 6])) >= minX
+                        && Math.min(triangles[triangle + 1], Math.min(triangles[triangle + 4], triangles[triangle + 7])) <= maxY
+                        && Math.max(triangles[triangle + 1], Math.max(triangles[triangle + 4], triangles[triangle + 7])) >= minY
+                        && Math.min(triangles[triangle + 2], Math.min(triangles[triangle + 5], triangles[triangle + 8])) <= maxZ
+                        && Math.max(triangles[triangle + 2], Math.max(triangles[triangle + 5], triangles[triangle + 8])) >= minZ) {
+                    result.append(faces[index]);
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ripplargames.meshio.spatial;
+
+public class RayHit {
+    private final int faceIndex;
+    private final float distance;
+    private final float u;
+    private final float v;
+
+    public RayHit(int faceIndex, float distance, float u, float v) {
+        this.faceIndex = faceIndex;
+        this.distance = distance;
+        this.u = u;
+        this.v = v;
+    }
+
+    public int faceIndex() {
+        return faceIndex;
+    }
+
+    /**
+     * Distance along the ray in multiples of the ray direction.
+     */
+    public float distance() {
+        return distance;
+    }
+
+    /**
+     * Barycentric weight of the face's second vertex at the hit point.
+     */
+    public float u() {
+        return u;
+    }
+
+    /**
+     * Barycentric weight of the face's third vertex at the hit point.
+     */
+    public float v() {
+        return v;
+    }
+
+    @Override
+    public String toString() {
+        return "RayHit{faceIndex=" + faceIndex + ", distance=" + distance + ", u=" + u + ", v=" + v + '}';
+    }
+}
@@ -0,0 +1,128 @@
+package com.ripplargames.meshio.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A growable array of 4 byte values stored in a memory-mapped file instead of the heap. The file grows by mapping
+ * further fixed-size segments, so existing segments never move and growing never copies. The file is deleted on
+ * {@link #close()}, after which the array must not be used. A mapping is only released once its buffer is garbage
+ * collected, so where the platform refuses to delete a mapped file the deletion is retried after a collection and
+ * otherwise left until the JVM exits.
+ */
+public abstract class AMappedArray implements Closeable {
+    public static final int DEFAULT_SEGMENT_SHIFT = 24;
+
+    protected static final int BYTES_PER_VALUE = 4;
+
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final int segmentShift;
+    private final int segmentMask;
+    private int segmentCount;
+    private int length;
+
+    protected AMappedArray(File file, int segmentShift) throws IOException {
+        if (segmentShift < 10 || segmentShift > 28) {
+            throw new IllegalArgumentException("Segment shift: " + segmentShift + " must be between 10 and 28");
+        }
+        this.file = file;
+        this.segmentShift = segmentShift;
+        this.segmentMask = (1 << segmentShift) - 1;
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public long capacity() {
+        return (long) segmentCount << segmentShift;
+    }
+
+    public File file() {
+        return file;
+    }
+
+    protected int segmentShift() {
+        return segmentShift;
+    }
+
+    protected int segmentMask() {
+        return segmentMask;
+    }
+
+    protected void setLength(int length) {
+        this.length = length;
+    }
+
+    protected void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", length: " + length);
+        }
+    }
+
+    /**
+     * Maps segments until the capacity covers the given number of values.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= capacity()) {
+            return;
+        }
+        int requiredSegmentCount = (int) (((long) capacity + segmentMask) >>> segmentShift);
+        List<MappedByteBuffer> segments = new ArrayList<MappedByteBuffer>();
+        try {
+            FileChannel channel = randomAccessFile.getChannel();
+            long segmentByteCount = (long) BYTES_PER_VALUE << segmentShift;
+            for (int segment = segmentCount; segment < requiredSegmentCount; segment++) {
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_WRITE, segment * segmentByteCount, segmentByteCount);
+                mapped.order(ByteOrder.nativeOrder());
+                segments.add(mapped);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot map " + capacity + " values in: " + file, e);
+        }
+        for (MappedByteBuffer segment : segments) {
+            addSegment(segment);
+        }
+        segmentCount = requiredSegmentCount;
+    }
+
+    protected abstract void addSegment(MappedByteBuffer segment);
+
+    protected abstract void clearSegments();
+
+    @Override
+    public void close() {
+        if (!closeAndDelete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * Closes the array like {@link #close()}, but returns false instead of deferring the deletion when the file could
+     * not be deleted yet.
+     */
+    public boolean closeAndDelete() {
+        clearSegments();
+        segmentCount = 0;
+        length = 0;
+        try {
+            randomAccessFile.close();
+        } catch (IOException e) {
+        }
+        if (file.delete() || !file.exists()) {
+            return true;
+        }
+        System.gc();
+        System.runFinalization();
+        return file.delete();
+    }
+}
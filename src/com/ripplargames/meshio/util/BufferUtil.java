@@ -3,6 +3,8 @@ package com.ripplargames.meshio.util;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
+import com.ripplargames.meshio.MeshIOException;
+
 public class BufferUtil {
     public static final int BYTES_PER_BYTE = 1;
     public static final int BYTES_PER_SHORT = 2;
@@ -49,6 +51,14 @@ public class BufferUtil {
         return copy;
     }
 
+    public static int byteCount(long elementCount, int bytesPerElement) throws MeshIOException {
+        long byteCount = elementCount * bytesPerElement;
+        if (byteCount > Integer.MAX_VALUE) {
+            throw new MeshIOException(byteCount + " bytes do not fit in a single buffer, use the chunked variant");
+        }
+        return (int) byteCount;
+    }
+
     public static ByteBuffer createByteBuffer(int byteCount) {
         return ByteBuffer.allocate(byteCount).order(NATIVE_BYTE_ORDER);
     }
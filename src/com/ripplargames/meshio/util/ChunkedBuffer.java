@@ -0,0 +1,74 @@
+package com.ripplargames.meshio.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import com.ripplargames.meshio.MeshIOException;
+
+/**
+ * Fixed-size elements laid out over a sequence of buffers, none larger than a maximum byte count, so data beyond the
+ * 2GB limit of a single ByteBuffer can be produced. Chunks are only split between groups of alignment elements, e.g.
+ * between whole vertices or whole triangles.
+ */
+public class ChunkedBuffer {
+    public static final int DEFAULT_MAX_CHUNK_BYTE_COUNT = 1 << 30;
+
+    private final int elementCount;
+    private final int bytesPerElement;
+    private final int elementsPerChunk;
+    private final List<ByteBuffer> chunks;
+
+    public ChunkedBuffer(int elementCount, int bytesPerElement, int alignment, int maxChunkByteCount) {
+        if (bytesPerElement <= 0 || alignment <= 0) {
+            throw new IllegalArgumentException("Bytes per element: " + bytesPerElement + " and alignment: " + alignment + " must be positive");
+        }
+        long alignedByteCount = (long) bytesPerElement * alignment;
+        if (alignedByteCount > maxChunkByteCount) {
+            throw new IllegalArgumentException("Max chunk byte count: " + maxChunkByteCount + " cannot hold " + alignment + " elements of " + bytesPerElement + " bytes");
+        }
+        this.elementCount = Math.max(0, elementCount);
+        this.bytesPerElement = bytesPerElement;
+        this.elementsPerChunk = (int) (maxChunkByteCount / alignedByteCount) * alignment;
+        List<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+        for (long firstElement = 0; firstElement < this.elementCount; firstElement += elementsPerChunk) {
+            int chunkElementCount = (int) Math.min(elementsPerChunk, this.elementCount - firstElement);
+            chunks.add(BufferUtil.createByteBuffer(chunkElementCount * bytesPerElement));
+        }
+        this.chunks = Collections.unmodifiableList(chunks);
+    }
+
+    public long byteCount() {
+        return (long) elementCount * bytesPerElement;
+    }
+
+    public int elementsPerChunk() {
+        return elementsPerChunk;
+    }
+
+    public List<ByteBuffer> chunks() {
+        return chunks;
+    }
+
+    /**
+     * Runs the task over every element, in ranges of at least minRangeLength on the executor. Ranges crossing a chunk
+     * boundary are split, so the task always writes to a single chunk.
+     */
+    public void fill(ExecutorService executor, int minRangeLength, final IChunkTask task) throws MeshIOException {
+        ParallelUtil.forRange(executor, elementCount, minRangeLength, new IRangeTask() {
+            @Override
+            public void run(int start, int end) throws MeshIOException {
+                int element = start;
+                while (element < end) {
+                    int chunkIndex = element / elementsPerChunk;
+                    int chunkStart = chunkIndex * elementsPerChunk;
+                    int chunkEnd = (int) Math.min(end, (long) chunkStart + elementsPerChunk);
+                    task.run(element, chunkEnd - element, chunks.get(chunkIndex), (element - chunkStart) * bytesPerElement);
+                    element = chunkEnd;
+                }
+            }
+        });
+    }
+}
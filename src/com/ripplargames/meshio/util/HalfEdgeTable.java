@@ -0,0 +1,76 @@
+package com.ripplargames.meshio.util;
+
+import com.ripplargames.meshio.MeshIOException;
+
+/**
+ * Half-edge connectivity of a triangle list, built in a single pass over its indices. Half-edge h runs from corner h
+ * to the next corner of face h / 3. The twin of a half-edge is the first half-edge running the opposite way, and every
+ * half-edge knows the first half-edge with its own direction, so repeated faces can be recognised.
+ */
+public class HalfEdgeTable {
+    private final ResizableIntArray faceIndices;
+    private final int[] twins;
+    private final int[] firsts;
+
+    public HalfEdgeTable(ResizableIntArray faceIndices) throws MeshIOException {
+        this.faceIndices = faceIndices;
+        int halfEdgeCount = faceIndices.length() - faceIndices.length() % 3;
+        IntTupleHashSet edgeSet = new IntTupleHashSet(new ResizableIntArray(), 2, halfEdgeCount);
+        int[] edgeHalfEdges = new int[halfEdgeCount];
+        this.firsts = new int[halfEdgeCount];
+        for (int halfEdge = 0; halfEdge < halfEdgeCount; halfEdge++) {
+            int from = from(halfEdge);
+            int to = to(halfEdge);
+            if (edgeSet.add(from, to)) {
+                edgeHalfEdges[edgeSet.size() - 1] = halfEdge;
+            }
+            firsts[halfEdge] = edgeHalfEdges[edgeSet.indexOf(from, to)];
+        }
+        this.twins = new int[halfEdgeCount];
+        for (int halfEdge = 0; halfEdge < halfEdgeCount; halfEdge++) {
+            int edge = edgeSet.indexOf(to(halfEdge), from(halfEdge));
+            twins[halfEdge] = (edge == -1) ? -1 : edgeHalfEdges[edge];
+        }
+    }
+
+    public int halfEdgeCount() {
+        return twins.length;
+    }
+
+    public static int next(int halfEdge) {
+        return (halfEdge % 3 == 2) ? halfEdge - 2 : halfEdge + 1;
+    }
+
+    public static int previous(int halfEdge) {
+        return (halfEdge % 3 == 0) ? halfEdge + 2 : halfEdge - 1;
+    }
+
+    public int from(int halfEdge) {
+        return faceIndices.getAt(halfEdge);
+    }
+
+    public int to(int halfEdge) {
+        return faceIndices.getAt(next(halfEdge));
+    }
+
+    /**
+     * Returns the vertex of the half-edge's face that is not on the half-edge.
+     */
+    public int opposite(int halfEdge) {
+        return faceIndices.getAt(previous(halfEdge));
+    }
+
+    /**
+     * Returns the first half-edge running the opposite way, or -1 on a border.
+     */
+    public int twin(int halfEdge) {
+        return twins[halfEdge];
+    }
+
+    /**
+     * Returns the first half-edge running the same way, which is the half-edge itself unless its face repeats an edge.
+     */
+    public int first(int halfEdge) {
+        return firsts[halfEdge];
+    }
+}
@@ -0,0 +1,45 @@
+package com.ripplargames.meshio.util;
+
+/**
+ * Conversions between floats and IEEE 754 half precision floats stored in the low 16 bits of a short, rounding to the
+ * nearest even value. Values too large for a half become infinity, NaN stays NaN.
+ */
+public class HalfFloatUtil {
+    private static final int FLOAT_INFINITY = 0x7F800000;
+    private static final int HALF_INFINITY = 0x7C00;
+    private static final int HALF_OVERFLOW = 0x477FF000;
+    private static final int HALF_MIN_NORMAL = 0x38800000;
+    private static final int EXPONENT_REBIAS = (127 - 15) << 23;
+    private static final double SUBNORMAL_SCALE = 1 << 24;
+
+    public static short fromFloat(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int magnitude = bits & 0x7FFFFFFF;
+        if (magnitude >= FLOAT_INFINITY) {
+            return (short) (sign | HALF_INFINITY | ((magnitude > FLOAT_INFINITY) ? 0x200 : 0));
+        }
+        if (magnitude >= HALF_OVERFLOW) {
+            return (short) (sign | HALF_INFINITY);
+        }
+        if (magnitude < HALF_MIN_NORMAL) {
+            return (short) (sign | (int) Math.rint(Float.intBitsToFloat(magnitude) * SUBNORMAL_SCALE));
+        }
+        int rounded = magnitude + 0xFFF + ((magnitude >>> 13) & 1);
+        return (short) (sign | ((rounded - EXPONENT_REBIAS) >>> 13));
+    }
+
+    public static float toFloat(short half) {
+        int sign = (half & 0x8000) << 16;
+        int exponent = (half >>> 10) & 0x1F;
+        int mantissa = half & 0x3FF;
+        if (exponent == 0) {
+            float value = (float) (mantissa / SUBNORMAL_SCALE);
+            return (sign == 0) ? value : -value;
+        }
+        if (exponent == 0x1F) {
+            return Float.intBitsToFloat(sign | FLOAT_INFINITY | (mantissa << 13));
+        }
+        return Float.intBitsToFloat(sign | ((exponent << 23) + EXPONENT_REBIAS) | (mantissa << 13));
+    }
+}
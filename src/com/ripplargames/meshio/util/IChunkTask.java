@@ -0,0 +1,12 @@
+package com.ripplargames.meshio.util;
+
+import java.nio.ByteBuffer;
+
+import com.ripplargames.meshio.MeshIOException;
+
+public interface IChunkTask {
+    /**
+     * Fills elements [firstElement, firstElement + elementCount), which all lie in the chunk starting at chunkOffset.
+     */
+    void run(int firstElement, int elementCount, ByteBuffer chunk, int chunkOffset) throws MeshIOException;
+}
@@ -0,0 +1,7 @@
+package com.ripplargames.meshio.util;
+
+import com.ripplargames.meshio.MeshIOException;
+
+public interface IRangeTask {
+    void run(int start, int end) throws MeshIOException;
+}
@@ -0,0 +1,134 @@
+package com.ripplargames.meshio.util;
+
+import java.util.Arrays;
+
+import com.ripplargames.meshio.MeshIOException;
+
+/**
+ * An insertion ordered set of int pairs or triples. The tuples are stored back to back in the given array
+ * and the hash table only holds tuple indices, so adding a tuple never allocates an object.
+ */
+public class IntTupleHashSet {
+    private static final int EMPTY = -1;
+    private static final double MAX_LOAD_FACTOR = 0.5;
+    private static final int MAX_TABLE_LENGTH = 1 << 30;
+
+    private final ResizableIntArray tuples;
+    private final int tupleLength;
+    private final int start;
+    private int[] table;
+    private int mask;
+    private int size;
+
+    public IntTupleHashSet(ResizableIntArray tuples, int tupleLength, int expectedSize) throws MeshIOException {
+        if (tupleLength != 2 && tupleLength != 3) {
+            throw new IllegalArgumentException("Tuple length: " + tupleLength + " must be 2 or 3");
+        }
+        this.tuples = tuples;
+        this.tupleLength = tupleLength;
+        this.start = tuples.length();
+        int tableLength = tableLengthFor(Math.max(16, expectedSize));
+        this.table = new int[tableLength];
+        this.mask = tableLength - 1;
+        Arrays.fill(table, EMPTY);
+        tuples.ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8, start + (long) Math.max(0, expectedSize) * tupleLength));
+    }
+
+    private static int tableLengthFor(int size) {
+        int tableLength = Integer.highestOneBit((int) Math.min(MAX_TABLE_LENGTH, (long) (size / MAX_LOAD_FACTOR)));
+        return (tableLength < size / MAX_LOAD_FACTOR)
+                ? tableLength << 1
+                : tableLength;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean add(int v0, int v1) throws MeshIOException {
+        return add(mix(mix(0, v0), v1), v0, v1, 0);
+    }
+
+    public boolean add(int v0, int v1, int v2) throws MeshIOException {
+        return add(mix(mix(mix(0, v0), v1), v2), v0, v1, v2);
+    }
+
+    /**
+     * Returns the insertion index of the tuple, or -1 if it is not in the set.
+     */
+    public int indexOf(int v0, int v1) {
+        int tupleIndex = table[findSlot(mix(mix(0, v0), v1), v0, v1, 0)];
+        return (tupleIndex == EMPTY) ? -1 : tupleIndex;
+    }
+
+    public int indexOf(int v0, int v1, int v2) {
+        int tupleIndex = table[findSlot(mix(mix(mix(0, v0), v1), v2), v0, v1, v2)];
+        return (tupleIndex == EMPTY) ? -1 : tupleIndex;
+    }
+
+    private int findSlot(int hash, int v0, int v1, int v2) {
+        int slot = finalise(hash) & mask;
+        while (true) {
+            int tupleIndex = table[slot];
+            if (tupleIndex == EMPTY) {
+                return slot;
+            }
+            int base = start + tupleIndex * tupleLength;
+            if (tuples.getAt(base) == v0 && tuples.getAt(base + 1) == v1 && (tupleLength == 2 || tuples.getAt(base + 2) == v2)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean add(int hash, int v0, int v1, int v2) throws MeshIOException {
+        int slot = findSlot(hash, v0, v1, v2);
+        if (table[slot] != EMPTY) {
+            return false;
+        }
+        if (size + 1 > table.length * MAX_LOAD_FACTOR && table.length >= MAX_TABLE_LENGTH) {
+            throw new MeshIOException("Cannot hold more than " + size + " tuples");
+        }
+        table[slot] = size;
+        tuples.append(v0);
+        tuples.append(v1);
+        if (tupleLength == 3) {
+            tuples.append(v2);
+        }
+        size++;
+        if (size > table.length * MAX_LOAD_FACTOR) {
+            rehash();
+        }
+        return true;
+    }
+
+    private void rehash() {
+        int tableLength = table.length << 1;
+        table = new int[tableLength];
+        mask = tableLength - 1;
+        Arrays.fill(table, EMPTY);
+        for (int tupleIndex = 0; tupleIndex < size; tupleIndex++) {
+            int base = start + tupleIndex * tupleLength;
+            int hash = 0;
+            for (int i = 0; i < tupleLength; i++) {
+                hash = mix(hash, tuples.getAt(base + i));
+            }
+            int slot = finalise(hash) & mask;
+            while (table[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = tupleIndex;
+        }
+    }
+
+    private static int mix(int hash, int value) {
+        return hash * 0x9E3779B1 + value;
+    }
+
+    private static int finalise(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        return hash;
+    }
+}
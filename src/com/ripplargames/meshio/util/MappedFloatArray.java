@@ -0,0 +1,154 @@
+package com.ripplargames.meshio.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MappedFloatArray extends AMappedArray {
+    private final List<FloatBuffer> segments = new ArrayList<FloatBuffer>();
+    private boolean boundsValid = true;
+    private float min = Float.POSITIVE_INFINITY;
+    private float max = Float.NEGATIVE_INFINITY;
+    private int modificationCount;
+
+    public MappedFloatArray(File file) throws IOException {
+        this(file, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    public MappedFloatArray(File file, int segmentShift) throws IOException {
+        super(file, segmentShift);
+    }
+
+    @Override
+    protected void addSegment(MappedByteBuffer segment) {
+        segments.add(segment.asFloatBuffer());
+    }
+
+    @Override
+    protected void clearSegments() {
+        segments.clear();
+    }
+
+    public int modificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Returns the smallest set value, or positive infinity when empty, maintained like {@link ResizableFloatArray#min()}.
+     */
+    public float min() {
+        validateBounds();
+        return min;
+    }
+
+    public float max() {
+        validateBounds();
+        return max;
+    }
+
+    private void validateBounds() {
+        if (!boundsValid) {
+            min = Float.POSITIVE_INFINITY;
+            max = Float.NEGATIVE_INFINITY;
+            boundsValid = true;
+            float[] batch = new float[Math.min(length(), 1 << 12)];
+            for (int start = 0; start < length(); start += batch.length) {
+                int count = Math.min(batch.length, length() - start);
+                get(start, batch, 0, count);
+                for (int index = 0; index < count; index++) {
+                    include(batch[index]);
+                }
+            }
+        }
+    }
+
+    private void include(float datum) {
+        if (boundsValid) {
+            if (datum < min) {
+                min = datum;
+            }
+            if (datum > max) {
+                max = datum;
+            }
+        }
+    }
+
+    private void overwrite(float datum) {
+        if (boundsValid && !(datum > min && datum < max)) {
+            boundsValid = false;
+        }
+    }
+
+    public float getAt(int index) {
+        checkIndex(index);
+        return segments.get(index >>> segmentShift()).get(index & segmentMask());
+    }
+
+    public void get(int srcIndex, float[] dst, int dstOffset, int count) {
+        if (count > 0) {
+            checkIndex(srcIndex);
+            checkIndex(srcIndex + count - 1);
+        }
+        while (count > 0) {
+            FloatBuffer segment = segments.get(srcIndex >>> segmentShift()).duplicate();
+            int segmentIndex = srcIndex & segmentMask();
+            int segmentCount = Math.min(count, segment.capacity() - segmentIndex);
+            segment.position(segmentIndex);
+            segment.get(dst, dstOffset, segmentCount);
+            srcIndex += segmentCount;
+            dstOffset += segmentCount;
+            count -= segmentCount;
+        }
+    }
+
+    public void setAt(int index, float datum) {
+        ensureCapacity(index + 1);
+        FloatBuffer segment = segments.get(index >>> segmentShift());
+        if (index < length()) {
+            overwrite(segment.get(index & segmentMask()));
+        } else if (length() < index) {
+            // Newly mapped file regions read as zero, so the gap needs no filling.
+            include(0);
+        }
+        segment.put(index & segmentMask(), datum);
+        include(datum);
+        if (length() <= index) {
+            setLength(index + 1);
+        }
+        modificationCount++;
+    }
+
+    public void set(int dstIndex, float[] src, int srcOffset, int count) {
+        int end = dstIndex + count;
+        ensureCapacity(end);
+        if (dstIndex < length()) {
+            boundsValid = false;
+        } else if (length() < dstIndex) {
+            include(0);
+        }
+        for (int index = srcOffset; index < srcOffset + count && boundsValid; index++) {
+            include(src[index]);
+        }
+        while (count > 0) {
+            FloatBuffer segment = segments.get(dstIndex >>> segmentShift()).duplicate();
+            int segmentIndex = dstIndex & segmentMask();
+            int segmentCount = Math.min(count, segment.capacity() - segmentIndex);
+            segment.position(segmentIndex);
+            segment.put(src, srcOffset, segmentCount);
+            dstIndex += segmentCount;
+            srcOffset += segmentCount;
+            count -= segmentCount;
+        }
+        if (length() < end) {
+            setLength(end);
+        }
+        modificationCount++;
+    }
+
+    public void append(float datum) {
+        setAt(length(), datum);
+    }
+}
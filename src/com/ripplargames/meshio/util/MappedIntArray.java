@@ -0,0 +1,83 @@
+package com.ripplargames.meshio.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MappedIntArray extends AMappedArray {
+    private final List<IntBuffer> segments = new ArrayList<IntBuffer>();
+
+    public MappedIntArray(File file) throws IOException {
+        this(file, DEFAULT_SEGMENT_SHIFT);
+    }
+
+    public MappedIntArray(File file, int segmentShift) throws IOException {
+        super(file, segmentShift);
+    }
+
+    @Override
+    protected void addSegment(MappedByteBuffer segment) {
+        segments.add(segment.asIntBuffer());
+    }
+
+    @Override
+    protected void clearSegments() {
+        segments.clear();
+    }
+
+    public int getAt(int index) {
+        checkIndex(index);
+        return segments.get(index >>> segmentShift()).get(index & segmentMask());
+    }
+
+    public void get(int srcIndex, int[] dst, int dstOffset, int count) {
+        if (count > 0) {
+            checkIndex(srcIndex);
+            checkIndex(srcIndex + count - 1);
+        }
+        while (count > 0) {
+            IntBuffer segment = segments.get(srcIndex >>> segmentShift()).duplicate();
+            int segmentIndex = srcIndex & segmentMask();
+            int segmentCount = Math.min(count, segment.capacity() - segmentIndex);
+            segment.position(segmentIndex);
+            segment.get(dst, dstOffset, segmentCount);
+            srcIndex += segmentCount;
+            dstOffset += segmentCount;
+            count -= segmentCount;
+        }
+    }
+
+    public void setAt(int index, int datum) {
+        ensureCapacity(index + 1);
+        segments.get(index >>> segmentShift()).put(index & segmentMask(), datum);
+        if (length() <= index) {
+            // Newly mapped file regions read as zero, so the gap needs no filling.
+            setLength(index + 1);
+        }
+    }
+
+    public void set(int dstIndex, int[] src, int srcOffset, int count) {
+        int end = dstIndex + count;
+        ensureCapacity(end);
+        while (count > 0) {
+            IntBuffer segment = segments.get(dstIndex >>> segmentShift()).duplicate();
+            int segmentIndex = dstIndex & segmentMask();
+            int segmentCount = Math.min(count, segment.capacity() - segmentIndex);
+            segment.position(segmentIndex);
+            segment.put(src, srcOffset, segmentCount);
+            dstIndex += segmentCount;
+            srcOffset += segmentCount;
+            count -= segmentCount;
+        }
+        if (length() < end) {
+            setLength(end);
+        }
+    }
+
+    public void append(int datum) {
+        setAt(length(), datum);
+    }
+}
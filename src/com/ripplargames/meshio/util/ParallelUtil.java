@@ -0,0 +1,96 @@
+package com.ripplargames.meshio.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ripplargames.meshio.MeshIOException;
+
+public class ParallelUtil {
+    private static final int TASKS_PER_PROCESSOR = 4;
+    private static final Object DEFAULT_EXECUTOR_LOCK = new Object();
+    private static ExecutorService defaultExecutor;
+
+    public static int processorCount() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    public static ExecutorService defaultExecutor() {
+        synchronized (DEFAULT_EXECUTOR_LOCK) {
+            if (defaultExecutor == null) {
+                defaultExecutor = Executors.newFixedThreadPool(processorCount(), new ThreadFactory() {
+                    private final AtomicInteger threadCount = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "meshio-worker-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            return defaultExecutor;
+        }
+    }
+
+    /**
+     * Splits [0, count) into contiguous ranges of at least minRangeLength and runs them on the executor,
+     * returning once every range has completed. The first failure is rethrown. A null executor runs the whole range
+     * on the calling thread.
+     */
+    public static void forRange(ExecutorService executor, int count, int minRangeLength, final IRangeTask task) throws MeshIOException {
+        if (executor == null) {
+            if (count > 0) {
+                task.run(0, count);
+            }
+            return;
+        }
+        int maxRanges = Math.max(1, processorCount() * TASKS_PER_PROCESSOR);
+        int rangeLength = Math.max(Math.max(1, minRangeLength), (count + maxRanges - 1) / maxRanges);
+        if (count <= rangeLength) {
+            if (count > 0) {
+                task.run(0, count);
+            }
+            return;
+        }
+        List<Callable<Void>> callables = new ArrayList<Callable<Void>>();
+        for (int start = 0; start < count; start += rangeLength) {
+            final int rangeStart = start;
+            final int rangeEnd = (int) Math.min(count, (long) start + rangeLength);
+            callables.add(new Callable<Void>() {
+                @Override
+                public Void call() throws MeshIOException {
+                    task.run(rangeStart, rangeEnd);
+                    return null;
+                }
+            });
+        }
+        try {
+            List<Future<Void>> futures = executor.invokeAll(callables);
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MeshIOException("Interrupted while waiting for parallel tasks", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MeshIOException) {
+                throw (MeshIOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new MeshIOException("Parallel task failed", cause);
+        }
+    }
+}
@@ -4,48 +4,151 @@ import java.util.Arrays;
 
 public class ResizableFloatArray {
     private static final double DEFAULT_RESIZE_FACTOR = 2;
+    private static final int DEFAULT_CAPACITY = 16;
 
     private final double resizeFactor;
-    private float[] backing = new float[16];
+    private float[] backing;
     private int length;
+    private float min = Float.POSITIVE_INFINITY;
+    private float max = Float.NEGATIVE_INFINITY;
+    private boolean boundsValid = true;
+    private int modificationCount;
 
     public ResizableFloatArray() {
         this(DEFAULT_RESIZE_FACTOR);
     }
 
     public ResizableFloatArray(double resizeFactor) {
+        this(resizeFactor, DEFAULT_CAPACITY);
+    }
+
+    public ResizableFloatArray(double resizeFactor, int initialCapacity) {
         this.resizeFactor = Math.max(1.25, resizeFactor);
+        this.backing = new float[Math.max(1, initialCapacity)];
+    }
+
+    /**
+     * Wraps the given array without copying it, the first length values are treated as set.
+     * The array must not be modified by the caller afterwards.
+     */
+    public ResizableFloatArray(float[] backing, int length) {
+        if (length < 0 || length > backing.length) {
+            throw new IllegalArgumentException("Length: " + length + " must be between 0 and " + backing.length);
+        }
+        this.resizeFactor = DEFAULT_RESIZE_FACTOR;
+        this.backing = backing;
+        this.length = length;
+        this.boundsValid = false;
     }
 
     public int length() {
         return length;
     }
 
+    public int capacity() {
+        return backing.length;
+    }
+
+    public int modificationCount() {
+        return modificationCount;
+    }
+
+    public float min() {
+        validateBounds();
+        return min;
+    }
+
+    public float max() {
+        validateBounds();
+        return max;
+    }
+
+    private void validateBounds() {
+        if (!boundsValid) {
+            min = Float.POSITIVE_INFINITY;
+            max = Float.NEGATIVE_INFINITY;
+            boundsValid = true;
+            for (int index = 0; index < length; index++) {
+                include(backing[index]);
+            }
+        }
+    }
+
+    private void include(float datum) {
+        if (boundsValid) {
+            if (datum < min) {
+                min = datum;
+            }
+            if (datum > max) {
+                max = datum;
+            }
+        }
+    }
+
+    private void overwrite(float datum) {
+        if (boundsValid && !(datum > min && datum < max)) {
+            boundsValid = false;
+        }
+    }
+
     public float getAt(int index) {
         return backing[index];
     }
 
+    public void get(int srcIndex, float[] dst, int dstOffset, int count) {
+        System.arraycopy(backing, srcIndex, dst, dstOffset, count);
+    }
+
     public float[] copyArray() {
         return Arrays.copyOf(backing, length);
     }
 
     public void append(float datum) {
-        ensureCapacity(length);
+        ensureCapacity(length + 1);
         backing[length] = datum;
         length++;
+        include(datum);
+        modificationCount++;
     }
 
     public void setAt(int index, float datum) {
-        ensureCapacity(index);
+        ensureCapacity(index + 1);
+        if (index < length) {
+            overwrite(backing[index]);
+        } else if (length < index) {
+            Arrays.fill(backing, length, index, 0);
+            include(0);
+        }
         backing[index] = datum;
+        include(datum);
         if (length <= index) {
             length = index + 1;
         }
+        modificationCount++;
+    }
+
+    public void set(int dstIndex, float[] src, int srcOffset, int count) {
+        int end = dstIndex + count;
+        ensureCapacity(end);
+        if (dstIndex < length) {
+            boundsValid = false;
+        } else if (length < dstIndex) {
+            Arrays.fill(backing, length, dstIndex, 0);
+            include(0);
+        }
+        System.arraycopy(src, srcOffset, backing, dstIndex, count);
+        for (int index = srcOffset; index < srcOffset + count && boundsValid; index++) {
+            include(src[index]);
+        }
+        if (length < end) {
+            length = end;
+        }
+        modificationCount++;
     }
 
-    private void ensureCapacity(int index) {
-        if (backing.length <= index) {
-            int newLength = Math.max((int) (backing.length * resizeFactor), index + 1);
+    public void ensureCapacity(int capacity) {
+        if (backing.length < capacity) {
+            int newLength = Math.max((int) (backing.length * resizeFactor), capacity);
             backing = Arrays.copyOf(backing, newLength);
         }
     }
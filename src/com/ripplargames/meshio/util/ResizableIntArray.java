@@ -4,29 +4,49 @@ import java.util.Arrays;
 
 public class ResizableIntArray {
     private static final double DEFAULT_RESIZE_FACTOR = 2;
+    private static final int DEFAULT_CAPACITY = 16;
 
     private final double resizeFactor;
-    private int[] backing = new int[16];
+    private int[] backing;
     private int length;
+    private int modificationCount;
 
     public ResizableIntArray() {
         this(DEFAULT_RESIZE_FACTOR);
     }
 
     public ResizableIntArray(double resizeFactor) {
+        this(resizeFactor, DEFAULT_CAPACITY);
+    }
+
+    public ResizableIntArray(double resizeFactor, int initialCapacity) {
         this.resizeFactor = Math.max(1.25, resizeFactor);
+        this.backing = new int[Math.max(1, initialCapacity)];
     }
 
     public int length() {
         return length;
     }
 
+    public int capacity() {
+        return backing.length;
+    }
+
+    public int modificationCount() {
+        return modificationCount;
+    }
+
     public int getAt(int index) {
         return backing[index];
     }
+
+    public void get(int srcIndex, int[] dst, int dstOffset, int count) {
+        System.arraycopy(backing, srcIndex, dst, dstOffset, count);
+    }
+
     public int max() {
         int max = backing[0];
-        for (int i = 1; i < backing.length; i++) {
+        for (int i = 1; i < length; i++) {
             int datum = backing[i];
             if (datum > max) {
                 max = datum;
@@ -40,23 +60,115 @@ public class ResizableIntArray {
     }
 
     public void append(int datum) {
-        ensureCapacity(length);
+        ensureCapacity(length + 1);
         backing[length] = datum;
         length++;
+        modificationCount++;
     }
 
     public void setAt(int index, int datum) {
-        ensureCapacity(index);
+        ensureCapacity(index + 1);
         backing[index] = datum;
         if (length <= index) {
+            Arrays.fill(backing, length, index, 0);
             length = index + 1;
         }
+        modificationCount++;
+    }
+
+    public void set(int dstIndex, int[] src, int srcOffset, int count) {
+        int end = dstIndex + count;
+        ensureCapacity(end);
+        System.arraycopy(src, srcOffset, backing, dstIndex, count);
+        if (length < end) {
+            if (length < dstIndex) {
+                Arrays.fill(backing, length, dstIndex, 0);
+            }
+            length = end;
+        }
+        modificationCount++;
     }
 
-    private void ensureCapacity(int index) {
-        if (backing.length <= index) {
-            int newLength = Math.max((int) (backing.length * resizeFactor), index + 1);
+    public void ensureCapacity(int capacity) {
+        if (backing.length < capacity) {
+            int newLength = Math.max((int) (backing.length * resizeFactor), capacity);
             backing = Arrays.copyOf(backing, newLength);
         }
     }
+
+    /**
+     * Returns a view that reads through to this array and throws UnsupportedOperationException on every write.
+     */
+    public ResizableIntArray readOnlyView() {
+        return new ReadOnlyView(this);
+    }
+
+    private static final class ReadOnlyView extends ResizableIntArray {
+        private final ResizableIntArray array;
+
+        private ReadOnlyView(ResizableIntArray array) {
+            super(DEFAULT_RESIZE_FACTOR, 1);
+            this.array = array;
+        }
+
+        @Override
+        public int length() {
+            return array.length();
+        }
+
+        @Override
+        public int capacity() {
+            return array.capacity();
+        }
+
+        @Override
+        public int modificationCount() {
+            return array.modificationCount();
+        }
+
+        @Override
+        public int getAt(int index) {
+            return array.getAt(index);
+        }
+
+        @Override
+        public void get(int srcIndex, int[] dst, int dstOffset, int count) {
+            array.get(srcIndex, dst, dstOffset, count);
+        }
+
+        @Override
+        public int max() {
+            return array.max();
+        }
+
+        @Override
+        public int[] copyArray() {
+            return array.copyArray();
+        }
+
+        @Override
+        public void append(int datum) {
+            throw new UnsupportedOperationException("Read-only array");
+        }
+
+        @Override
+        public void setAt(int index, int datum) {
+            throw new UnsupportedOperationException("Read-only array");
+        }
+
+        @Override
+        public void set(int dstIndex, int[] src, int srcOffset, int count) {
+            throw new UnsupportedOperationException("Read-only array");
+        }
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            throw new UnsupportedOperationException("Read-only array");
+        }
+
+        @Override
+        public ResizableIntArray readOnlyView() {
+            return this;
+        }
+    }
 }
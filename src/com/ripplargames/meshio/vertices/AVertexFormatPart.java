@@ -0,0 +1,9 @@
+package com.ripplargames.meshio.vertices;
+
+import java.util.List;
+
+public abstract class AVertexFormatPart {
+    public abstract List<VertexType> getVertexTypes();
+
+    public abstract int getByteCount();
+}
@@ -0,0 +1,163 @@
+package com.ripplargames.meshio.vertices;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.ripplargames.meshio.IMeshData;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.ResizableFloatArray;
+
+public abstract class AVertexInterleaver {
+    protected static final int BLOCK_VERTEX_COUNT = 256;
+
+    private final VertexType[] vertexTypes;
+    private final VertexDataType[] dataTypes;
+    private final int[] offsets;
+    private final PackedVertexDataType[] packedDataTypes;
+    private final int[] packedOffsets;
+    private final int[] packedFirstParts;
+    private final int[] packedComponentCounts;
+    private final int scalarPartCount;
+    private final int byteCount;
+
+    protected AVertexInterleaver(VertexFormat vertexFormat) {
+        List<Map.Entry<VertexType, AlignedVertexFormatPart>> parts = new ArrayList<Map.Entry<VertexType, AlignedVertexFormatPart>>();
+        for (Map.Entry<VertexType, AlignedVertexFormatPart> entry : vertexFormat.alignedParts()) {
+            parts.add(entry);
+        }
+        Collections.sort(parts, new Comparator<Map.Entry<VertexType, AlignedVertexFormatPart>>() {
+            @Override
+            public int compare(Map.Entry<VertexType, AlignedVertexFormatPart> a, Map.Entry<VertexType, AlignedVertexFormatPart> b) {
+                return a.getValue().offset() - b.getValue().offset();
+            }
+        });
+        List<AlignedPackedVertexFormatPart> packedParts = vertexFormat.alignedPackedParts();
+        this.scalarPartCount = parts.size();
+        int partCount = scalarPartCount;
+        for (AlignedPackedVertexFormatPart packedPart : packedParts) {
+            partCount += packedPart.vertexTypes().size();
+        }
+        this.vertexTypes = new VertexType[partCount];
+        this.dataTypes = new VertexDataType[scalarPartCount];
+        this.offsets = new int[scalarPartCount];
+        for (int i = 0; i < scalarPartCount; i++) {
+            Map.Entry<VertexType, AlignedVertexFormatPart> part = parts.get(i);
+            vertexTypes[i] = part.getKey();
+            dataTypes[i] = part.getValue().dataType();
+            offsets[i] = part.getValue().offset();
+        }
+        this.packedDataTypes = new PackedVertexDataType[packedParts.size()];
+        this.packedOffsets = new int[packedParts.size()];
+        this.packedFirstParts = new int[packedParts.size()];
+        this.packedComponentCounts = new int[packedParts.size()];
+        int partIndex = scalarPartCount;
+        for (int i = 0; i < packedDataTypes.length; i++) {
+            AlignedPackedVertexFormatPart packedPart = packedParts.get(i);
+            packedDataTypes[i] = packedPart.dataType();
+            packedOffsets[i] = packedPart.offset();
+            packedFirstParts[i] = partIndex;
+            packedComponentCounts[i] = packedPart.vertexTypes().size();
+            for (VertexType vertexType : packedPart.vertexTypes()) {
+                vertexTypes[partIndex++] = vertexType;
+            }
+        }
+        this.byteCount = vertexFormat.byteCount();
+    }
+
+    public static AVertexInterleaver create(VertexFormat vertexFormat) {
+        if (FloatVertexInterleaver.isSupported(vertexFormat)) {
+            return new FloatVertexInterleaver(vertexFormat);
+        }
+        return new EncodedVertexInterleaver(vertexFormat);
+    }
+
+    /**
+     * Returns the number of vertex types read, one per scalar part followed by one per packed component.
+     */
+    public int partCount() {
+        return vertexTypes.length;
+    }
+
+    protected int scalarPartCount() {
+        return scalarPartCount;
+    }
+
+    protected boolean hasPackedParts() {
+        return packedDataTypes.length > 0;
+    }
+
+    public VertexType vertexType(int partIndex) {
+        return vertexTypes[partIndex];
+    }
+
+    protected VertexDataType dataType(int partIndex) {
+        return dataTypes[partIndex];
+    }
+
+    protected int offset(int partIndex) {
+        return offsets[partIndex];
+    }
+
+    protected int byteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Writes vertices [firstVertex, firstVertex + vertexCount) into the buffer starting at bufferOffset,
+     * columns must be given in the same order as the parts of this interleaver.
+     */
+    public void interleave(ResizableFloatArray[] columns, int firstVertex, int vertexCount, ByteBuffer buffer, int bufferOffset) {
+        float[][] block = new float[columns.length][BLOCK_VERTEX_COUNT];
+        for (int blockStart = 0; blockStart < vertexCount; blockStart += BLOCK_VERTEX_COUNT) {
+            int blockVertexCount = Math.min(BLOCK_VERTEX_COUNT, vertexCount - blockStart);
+            for (int partIndex = 0; partIndex < columns.length; partIndex++) {
+                readBlock(columns[partIndex], firstVertex + blockStart, blockVertexCount, block[partIndex]);
+            }
+            writeBlock(block, blockVertexCount, buffer, bufferOffset + blockStart * byteCount);
+        }
+    }
+
+    /**
+     * Writes vertices [firstVertex, firstVertex + vertexCount) of the data into the buffer starting at bufferOffset,
+     * reading one block of every vertex type at a time.
+     */
+    public void interleave(IMeshData data, int firstVertex, int vertexCount, ByteBuffer buffer, int bufferOffset) throws MeshIOException {
+        float[][] block = new float[vertexTypes.length][BLOCK_VERTEX_COUNT];
+        for (int blockStart = 0; blockStart < vertexCount; blockStart += BLOCK_VERTEX_COUNT) {
+            int blockVertexCount = Math.min(BLOCK_VERTEX_COUNT, vertexCount - blockStart);
+            for (int partIndex = 0; partIndex < vertexTypes.length; partIndex++) {
+                data.readVertexData(vertexTypes[partIndex], firstVertex + blockStart, block[partIndex], blockVertexCount);
+            }
+            writeBlock(block, blockVertexCount, buffer, bufferOffset + blockStart * byteCount);
+        }
+    }
+
+    private static void readBlock(ResizableFloatArray column, int firstVertex, int blockVertexCount, float[] block) {
+        int available = Math.max(0, Math.min(blockVertexCount, column.length() - firstVertex));
+        column.get(firstVertex, block, 0, available);
+        for (int i = available; i < blockVertexCount; i++) {
+            block[i] = 0;
+        }
+    }
+
+    /**
+     * Packs the packed parts of one vertex of the block into the vertex starting at vertexOffset.
+     */
+    protected void writePackedParts(float[][] block, int vertexIndex, ByteBuffer buffer, int vertexOffset) {
+        for (int packedIndex = 0; packedIndex < packedDataTypes.length; packedIndex++) {
+            int firstPart = packedFirstParts[packedIndex];
+            int componentCount = packedComponentCounts[packedIndex];
+            float x = block[firstPart][vertexIndex];
+            float y = (componentCount > 1) ? block[firstPart + 1][vertexIndex] : 0;
+            float z = (componentCount > 2) ? block[firstPart + 2][vertexIndex] : 0;
+            float w = (componentCount > 3) ? block[firstPart + 3][vertexIndex] : 0;
+            packedDataTypes[packedIndex].pack(buffer, vertexOffset + packedOffsets[packedIndex], x, y, z, w);
+        }
+    }
+
+    protected abstract void writeBlock(float[][] block, int blockVertexCount, ByteBuffer buffer, int bufferOffset);
+}
@@ -0,0 +1,48 @@
+package com.ripplargames.meshio.vertices;
+
+import java.util.List;
+
+public class AlignedPackedVertexFormatPart {
+    private final int offset;
+    private final PackedVertexDataType dataType;
+    private final List<VertexType> vertexTypes;
+
+    public AlignedPackedVertexFormatPart(int offset, PackedVertexDataType dataType, List<VertexType> vertexTypes) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must be zero or greater");
+        }
+        if (dataType == null) {
+            throw new NullPointerException("Data Type must not be null");
+        }
+        this.offset = offset;
+        this.dataType = dataType;
+        this.vertexTypes = vertexTypes;
+    }
+
+    public int offset() {
+        return offset;
+    }
+
+    public PackedVertexDataType dataType() {
+        return dataType;
+    }
+
+    public List<VertexType> vertexTypes() {
+        return vertexTypes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AlignedPackedVertexFormatPart that = (AlignedPackedVertexFormatPart) o;
+        return (offset == that.offset)
+                && (dataType == that.dataType)
+                && vertexTypes.equals(that.vertexTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * offset + dataType.hashCode()) + vertexTypes.hashCode();
+    }
+}
@@ -22,4 +22,18 @@ public class AlignedVertexFormatPart {
     public VertexDataType dataType() {
         return dataType;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AlignedVertexFormatPart that = (AlignedVertexFormatPart) o;
+        return (offset == that.offset)
+                && (dataType == that.dataType);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * offset + dataType.hashCode();
+    }
 }
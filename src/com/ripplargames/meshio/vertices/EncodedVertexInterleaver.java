@@ -0,0 +1,87 @@
+package com.ripplargames.meshio.vertices;
+
+import java.nio.ByteBuffer;
+
+import com.ripplargames.meshio.util.EnDecoder;
+import com.ripplargames.meshio.util.HalfFloatUtil;
+
+public class EncodedVertexInterleaver extends AVertexInterleaver {
+    private static final int FLOAT = 0;
+    private static final int HALF_FLOAT = 1;
+    private static final int BYTE = 2;
+    private static final int SHORT = 3;
+    private static final int INT = 4;
+
+    private final int[] kernels;
+    private final EnDecoder[] endecoders;
+
+    public EncodedVertexInterleaver(VertexFormat vertexFormat) {
+        super(vertexFormat);
+        int partCount = scalarPartCount();
+        this.kernels = new int[partCount];
+        this.endecoders = new EnDecoder[partCount];
+        for (int partIndex = 0; partIndex < partCount; partIndex++) {
+            VertexDataType dataType = dataType(partIndex);
+            kernels[partIndex] = kernel(dataType);
+            endecoders[partIndex] = dataType.endecoder();
+        }
+    }
+
+    private static int kernel(VertexDataType dataType) {
+        switch (dataType) {
+            case Float:
+                return FLOAT;
+            case HalfFloat:
+                return HALF_FLOAT;
+            case ByteSigned:
+            case ByteUnsigned:
+                return BYTE;
+            case ShortSigned:
+            case ShortUnsigned:
+                return SHORT;
+            default:
+                return INT;
+        }
+    }
+
+    @Override
+    protected void writeBlock(float[][] block, int blockVertexCount, ByteBuffer buffer, int bufferOffset) {
+        int byteCount = byteCount();
+        for (int partIndex = 0; partIndex < kernels.length; partIndex++) {
+            float[] data = block[partIndex];
+            int index = bufferOffset + offset(partIndex);
+            EnDecoder endecoder = endecoders[partIndex];
+            switch (kernels[partIndex]) {
+                case FLOAT:
+                    for (int vertexIndex = 0; vertexIndex < blockVertexCount; vertexIndex++, index += byteCount) {
+                        buffer.putFloat(index, data[vertexIndex]);
+                    }
+                    break;
+                case HALF_FLOAT:
+                    for (int vertexIndex = 0; vertexIndex < blockVertexCount; vertexIndex++, index += byteCount) {
+                        buffer.putShort(index, HalfFloatUtil.fromFloat(data[vertexIndex]));
+                    }
+                    break;
+                case BYTE:
+                    for (int vertexIndex = 0; vertexIndex < blockVertexCount; vertexIndex++, index += byteCount) {
+                        buffer.put(index, endecoder.encodeAsByte(data[vertexIndex]));
+                    }
+                    break;
+                case SHORT:
+                    for (int vertexIndex = 0; vertexIndex < blockVertexCount; vertexIndex++, index += byteCount) {
+                        buffer.putShort(index, endecoder.encodeAsShort(data[vertexIndex]));
+                    }
+                    break;
+                default:
+                    for (int vertexIndex = 0; vertexIndex < blockVertexCount; vertexIndex++, index += byteCount) {
+                        buffer.putInt(index, endecoder.encodeAsInt(data[vertexIndex]));
+                    }
+            }
+        }
+        if (hasPackedParts()) {
+            for (int vertexIndex = 0; vertexIndex < blockVertexCount; vertexIndex++) {
+                writePackedParts(block, vertexIndex, buffer, bufferOffset + vertexIndex * byteCount);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ripplargames.meshio.vertices;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+public class FloatVertexInterleaver extends AVertexInterleaver {
+    private final int[] offsets;
+
+    public FloatVertexInterleaver(VertexFormat vertexFormat) {
+        super(vertexFormat);
+        if (!isSupported(vertexFormat)) {
+            throw new IllegalArgumentException("Vertex format must only contain aligned float parts");
+        }
+        this.offsets = new int[scalarPartCount()];
+        for (int partIndex = 0; partIndex < offsets.length; partIndex++) {
+            offsets[partIndex] = offset(partIndex);
+        }
+    }
+
+    public static boolean isSupported(VertexFormat vertexFormat) {
+        if (!vertexFormat.alignedPackedParts().isEmpty() || vertexFormat.byteCount() % VertexDataType.Float.byteCount() != 0) {
+            return false;
+        }
+        for (Map.Entry<VertexType, AlignedVertexFormatPart> entry : vertexFormat.alignedParts()) {
+            AlignedVertexFormatPart part = entry.getValue();
+            if ((part.dataType() != VertexDataType.Float) || (part.offset() % VertexDataType.Float.byteCount() != 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void writeBlock(float[][] block, int blockVertexCount, ByteBuffer buffer, int bufferOffset) {
+        int byteCount = byteCount();
+        int partCount = offsets.length;
+        for (int vertexIndex = 0; vertexIndex < blockVertexCount; vertexIndex++) {
+            int vertexOffset = bufferOffset + vertexIndex * byteCount;
+            for (int partIndex = 0; partIndex < partCount; partIndex++) {
+                buffer.putFloat(vertexOffset + offsets[partIndex], block[partIndex][vertexIndex]);
+            }
+        }
+    }
+}
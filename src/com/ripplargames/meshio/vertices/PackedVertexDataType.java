@@ -0,0 +1,118 @@
+package com.ripplargames.meshio.vertices;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodings that pack several components of a vertex into one value. Signed types expect components in [-1, 1] and
+ * unsigned types in [0, 1], values outside are clamped. Components not given to {@link #pack} are zero.
+ */
+public enum PackedVertexDataType {
+    /**
+     * GL_INT_2_10_10_10_REV: x, y and z as 10 bit and w as 2 bit signed normalized ints, x in the lowest bits.
+     */
+    Int2_10_10_10_RevSigned(4, 4) {
+        @Override
+        public void pack(ByteBuffer buffer, int index, float x, float y, float z, float w) {
+            int packed = (snorm(x, 0x1FF) & 0x3FF)
+                    | ((snorm(y, 0x1FF) & 0x3FF) << 10)
+                    | ((snorm(z, 0x1FF) & 0x3FF) << 20)
+                    | (snorm(w, 1) << 30);
+            buffer.putInt(index, packed);
+        }
+    },
+    /**
+     * GL_UNSIGNED_INT_2_10_10_10_REV: x, y and z as 10 bit and w as 2 bit unsigned normalized ints, x in the lowest bits.
+     */
+    Int2_10_10_10_RevUnsigned(4, 4) {
+        @Override
+        public void pack(ByteBuffer buffer, int index, float x, float y, float z, float w) {
+            int packed = unorm(x, 0x3FF)
+                    | (unorm(y, 0x3FF) << 10)
+                    | (unorm(z, 0x3FF) << 20)
+                    | (unorm(w, 0x3) << 30);
+            buffer.putInt(index, packed);
+        }
+    },
+    /**
+     * A unit vector projected onto an octahedron and unfolded into a square, stored as two signed normalized bytes.
+     */
+    Octahedral8(2, 3) {
+        @Override
+        public void pack(ByteBuffer buffer, int index, float x, float y, float z, float w) {
+            int uv = octahedral(x, y, z, 0x7F);
+            buffer.put(index, (byte) uv);
+            buffer.put(index + 1, (byte) (uv >> 16));
+        }
+    },
+    /**
+     * A unit vector projected onto an octahedron and unfolded into a square, stored as two signed normalized shorts.
+     */
+    Octahedral16(4, 3) {
+        @Override
+        public void pack(ByteBuffer buffer, int index, float x, float y, float z, float w) {
+            int uv = octahedral(x, y, z, 0x7FFF);
+            buffer.putShort(index, (short) uv);
+            buffer.putShort(index + 2, (short) (uv >> 16));
+        }
+    },
+    /**
+     * Four unsigned normalized bytes in r, g, b, a order.
+     */
+    Rgba8(4, 4) {
+        @Override
+        public void pack(ByteBuffer buffer, int index, float x, float y, float z, float w) {
+            buffer.put(index, (byte) unorm(x, 0xFF));
+            buffer.put(index + 1, (byte) unorm(y, 0xFF));
+            buffer.put(index + 2, (byte) unorm(z, 0xFF));
+            buffer.put(index + 3, (byte) unorm(w, 0xFF));
+        }
+    };
+
+    private final int byteCount;
+    private final int componentCount;
+
+    PackedVertexDataType(int byteCount, int componentCount) {
+        this.byteCount = byteCount;
+        this.componentCount = componentCount;
+    }
+
+    public int byteCount() {
+        return byteCount;
+    }
+
+    public int componentCount() {
+        return componentCount;
+    }
+
+    public abstract void pack(ByteBuffer buffer, int index, float x, float y, float z, float w);
+
+    private static int snorm(float value, int max) {
+        float clamped = (value > 1) ? 1 : ((value < -1) ? -1 : value);
+        return Math.round(clamped * max);
+    }
+
+    private static int unorm(float value, int max) {
+        float clamped = (value > 1) ? 1 : ((value < 0) ? 0 : value);
+        return Math.round(clamped * max);
+    }
+
+    /**
+     * Returns the octahedral coordinates of the direction as signed normalized ints, u in the low and v in the high 16
+     * bits. The zero vector maps to (0, 0).
+     */
+    private static int octahedral(float x, float y, float z, int max) {
+        float length = Math.abs(x) + Math.abs(y) + Math.abs(z);
+        if (length == 0) {
+            return 0;
+        }
+        float u = x / length;
+        float v = y / length;
+        if (z < 0) {
+            float foldedU = (1 - Math.abs(v)) * ((u >= 0) ? 1 : -1);
+            float foldedV = (1 - Math.abs(u)) * ((v >= 0) ? 1 : -1);
+            u = foldedU;
+            v = foldedV;
+        }
+        return (snorm(u, max) & 0xFFFF) | (snorm(v, max) << 16);
+    }
+}
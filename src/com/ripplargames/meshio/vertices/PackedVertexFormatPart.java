@@ -0,0 +1,53 @@
+package com.ripplargames.meshio.vertices;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A part that packs up to {@link PackedVertexDataType#componentCount()} vertex types into one value, e.g. the three
+ * normal components into an {@link PackedVertexDataType#Octahedral16}. Components that are not given are packed as zero.
+ */
+public class PackedVertexFormatPart extends AVertexFormatPart {
+    private final PackedVertexDataType dataType;
+    private final List<VertexType> vertexTypes;
+
+    public PackedVertexFormatPart(PackedVertexDataType dataType, VertexType... vertexTypes) {
+        if (dataType == null) {
+            throw new NullPointerException("Data Type must not be null");
+        }
+        if (vertexTypes.length == 0 || vertexTypes.length > dataType.componentCount()) {
+            throw new IllegalArgumentException(dataType + " packs between 1 and " + dataType.componentCount() + " vertex types, not " + vertexTypes.length);
+        }
+        this.dataType = dataType;
+        this.vertexTypes = Collections.unmodifiableList(Arrays.asList(vertexTypes.clone()));
+    }
+
+    public PackedVertexDataType getDataType() {
+        return dataType;
+    }
+
+    @Override
+    public List<VertexType> getVertexTypes() {
+        return vertexTypes;
+    }
+
+    @Override
+    public int getByteCount() {
+        return dataType.byteCount();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PackedVertexFormatPart that = (PackedVertexFormatPart) o;
+        return (dataType == that.dataType)
+                && vertexTypes.equals(that.vertexTypes);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * dataType.hashCode() + vertexTypes.hashCode();
+    }
+}
@@ -1,82 +1,80 @@
 package com.ripplargames.meshio.vertices;
 
 import java.nio.ByteBuffer;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 
 import com.ripplargames.meshio.util.EnDecoder;
+import com.ripplargames.meshio.util.HalfFloatUtil;
 
 public enum VertexDataType {
-    Float(4) {
+    Float(4, null) {
         @Override
         public void setDatum(ByteBuffer buffer, int index, float datum) {
             buffer.putFloat(index, datum);
         }
     },
-    ByteSigned(1) {
-        private final EnDecoder endecoder = new EnDecoder(-0x80, 0x7F);
-
+    HalfFloat(2, null) {
+        @Override
+        public void setDatum(ByteBuffer buffer, int index, float datum) {
+            buffer.putShort(index, HalfFloatUtil.fromFloat(datum));
+        }
+    },
+    ByteSigned(1, new EnDecoder(-0x80, 0x7F)) {
         @Override
         public void setDatum(ByteBuffer buffer, int index, float datum) {
-            byte encoded = endecoder.encodeAsByte(datum);
+            byte encoded = endecoder().encodeAsByte(datum);
             buffer.put(index, encoded);
         }
     },
-    ByteUnsigned(1) {
-        private final EnDecoder endecoder = new EnDecoder(0, 0xFF);
-
+    ByteUnsigned(1, new EnDecoder(0, 0xFF)) {
         @Override
         public void setDatum(ByteBuffer buffer, int index, float datum) {
-            byte encoded = endecoder.encodeAsByte(datum);
+            byte encoded = endecoder().encodeAsByte(datum);
             buffer.put(index, encoded);
         }
     },
-    ShortSigned(2) {
-        private final EnDecoder endecoder = new EnDecoder(-0x8000, 0x7FFF);
-
+    ShortSigned(2, new EnDecoder(-0x8000, 0x7FFF)) {
         @Override
         public void setDatum(ByteBuffer buffer, int index, float datum) {
-            short encoded = endecoder.encodeAsShort(datum);
+            short encoded = endecoder().encodeAsShort(datum);
             buffer.putShort(index, encoded);
         }
     },
-    ShortUnsigned(2) {
-        private final EnDecoder endecoder = new EnDecoder(0, 0xFFFF);
-
+    ShortUnsigned(2, new EnDecoder(0, 0xFFFF)) {
         @Override
         public void setDatum(ByteBuffer buffer, int index, float datum) {
-            short encoded = endecoder.encodeAsShort(datum);
+            short encoded = endecoder().encodeAsShort(datum);
             buffer.putShort(index, encoded);
         }
     },
-    IntSigned(4) {
-        private final EnDecoder endecoder = new EnDecoder(-0x80000000, 0x7FFFFFFF);
-
+    IntSigned(4, new EnDecoder(-0x80000000, 0x7FFFFFFF)) {
         @Override
         public void setDatum(ByteBuffer buffer, int index, float datum) {
-            int encoded = endecoder.encodeAsInt(datum);
+            int encoded = endecoder().encodeAsInt(datum);
             buffer.putInt(index, encoded);
         }
     },
-    IntUnsigned(4) {
-        private final EnDecoder endecoder = new EnDecoder(0, 0xFFFFFFFF);
-
+    IntUnsigned(4, new EnDecoder(0, 0xFFFFFFFF)) {
         @Override
         public void setDatum(ByteBuffer buffer, int index, float datum) {
-            int encoded = endecoder.encodeAsInt(datum);
+            int encoded = endecoder().encodeAsInt(datum);
             buffer.putInt(index, encoded);
         }
     };
     private final int byteCount;
+    private final EnDecoder endecoder;
 
-    VertexDataType(int byteCount) {
+    VertexDataType(int byteCount, EnDecoder endecoder) {
         this.byteCount = byteCount;
+        this.endecoder = endecoder;
     }
 
     public int byteCount() {
         return byteCount;
     }
 
+    public EnDecoder endecoder() {
+        return endecoder;
+    }
+
     public abstract void setDatum(ByteBuffer buffer, int index, float datum);
 }
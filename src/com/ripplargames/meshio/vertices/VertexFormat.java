@@ -1,42 +1,79 @@
 package com.ripplargames.meshio.vertices;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 public class VertexFormat {
     private final Map<VertexType, AlignedVertexFormatPart> alignedFormatParts;
+    private final List<AlignedPackedVertexFormatPart> alignedPackedFormatParts;
+    private final Set<VertexType> vertexTypes;
     private final int byteCount;
+    private final AVertexInterleaver interleaver;
 
-    public VertexFormat(VertexFormatPart... formatParts) {
+    public VertexFormat(AVertexFormatPart... formatParts) {
         this(Arrays.asList(formatParts));
     }
 
-    public VertexFormat(List<VertexFormatPart> formatParts) {
+    public VertexFormat(List<? extends AVertexFormatPart> formatParts) {
         this.alignedFormatParts = createAlignedFormatParts(formatParts);
+        this.alignedPackedFormatParts = createAlignedPackedFormatParts(formatParts);
+        this.vertexTypes = collectVertexTypes(alignedFormatParts.keySet(), alignedPackedFormatParts);
         this.byteCount = calculateByteCount(formatParts);
+        this.interleaver = AVertexInterleaver.create(this);
     }
 
-    private static Map<VertexType, AlignedVertexFormatPart> createAlignedFormatParts(List<VertexFormatPart> formatEntries) {
+    private static Map<VertexType, AlignedVertexFormatPart> createAlignedFormatParts(List<? extends AVertexFormatPart> formatEntries) {
         Map<VertexType, AlignedVertexFormatPart> alignedFormatParts = new EnumMap<VertexType, AlignedVertexFormatPart>(VertexType.class);
         int offset = 0;
-        for (VertexFormatPart entry : formatEntries) {
-            VertexType vertexType = entry.getVertexType();
-            VertexDataType dataType = entry.getDataType();
-            AlignedVertexFormatPart alignedFormatPart = new AlignedVertexFormatPart(offset, dataType);
-            alignedFormatParts.put(vertexType, alignedFormatPart);
-            offset += dataType.byteCount();
+        for (AVertexFormatPart entry : formatEntries) {
+            if (entry instanceof VertexFormatPart) {
+                VertexFormatPart formatPart = (VertexFormatPart) entry;
+                VertexType vertexType = formatPart.getVertexType();
+                VertexDataType dataType = formatPart.getDataType();
+                AlignedVertexFormatPart alignedFormatPart = new AlignedVertexFormatPart(offset, dataType);
+                alignedFormatParts.put(vertexType, alignedFormatPart);
+            }
+            offset += entry.getByteCount();
         }
         return Collections.unmodifiableMap(alignedFormatParts);
     }
 
-    private static int calculateByteCount(List<VertexFormatPart> formatParts) {
+    private static List<AlignedPackedVertexFormatPart> createAlignedPackedFormatParts(List<? extends AVertexFormatPart> formatEntries) {
+        List<AlignedPackedVertexFormatPart> alignedPackedFormatParts = new ArrayList<AlignedPackedVertexFormatPart>();
+        int offset = 0;
+        for (AVertexFormatPart entry : formatEntries) {
+            if (entry instanceof PackedVertexFormatPart) {
+                PackedVertexFormatPart formatPart = (PackedVertexFormatPart) entry;
+                alignedPackedFormatParts.add(new AlignedPackedVertexFormatPart(offset, formatPart.getDataType(), formatPart.getVertexTypes()));
+            }
+            offset += entry.getByteCount();
+        }
+        return Collections.unmodifiableList(alignedPackedFormatParts);
+    }
+
+    private static Set<VertexType> collectVertexTypes(Set<VertexType> unpackedVertexTypes, List<AlignedPackedVertexFormatPart> alignedPackedFormatParts) {
+        Set<VertexType> vertexTypes = EnumSet.noneOf(VertexType.class);
+        vertexTypes.addAll(unpackedVertexTypes);
+        for (AlignedPackedVertexFormatPart packedPart : alignedPackedFormatParts) {
+            for (VertexType vertexType : packedPart.vertexTypes()) {
+                if (!vertexTypes.add(vertexType)) {
+                    throw new IllegalArgumentException("Vertex type: " + vertexType.name() + " is used by more than one part");
+                }
+            }
+        }
+        return Collections.unmodifiableSet(vertexTypes);
+    }
+
+    private static int calculateByteCount(List<? extends AVertexFormatPart> formatParts) {
         int byteCount = 0;
-        for (VertexFormatPart formatPart : formatParts) {
-            byteCount += formatPart.getDataType().byteCount();
+        for (AVertexFormatPart formatPart : formatParts) {
+            byteCount += formatPart.getByteCount();
         }
         return byteCount;
     }
@@ -45,11 +82,34 @@ public class VertexFormat {
         return alignedFormatParts.entrySet();
     }
 
+    public List<AlignedPackedVertexFormatPart> alignedPackedParts() {
+        return alignedPackedFormatParts;
+    }
+
     public Set<VertexType> vertexTypes() {
-        return alignedFormatParts.keySet();
+        return vertexTypes;
     }
 
     public int byteCount() {
         return byteCount;
     }
+
+    public AVertexInterleaver interleaver() {
+        return interleaver;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VertexFormat that = (VertexFormat) o;
+        return (byteCount == that.byteCount)
+                && alignedFormatParts.equals(that.alignedFormatParts)
+                && alignedPackedFormatParts.equals(that.alignedPackedFormatParts);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * alignedFormatParts.hashCode() + alignedPackedFormatParts.hashCode()) + byteCount;
+    }
 }
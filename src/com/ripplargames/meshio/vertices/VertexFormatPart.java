@@ -1,6 +1,9 @@
 package com.ripplargames.meshio.vertices;
 
-public class VertexFormatPart {
+import java.util.Collections;
+import java.util.List;
+
+public class VertexFormatPart extends AVertexFormatPart {
     private final VertexType vertexType;
     private final VertexDataType dataType;
 
@@ -16,4 +19,28 @@ public class VertexFormatPart {
     public VertexDataType getDataType() {
         return dataType;
     }
+
+    @Override
+    public List<VertexType> getVertexTypes() {
+        return Collections.singletonList(vertexType);
+    }
+
+    @Override
+    public int getByteCount() {
+        return dataType.byteCount();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VertexFormatPart that = (VertexFormatPart) o;
+        return (vertexType == that.vertexType)
+                && (dataType == that.dataType);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * ((vertexType == null) ? 0 : vertexType.hashCode()) + ((dataType == null) ? 0 : dataType.hashCode());
+    }
 }
@@ -12,5 +12,9 @@ public enum VertexType {
     Color_B,
     Color_A,
     ImageCoord_X,
-    ImageCoord_Y;
+    ImageCoord_Y,
+    Tangent_X,
+    Tangent_Y,
+    Tangent_Z,
+    Tangent_W;
 }
@@ -0,0 +1,124 @@
+package com.ripplargames.meshio;
+
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.ripplargames.meshio.indices.ShortIndicesDataType;
+import com.ripplargames.meshio.indices.TriangleStripMeshType;
+import com.ripplargames.meshio.indices.TrianglesMeshType;
+import com.ripplargames.meshio.vertices.VertexDataType;
+import com.ripplargames.meshio.vertices.VertexFormat;
+import com.ripplargames.meshio.vertices.VertexFormatPart;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FrozenMeshTest {
+    private static Mesh createQuad() {
+        Mesh mesh = new Mesh();
+        float[][] positions = {{0, 0, 0}, {1, 0, 0}, {1, 1, 0}, {0, 1, 0}};
+        for (int vertex = 0; vertex < positions.length; vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertex, positions[vertex][0]);
+            mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, positions[vertex][1]);
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, positions[vertex][2]);
+        }
+        mesh.appendFace(0, 1, 2);
+        mesh.appendFace(0, 2, 3);
+        return mesh;
+    }
+
+    private static VertexFormat createFormat() {
+        return new VertexFormat(
+                new VertexFormatPart(VertexType.Position_X, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Position_Y, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Position_Z, VertexDataType.Float));
+    }
+
+    @Test
+    public void testSnapshotIsIndependent() throws MeshIOException {
+        Mesh mesh = createQuad();
+        FrozenMesh frozen = mesh.freeze();
+        mesh.setVertexTypeDatum(VertexType.Position_X, 1, 5);
+        mesh.appendFace(1, 2, 3);
+        Assert.assertEquals(1, frozen.vertexTypeDatum(VertexType.Position_X, 1), 0);
+        Assert.assertEquals(2, frozen.faceCount());
+        Assert.assertEquals(1, frozen.max(VertexType.Position_X), 0);
+        Assert.assertEquals(new BoundingBox(0, 0, 0, 1, 1, 0), frozen.boundingBox());
+        Assert.assertEquals(createQuad().vertices(createFormat()), frozen.vertices(createFormat()));
+    }
+
+    @Test
+    public void testBuffersAreMemoizedAndReadOnly() throws MeshIOException {
+        Mesh mesh = createQuad();
+        FrozenMesh frozen = mesh.freeze();
+        ByteBuffer vertices = frozen.vertices(createFormat());
+        ByteBuffer again = frozen.vertices(createFormat());
+        Assert.assertTrue(vertices.isReadOnly());
+        Assert.assertEquals(mesh.vertices(createFormat()).order(), vertices.order());
+        Assert.assertEquals(vertices, again);
+        again.position(again.limit());
+        Assert.assertEquals(0, frozen.vertices(createFormat()).position());
+        ByteBuffer indices = frozen.indices(new TrianglesMeshType(), new ShortIndicesDataType());
+        Assert.assertEquals(mesh.indices(new TrianglesMeshType(), new ShortIndicesDataType()), indices);
+        Assert.assertFalse(indices.equals(frozen.indices(new TriangleStripMeshType(), new ShortIndicesDataType())));
+        try {
+            indices.putShort(0, (short) 7);
+            Assert.fail("Expected a read-only buffer");
+        } catch (ReadOnlyBufferException e) {
+            Assert.assertEquals(0, frozen.indices(new TrianglesMeshType(), new ShortIndicesDataType()).getShort(0));
+        }
+    }
+
+    @Test
+    public void testKeptBuffersAreBounded() throws MeshIOException {
+        Mesh mesh = createQuad();
+        FrozenMesh frozen = mesh.freeze();
+        Assert.assertEquals(2 * (4 * 3 * 4 + 12 * 2), frozen.estimatedByteCount());
+        frozen.vertices(createFormat());
+        frozen.indices(new TrianglesMeshType(), new ShortIndicesDataType());
+        Assert.assertEquals(4 * 3 * 4 + 6 * 2, frozen.bufferByteCount());
+
+        VertexFormat reversed = new VertexFormat(
+                new VertexFormatPart(VertexType.Position_Z, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Position_Y, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Position_X, VertexDataType.Float));
+        Assert.assertEquals(mesh.vertices(reversed), frozen.vertices(reversed));
+        Assert.assertEquals(mesh.vertices(reversed), frozen.vertices(reversed));
+        Assert.assertEquals(4 * 3 * 4 + 6 * 2, frozen.bufferByteCount());
+    }
+
+    @Test(expected = MeshIOException.class)
+    public void testMissingVertexType() throws MeshIOException {
+        createQuad().freeze().vertices(new VertexFormat(new VertexFormatPart(VertexType.Normal_X, VertexDataType.Float)));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final FrozenMesh frozen = createQuad().freeze();
+        final ByteBuffer expected = createQuad().vertices(createFormat());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+            for (int task = 0; task < 64; task++) {
+                futures.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws MeshIOException {
+                        ByteBuffer vertices = frozen.vertices(createFormat());
+                        return vertices.equals(expected) && frozen.boundingSphere().radius() > 0;
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assert.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.ripplargames.meshio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.ripplargames.meshio.meshformats.ply.PlyFormatBinaryLittleEndian_1_0;
+import com.ripplargames.meshio.vertices.VertexDataType;
+import com.ripplargames.meshio.vertices.VertexFormat;
+import com.ripplargames.meshio.vertices.VertexFormatPart;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MappedMeshTest {
+    private static final int SEGMENT_SHIFT = 10;
+
+    private static VertexFormat createFormat() {
+        return new VertexFormat(
+                new VertexFormatPart(VertexType.Position_X, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Position_Y, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Position_Z, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Normal_Z, VertexDataType.ByteSigned));
+    }
+
+    @Test
+    public void testMatchesHeapMeshAcrossSegments() throws MeshIOException {
+        Mesh mesh = TestUtil.createGrid(60);
+        IMeshFormat format = new PlyFormatBinaryLittleEndian_1_0();
+        ByteArrayOutputStream source = new ByteArrayOutputStream();
+        format.write(mesh, source);
+
+        MappedMesh mapped = new MappedMesh(null, SEGMENT_SHIFT);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            format.read(new ByteArrayInputStream(source.toByteArray()), mapped);
+            Assert.assertEquals(mesh.vertexCount(), mapped.vertexCount());
+            Assert.assertEquals(mesh.faceCount(), mapped.faceCount());
+            Assert.assertEquals(mesh.vertexTypes(), mapped.vertexTypes());
+            Assert.assertEquals(mesh.faces(), mapped.faces());
+            Assert.assertEquals(mesh.boundingBox(), mapped.boundingBox());
+            Assert.assertEquals(mesh.vertices(createFormat()), mapped.vertices(createFormat()));
+            Assert.assertEquals(mesh.vertices(createFormat()), mapped.vertices(createFormat(), executor));
+
+            ByteArrayOutputStream written = new ByteArrayOutputStream();
+            format.write(mapped, written);
+            Assert.assertArrayEquals(source.toByteArray(), written.toByteArray());
+        } finally {
+            executor.shutdown();
+            mapped.close();
+        }
+    }
+
+    @Test
+    public void testBoundsFollowOverwrites() throws MeshIOException {
+        MappedMesh mapped = new MappedMesh(null, SEGMENT_SHIFT);
+        try {
+            mapped.setVertexTypeDatum(VertexType.ImageCoord_X, 2000, 3);
+            Assert.assertEquals(2001, mapped.vertexCount());
+            Assert.assertEquals(0, mapped.min(VertexType.ImageCoord_X), 0);
+            Assert.assertEquals(3, mapped.max(VertexType.ImageCoord_X), 0);
+            mapped.setVertexTypeDatum(VertexType.ImageCoord_X, 2000, -1);
+            Assert.assertEquals(-1, mapped.min(VertexType.ImageCoord_X), 0);
+            Assert.assertEquals(0, mapped.max(VertexType.ImageCoord_X), 0);
+            mapped.setVertexTypeData(VertexType.ImageCoord_X, new float[]{5, 6, 7}, 0, 1022, 3);
+            Assert.assertEquals(7, mapped.max(VertexType.ImageCoord_X), 0);
+            Assert.assertEquals(6, mapped.vertexTypeDatum(VertexType.ImageCoord_X, 1023), 0);
+            Assert.assertEquals(7, mapped.vertexTypeDatum(VertexType.ImageCoord_X, 1024), 0);
+
+            mapped.appendFace(0, 1, 3000);
+            Assert.assertEquals(3000, mapped.vertexCount());
+            Assert.assertEquals(new Face(0, 1, 3000), mapped.face(0));
+            Mesh mesh = mapped.toMesh();
+            Assert.assertEquals(mapped.vertexCount(), mesh.vertexCount());
+            Assert.assertEquals(7, mesh.vertexTypeDatum(VertexType.ImageCoord_X, 1024), 0);
+            Assert.assertEquals(1, mesh.faceCount());
+        } finally {
+            mapped.close();
+        }
+    }
+
+    @Test
+    public void testCloseDeletesFiles() throws MeshIOException, IOException {
+        File parent = File.createTempFile("meshmaptest", "");
+        Assert.assertTrue(parent.delete());
+        Assert.assertTrue(parent.mkdir());
+        try {
+            MappedMesh mapped = new MappedMesh(parent, SEGMENT_SHIFT);
+            mapped.setVertexTypeDatum(VertexType.Position_X, 2000, 1);
+            mapped.appendFace(0, 1, 2);
+            Assert.assertEquals(1, parent.list().length);
+            mapped.close();
+            Assert.assertEquals(0, parent.list().length);
+        } finally {
+            parent.delete();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.ripplargames.meshio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+import com.ripplargames.meshio.meshformats.mbmsh.MbMshFormat;
+import com.ripplargames.meshio.meshformats.obj.ObjFormat;
+import com.ripplargames.meshio.meshformats.ply.PlyFormatAscii_1_0;
+import com.ripplargames.meshio.meshformats.ply.PlyFormatBinaryLittleEndian_1_0;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MeshIOTest {
+    private static byte[] write(IMeshFormat format, Mesh mesh) throws MeshIOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        format.write(mesh, baos);
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void testConvertMatchesReadThenWrite() throws MeshIOException {
+        MeshIO meshIO = new MeshIO();
+        Mesh mesh = TestUtil.createGrid(90);
+        IMeshFormat[] formats = {new PlyFormatBinaryLittleEndian_1_0(), new MbMshFormat(), new PlyFormatAscii_1_0(), new ObjFormat()};
+        for (IMeshFormat sourceFormat : formats) {
+            byte[] source = write(sourceFormat, mesh);
+            for (IMeshFormat targetFormat : formats) {
+                ByteArrayOutputStream converted = new ByteArrayOutputStream();
+                meshIO.convert(new ByteArrayInputStream(source), sourceFormat, converted, targetFormat);
+                byte[] expected = write(targetFormat, sourceFormat.read(new ByteArrayInputStream(source)));
+                Assert.assertTrue(sourceFormat.getFileExtension() + " to " + targetFormat.getFileExtension(),
+                        Arrays.equals(expected, converted.toByteArray()));
+            }
+        }
+    }
+
+    @Test
+    public void testConvertStreamsOnlyWhenTheHeaderAllows() throws MeshIOException {
+        MeshHeader sequential = new MeshHeader(3, 1, EnumSet.of(VertexType.Position_X), true);
+        MeshHeader unordered = new MeshHeader(3, 1, EnumSet.of(VertexType.Position_X));
+        MeshHeader uncounted = new MeshHeader(3, MeshHeader.UNKNOWN_COUNT, EnumSet.of(VertexType.Position_X), true);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Assert.assertNotNull(new PlyFormatAscii_1_0().streamingWriter(sequential, baos));
+        Assert.assertNull(new PlyFormatAscii_1_0().streamingWriter(unordered, baos));
+        Assert.assertNull(new PlyFormatAscii_1_0().streamingWriter(uncounted, baos));
+        Assert.assertNull(new MbMshFormat().streamingWriter(sequential, baos));
+        Assert.assertNull(new ObjFormat().streamingWriter(sequential, baos));
+    }
+
+    @Test
+    public void testConvertPlyWithFacesFirst() throws MeshIOException {
+        String source = "ply\nformat ascii 1.0\nelement face 1\nproperty list uchar int vertex_indices\n"
+                + "element vertex 3\nproperty float x\nproperty float y\nend_header\n"
+                + "3 0 1 2\n0 0\n1 0\n0 1\n";
+        PlyFormatAscii_1_0 format = new PlyFormatAscii_1_0();
+        ByteArrayOutputStream converted = new ByteArrayOutputStream();
+        new MeshIO().convert(new ByteArrayInputStream(source.getBytes()), format, converted, format);
+        Mesh mesh = format.read(new ByteArrayInputStream(converted.toByteArray()));
+        Assert.assertEquals(Arrays.asList(new Face(0, 1, 2)), mesh.faces());
+        Assert.assertArrayEquals(new float[]{0, 1, 0}, mesh.vertexTypeData(VertexType.Position_X).copyArray(), 0.0f);
+        Assert.assertArrayEquals(new float[]{0, 0, 1}, mesh.vertexTypeData(VertexType.Position_Y).copyArray(), 0.0f);
+    }
+
+    @Test
+    public void testMbMshPresizesFaces() throws MeshIOException {
+        Mesh mesh = TestUtil.createGrid(90);
+        MbMshFormat format = new MbMshFormat();
+        Mesh read = format.read(new ByteArrayInputStream(write(format, mesh)));
+        Assert.assertEquals(mesh.faceCount(), read.faceCount());
+        Assert.assertEquals(3 * mesh.faceCount(), read.faceIndices().capacity());
+    }
+
+    @Test
+    public void testBuilderCapsPresizeFromHeader() throws MeshIOException {
+        MeshBuilder builder = new MeshBuilder();
+        builder.begin(new MeshHeader(700000000, 700000000, EnumSet.of(VertexType.Position_X)));
+        builder.expectFaces(700000000);
+        builder.vertexData(VertexType.Position_X, 0, new float[]{1}, 1);
+        builder.faces(0, new int[]{0, 0, 0}, 1);
+        builder.end();
+        Mesh mesh = builder.mesh();
+        Assert.assertTrue(mesh.vertexTypeData(VertexType.Position_X).capacity() <= 1 << 20);
+        Assert.assertTrue(mesh.faceIndices().capacity() <= 3 << 20);
+    }
+
+    @Test
+    public void testBuilderAcceptsFacesInAnyOrder() throws MeshIOException {
+        MeshBuilder builder = new MeshBuilder();
+        builder.begin(new MeshHeader(MeshHeader.UNKNOWN_COUNT, MeshHeader.UNKNOWN_COUNT, EnumSet.noneOf(VertexType.class)));
+        builder.faces(1, new int[]{3, 4, 5}, 1);
+        builder.faces(0, new int[]{0, 1, 2}, 1);
+        builder.end();
+        Assert.assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, builder.mesh().faceIndices().copyArray());
+    }
+
+    @Test
+    public void testSpillAcceptsBatchesInAnyOrder() throws MeshIOException {
+        SpillingMeshSink spill = new SpillingMeshSink(null);
+        try {
+            spill.begin(new MeshHeader(MeshHeader.UNKNOWN_COUNT, MeshHeader.UNKNOWN_COUNT, EnumSet.noneOf(VertexType.class)));
+            spill.faces(1, new int[]{3, 4, 5}, 1);
+            spill.vertexData(VertexType.Normal_Y, 4, new float[]{-2, 7}, 2);
+            spill.faces(0, new int[]{0, 1, 2}, 1);
+            spill.vertexData(VertexType.Normal_Y, 0, new float[]{1, 2, 3}, 3);
+            spill.end();
+            Assert.assertEquals(6, spill.vertexCount());
+            Assert.assertEquals(2, spill.faceCount());
+            Assert.assertEquals(-2, spill.min(VertexType.Normal_Y), 0);
+            Assert.assertEquals(7, spill.max(VertexType.Normal_Y), 0);
+            float[] data = new float[7];
+            spill.readVertexData(VertexType.Normal_Y, 0, data, 7);
+            Assert.assertArrayEquals(new float[]{1, 2, 3, 0, -2, 7, 0}, data, 0);
+            spill.readVertexData(VertexType.Normal_X, 0, data, 2);
+            Assert.assertEquals(0, data[0], 0);
+            int[] faces = new int[6];
+            spill.readFaces(0, faces, 2);
+            Assert.assertArrayEquals(new int[]{0, 1, 2, 3, 4, 5}, faces);
+        } finally {
+            spill.close();
+        }
+    }
+
+    @Test
+    public void testSpillBoundsCountUnwrittenVerticesAsZero() throws MeshIOException {
+        SpillingMeshSink spill = new SpillingMeshSink(null);
+        try {
+            spill.vertexData(VertexType.Position_X, 2, new float[]{5, Float.NaN}, 2);
+            spill.vertexData(VertexType.Position_Y, 0, new float[]{3, 4, 5, 6, 7}, 5);
+            spill.vertexData(VertexType.Normal_Z, 0, new float[]{Float.NaN, 2}, 2);
+            Assert.assertEquals(0, spill.min(VertexType.Position_X), 0);
+            Assert.assertEquals(5, spill.max(VertexType.Position_X), 0);
+            Assert.assertEquals(3, spill.min(VertexType.Position_Y), 0);
+            Assert.assertEquals(7, spill.max(VertexType.Position_Y), 0);
+            Assert.assertEquals(0, spill.min(VertexType.Normal_Z), 0);
+            Assert.assertEquals(2, spill.max(VertexType.Normal_Z), 0);
+        } finally {
+            spill.close();
+        }
+    }
+}
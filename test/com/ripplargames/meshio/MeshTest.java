@@ -0,0 +1,200 @@
+package com.ripplargames.meshio;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.ripplargames.meshio.indices.IntIndicesDataType;
+import com.ripplargames.meshio.indices.TrianglesMeshType;
+import com.ripplargames.meshio.vertices.VertexDataType;
+import com.ripplargames.meshio.vertices.VertexFormat;
+import com.ripplargames.meshio.vertices.VertexFormatPart;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MeshTest {
+    @Test
+    public void testSetVertexTypeData() {
+        Mesh mesh = new Mesh();
+        float[] data = {1, 2, 3, 4, 5};
+        mesh.setVertexTypeData(VertexType.Position_X, data, 1, 2, 3);
+        Assert.assertEquals(5, mesh.vertexCount());
+        Assert.assertArrayEquals(new float[]{0, 0, 2, 3, 4}, mesh.vertexTypeData(VertexType.Position_X).copyArray(), 0.0f);
+    }
+
+    @Test
+    public void testAdoptVertexTypeData() {
+        Mesh mesh = new Mesh();
+        float[] data = {1, 2, 3, 4};
+        mesh.adoptVertexTypeData(VertexType.Normal_Y, data, 3);
+        Assert.assertEquals(3, mesh.vertexCount());
+        Assert.assertTrue(mesh.hasVertexTypeData(VertexType.Normal_Y));
+        Assert.assertFalse(mesh.hasVertexTypeData(VertexType.Normal_X));
+        Assert.assertArrayEquals(new float[]{1, 2, 3}, mesh.vertexTypeData(VertexType.Normal_Y).copyArray(), 0.0f);
+        mesh.setVertexTypeDatum(VertexType.Normal_Y, 5, 6);
+        Assert.assertArrayEquals(new float[]{1, 2, 3, 0, 0, 6}, mesh.vertexTypeData(VertexType.Normal_Y).copyArray(), 0.0f);
+    }
+
+    @Test
+    public void testEnsureVertexCapacity() {
+        Mesh mesh = new Mesh();
+        mesh.setVertexTypeDatum(VertexType.Position_X, 0, 1);
+        mesh.ensureVertexCapacity(1000);
+        Assert.assertTrue(mesh.vertexTypeData(VertexType.Position_X).capacity() >= 1000);
+        mesh.setVertexTypeDatum(VertexType.Position_Y, 0, 1);
+        Assert.assertTrue(mesh.vertexTypeData(VertexType.Position_Y).capacity() >= 1000);
+        Assert.assertEquals(1, mesh.vertexCount());
+    }
+
+    @Test
+    public void testPresizedMesh() {
+        Mesh mesh = new Mesh(100, 50);
+        mesh.setVertexTypeDatum(VertexType.Position_X, 0, 1);
+        Assert.assertTrue(mesh.vertexTypeData(VertexType.Position_X).capacity() >= 100);
+        Assert.assertTrue(mesh.faceIndices().capacity() >= 150);
+        mesh.appendFace(0, 1, 2);
+        mesh.appendFace(new Face(2, 1, 3));
+        Assert.assertEquals(2, mesh.faceCount());
+        Assert.assertEquals(new Face(2, 1, 3), mesh.face(1));
+        Assert.assertEquals(Arrays.asList(new Face(0, 1, 2), new Face(2, 1, 3)), mesh.faces());
+    }
+
+    @Test
+    public void testFaceIndicesAreReadOnly() {
+        Mesh mesh = new Mesh();
+        mesh.appendFace(0, 1, 2);
+        try {
+            mesh.faceIndices().setAt(0, 5);
+            Assert.fail("Expected a read-only view");
+        } catch (UnsupportedOperationException e) {
+            Assert.assertEquals(0, mesh.faceIndices().getAt(0));
+        }
+        mesh.setFaceIndices(0, new int[]{9, 2, 1, 0}, 1, 3);
+        Assert.assertEquals(new Face(2, 1, 0), mesh.face(0));
+        mesh.setFaceIndices(3, new int[]{0, 4, 3}, 0, 3);
+        Assert.assertEquals(2, mesh.faceCount());
+        Assert.assertEquals(4, mesh.vertexCount());
+        Assert.assertEquals(6, mesh.faceIndices().length());
+    }
+
+    @Test
+    public void testParallelBuffers() throws MeshIOException {
+        int vertexCount = 100000;
+        Mesh mesh = new Mesh(vertexCount, vertexCount);
+        Random random = new Random();
+        for (VertexType vertexType : VertexType.values()) {
+            for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+                mesh.setVertexTypeDatum(vertexType, vertexIndex, random.nextFloat());
+            }
+        }
+        for (int faceIndex = 0; faceIndex < vertexCount; faceIndex++) {
+            mesh.appendFace(faceIndex, (faceIndex + 1) % vertexCount, (faceIndex + 2) % vertexCount);
+        }
+        VertexFormat vertexFormat = new VertexFormat(
+                new VertexFormatPart(VertexType.Position_X, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Normal_X, VertexDataType.ShortSigned));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Assert.assertEquals(mesh.vertices(vertexFormat), mesh.vertices(vertexFormat, executor));
+            IntIndicesDataType indicesDataType = new IntIndicesDataType();
+            Assert.assertEquals(mesh.indices(new TrianglesMeshType(), indicesDataType), mesh.indices(new TrianglesMeshType(), indicesDataType, executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ByteBuffer concat(List<ByteBuffer> chunks) {
+        int byteCount = 0;
+        for (ByteBuffer chunk : chunks) {
+            byteCount += chunk.capacity();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(byteCount).order(ByteOrder.nativeOrder());
+        for (ByteBuffer chunk : chunks) {
+            buffer.put(chunk.duplicate());
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Test
+    public void testChunkedBuffers() throws MeshIOException {
+        int vertexCount = 50000;
+        Mesh mesh = new Mesh(vertexCount, vertexCount);
+        for (int vertexIndex = 0; vertexIndex < vertexCount; vertexIndex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertexIndex, vertexIndex);
+            mesh.setVertexTypeDatum(VertexType.Normal_X, vertexIndex, (vertexIndex % 3) - 1);
+            mesh.appendFace(vertexIndex, (vertexIndex + 1) % vertexCount, (vertexIndex + 2) % vertexCount);
+        }
+        VertexFormat vertexFormat = new VertexFormat(
+                new VertexFormatPart(VertexType.Position_X, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Normal_X, VertexDataType.ShortSigned));
+        IntIndicesDataType indicesDataType = new IntIndicesDataType();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<ByteBuffer> vertexChunks = mesh.vertexChunks(vertexFormat, 100000, executor);
+            Assert.assertEquals(4, vertexChunks.size());
+            for (ByteBuffer chunk : vertexChunks) {
+                Assert.assertEquals(0, chunk.capacity() % vertexFormat.byteCount());
+                Assert.assertTrue(chunk.capacity() <= 100000);
+            }
+            Assert.assertEquals(mesh.vertices(vertexFormat), concat(vertexChunks));
+
+            List<ByteBuffer> indexChunks = mesh.indexChunks(new TrianglesMeshType(), indicesDataType, 1000, executor);
+            Assert.assertEquals(996, indexChunks.get(0).capacity());
+            Assert.assertEquals(mesh.indices(new TrianglesMeshType(), indicesDataType), concat(indexChunks));
+            Assert.assertEquals(indexChunks, mesh.indexChunks(new TrianglesMeshType(), indicesDataType, 1000));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBoundsFollowChanges() throws MeshIOException {
+        Mesh mesh = new Mesh();
+        mesh.setVertexTypeDatum(VertexType.Position_X, 0, -3);
+        mesh.setVertexTypeDatum(VertexType.Position_X, 1, -1);
+        mesh.setVertexTypeDatum(VertexType.Position_X, 2, -2);
+        Assert.assertEquals(-3, mesh.min(VertexType.Position_X), 0);
+        Assert.assertEquals(-1, mesh.max(VertexType.Position_X), 0);
+        mesh.setVertexTypeDatum(VertexType.Position_X, 0, -2.5f);
+        Assert.assertEquals(-2.5f, mesh.min(VertexType.Position_X), 0);
+        mesh.setVertexTypeData(VertexType.Position_X, new float[]{4, -7}, 0, 1, 2);
+        Assert.assertEquals(-7, mesh.min(VertexType.Position_X), 0);
+        Assert.assertEquals(4, mesh.max(VertexType.Position_X), 0);
+        mesh.adoptVertexTypeData(VertexType.Position_Y, new float[]{5, 6, 100}, 2);
+        Assert.assertEquals(5, mesh.min(VertexType.Position_Y), 0);
+        Assert.assertEquals(6, mesh.max(VertexType.Position_Y), 0);
+        mesh.setVertexTypeDatum(VertexType.Position_Z, 2, 1);
+        Assert.assertEquals(0, mesh.min(VertexType.Position_Z), 0);
+        Assert.assertEquals(new BoundingBox(-7, 5, 0, 4, 6, 1), mesh.boundingBox());
+    }
+
+    @Test
+    public void testBoundingSphere() throws MeshIOException {
+        Mesh mesh = new Mesh();
+        float[][] positions = {{-1, -1, -1}, {1, 1, 1}, {0, 0.5f, 0}};
+        for (int vertex = 0; vertex < positions.length; vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertex, positions[vertex][0]);
+            mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, positions[vertex][1]);
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, positions[vertex][2]);
+        }
+        BoundingSphere sphere = mesh.boundingSphere();
+        Assert.assertEquals(0, sphere.centerX(), 0);
+        Assert.assertEquals((float) Math.sqrt(3), sphere.radius(), 1e-6f);
+        Assert.assertSame(sphere, mesh.boundingSphere());
+        mesh.setVertexTypeDatum(VertexType.Position_X, 2, 3);
+        BoundingSphere changed = mesh.boundingSphere();
+        Assert.assertEquals(1, changed.centerX(), 0);
+        Assert.assertEquals((float) Math.sqrt(6), changed.radius(), 1e-6f);
+    }
+
+    @Test(expected = MeshIOException.class)
+    public void testMissingBounds() throws MeshIOException {
+        new Mesh().min(VertexType.Normal_X);
+    }
+}
@@ -27,6 +27,35 @@ public class TestUtil {
         return new VertexFormatPart(vertexType, vertexDataType);
     }
 
+    /**
+     * Creates a size by size grid of vertices with positions, normals and image coordinates that every format stores
+     * exactly, joined by two faces per cell.
+     */
+    public static Mesh createGrid(int size) {
+        Mesh mesh = new Mesh();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int vertex = y * size + x;
+                mesh.setVertexTypeDatum(VertexType.Position_X, vertex, x % 3 - 1);
+                mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, y % 3 - 1);
+                mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, (x + y) % 3 - 1);
+                mesh.setVertexTypeDatum(VertexType.Normal_X, vertex, 0);
+                mesh.setVertexTypeDatum(VertexType.Normal_Y, vertex, 0);
+                mesh.setVertexTypeDatum(VertexType.Normal_Z, vertex, 1);
+                mesh.setVertexTypeDatum(VertexType.ImageCoord_X, vertex, x % 2);
+                mesh.setVertexTypeDatum(VertexType.ImageCoord_Y, vertex, y % 2);
+            }
+        }
+        for (int y = 0; y + 1 < size; y++) {
+            for (int x = 0; x + 1 < size; x++) {
+                int vertex = y * size + x;
+                mesh.appendFace(vertex, vertex + 1, vertex + size);
+                mesh.appendFace(vertex + 1, vertex + size + 1, vertex + size);
+            }
+        }
+        return mesh;
+    }
+
     public static <T> T randomValue(T[] array) {
         int index = (int) (Math.random() * array.length);
         return array[index];
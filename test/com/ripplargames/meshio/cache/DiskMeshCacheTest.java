@@ -0,0 +1,192 @@
+package com.ripplargames.meshio.cache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.Callable;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIO;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DiskMeshCacheTest {
+    private static Mesh createStrip(int quadCount) {
+        Mesh mesh = new Mesh();
+        for (int vertex = 0; vertex < 2 * (quadCount + 1); vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertex, vertex / 2);
+            mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, vertex % 2);
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, 0.25f * vertex);
+            mesh.setVertexTypeDatum(VertexType.Normal_Z, vertex, 1);
+        }
+        for (int quad = 0; quad < quadCount; quad++) {
+            mesh.appendFace(2 * quad, 2 * quad + 2, 2 * quad + 1);
+            mesh.appendFace(2 * quad + 1, 2 * quad + 2, 2 * quad + 3);
+        }
+        return mesh;
+    }
+
+    private static File createCacheDirectory() throws IOException {
+        File directory = File.createTempFile("diskmeshcache", "");
+        directory.delete();
+        return directory;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static void assertMeshesEqual(Mesh expected, Mesh actual) {
+        Assert.assertEquals(expected.vertexCount(), actual.vertexCount());
+        Assert.assertEquals(expected.vertexTypes(), actual.vertexTypes());
+        for (VertexType vertexType : expected.vertexTypes()) {
+            Assert.assertArrayEquals(expected.vertexTypeData(vertexType).copyArray(), actual.vertexTypeData(vertexType).copyArray(), 0);
+        }
+        Assert.assertEquals(expected.faces(), actual.faces());
+    }
+
+    @Test
+    public void testEntriesSurviveRestarts() throws MeshIOException, IOException {
+        File directory = createCacheDirectory();
+        File source = File.createTempFile("source", ".obj");
+        try {
+            MeshIO meshIO = new MeshIO();
+            meshIO.write(createStrip(50), source.getPath());
+            Mesh parsed = meshIO.read(source.getPath());
+
+            DiskMeshCache cache = new DiskMeshCache(directory, 1 << 20);
+            meshIO.setDiskMeshCache(cache);
+            assertMeshesEqual(parsed, meshIO.read(source.getPath()));
+            Assert.assertEquals(1, cache.missCount());
+            Assert.assertTrue(cache.byteCount() > 0);
+
+            MeshIO restarted = new MeshIO();
+            DiskMeshCache reopened = new DiskMeshCache(directory, 1 << 20);
+            restarted.setDiskMeshCache(reopened);
+            assertMeshesEqual(parsed, restarted.read(source.getPath()));
+            Assert.assertEquals(1, reopened.hitCount());
+            Assert.assertEquals(0, reopened.missCount());
+
+            meshIO.write(createStrip(51), source.getPath());
+            Assert.assertEquals(2 * 51, restarted.read(source.getPath()).faceCount());
+            Assert.assertEquals(1, reopened.missCount());
+            Assert.assertEquals(1, directory.listFiles().length);
+        } finally {
+            source.delete();
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testCorruptEntryIsReplaced() throws MeshIOException, IOException {
+        File directory = createCacheDirectory();
+        File source = File.createTempFile("source", ".obj");
+        try {
+            MeshIO meshIO = new MeshIO();
+            meshIO.write(createStrip(4), source.getPath());
+            DiskMeshCache cache = new DiskMeshCache(directory, 1 << 20);
+            meshIO.setDiskMeshCache(cache);
+            Mesh parsed = meshIO.read(source.getPath());
+            File entry = directory.listFiles()[0];
+            FileOutputStream fos = new FileOutputStream(entry);
+            fos.write(new byte[]{'M', 'S', 'H', 'C', 1, 0, 0, 0, 5});
+            fos.close();
+            assertMeshesEqual(parsed, meshIO.read(source.getPath()));
+            Assert.assertEquals(2, cache.missCount());
+            assertMeshesEqual(parsed, meshIO.read(source.getPath()));
+            Assert.assertEquals(1, cache.hitCount());
+        } finally {
+            source.delete();
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void testOversizedHeaderLengthsAreMisses() throws MeshIOException, IOException {
+        File directory = createCacheDirectory();
+        File source = File.createTempFile("source", ".obj");
+        try {
+            MeshIO meshIO = new MeshIO();
+            meshIO.write(createStrip(4), source.getPath());
+            DiskMeshCache cache = new DiskMeshCache(directory, 1 << 20);
+            meshIO.setDiskMeshCache(cache);
+            Mesh parsed = meshIO.read(source.getPath());
+
+            File entry = directory.listFiles()[0];
+            RandomAccessFile file = new RandomAccessFile(entry, "rw");
+            int pathLength = Integer.reverseBytes(readIntAt(file, 32));
+            // The length of the first column follows the path, the column and face counts and the column ordinal.
+            writeIntAt(file, 36 + pathLength + 12, Integer.reverseBytes(Integer.MAX_VALUE));
+            file.close();
+            assertMeshesEqual(parsed, meshIO.read(source.getPath()));
+            Assert.assertEquals(2, cache.missCount());
+
+            file = new RandomAccessFile(entry, "rw");
+            writeIntAt(file, 32, Integer.reverseBytes(Integer.MAX_VALUE));
+            file.close();
+            assertMeshesEqual(parsed, meshIO.read(source.getPath()));
+            Assert.assertEquals(3, cache.missCount());
+            assertMeshesEqual(parsed, meshIO.read(source.getPath()));
+            Assert.assertEquals(1, cache.hitCount());
+        } finally {
+            source.delete();
+            delete(directory);
+        }
+    }
+
+    private static int readIntAt(RandomAccessFile file, long position) throws IOException {
+        file.seek(position);
+        return file.readInt();
+    }
+
+    private static void writeIntAt(RandomAccessFile file, long position, int value) throws IOException {
+        file.seek(position);
+        file.writeInt(value);
+    }
+
+    @Test
+    public void testEvictsOldestEntriesPastLimit() throws MeshIOException, IOException {
+        File directory = createCacheDirectory();
+        File[] sources = new File[3];
+        try {
+            MeshIO meshIO = new MeshIO();
+            for (int index = 0; index < sources.length; index++) {
+                sources[index] = File.createTempFile("source", ".obj");
+                meshIO.write(createStrip(100), sources[index].getPath());
+            }
+            DiskMeshCache probe = new DiskMeshCache(new File(directory, "probe"), Long.MAX_VALUE);
+            final Mesh mesh = createStrip(100);
+            Callable<Mesh> loader = new Callable<Mesh>() {
+                @Override
+                public Mesh call() {
+                    return mesh;
+                }
+            };
+            probe.get(sources[0], loader);
+            long entryByteCount = probe.byteCount();
+
+            DiskMeshCache cache = new DiskMeshCache(directory, 2 * entryByteCount);
+            for (File source : sources) {
+                cache.get(source, loader);
+            }
+            Assert.assertTrue(cache.byteCount() <= 2 * entryByteCount);
+            Assert.assertTrue(cache.evictionCount() >= 1);
+        } finally {
+            for (File source : sources) {
+                if (source != null) {
+                    source.delete();
+                }
+            }
+            delete(directory);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.ripplargames.meshio.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.ripplargames.meshio.FrozenMesh;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIO;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MeshCacheTest {
+    private static Mesh createTriangle(float x) {
+        Mesh mesh = new Mesh();
+        for (int vertex = 0; vertex < 3; vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertex, x + vertex);
+            mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, vertex % 2);
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, 0);
+        }
+        mesh.appendFace(0, 1, 2);
+        return mesh;
+    }
+
+    private static Callable<FrozenMesh> loader(final AtomicInteger loadCount) {
+        return new Callable<FrozenMesh>() {
+            @Override
+            public FrozenMesh call() {
+                loadCount.incrementAndGet();
+                return createTriangle(loadCount.get()).freeze();
+            }
+        };
+    }
+
+    @Test
+    public void testReadThroughMeshIO() throws MeshIOException, IOException {
+        File file = File.createTempFile("meshcache", ".obj");
+        try {
+            MeshIO meshIO = new MeshIO();
+            meshIO.write(createTriangle(0), file.getPath());
+            MeshCache cache = new MeshCache(1 << 20);
+            meshIO.setMeshCache(cache);
+            FrozenMesh first = meshIO.readFrozen(file.getPath());
+            Assert.assertSame(first, meshIO.readFrozen(file.getPath()));
+            Mesh copy = meshIO.read(file.getPath());
+            Assert.assertEquals(2, copy.vertexTypeDatum(VertexType.Position_X, 2), 0);
+            copy.setVertexTypeDatum(VertexType.Position_X, 2, 9);
+            Assert.assertEquals(2, meshIO.read(file.getPath()).vertexTypeDatum(VertexType.Position_X, 2), 0);
+            Assert.assertEquals(1, cache.missCount());
+            Assert.assertEquals(3, cache.hitCount());
+
+            meshIO.write(createTriangle(10), file.getPath());
+            Assert.assertTrue(file.setLastModified(file.lastModified() + 2000));
+            Assert.assertEquals(12, meshIO.read(file.getPath()).vertexTypeDatum(VertexType.Position_X, 2), 0);
+            Assert.assertEquals(2, cache.missCount());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws MeshIOException {
+        long meshByteCount = createTriangle(0).freeze().estimatedByteCount();
+        MeshCache cache = new MeshCache(2 * meshByteCount);
+        AtomicInteger loadCount = new AtomicInteger();
+        MeshCacheKey a = new MeshCacheKey("a", 1, 1);
+        MeshCacheKey b = new MeshCacheKey("b", 1, 1);
+        MeshCacheKey c = new MeshCacheKey("c", 1, 1);
+        cache.get(a, loader(loadCount));
+        cache.get(b, loader(loadCount));
+        cache.get(a, loader(loadCount));
+        cache.get(c, loader(loadCount));
+        Assert.assertEquals(2, cache.entryCount());
+        Assert.assertEquals(1, cache.evictionCount());
+        Assert.assertEquals(2 * meshByteCount, cache.byteCount());
+        Assert.assertNotNull(cache.getIfPresent(a));
+        Assert.assertNull(cache.getIfPresent(b));
+        Assert.assertEquals(3, loadCount.get());
+
+        MeshCache tiny = new MeshCache(meshByteCount - 1);
+        tiny.get(a, loader(loadCount));
+        Assert.assertEquals(0, tiny.entryCount());
+        Assert.assertEquals(0, tiny.byteCount());
+    }
+
+    @Test
+    public void testOversizedMeshKeepsExistingEntries() throws MeshIOException {
+        long meshByteCount = createTriangle(0).freeze().estimatedByteCount();
+        MeshCache cache = new MeshCache(2 * meshByteCount);
+        AtomicInteger loadCount = new AtomicInteger();
+        MeshCacheKey a = new MeshCacheKey("a", 1, 1);
+        MeshCacheKey b = new MeshCacheKey("b", 1, 1);
+        cache.get(a, loader(loadCount));
+        cache.get(b, loader(loadCount));
+
+        final Mesh large = createTriangle(0);
+        large.setVertexTypeDatum(VertexType.Position_X, 100, 1);
+        FrozenMesh loaded = cache.get(new MeshCacheKey("large", 1, 1), new Callable<FrozenMesh>() {
+            @Override
+            public FrozenMesh call() {
+                return large.freeze();
+            }
+        });
+        Assert.assertTrue(loaded.estimatedByteCount() > cache.maxByteCount());
+        Assert.assertEquals(2, cache.entryCount());
+        Assert.assertEquals(0, cache.evictionCount());
+        Assert.assertEquals(2 * meshByteCount, cache.byteCount());
+        Assert.assertNotNull(cache.getIfPresent(a));
+        Assert.assertNotNull(cache.getIfPresent(b));
+    }
+
+    @Test
+    public void testConcurrentLoadsShareOneLoad() throws Exception {
+        final MeshCache cache = new MeshCache(1 << 20);
+        final MeshCacheKey key = new MeshCacheKey("shared", 1, 1);
+        final AtomicInteger loadCount = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Callable<FrozenMesh> slowLoader = new Callable<FrozenMesh>() {
+            @Override
+            public FrozenMesh call() throws InterruptedException {
+                loadCount.incrementAndGet();
+                started.countDown();
+                release.await();
+                return createTriangle(0).freeze();
+            }
+        };
+        int taskCount = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(taskCount);
+        try {
+            List<Future<FrozenMesh>> futures = new ArrayList<Future<FrozenMesh>>();
+            for (int task = 0; task < taskCount; task++) {
+                futures.add(executor.submit(new Callable<FrozenMesh>() {
+                    @Override
+                    public FrozenMesh call() throws MeshIOException {
+                        return cache.get(key, slowLoader);
+                    }
+                }));
+            }
+            started.await();
+            Thread.sleep(50);
+            release.countDown();
+            FrozenMesh mesh = futures.get(0).get();
+            for (Future<FrozenMesh> future : futures) {
+                Assert.assertSame(mesh, future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(1, loadCount.get());
+        Assert.assertEquals(1, cache.missCount());
+        Assert.assertEquals(taskCount - 1, cache.hitCount());
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() throws MeshIOException {
+        MeshCache cache = new MeshCache(1 << 20);
+        MeshCacheKey key = new MeshCacheKey("broken", 1, 1);
+        try {
+            cache.get(key, new Callable<FrozenMesh>() {
+                @Override
+                public FrozenMesh call() throws MeshIOException {
+                    throw new MeshIOException("broken");
+                }
+            });
+            Assert.fail("Expected the load to fail");
+        } catch (MeshIOException e) {
+            Assert.assertEquals("broken", e.getMessage());
+        }
+        AtomicInteger loadCount = new AtomicInteger();
+        Assert.assertNotNull(cache.get(key, loader(loadCount)));
+        Assert.assertEquals(1, loadCount.get());
+    }
+}
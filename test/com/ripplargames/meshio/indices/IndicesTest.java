@@ -3,16 +3,53 @@ package com.ripplargames.meshio.indices;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.ripplargames.meshio.Face;
 import com.ripplargames.meshio.Mesh;
 import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.TestUtil;
 import com.ripplargames.meshio.util.BufferUtil;
+import com.ripplargames.meshio.util.ResizableIntArray;
 import org.junit.Assert;
 import org.junit.Test;
 
 public class IndicesTest {
+    @Test
+    public void testElementsAreBuiltOncePerFaceChange() throws MeshIOException {
+        final int[] createCount = new int[1];
+        IMeshType meshType = new IMeshType() {
+            @Override
+            public int elementLength() {
+                return 3;
+            }
+
+            @Override
+            public void createElements(Mesh mesh, ResizableIntArray elements) throws MeshIOException {
+                createCount[0]++;
+                new TrianglesMeshType().createElements(mesh, elements);
+            }
+        };
+        Mesh mesh = TestUtil.createGrid(4);
+        Assert.assertEquals(3 * mesh.faceCount(), mesh.indexCount(meshType));
+        mesh.indices(meshType, new IntIndicesDataType());
+        mesh.indexChunks(meshType, new IntIndicesDataType(), 36);
+        Assert.assertEquals(1, createCount[0]);
+
+        mesh.indices(new TrianglesMeshType(), new IntIndicesDataType());
+        mesh.indexCount(meshType);
+        Assert.assertEquals(2, createCount[0]);
+
+        mesh.appendFace(0, 1, 2);
+        Assert.assertEquals(3 * mesh.faceCount(), mesh.indexCount(meshType));
+        Assert.assertEquals(3, createCount[0]);
+        mesh.setFaceIndices(0, new int[]{2, 1, 0}, 0, 3);
+        Assert.assertEquals(2, mesh.indices(meshType, new IntIndicesDataType()).getInt(0));
+        Assert.assertEquals(4, createCount[0]);
+    }
+
     @Test
     public void testTrianglesBytes() throws MeshIOException {
         test(new ByteIndicesDataType(), new TrianglesMeshType(), BufferUtil.with(new byte[0]), Collections.<Face>emptyList());
@@ -61,6 +98,139 @@ public class IndicesTest {
         test(new IntIndicesDataType(), new LinesMeshType(), BufferUtil.with(new int[]{0, 1, 1, 2, 2, 0, 10, 11, 11, 12, 12, 10}), Arrays.asList(new Face(0, 1, 2), new Face(10, 11, 12)));
     }
 
+    @Test
+    public void testLinesSharedEdges() throws MeshIOException {
+        test(new IntIndicesDataType(), new LinesMeshType(), BufferUtil.with(new int[]{0, 1, 1, 2, 2, 0, 1, 3, 3, 2}), Arrays.asList(new Face(0, 1, 2), new Face(2, 1, 3)));
+        test(new IntIndicesDataType(), new LinesMeshType(), BufferUtil.with(new int[]{0, 1, 1, 2, 2, 0}), Arrays.asList(new Face(0, 1, 2), new Face(0, 1, 2)));
+    }
+
+    @Test
+    public void testTrianglesAdjacency() throws MeshIOException {
+        test(new IntIndicesDataType(), new TrianglesAdjacencyMeshType(), BufferUtil.with(new int[0]), Collections.<Face>emptyList());
+        test(new IntIndicesDataType(), new TrianglesAdjacencyMeshType(), BufferUtil.with(new int[]{0, 2, 1, 0, 2, 1}), Arrays.asList(new Face(0, 1, 2)));
+        test(new ShortIndicesDataType(), new TrianglesAdjacencyMeshType(), BufferUtil.with(new short[]{0, 2, 1, 3, 2, 1, 2, 0, 1, 2, 3, 1}),
+                Arrays.asList(new Face(0, 1, 2), new Face(2, 1, 3), new Face(0, 1, 2)));
+    }
+
+    @Test
+    public void testTriangleStrips() throws MeshIOException {
+        test(new ByteIndicesDataType(), new TriangleStripMeshType(), BufferUtil.with(new byte[]{0, 1, 2, 3}), Arrays.asList(new Face(0, 1, 2), new Face(2, 1, 3)));
+        test(new ByteIndicesDataType(), new TriangleStripMeshType(), BufferUtil.with(new byte[]{0, 1, 2, (byte) 0xFF, 10, 11, 12}), Arrays.asList(new Face(0, 1, 2), new Face(10, 11, 12)));
+        test(new ShortIndicesDataType(), new TriangleStripMeshType(), BufferUtil.with(new short[]{0, 1, 2, (short) 0xFFFF, 10, 11, 12}), Arrays.asList(new Face(0, 1, 2), new Face(10, 11, 12)));
+        test(new IntIndicesDataType(), new TriangleStripMeshType(), BufferUtil.with(new int[]{0, 1, 2, 0xFFFFFFFF, 10, 11, 12}), Arrays.asList(new Face(0, 1, 2), new Face(10, 11, 12)));
+        test(new IntIndicesDataType(), new TriangleStripMeshType(false), BufferUtil.with(new int[]{0, 1, 2, 2, 10, 10, 10, 11, 12}), Arrays.asList(new Face(0, 1, 2), new Face(10, 11, 12)));
+    }
+
+    @Test
+    public void testTriangleStripsKeepFaces() throws MeshIOException {
+        Mesh mesh = TestUtil.createGrid(21);
+        Set<List<Integer>> faces = new HashSet<List<Integer>>();
+        for (Face face : mesh.faces()) {
+            faces.add(canonicalFace(face.getV0(), face.getV1(), face.getV2()));
+        }
+        for (boolean primitiveRestart : new boolean[]{true, false}) {
+            TriangleStripMeshType meshType = new TriangleStripMeshType(primitiveRestart);
+            ByteBuffer buffer = mesh.indices(meshType, new IntIndicesDataType());
+            Assert.assertEquals(buffer.capacity() / 4, mesh.indexCount(meshType));
+            Assert.assertTrue(buffer.capacity() / 4 < 3 * mesh.faceCount() / 2);
+            Set<List<Integer>> stripFaces = new HashSet<List<Integer>>();
+            addStripFaces(buffer, stripFaces);
+            Assert.assertEquals(faces, stripFaces);
+
+            for (int maxChunkByteCount : new int[]{16, 28, 100, 1000}) {
+                Set<List<Integer>> chunkFaces = new HashSet<List<Integer>>();
+                for (ByteBuffer chunk : mesh.indexChunks(meshType, new IntIndicesDataType(), maxChunkByteCount)) {
+                    Assert.assertTrue(chunk.capacity() <= maxChunkByteCount);
+                    addStripFaces(chunk, chunkFaces);
+                }
+                Assert.assertEquals(faces, chunkFaces);
+            }
+        }
+    }
+
+    /**
+     * Decodes an int strip buffer as it would be drawn on its own, skipping degenerate triangles.
+     */
+    private static void addStripFaces(ByteBuffer buffer, Set<List<Integer>> stripFaces) {
+        int[] strip = new int[buffer.capacity() / 4];
+        buffer.asIntBuffer().get(strip);
+        int stripStart = 0;
+        for (int index = 2; index < strip.length; index++) {
+            if (strip[index] == TriangleStripMeshType.PRIMITIVE_RESTART) {
+                stripStart = index + 1;
+                index += 2;
+                continue;
+            }
+            int a = strip[index - 2];
+            int b = strip[index - 1];
+            int c = strip[index];
+            if (a == b || b == c || c == a) {
+                continue;
+            }
+            stripFaces.add(((index - 2 - stripStart) % 2 == 0) ? canonicalFace(a, b, c) : canonicalFace(b, a, c));
+        }
+    }
+
+    @Test
+    public void testUnsignedTypes() throws MeshIOException {
+        test(new UnsignedByteIndicesDataType(), new TrianglesMeshType(), BufferUtil.with(new byte[]{0, 1, (byte) 200}), Arrays.asList(new Face(0, 1, 200)));
+        test(new UnsignedShortIndicesDataType(), new TrianglesMeshType(), BufferUtil.with(new short[]{0, 1, (short) 60000}), Arrays.asList(new Face(0, 1, 60000)));
+        test(new UnsignedIntIndicesDataType(), new TrianglesMeshType(), BufferUtil.with(new int[]{0, 1, 100000}), Arrays.asList(new Face(0, 1, 100000)));
+        test(new UnsignedShortIndicesDataType(), new TriangleStripMeshType(), BufferUtil.with(new short[]{0, 1, 2, (short) 0xFFFF, 10, 11, 12}), Arrays.asList(new Face(0, 1, 2), new Face(10, 11, 12)));
+    }
+
+    @Test(expected = MeshIOException.class)
+    public void testUnsignedShortOverflow() throws MeshIOException {
+        new UnsignedShortIndicesDataType().toByteBuffer(new int[]{0, 0x10000});
+    }
+
+    @Test(expected = MeshIOException.class)
+    public void testUnsignedShortRejectsRestartValue() throws MeshIOException {
+        new UnsignedShortIndicesDataType().toByteBuffer(new int[]{0, 1, 0xFFFF});
+    }
+
+    @Test(expected = MeshIOException.class)
+    public void testUnsignedByteRejectsRestartValue() throws MeshIOException {
+        new UnsignedByteIndicesDataType().toByteBuffer(new int[]{0, 1, 0xFF});
+    }
+
+    @Test(expected = MeshIOException.class)
+    public void testUnsignedIntRejectsNegative() throws MeshIOException {
+        new UnsignedIntIndicesDataType().toByteBuffer(new int[]{-2});
+    }
+
+    @Test
+    public void testToByteBuffer() throws MeshIOException {
+        int[] indices = {0, 1, 2, 100, 7};
+        Assert.assertEquals(BufferUtil.with(new byte[]{0, 1, 2, 100, 7}), new ByteIndicesDataType().toByteBuffer(indices));
+        Assert.assertEquals(BufferUtil.with(new short[]{0, 1, 2, 100, 7}), new ShortIndicesDataType().toByteBuffer(indices));
+        Assert.assertEquals(BufferUtil.with(new int[]{0, 1, 2, 100, 7}), new IntIndicesDataType().toByteBuffer(indices));
+        Assert.assertEquals(BufferUtil.with(new short[]{0, 1, 2, 100, 7}), new UnsignedShortIndicesDataType().toByteBuffer(indices));
+    }
+
+    @Test
+    public void testSmallestFor() throws MeshIOException {
+        Assert.assertEquals(new UnsignedByteIndicesDataType(), AIndicesDataType.smallestFor(0xFF));
+        Assert.assertEquals(new UnsignedShortIndicesDataType(), AIndicesDataType.smallestFor(0x100));
+        Assert.assertEquals(new UnsignedShortIndicesDataType(), AIndicesDataType.smallestFor(0xFFFF));
+        Assert.assertEquals(new UnsignedIntIndicesDataType(), AIndicesDataType.smallestFor(0x10000));
+
+        Mesh mesh = new Mesh();
+        mesh.appendFace(0, 1, 0xFF);
+        Assert.assertEquals(new UnsignedShortIndicesDataType(), mesh.smallestIndicesDataType());
+        Assert.assertEquals(BufferUtil.with(new short[]{0, 1, 0xFF}), mesh.indices(new TrianglesMeshType()));
+    }
+
+    private static List<Integer> canonicalFace(int v0, int v1, int v2) {
+        if (v1 < v0 && v1 < v2) {
+            return Arrays.asList(v1, v2, v0);
+        }
+        if (v2 < v0 && v2 < v1) {
+            return Arrays.asList(v2, v0, v1);
+        }
+        return Arrays.asList(v0, v1, v2);
+    }
+
     private void test(IndicesDataType dataType, IMeshType meshType, ByteBuffer expectedBuffer, List<Face> facesIndices) throws MeshIOException {
         Mesh mesh = new Mesh();
         for (Face face : facesIndices) {
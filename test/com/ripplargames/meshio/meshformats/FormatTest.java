@@ -3,6 +3,7 @@ package com.ripplargames.meshio.meshformats;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Random;
 
@@ -10,6 +11,8 @@ import com.ripplargames.meshio.Face;
 import com.ripplargames.meshio.IMeshFormat;
 import com.ripplargames.meshio.Mesh;
 import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.MeshStatsSink;
+import com.ripplargames.meshio.TestUtil;
 import com.ripplargames.meshio.meshformats.mbmsh.MbMshFormat;
 import com.ripplargames.meshio.meshformats.obj.ObjFormat;
 import com.ripplargames.meshio.meshformats.ply.PlyFormatAscii_1_0;
@@ -30,24 +33,75 @@ public class FormatTest {
         formats.add(new PlyFormatBinaryLittleEndian_1_0());
         formats.add(new MbMshFormat());
         formats.add(new ObjFormat());
-        testFormats(formats);
+        // Tangents are only carried by PLY.
+        testFormats(formats, EnumSet.range(VertexType.Position_X, VertexType.ImageCoord_Y));
     }
 
-    private void testFormats(List<IMeshFormat> formats) throws MeshIOException {
-        Mesh meshWritten = createRandomMesh();
+    @Test
+    public void testPlyTangents() throws MeshIOException {
+        List<IMeshFormat> formats = new ArrayList<IMeshFormat>();
+        formats.add(new PlyFormatAscii_1_0());
+        formats.add(new PlyFormatBinaryBigEndian_1_0());
+        formats.add(new PlyFormatBinaryLittleEndian_1_0());
+        testFormats(formats, EnumSet.allOf(VertexType.class));
+    }
+
+    @Test
+    public void testStreamingInBatches() throws MeshIOException {
+        Mesh meshWritten = TestUtil.createGrid(100);
+        List<IMeshFormat> formats = new ArrayList<IMeshFormat>();
+        formats.add(new PlyFormatAscii_1_0());
+        formats.add(new PlyFormatBinaryLittleEndian_1_0());
+        formats.add(new MbMshFormat());
+        formats.add(new ObjFormat());
+        for (IMeshFormat meshFormat : formats) {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            meshFormat.write(meshWritten, baos);
+            byte[] buffer = baos.toByteArray();
+
+            MeshStatsSink stats = new MeshStatsSink();
+            meshFormat.read(new ByteArrayInputStream(buffer), stats);
+            String extension = meshFormat.getFileExtension();
+            Assert.assertEquals(extension, meshWritten.faceCount(), stats.faceCount());
+            Assert.assertEquals(extension, meshWritten.vertexTypes(), stats.vertexTypes());
+            Assert.assertEquals(extension, meshWritten.boundingBox(), stats.boundingBox());
+
+            Assert.assertEquals(extension, meshWritten.vertexCount(), stats.vertexCount());
+            if (!(meshFormat instanceof ObjFormat)) {
+                // OBJ renumbers the vertices in the order the faces first use them.
+                checkMeshes(meshFormat, meshWritten, meshFormat.read(new ByteArrayInputStream(buffer)));
+            }
+        }
+    }
+
+    @Test(expected = MeshIOException.class)
+    public void testMbMshNegativeVertexCount() throws MeshIOException {
+        byte[] buffer = {'M', 'B', 'M', 'S', 'H', 0, 1, 0, 0, -1, -1, -1, -1};
+        new MbMshFormat().read(new ByteArrayInputStream(buffer));
+    }
+
+    @Test(expected = MeshIOException.class)
+    public void testPlyNegativeFaceCount() throws MeshIOException {
+        String header = "ply\nformat ascii 1.0\nelement vertex 0\nproperty float x\n"
+                + "element face -3\nproperty list uchar int vertex_indices\nend_header\n";
+        new PlyFormatAscii_1_0().read(new ByteArrayInputStream(header.getBytes()));
+    }
+
+    private void testFormats(List<IMeshFormat> formats, EnumSet<VertexType> vertexTypes) throws MeshIOException {
+        Mesh meshWritten = createRandomMesh(vertexTypes);
         for (IMeshFormat meshFormat : formats) {
             testFormatIndices(meshWritten, meshFormat);
         }
     }
 
-    private Mesh createRandomMesh() {
+    private Mesh createRandomMesh(EnumSet<VertexType> vertexTypes) {
         Random random = new Random();
         Mesh mesh = new Mesh();
         int vertices = 4;
         mesh.appendFace(new Face(0, 1, 2));
         mesh.appendFace(new Face(1, 2, 3));
         for (int i = 0; i < vertices; i++) {
-            for (VertexType vertexType : VertexType.values()) {
+            for (VertexType vertexType : vertexTypes) {
                 float set = random.nextInt(3) - 1; // -1, 0, 1
                 mesh.setVertexTypeDatum(vertexType, i, set);
                 float get = mesh.vertexTypeDatum(vertexType, i);
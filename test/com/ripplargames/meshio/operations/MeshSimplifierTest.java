@@ -0,0 +1,187 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.ripplargames.meshio.Face;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MeshSimplifierTest {
+    @Test
+    public void testSimplifyToTargetFaceCount() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(32);
+        Mesh simplified = new MeshSimplifier(mesh).simplify(mesh.faceCount() / 4, Float.MAX_VALUE);
+        Assert.assertTrue(simplified.faceCount() <= mesh.faceCount() / 4);
+        Assert.assertTrue(simplified.faceCount() > 0);
+        Assert.assertTrue(simplified.isValid());
+        Assert.assertTrue(simplified.vertexCount() < mesh.vertexCount());
+        assertCornersKept(simplified, 32);
+    }
+
+    @Test
+    public void testPlanarMeshCollapsesWithoutError() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(16);
+        for (int vertex = 0; vertex < mesh.vertexCount(); vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, 0);
+        }
+        Mesh simplified = new MeshSimplifier(mesh).simplify(0, 0);
+        Assert.assertTrue(simplified.faceCount() < mesh.faceCount() / 2);
+        assertCornersKept(simplified, 16);
+    }
+
+    @Test
+    public void testMaxErrorStopsSimplification() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(16);
+        mesh.setVertexTypeDatum(VertexType.Position_Z, 8 * 17 + 8, 10);
+        Mesh simplified = new MeshSimplifier(mesh).simplify(0, 0.001f);
+        boolean peakKept = false;
+        for (int vertex = 0; vertex < simplified.vertexCount(); vertex++) {
+            peakKept |= simplified.vertexTypeDatum(VertexType.Position_Z, vertex) == 10;
+        }
+        Assert.assertTrue(peakKept);
+    }
+
+    @Test
+    public void testSeamsAreKept() throws MeshIOException {
+        Mesh mesh = new Mesh();
+        float[][] positions = {{0, 0}, {1, 0}, {2, 0}, {0, 1}, {1, 1}, {2, 1}, {0, 2}, {1, 2}, {2, 2}, {1, 1}};
+        for (int vertex = 0; vertex < positions.length; vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertex, positions[vertex][0]);
+            mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, positions[vertex][1]);
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, 0);
+            mesh.setVertexTypeDatum(VertexType.Color_R, vertex, vertex == 9 ? 1 : 0);
+        }
+        mesh.appendFace(0, 1, 3);
+        mesh.appendFace(3, 1, 4);
+        mesh.appendFace(1, 2, 4);
+        mesh.appendFace(4, 2, 5);
+        mesh.appendFace(3, 9, 6);
+        mesh.appendFace(6, 9, 7);
+        mesh.appendFace(9, 5, 7);
+        mesh.appendFace(7, 5, 8);
+        Mesh simplified = new MeshSimplifier(mesh).simplify(0, Float.MAX_VALUE);
+        Assert.assertEquals(mesh.faceCount(), simplified.faceCount());
+    }
+
+    @Test
+    public void testSeamsCollapseAlongTheSeam() throws MeshIOException {
+        Mesh mesh = createSeamGrid(6, 1);
+        Mesh simplified = new MeshSimplifier(mesh).simplify(0, 0);
+        Assert.assertTrue(simplified.faceCount() < mesh.faceCount());
+        Assert.assertTrue(simplified.isValid());
+        Set<Float> leftSeam = new HashSet<Float>();
+        Set<Float> rightSeam = new HashSet<Float>();
+        for (Face face : simplified.faces()) {
+            float color = simplified.vertexTypeDatum(VertexType.Color_R, face.getV0());
+            for (int vertex : new int[]{face.getV0(), face.getV1(), face.getV2()}) {
+                Assert.assertEquals(color, simplified.vertexTypeDatum(VertexType.Color_R, vertex), 0.0f);
+                if (simplified.vertexTypeDatum(VertexType.Position_X, vertex) == 3) {
+                    (color == 0 ? leftSeam : rightSeam).add(simplified.vertexTypeDatum(VertexType.Position_Y, vertex));
+                }
+            }
+        }
+        Assert.assertEquals(leftSeam, rightSeam);
+        Assert.assertTrue(leftSeam.size() < 7);
+    }
+
+    @Test
+    public void testIdenticalDuplicatesAreNotSeams() throws MeshIOException {
+        Mesh mesh = createSeamGrid(6, 0);
+        Mesh simplified = new MeshSimplifier(mesh).simplify(0, 0);
+        for (int vertex = 0; vertex < simplified.vertexCount(); vertex++) {
+            float x = simplified.vertexTypeDatum(VertexType.Position_X, vertex);
+            float y = simplified.vertexTypeDatum(VertexType.Position_Y, vertex);
+            Assert.assertFalse(x == 3 && y > 0 && y < 6);
+        }
+    }
+
+    @Test
+    public void testLinkConditionKeepsClosedMeshes() throws MeshIOException {
+        Mesh mesh = new Mesh();
+        float[][] positions = {{0, 0, 1}, {0, 0, -1}, {1, 0, 0}, {-0.5f, 0.866f, 0}, {-0.5f, -0.866f, 0}};
+        for (int vertex = 0; vertex < positions.length; vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertex, positions[vertex][0]);
+            mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, positions[vertex][1]);
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, positions[vertex][2]);
+        }
+        mesh.appendFace(0, 2, 3);
+        mesh.appendFace(0, 3, 4);
+        mesh.appendFace(0, 4, 2);
+        mesh.appendFace(1, 3, 2);
+        mesh.appendFace(1, 4, 3);
+        mesh.appendFace(1, 2, 4);
+        Mesh simplified = new MeshSimplifier(mesh).simplify(0, Float.MAX_VALUE);
+        Assert.assertEquals(4, simplified.faceCount());
+        Assert.assertTrue(simplified.isValid());
+    }
+
+    /**
+     * Creates a flat size by size grid whose middle column is split, the vertices right of the split have the given
+     * red value and the ones left of it zero.
+     */
+    private static Mesh createSeamGrid(int size, float rightColor) {
+        Mesh mesh = new Mesh();
+        int half = size / 2;
+        int rowLength = size + 1;
+        for (int y = 0; y <= size; y++) {
+            for (int x = 0; x <= size; x++) {
+                setVertex(mesh, y * rowLength + x, x, y, (x > half) ? rightColor : 0);
+            }
+            setVertex(mesh, rowLength * rowLength + y, half, y, rightColor);
+        }
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int v00 = seamGridVertex(x, y, x, half, rowLength);
+                int v10 = seamGridVertex(x + 1, y, x, half, rowLength);
+                int v01 = seamGridVertex(x, y + 1, x, half, rowLength);
+                int v11 = seamGridVertex(x + 1, y + 1, x, half, rowLength);
+                mesh.appendFace(v00, v10, v01);
+                mesh.appendFace(v10, v11, v01);
+            }
+        }
+        return mesh;
+    }
+
+    private static int seamGridVertex(int x, int y, int cellX, int half, int rowLength) {
+        return (x == half && cellX >= half) ? rowLength * rowLength + y : y * rowLength + x;
+    }
+
+    private static void setVertex(Mesh mesh, int vertex, float x, float y, float red) {
+        mesh.setVertexTypeDatum(VertexType.Position_X, vertex, x);
+        mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, y);
+        mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, 0);
+        mesh.setVertexTypeDatum(VertexType.Color_R, vertex, red);
+    }
+
+    @Test
+    public void testCreateLods() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(32);
+        List<Mesh> lods = new MeshSimplifier(mesh).createLods(3, 0.5f, Float.MAX_VALUE);
+        Assert.assertEquals(3, lods.size());
+        int previousFaceCount = mesh.faceCount();
+        for (Mesh lod : lods) {
+            Assert.assertTrue(lod.faceCount() <= previousFaceCount / 2);
+            Assert.assertTrue(lod.isValid());
+            previousFaceCount = lod.faceCount();
+        }
+    }
+
+    private static void assertCornersKept(Mesh mesh, int size) {
+        int cornerCount = 0;
+        for (Face face : mesh.faces()) {
+            for (int vertex : new int[]{face.getV0(), face.getV1(), face.getV2()}) {
+                float x = mesh.vertexTypeDatum(VertexType.Position_X, vertex);
+                float y = mesh.vertexTypeDatum(VertexType.Position_Y, vertex);
+                if ((x == 0 || x == size) && (y == 0 || y == size)) {
+                    cornerCount++;
+                }
+            }
+        }
+        Assert.assertTrue(cornerCount >= 4);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ripplargames.meshio.operations;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.ripplargames.meshio.Face;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.indices.ShortIndicesDataType;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MeshSplitterTest {
+    @Test
+    public void testSubmeshesCoverAllFaces() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(100);
+        int maxVertices = 1000;
+        List<Submesh> submeshes = new MeshSplitter(maxVertices).split(mesh);
+
+        Set<Face> faces = new HashSet<Face>();
+        int faceCount = 0;
+        int vertexCount = 0;
+        for (Submesh submesh : submeshes) {
+            Assert.assertTrue(submesh.vertexCount() <= maxVertices);
+            Assert.assertEquals(submesh.vertexCount(), submesh.mesh().vertexCount());
+            for (Face face : submesh.mesh().faces()) {
+                faces.add(new Face(submesh.originalVertex(face.getV0()), submesh.originalVertex(face.getV1()), submesh.originalVertex(face.getV2())));
+            }
+            for (int localVertex = 0; localVertex < submesh.vertexCount(); localVertex++) {
+                int vertex = submesh.originalVertex(localVertex);
+                Assert.assertEquals(mesh.vertexTypeDatum(VertexType.Position_X, vertex), submesh.mesh().vertexTypeDatum(VertexType.Position_X, localVertex), 0);
+            }
+            ByteBuffer indices = submesh.indices(new ShortIndicesDataType());
+            Assert.assertEquals(2 * 3 * submesh.faceCount(), indices.capacity());
+            faceCount += submesh.faceCount();
+            vertexCount += submesh.vertexCount();
+        }
+        Assert.assertEquals(mesh.faceCount(), faceCount);
+        Assert.assertEquals(new HashSet<Face>(mesh.faces()), faces);
+        Assert.assertTrue(submeshes.size() < 2 * mesh.vertexCount() / maxVertices);
+        Assert.assertTrue("Duplicated vertices: " + (vertexCount - mesh.vertexCount()), vertexCount < 1.3 * mesh.vertexCount());
+    }
+
+    @Test
+    public void testSmallMeshStaysWhole() {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(10);
+        List<Submesh> submeshes = new MeshSplitter().split(mesh);
+        Assert.assertEquals(1, submeshes.size());
+        Assert.assertEquals(mesh.faceCount(), submeshes.get(0).faceCount());
+        Assert.assertEquals(mesh.vertexCount(), submeshes.get(0).vertexCount());
+    }
+}
@@ -0,0 +1,75 @@
+package com.ripplargames.meshio.operations;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.ripplargames.meshio.Face;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.indices.IntIndicesDataType;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MeshletBuilderTest {
+    @Test
+    public void testMeshletsCoverAllFaces() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(40);
+        new VertexCacheOptimizer().optimize(mesh);
+        Meshlets meshlets = new MeshletBuilder().build(mesh);
+
+        Set<Face> faces = new HashSet<Face>();
+        int triangleCount = 0;
+        for (int meshlet = 0; meshlet < meshlets.meshletCount(); meshlet++) {
+            Assert.assertTrue(meshlets.vertexCount(meshlet) <= MeshletBuilder.DEFAULT_MAX_VERTICES);
+            Assert.assertTrue(meshlets.triangleCount(meshlet) <= MeshletBuilder.DEFAULT_MAX_TRIANGLES);
+            Assert.assertEquals(triangleCount, meshlets.triangleOffset(meshlet));
+            for (int triangle = 0; triangle < meshlets.triangleCount(meshlet); triangle++) {
+                faces.add(new Face(meshlets.vertex(meshlet, triangle, 0), meshlets.vertex(meshlet, triangle, 1), meshlets.vertex(meshlet, triangle, 2)));
+            }
+            triangleCount += meshlets.triangleCount(meshlet);
+        }
+        Assert.assertEquals(mesh.faceCount(), triangleCount);
+        Assert.assertEquals(new HashSet<Face>(mesh.faces()), faces);
+        Assert.assertTrue(meshlets.meshletCount() < 2 * mesh.faceCount() / MeshletBuilder.DEFAULT_MAX_TRIANGLES);
+    }
+
+    @Test
+    public void testBounds() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(20);
+        Meshlets meshlets = new MeshletBuilder(32, 32).build(mesh);
+        for (int meshlet = 0; meshlet < meshlets.meshletCount(); meshlet++) {
+            float radius = meshlets.bound(meshlet, 3);
+            for (int triangle = 0; triangle < meshlets.triangleCount(meshlet); triangle++) {
+                for (int corner = 0; corner < 3; corner++) {
+                    int vertex = meshlets.vertex(meshlet, triangle, corner);
+                    float dx = mesh.vertexTypeDatum(VertexType.Position_X, vertex) - meshlets.bound(meshlet, 0);
+                    float dy = mesh.vertexTypeDatum(VertexType.Position_Y, vertex) - meshlets.bound(meshlet, 1);
+                    float dz = mesh.vertexTypeDatum(VertexType.Position_Z, vertex) - meshlets.bound(meshlet, 2);
+                    Assert.assertTrue(Math.sqrt(dx * dx + dy * dy + dz * dz) <= radius * 1.0001f);
+                }
+            }
+            Assert.assertTrue(meshlets.bound(meshlet, 6) > 0.9f);
+            Assert.assertTrue(meshlets.bound(meshlet, 7) < 0.5f);
+        }
+    }
+
+    @Test
+    public void testBuffers() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(8);
+        Meshlets meshlets = new MeshletBuilder().build(mesh);
+        int meshletCount = meshlets.meshletCount();
+        Assert.assertEquals(meshletCount * Meshlets.DESCRIPTOR_LENGTH * 4, meshlets.descriptors().capacity());
+        Assert.assertEquals(meshletCount * Meshlets.BOUNDS_LENGTH * 4, meshlets.bounds().capacity());
+        Assert.assertEquals(3 * mesh.faceCount(), meshlets.triangles().capacity());
+        ByteBuffer vertices = meshlets.vertices(new IntIndicesDataType());
+        int lastMeshlet = meshletCount - 1;
+        Assert.assertEquals(4 * (meshlets.vertexOffset(lastMeshlet) + meshlets.vertexCount(lastMeshlet)), vertices.capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyVertices() {
+        new MeshletBuilder(257, 124);
+    }
+}
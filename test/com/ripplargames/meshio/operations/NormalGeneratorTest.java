@@ -0,0 +1,108 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NormalGeneratorTest {
+    @Test
+    public void testSmoothNormalsOfPlane() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(8);
+        for (int vertex = 0; vertex < mesh.vertexCount(); vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, 2);
+        }
+        for (NormalWeighting weighting : NormalWeighting.values()) {
+            new NormalGenerator(weighting).generateSmooth(mesh);
+            for (int vertex = 0; vertex < mesh.vertexCount(); vertex++) {
+                Assert.assertEquals(0, mesh.vertexTypeDatum(VertexType.Normal_X, vertex), 1e-6f);
+                Assert.assertEquals(0, mesh.vertexTypeDatum(VertexType.Normal_Y, vertex), 1e-6f);
+                Assert.assertEquals(1, mesh.vertexTypeDatum(VertexType.Normal_Z, vertex), 1e-6f);
+            }
+        }
+    }
+
+    @Test
+    public void testAngleWeighting() throws MeshIOException {
+        Mesh mesh = new Mesh();
+        float[][] positions = {{0, 0, 0}, {1, 0, 0}, {0, 1, 0}, {0, 0, 1}, {0, -1, 0}};
+        for (int vertex = 0; vertex < positions.length; vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertex, positions[vertex][0]);
+            mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, positions[vertex][1]);
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, positions[vertex][2]);
+        }
+        // two faces in the z = 0 plane and one in the x = 0 plane meet at the origin, all with right angles there
+        mesh.appendFace(0, 1, 2);
+        mesh.appendFace(0, 4, 1);
+        mesh.appendFace(0, 3, 4);
+        new NormalGenerator(NormalWeighting.Angle).generateSmooth(mesh);
+        float x = mesh.vertexTypeDatum(VertexType.Normal_X, 0);
+        float z = mesh.vertexTypeDatum(VertexType.Normal_Z, 0);
+        Assert.assertEquals(2 * x, z, 1e-6f);
+    }
+
+    @Test
+    public void testFlatNormals() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(4);
+        mesh.setVertexTypeDatum(VertexType.Color_R, mesh.vertexCount() - 1, 0.5f);
+        int faceCount = mesh.faceCount();
+        new NormalGenerator().generateFlat(mesh);
+        Assert.assertEquals(3 * faceCount, mesh.vertexCount());
+        Assert.assertTrue(mesh.isValid());
+        for (int face = 0; face < faceCount; face++) {
+            for (VertexType vertexType : new VertexType[]{VertexType.Normal_X, VertexType.Normal_Y, VertexType.Normal_Z}) {
+                float value = mesh.vertexTypeDatum(vertexType, 3 * face);
+                Assert.assertEquals(value, mesh.vertexTypeDatum(vertexType, 3 * face + 1), 0);
+                Assert.assertEquals(value, mesh.vertexTypeDatum(vertexType, 3 * face + 2), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testTangents() throws MeshIOException {
+        Mesh mesh = VertexCacheOptimizerTest.createShuffledGrid(8);
+        for (int vertex = 0; vertex < mesh.vertexCount(); vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, 0);
+            mesh.setVertexTypeDatum(VertexType.ImageCoord_X, vertex, mesh.vertexTypeDatum(VertexType.Position_X, vertex) / 8);
+            mesh.setVertexTypeDatum(VertexType.ImageCoord_Y, vertex, -mesh.vertexTypeDatum(VertexType.Position_Y, vertex) / 8);
+        }
+        new NormalGenerator().generateSmooth(mesh);
+        new TangentGenerator().generate(mesh);
+        for (int vertex = 0; vertex < mesh.vertexCount(); vertex++) {
+            Assert.assertEquals(1, mesh.vertexTypeDatum(VertexType.Tangent_X, vertex), 1e-6f);
+            Assert.assertEquals(0, mesh.vertexTypeDatum(VertexType.Tangent_Y, vertex), 1e-6f);
+            Assert.assertEquals(0, mesh.vertexTypeDatum(VertexType.Tangent_Z, vertex), 1e-6f);
+            // the bitangent follows +v, which points along -y, so the frame is left handed
+            Assert.assertEquals(-1, mesh.vertexTypeDatum(VertexType.Tangent_W, vertex), 0);
+        }
+    }
+
+    @Test
+    public void testParallelMatchesSequential() throws MeshIOException {
+        Mesh sequential = VertexCacheOptimizerTest.createShuffledGrid(200);
+        Mesh parallel = VertexCacheOptimizerTest.createShuffledGrid(200);
+        for (Mesh mesh : new Mesh[]{sequential, parallel}) {
+            for (int vertex = 0; vertex < mesh.vertexCount(); vertex++) {
+                mesh.setVertexTypeDatum(VertexType.ImageCoord_X, vertex, mesh.vertexTypeDatum(VertexType.Position_X, vertex));
+                mesh.setVertexTypeDatum(VertexType.ImageCoord_Y, vertex, mesh.vertexTypeDatum(VertexType.Position_Y, vertex));
+            }
+        }
+        new NormalGenerator().generateSmooth(sequential);
+        new TangentGenerator().generate(sequential);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            new NormalGenerator().generateSmooth(parallel, executor);
+            new TangentGenerator().generate(parallel, executor);
+        } finally {
+            executor.shutdown();
+        }
+        for (VertexType vertexType : new VertexType[]{VertexType.Normal_X, VertexType.Normal_Y, VertexType.Normal_Z,
+                VertexType.Tangent_X, VertexType.Tangent_Y, VertexType.Tangent_Z, VertexType.Tangent_W}) {
+            Assert.assertArrayEquals(sequential.vertexTypeData(vertexType).copyArray(), parallel.vertexTypeData(vertexType).copyArray(), 0);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.ripplargames.meshio.Face;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VertexCacheOptimizerTest {
+    @Test
+    public void testAcmr() {
+        Mesh mesh = new Mesh();
+        mesh.appendFace(0, 1, 2);
+        mesh.appendFace(3, 4, 5);
+        mesh.appendFace(0, 1, 2);
+        Assert.assertEquals(2.0, VertexCacheOptimizer.acmr(mesh, 16), 0.0);
+        Assert.assertEquals(3.0, VertexCacheOptimizer.acmr(mesh, 3), 0.0);
+    }
+
+    @Test
+    public void testOptimizeShuffledGrid() throws MeshIOException {
+        Mesh mesh = createShuffledGrid(64);
+        Set<Face> facesBefore = new HashSet<Face>(mesh.faces());
+        VertexCacheReport report = new VertexCacheOptimizer().optimize(mesh);
+        Assert.assertEquals(facesBefore, new HashSet<Face>(mesh.faces()));
+        Assert.assertTrue(report.toString(), report.acmrAfter() < report.acmrBefore());
+        Assert.assertTrue(report.toString(), report.acmrAfter() < 1.0);
+
+        VertexCacheReport overdrawReport = new VertexCacheOptimizer().optimizeOverdraw(mesh, 1.05f);
+        Assert.assertEquals(facesBefore, new HashSet<Face>(mesh.faces()));
+        Assert.assertTrue(overdrawReport.toString(), overdrawReport.acmrAfter() <= report.acmrAfter() * 1.05);
+    }
+
+    static Mesh createShuffledGrid(int size) {
+        Mesh mesh = new Mesh();
+        for (int y = 0; y <= size; y++) {
+            for (int x = 0; x <= size; x++) {
+                int vertex = y * (size + 1) + x;
+                mesh.setVertexTypeDatum(VertexType.Position_X, vertex, x);
+                mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, y);
+                mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, (float) Math.sin(x * 0.1) * (float) Math.cos(y * 0.1));
+            }
+        }
+        List<Face> faces = new ArrayList<Face>();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int v0 = y * (size + 1) + x;
+                int v1 = v0 + 1;
+                int v2 = v0 + size + 1;
+                int v3 = v2 + 1;
+                faces.add(new Face(v0, v1, v2));
+                faces.add(new Face(v2, v1, v3));
+            }
+        }
+        Collections.shuffle(faces, new Random(1));
+        for (Face face : faces) {
+            mesh.appendFace(face);
+        }
+        return mesh;
+    }
+}
@@ -0,0 +1,51 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.Arrays;
+
+import com.ripplargames.meshio.Face;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VertexFetchOptimizerTest {
+    @Test
+    public void testFirstUseOrder() throws MeshIOException {
+        Mesh mesh = new Mesh();
+        for (int vertex = 0; vertex < 5; vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertex, vertex);
+        }
+        mesh.appendFace(3, 1, 4);
+        mesh.appendFace(4, 1, 0);
+        new VertexFetchOptimizer().optimize(mesh);
+        Assert.assertEquals(Arrays.asList(new Face(0, 1, 2), new Face(2, 1, 3)), mesh.faces());
+        Assert.assertArrayEquals(new float[]{3, 1, 4, 0, 2}, mesh.vertexTypeData(VertexType.Position_X).copyArray(), 0.0f);
+    }
+
+    @Test
+    public void testMortonOrder() throws MeshIOException {
+        Mesh mesh = new Mesh();
+        float[][] points = {{1, 1, 1}, {0, 0, 0}, {1, 0, 0}, {0, 1, 0}};
+        for (int vertex = 0; vertex < points.length; vertex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertex, points[vertex][0]);
+            mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, points[vertex][1]);
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, points[vertex][2]);
+        }
+        new VertexFetchOptimizer().optimize(mesh);
+        Assert.assertArrayEquals(new float[]{0, 1, 0, 1}, mesh.vertexTypeData(VertexType.Position_X).copyArray(), 0.0f);
+        Assert.assertArrayEquals(new float[]{0, 0, 1, 1}, mesh.vertexTypeData(VertexType.Position_Y).copyArray(), 0.0f);
+        Assert.assertArrayEquals(new float[]{0, 0, 0, 1}, mesh.vertexTypeData(VertexType.Position_Z).copyArray(), 0.0f);
+    }
+
+    @Test
+    public void testMortonOrderWithShortPositionColumns() throws MeshIOException {
+        Mesh mesh = new Mesh();
+        mesh.adoptVertexTypeData(VertexType.Position_X, new float[]{1, 0}, 2);
+        mesh.adoptVertexTypeData(VertexType.Position_Y, new float[]{1, 0}, 2);
+        mesh.adoptVertexTypeData(VertexType.Position_Z, new float[]{1, 0}, 2);
+        mesh.adoptVertexTypeData(VertexType.Normal_X, new float[]{10, 11, 12, 13}, 4);
+        new VertexFetchOptimizer().optimize(mesh);
+        Assert.assertArrayEquals(new float[]{11, 12, 13, 10}, mesh.vertexTypeData(VertexType.Normal_X).copyArray(), 0.0f);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ripplargames.meshio.operations;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+import com.ripplargames.meshio.Face;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VertexWelderTest {
+    @Test
+    public void testExactWeld() throws MeshIOException {
+        Mesh mesh = createSplitQuad(0);
+        int vertexCount = new VertexWelder().weld(mesh);
+        Assert.assertEquals(4, vertexCount);
+        Assert.assertEquals(4, mesh.vertexCount());
+        Assert.assertEquals(Arrays.asList(new Face(0, 1, 2), new Face(2, 1, 3)), mesh.faces());
+        Assert.assertArrayEquals(new float[]{0, 1, 0, 1}, mesh.vertexTypeData(VertexType.Position_X).copyArray(), 0.0f);
+        Assert.assertArrayEquals(new float[]{0, 0, 1, 1}, mesh.vertexTypeData(VertexType.Position_Y).copyArray(), 0.0f);
+    }
+
+    @Test
+    public void testExactWeldKeepsDifferentNormals() throws MeshIOException {
+        Mesh mesh = createSplitQuad(0);
+        mesh.setVertexTypeDatum(VertexType.Normal_Z, 4, 1);
+        Assert.assertEquals(5, new VertexWelder().weld(mesh));
+        Assert.assertEquals(Arrays.asList(new Face(0, 1, 2), new Face(2, 3, 4)), mesh.faces());
+    }
+
+    @Test
+    public void testToleranceWeld() throws MeshIOException {
+        Mesh mesh = createSplitQuad(0.001f);
+        Assert.assertEquals(6, new VertexWelder().weld(mesh));
+        Map<VertexType, Float> tolerances = new EnumMap<VertexType, Float>(VertexType.class);
+        tolerances.put(VertexType.Position_X, 0.01f);
+        tolerances.put(VertexType.Position_Y, 0.01f);
+        tolerances.put(VertexType.Position_Z, 0.01f);
+        Assert.assertEquals(4, new VertexWelder(tolerances).weld(mesh));
+        Assert.assertEquals(Arrays.asList(new Face(0, 1, 2), new Face(2, 1, 3)), mesh.faces());
+    }
+
+    @Test
+    public void testWeldFacesReferencingVerticesWithoutData() throws MeshIOException {
+        Mesh mesh = createSplitQuad(0);
+        mesh.appendFace(5, 6, 7);
+        Assert.assertEquals(4, new VertexWelder().weld(mesh));
+        Assert.assertEquals(Arrays.asList(new Face(0, 1, 2), new Face(2, 1, 3), new Face(3, 0, 0)), mesh.faces());
+    }
+
+    private static Mesh createSplitQuad(float offset) {
+        float[][] positions = {{0, 0}, {1, 0}, {0, 1}, {0 + offset, 1}, {1, 0 + offset}, {1, 1}};
+        Mesh mesh = new Mesh();
+        for (int vertexIndex = 0; vertexIndex < positions.length; vertexIndex++) {
+            mesh.setVertexTypeDatum(VertexType.Position_X, vertexIndex, positions[vertexIndex][0]);
+            mesh.setVertexTypeDatum(VertexType.Position_Y, vertexIndex, positions[vertexIndex][1]);
+            mesh.setVertexTypeDatum(VertexType.Position_Z, vertexIndex, 0);
+            mesh.setVertexTypeDatum(VertexType.Normal_Z, vertexIndex, 0);
+        }
+        mesh.appendFace(0, 1, 2);
+        mesh.appendFace(3, 4, 5);
+        return mesh;
+    }
+}
@@ -0,0 +1,204 @@
+package com.ripplargames.meshio.spatial;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.util.ResizableIntArray;
+import com.ripplargames.meshio.vertices.VertexType;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MeshBvhTest {
+    private static final int FACE_COUNT = 3000;
+
+    @Test
+    public void testRaycastMatchesLinearScan() throws MeshIOException {
+        Mesh mesh = createTriangleSoup(new Random(1));
+        MeshBvh bvh = new BvhBuilder().build(mesh);
+        MeshBvh singleFaceLeaves = new BvhBuilder(1, 8).build(mesh);
+        MeshBvh[] faceBvhs = createFaceBvhs(mesh);
+        Random random = new Random(2);
+        int hitCount = 0;
+        for (int ray = 0; ray < 500; ray++) {
+            float[] origin = {random.nextFloat() * 20 - 10, random.nextFloat() * 20 - 10, -20};
+            float[] direction = {random.nextFloat() - 0.5f, random.nextFloat() - 0.5f, 1};
+            RayHit expected = linearRaycast(faceBvhs, origin, direction);
+            for (MeshBvh tree : Arrays.asList(bvh, singleFaceLeaves)) {
+                RayHit hit = tree.raycast(origin[0], origin[1], origin[2], direction[0], direction[1], direction[2], Float.MAX_VALUE);
+                if (expected == null) {
+                    Assert.assertNull(hit);
+                } else {
+                    Assert.assertNotNull(hit);
+                    Assert.assertEquals(expected.distance(), hit.distance(), 1e-4f);
+                }
+            }
+            if (expected != null) {
+                hitCount++;
+            }
+        }
+        Assert.assertTrue(hitCount > 0);
+    }
+
+    @Test
+    public void testAxisAlignedRay() throws MeshIOException {
+        Mesh mesh = new Mesh();
+        setPosition(mesh, 0, 0, 0, 1);
+        setPosition(mesh, 1, 1, 0, 1);
+        setPosition(mesh, 2, 0, 1, 1);
+        mesh.appendFace(0, 1, 2);
+        MeshBvh bvh = new BvhBuilder().build(mesh);
+        RayHit hit = bvh.raycast(0, 0, 0, 0, 0, 1, 10);
+        Assert.assertNotNull(hit);
+        Assert.assertEquals(1, hit.distance(), 0);
+        Assert.assertNull(bvh.raycast(0, 0, 0, 0, 0, 1, 0.5f));
+        Assert.assertNull(bvh.raycast(0, 0, 0, 0, 0, -1, 10));
+    }
+
+    @Test
+    public void testTinyTriangle() throws MeshIOException {
+        Mesh mesh = new Mesh();
+        setPosition(mesh, 0, 0, 0, 1e-5f);
+        setPosition(mesh, 1, 1e-5f, 0, 1e-5f);
+        setPosition(mesh, 2, 0, 1e-5f, 1e-5f);
+        mesh.appendFace(0, 1, 2);
+        MeshBvh bvh = new BvhBuilder().build(mesh);
+        RayHit hit = bvh.raycast(2e-6f, 2e-6f, 0, 0, 0, 1, 10);
+        Assert.assertNotNull(hit);
+        Assert.assertEquals(1e-5f, hit.distance(), 1e-9f);
+        Assert.assertNull(bvh.raycast(2e-6f, 2e-6f, 0, 1, 0, 0, 10));
+    }
+
+    @Test
+    public void testClosestPointMatchesLinearScan() throws MeshIOException {
+        Mesh mesh = createTriangleSoup(new Random(3));
+        MeshBvh bvh = new BvhBuilder().build(mesh);
+        MeshBvh[] faceBvhs = createFaceBvhs(mesh);
+        Random random = new Random(4);
+        for (int query = 0; query < 100; query++) {
+            float x = random.nextFloat() * 30 - 15;
+            float y = random.nextFloat() * 30 - 15;
+            float z = random.nextFloat() * 30 - 15;
+            ClosestPoint closest = bvh.closestPoint(x, y, z, Float.MAX_VALUE);
+            Assert.assertNotNull(closest);
+            float expected = Float.MAX_VALUE;
+            for (MeshBvh faceBvh : faceBvhs) {
+                expected = Math.min(expected, faceBvh.closestPoint(x, y, z, Float.MAX_VALUE).distance());
+            }
+            Assert.assertEquals(expected, closest.distance(), 1e-4f);
+        }
+    }
+
+    @Test
+    public void testOverlappingMatchesLinearScan() throws MeshIOException {
+        Mesh mesh = createTriangleSoup(new Random(5));
+        MeshBvh bvh = new BvhBuilder().build(mesh);
+        ResizableIntArray result = new ResizableIntArray();
+        int found = bvh.overlapping(-2, -2, -2, 3, 3, 3, result);
+        int expected = 0;
+        for (int face = 0; face < mesh.faceCount(); face++) {
+            boolean overlaps = true;
+            for (VertexType vertexType : new VertexType[]{VertexType.Position_X, VertexType.Position_Y, VertexType.Position_Z}) {
+                float min = Float.POSITIVE_INFINITY;
+                float max = Float.NEGATIVE_INFINITY;
+                for (int corner = 0; corner < 3; corner++) {
+                    float value = mesh.vertexTypeDatum(vertexType, mesh.faceIndices().getAt(3 * face + corner));
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                }
+                overlaps &= min <= 3 && max >= -2;
+            }
+            if (overlaps) {
+                expected++;
+            }
+        }
+        Assert.assertEquals(expected, found);
+        Assert.assertEquals(expected, result.length());
+    }
+
+    @Test
+    public void testParallelBuild() throws MeshIOException {
+        Random random = new Random(6);
+        Mesh mesh = new Mesh();
+        int faceCount = 50000;
+        for (int vertex = 0; vertex < 3 * faceCount; vertex++) {
+            setPosition(mesh, vertex, random.nextFloat() * 100, random.nextFloat() * 100, random.nextFloat() * 100);
+        }
+        for (int face = 0; face < faceCount; face++) {
+            mesh.appendFace(3 * face, 3 * face + 1, 3 * face + 2);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            MeshBvh parallel = new BvhBuilder().build(mesh, executor);
+            MeshBvh sequential = new BvhBuilder().build(mesh);
+            Assert.assertEquals(sequential.nodeCount(), parallel.nodeCount());
+            for (int ray = 0; ray < 100; ray++) {
+                float x = random.nextFloat() * 100;
+                float y = random.nextFloat() * 100;
+                RayHit expected = sequential.raycast(x, y, -1, 0, 0, 1, Float.MAX_VALUE);
+                RayHit hit = parallel.raycast(x, y, -1, 0, 0, 1, Float.MAX_VALUE);
+                Assert.assertEquals(expected == null, hit == null);
+                if (expected != null) {
+                    Assert.assertEquals(expected.faceIndex(), hit.faceIndex());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static Mesh createTriangleSoup(Random random) {
+        Mesh mesh = new Mesh();
+        for (int face = 0; face < FACE_COUNT; face++) {
+            float cx = random.nextFloat() * 20 - 10;
+            float cy = random.nextFloat() * 20 - 10;
+            float cz = random.nextFloat() * 20 - 10;
+            for (int corner = 0; corner < 3; corner++) {
+                setPosition(mesh, 3 * face + corner, cx + random.nextFloat() - 0.5f, cy + random.nextFloat() - 0.5f, cz + random.nextFloat() - 0.5f);
+            }
+            mesh.appendFace(3 * face, 3 * face + 1, 3 * face + 2);
+        }
+        return mesh;
+    }
+
+    private static Mesh singleFace(Mesh mesh, int face) {
+        Mesh faceMesh = new Mesh();
+        for (int corner = 0; corner < 3; corner++) {
+            int vertex = mesh.faceIndices().getAt(3 * face + corner);
+            setPosition(faceMesh, corner,
+                    mesh.vertexTypeDatum(VertexType.Position_X, vertex),
+                    mesh.vertexTypeDatum(VertexType.Position_Y, vertex),
+                    mesh.vertexTypeDatum(VertexType.Position_Z, vertex));
+        }
+        faceMesh.appendFace(0, 1, 2);
+        return faceMesh;
+    }
+
+    private static MeshBvh[] createFaceBvhs(Mesh mesh) throws MeshIOException {
+        MeshBvh[] faceBvhs = new MeshBvh[mesh.faceCount()];
+        for (int face = 0; face < faceBvhs.length; face++) {
+            faceBvhs[face] = new BvhBuilder().build(singleFace(mesh, face));
+        }
+        return faceBvhs;
+    }
+
+    private static RayHit linearRaycast(MeshBvh[] faceBvhs, float[] origin, float[] direction) {
+        RayHit closest = null;
+        for (MeshBvh faceBvh : faceBvhs) {
+            RayHit hit = faceBvh.raycast(origin[0], origin[1], origin[2], direction[0], direction[1], direction[2], Float.MAX_VALUE);
+            if (hit != null && (closest == null || hit.distance() < closest.distance())) {
+                closest = hit;
+            }
+        }
+        return closest;
+    }
+
+    private static void setPosition(Mesh mesh, int vertex, float x, float y, float z) {
+        mesh.setVertexTypeDatum(VertexType.Position_X, vertex, x);
+        mesh.setVertexTypeDatum(VertexType.Position_Y, vertex, y);
+        mesh.setVertexTypeDatum(VertexType.Position_Z, vertex, z);
+    }
+}
@@ -2,6 +2,7 @@ package com.ripplargames.meshio.util;
 
 import java.nio.ByteBuffer;
 
+import com.ripplargames.meshio.MeshIOException;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -35,4 +36,14 @@ public class BufferUtilTest {
         Assert.assertEquals(2, copy.getInt());
         Assert.assertEquals(0, copy.getInt());
     }
+
+    @Test
+    public void testByteCount() throws MeshIOException {
+        Assert.assertEquals(Integer.MAX_VALUE - 1, BufferUtil.byteCount((Integer.MAX_VALUE - 1) / 2, 2));
+    }
+
+    @Test(expected = MeshIOException.class)
+    public void testByteCountOverflow() throws MeshIOException {
+        BufferUtil.byteCount(100000000, 24);
+    }
 }
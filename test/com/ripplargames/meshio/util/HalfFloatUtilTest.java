@@ -0,0 +1,39 @@
+package com.ripplargames.meshio.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HalfFloatUtilTest {
+    @Test
+    public void testKnownValues() {
+        Assert.assertEquals(0x0000, HalfFloatUtil.fromFloat(0f));
+        Assert.assertEquals((short) 0x8000, HalfFloatUtil.fromFloat(-0f));
+        Assert.assertEquals(0x3C00, HalfFloatUtil.fromFloat(1f));
+        Assert.assertEquals((short) 0xC000, HalfFloatUtil.fromFloat(-2f));
+        Assert.assertEquals(0x7BFF, HalfFloatUtil.fromFloat(65504f));
+        Assert.assertEquals(0x7C00, HalfFloatUtil.fromFloat(65520f));
+        Assert.assertEquals(0x7C00, HalfFloatUtil.fromFloat(Float.POSITIVE_INFINITY));
+        Assert.assertEquals(0x0001, HalfFloatUtil.fromFloat(5.9604645E-8f));
+        Assert.assertEquals(0x0400, HalfFloatUtil.fromFloat(6.1035156E-5f));
+        Assert.assertTrue(Float.isNaN(HalfFloatUtil.toFloat(HalfFloatUtil.fromFloat(Float.NaN))));
+    }
+
+    @Test
+    public void testRoundsToNearestEven() {
+        float ulp = 1f / 1024;
+        Assert.assertEquals(0x3C00, HalfFloatUtil.fromFloat(1 + ulp / 2));
+        Assert.assertEquals(0x3C02, HalfFloatUtil.fromFloat(1 + 3 * ulp / 2));
+        Assert.assertEquals(0x3C01, HalfFloatUtil.fromFloat(1 + 0.6f * ulp));
+    }
+
+    @Test
+    public void testEveryHalfRoundTrips() {
+        for (int bits = 0; bits <= 0xFFFF; bits++) {
+            short half = (short) bits;
+            float value = HalfFloatUtil.toFloat(half);
+            if (!Float.isNaN(value)) {
+                Assert.assertEquals(half, HalfFloatUtil.fromFloat(value));
+            }
+        }
+    }
+}
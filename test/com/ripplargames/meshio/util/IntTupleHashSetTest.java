@@ -0,0 +1,33 @@
+package com.ripplargames.meshio.util;
+
+import com.ripplargames.meshio.MeshIOException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntTupleHashSetTest {
+    @Test
+    public void testPairs() throws MeshIOException {
+        ResizableIntArray tuples = new ResizableIntArray();
+        IntTupleHashSet set = new IntTupleHashSet(tuples, 2, 0);
+        Assert.assertTrue(set.add(0, 1));
+        Assert.assertTrue(set.add(1, 0));
+        Assert.assertFalse(set.add(0, 1));
+        Assert.assertEquals(2, set.size());
+        Assert.assertArrayEquals(new int[]{0, 1, 1, 0}, tuples.copyArray());
+    }
+
+    @Test
+    public void testTriplesAcrossRehash() throws MeshIOException {
+        ResizableIntArray tuples = new ResizableIntArray();
+        IntTupleHashSet set = new IntTupleHashSet(tuples, 3, 0);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(set.add(i, i + 1, i + 2));
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertFalse(set.add(i, i + 1, i + 2));
+        }
+        Assert.assertEquals(1000, set.size());
+        Assert.assertEquals(3000, tuples.length());
+        Assert.assertEquals(999, tuples.getAt(2997));
+    }
+}
@@ -0,0 +1,184 @@
+package com.ripplargames.meshio.vertices;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Random;
+
+import com.ripplargames.meshio.Face;
+import com.ripplargames.meshio.Mesh;
+import com.ripplargames.meshio.MeshIOException;
+import com.ripplargames.meshio.TestUtil;
+import com.ripplargames.meshio.util.BufferUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VertexInterleaverTest {
+    private static final int VERTEX_COUNT = 1000;
+
+    @Test
+    public void testFloatFormat() throws MeshIOException {
+        VertexFormat vertexFormat = new VertexFormat(
+                new VertexFormatPart(VertexType.Position_X, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Position_Y, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Position_Z, VertexDataType.Float));
+        Assert.assertTrue(vertexFormat.interleaver() instanceof FloatVertexInterleaver);
+        test(vertexFormat);
+    }
+
+    @Test
+    public void testEncodedFormat() throws MeshIOException {
+        VertexFormat vertexFormat = new VertexFormat(
+                new VertexFormatPart(VertexType.Position_X, VertexDataType.Float),
+                new VertexFormatPart(VertexType.Normal_X, VertexDataType.ShortSigned),
+                new VertexFormatPart(VertexType.Color_R, VertexDataType.ByteUnsigned));
+        Assert.assertTrue(vertexFormat.interleaver() instanceof EncodedVertexInterleaver);
+        test(vertexFormat);
+    }
+
+    private static VertexFormat createPackedFormat() {
+        return new VertexFormat(
+                new VertexFormatPart(VertexType.Position_X, VertexDataType.HalfFloat),
+                new PackedVertexFormatPart(PackedVertexDataType.Int2_10_10_10_RevSigned, VertexType.Tangent_X, VertexType.Tangent_Y, VertexType.Tangent_Z, VertexType.Tangent_W),
+                new PackedVertexFormatPart(PackedVertexDataType.Octahedral16, VertexType.Normal_X, VertexType.Normal_Y, VertexType.Normal_Z),
+                new PackedVertexFormatPart(PackedVertexDataType.Rgba8, VertexType.Color_R, VertexType.Color_G, VertexType.Color_B),
+                new PackedVertexFormatPart(PackedVertexDataType.Octahedral8, VertexType.ImageCoord_X, VertexType.ImageCoord_Y, VertexType.Position_Y));
+    }
+
+    @Test
+    public void testPackedFormat() throws MeshIOException {
+        VertexFormat vertexFormat = createPackedFormat();
+        Assert.assertEquals(2 + 4 + 4 + 4 + 2, vertexFormat.byteCount());
+        Assert.assertEquals(14, vertexFormat.vertexTypes().size());
+        Mesh mesh = new Mesh();
+        setVertex(mesh, VertexType.Position_X, 0.5f, VertexType.Tangent_X, 1f, VertexType.Tangent_Y, -1f, VertexType.Tangent_Z, 0f, VertexType.Tangent_W, -1f,
+                VertexType.Normal_X, 0f, VertexType.Normal_Y, 0f, VertexType.Normal_Z, -1f, VertexType.Color_R, 1f, VertexType.Color_G, 0.5f, VertexType.Color_B, 2f,
+                VertexType.ImageCoord_X, 3f, VertexType.ImageCoord_Y, 0f, VertexType.Position_Y, 1f);
+        ByteBuffer buffer = mesh.vertices(vertexFormat);
+        Assert.assertEquals(0x3800, buffer.getShort(0));
+        Assert.assertEquals(0x1FF | (0x201 << 10) | (0x3 << 30), buffer.getInt(2));
+        Assert.assertEquals(0x7FFF, buffer.getShort(6));
+        Assert.assertEquals(0x7FFF, buffer.getShort(8));
+        Assert.assertEquals((byte) 0xFF, buffer.get(10));
+        Assert.assertEquals((byte) 0x80, buffer.get(11));
+        Assert.assertEquals((byte) 0xFF, buffer.get(12));
+        Assert.assertEquals(0, buffer.get(13));
+        Assert.assertEquals(95, buffer.get(14));
+        Assert.assertEquals(0, buffer.get(15));
+        Assert.assertEquals(vertexFormat, createPackedFormat());
+        Assert.assertEquals(vertexFormat.hashCode(), createPackedFormat().hashCode());
+    }
+
+    @Test
+    public void testOctahedralDirections() throws MeshIOException {
+        VertexFormat vertexFormat = new VertexFormat(new PackedVertexFormatPart(PackedVertexDataType.Octahedral16, VertexType.Normal_X, VertexType.Normal_Y, VertexType.Normal_Z));
+        Random random = new Random(7);
+        Mesh mesh = new Mesh();
+        for (int vertexIndex = 0; vertexIndex < VERTEX_COUNT; vertexIndex++) {
+            float x = random.nextFloat() * 2 - 1;
+            float y = random.nextFloat() * 2 - 1;
+            float z = random.nextFloat() * 2 - 1;
+            float length = (float) Math.sqrt(x * x + y * y + z * z);
+            mesh.setVertexTypeDatum(VertexType.Normal_X, vertexIndex, x / length);
+            mesh.setVertexTypeDatum(VertexType.Normal_Y, vertexIndex, y / length);
+            mesh.setVertexTypeDatum(VertexType.Normal_Z, vertexIndex, z / length);
+        }
+        ByteBuffer buffer = mesh.vertices(vertexFormat);
+        for (int vertexIndex = 0; vertexIndex < VERTEX_COUNT; vertexIndex++) {
+            float u = buffer.getShort(4 * vertexIndex) / 32767f;
+            float v = buffer.getShort(4 * vertexIndex + 2) / 32767f;
+            float z = 1 - Math.abs(u) - Math.abs(v);
+            float x = (z >= 0) ? u : (1 - Math.abs(v)) * Math.signum(u);
+            float y = (z >= 0) ? v : (1 - Math.abs(u)) * Math.signum(v);
+            float length = (float) Math.sqrt(x * x + y * y + z * z);
+            Assert.assertEquals(mesh.vertexTypeDatum(VertexType.Normal_X, vertexIndex), x / length, 1e-3f);
+            Assert.assertEquals(mesh.vertexTypeDatum(VertexType.Normal_Y, vertexIndex), y / length, 1e-3f);
+            Assert.assertEquals(mesh.vertexTypeDatum(VertexType.Normal_Z, vertexIndex), z / length, 1e-3f);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPackedVertexTypeUsedTwice() {
+        new VertexFormat(
+                new VertexFormatPart(VertexType.Normal_X, VertexDataType.Float),
+                new PackedVertexFormatPart(PackedVertexDataType.Octahedral8, VertexType.Normal_X, VertexType.Normal_Y, VertexType.Normal_Z));
+    }
+
+    private static void setVertex(Mesh mesh, Object... typesAndValues) {
+        for (int index = 0; index < typesAndValues.length; index += 2) {
+            mesh.setVertexTypeDatum((VertexType) typesAndValues[index], 0, (Float) typesAndValues[index + 1]);
+        }
+    }
+
+    @Test
+    public void testRandomFormats() throws MeshIOException {
+        for (int i = 0; i < 20; i++) {
+            test(TestUtil.randomVertexFormat());
+        }
+    }
+
+    @Test
+    public void testEncodingMatchesSetDatum() throws MeshIOException {
+        Random random = new Random(1);
+        float[] edgeCases = {0, -0f, 1, -1, 0.5f, -0.5f, 127.5f, -128.5f, 255.5f, 32767.5f, -32768.5f, 32770.0f, 65535.5f};
+        for (VertexDataType dataType : VertexDataType.values()) {
+            VertexFormat vertexFormat = new VertexFormat(new VertexFormatPart(VertexType.Position_X, dataType));
+            double min = (dataType.endecoder() == null) ? -1 : dataType.endecoder().min();
+            double max = (dataType.endecoder() == null) ? 1 : dataType.endecoder().max();
+            Mesh mesh = new Mesh();
+            for (int vertexIndex = 0; vertexIndex < VERTEX_COUNT; vertexIndex++) {
+                float datum = (vertexIndex < edgeCases.length) ? edgeCases[vertexIndex] : (float) (min + random.nextDouble() * (max - min));
+                mesh.setVertexTypeDatum(VertexType.Position_X, vertexIndex, datum);
+            }
+            ByteBuffer actual = mesh.vertices(vertexFormat);
+            for (int vertexIndex = 0; vertexIndex < VERTEX_COUNT; vertexIndex++) {
+                float datum = mesh.vertexTypeDatum(VertexType.Position_X, vertexIndex);
+                int index = vertexIndex * vertexFormat.byteCount();
+                ByteBuffer expected = BufferUtil.createByteBuffer(dataType.byteCount());
+                dataType.setDatum(expected, 0, datum);
+                for (int byteIndex = 0; byteIndex < dataType.byteCount(); byteIndex++) {
+                    Assert.assertEquals(expected.get(byteIndex), actual.get(index + byteIndex));
+                }
+                switch (dataType.byteCount()) {
+                    case 1:
+                        Assert.assertEquals(dataType.endecoder().encodeAsByte(datum), actual.get(index));
+                        break;
+                    case 4:
+                        if (dataType.endecoder() != null) {
+                            Assert.assertEquals(dataType.endecoder().encodeAsInt(datum), actual.getInt(index));
+                        }
+                        break;
+                    default:
+                        if (dataType.endecoder() != null) {
+                            Assert.assertEquals(dataType.endecoder().encodeAsShort(datum), actual.getShort(index));
+                        }
+                }
+            }
+        }
+    }
+
+    private void test(VertexFormat vertexFormat) throws MeshIOException {
+        Mesh mesh = createRandomMesh();
+        ByteBuffer actual = mesh.vertices(vertexFormat);
+        ByteBuffer expected = BufferUtil.createByteBuffer(vertexFormat.byteCount() * mesh.vertexCount());
+        for (Map.Entry<VertexType, AlignedVertexFormatPart> entry : vertexFormat.alignedParts()) {
+            AlignedVertexFormatPart part = entry.getValue();
+            for (int vertexIndex = 0; vertexIndex < mesh.vertexCount(); vertexIndex++) {
+                float datum = mesh.vertexTypeDatum(entry.getKey(), vertexIndex);
+                part.dataType().setDatum(expected, vertexIndex * vertexFormat.byteCount() + part.offset(), datum);
+            }
+        }
+        Assert.assertEquals(expected, actual);
+    }
+
+    private Mesh createRandomMesh() {
+        Random random = new Random();
+        Mesh mesh = new Mesh();
+        mesh.appendFace(new Face(0, 1, 2));
+        for (VertexType vertexType : VertexType.values()) {
+            for (int vertexIndex = 0; vertexIndex < VERTEX_COUNT; vertexIndex++) {
+                mesh.setVertexTypeDatum(vertexType, vertexIndex, random.nextFloat() * 2 - 1);
+            }
+        }
+        return mesh;
+    }
+}